@@ -1,5 +1,9 @@
 package com.noteapp;
 
+import com.noteapp.model.NoteManager;
+import com.noteapp.search.SearchIndexStore;
+import com.noteapp.server.NoteServer;
+import com.noteapp.storage.FileStorage;
 import com.noteapp.ui.MainWindow;
 import com.noteapp.service.NoteService;
 import com.noteapp.repository.FileNoteRepository;
@@ -9,18 +13,26 @@ import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import java.io.File;
+import java.io.IOException;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
  * Main entry point for the Note Taking Application
- * Initializes the application components and launches the GUI
+ * Initializes the application components and launches the GUI,
+ * or the local HTTP note service when started with {@code --headless}
  */
 public class Main {
     
     private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+    private static final int DEFAULT_SERVER_PORT = 8765;
     
     public static void main(String[] args) {
+        if (hasFlag(args, "--headless")) {
+            startHeadless(args);
+            return;
+        }
+        
         try {
             // Set system look and feel for better native appearance
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeel());
@@ -78,4 +90,46 @@ public class Main {
             throw new RuntimeException("Failed to initialize application", e);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Serves the note store over a local HTTP endpoint instead of starting the GUI.
+     * Accepts {@code --port <n>} and {@code --data <dir>}.
+     */
+    private static void startHeadless(String[] args) {
+        int port = Integer.parseInt(optionValue(args, "--port", String.valueOf(DEFAULT_SERVER_PORT)));
+        String dataDir = optionValue(args, "--data", null);
+        
+        FileStorage fileStorage = dataDir != null ? new FileStorage(dataDir) : new FileStorage();
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(fileStorage.loadNotes());
+        // Loads the persisted search index, or rebuilds it in the background
+        SearchIndexStore searchIndex = SearchIndexStore.open(fileStorage, noteManager);
+        
+        NoteServer server = new NoteServer(noteManager, fileStorage, searchIndex, port);
+        try {
+            server.start();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to start headless note server", e);
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "note-server-shutdown"));
+    }
+    
+    private static boolean hasFlag(String[] args, String flag) {
+        for (String arg : args) {
+            if (arg.equals(flag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String optionValue(String[] args, String option, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(option)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
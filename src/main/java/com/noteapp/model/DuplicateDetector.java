@@ -0,0 +1,201 @@
+package com.noteapp.model;
+
+import com.noteapp.utils.MinHash;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Near-duplicate detection behind {@link NoteManager#findNearDuplicates(double)}. Each
+ * note's {@link MinHash} signature is computed when its content is added or changed and
+ * kept in one flat array, together with the hashes of the signature's
+ * {@value #BANDS} bands of {@value #ROWS} values. Notes sharing a band hash are candidate
+ * pairs (locality-sensitive hashing); finding them takes one sort per band, so a report
+ * costs O(n log n) rather than comparing every pair of notes. Candidates are then checked
+ * against the threshold with their full signatures.
+ *
+ * <p>With these bands, a pair with similarity 0.8 becomes a candidate 95% of the time and
+ * one with 0.9 almost always, while pairs below 0.5 rarely do.
+ */
+class DuplicateDetector implements NoteChangeListener {
+    static final int BANDS = 16;
+    static final int ROWS = MinHash.SIZE / BANDS;
+
+    /** Earlier members of a bucket each note is checked against, bounding the work on large buckets */
+    private static final int MAX_CHECKS = 8;
+    private static final Comparator<Note> OLDEST_FIRST = Comparator
+            .comparing(DuplicateDetector::created, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Note::getId);
+
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<Note> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private short[] signatures = new short[64 * MinHash.SIZE];
+    private int[] bandHashes = new int[64 * BANDS];
+    private boolean[] signed = new boolean[64];
+
+    @Override
+    public void noteAdded(Note note) {
+        Integer existing = docIds.get(note.getId());
+        if (existing != null) {
+            noteRemoved(docs.get(existing));
+        }
+        int doc;
+        if (freeDocIds.isEmpty()) {
+            doc = docs.size();
+            docs.add(note);
+            ensureCapacity(docs.size());
+        } else {
+            doc = freeDocIds.pop();
+            docs.set(doc, note);
+        }
+        docIds.put(note.getId(), doc);
+        sign(doc, note.getContent());
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        Integer doc = docIds.get(current.getId());
+        if (doc == null) {
+            noteAdded(current);
+            return;
+        }
+        docs.set(doc, current);
+        if (!previous.getContent().equals(current.getContent())) {
+            sign(doc, current.getContent());
+        }
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        Integer doc = docIds.remove(note.getId());
+        if (doc == null) {
+            return;
+        }
+        docs.set(doc, null);
+        signed[doc] = false;
+        freeDocIds.push(doc);
+    }
+
+    /**
+     * Groups the notes whose estimated similarity reaches a threshold
+     * @param threshold The minimum similarity of a pair, between 0 and 1
+     * @return The groups, largest first
+     */
+    List<DuplicateGroup> groups(double threshold) {
+        int n = docs.size();
+        int[] parent = new int[n];
+        double[] lowest = new double[n];
+        for (int doc = 0; doc < n; doc++) {
+            parent[doc] = doc;
+            lowest[doc] = 1.0;
+        }
+
+        // Band hash in the high half, document number in the low half: sorting puts each
+        // bucket in one run
+        long[] keys = new long[n];
+        for (int band = 0; band < BANDS; band++) {
+            int count = 0;
+            for (int doc = 0; doc < n; doc++) {
+                if (signed[doc]) {
+                    keys[count++] = ((long) bandHashes[doc * BANDS + band] << 32) | doc;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            int start = 0;
+            for (int i = 1; i <= count; i++) {
+                if (i < count && keys[i] >>> 32 == keys[start] >>> 32) {
+                    continue;
+                }
+                if (i - start > 1) {
+                    checkBucket(keys, start, i, threshold, parent, lowest);
+                }
+                start = i;
+            }
+        }
+
+        Map<Integer, List<Note>> members = new HashMap<>();
+        for (int doc = 0; doc < n; doc++) {
+            if (signed[doc] && find(parent, doc) != doc) {
+                members.computeIfAbsent(find(parent, doc), root -> new ArrayList<>()).add(docs.get(doc));
+            }
+        }
+        List<DuplicateGroup> groups = new ArrayList<>(members.size());
+        for (Map.Entry<Integer, List<Note>> entry : members.entrySet()) {
+            List<Note> notes = entry.getValue();
+            notes.add(docs.get(entry.getKey()));
+            notes.sort(OLDEST_FIRST);
+            groups.add(new DuplicateGroup(notes, lowest[entry.getKey()]));
+        }
+        groups.sort(Comparator.comparingInt(DuplicateGroup::size).reversed()
+                .thenComparing(Comparator.comparingDouble(DuplicateGroup::getSimilarity).reversed())
+                .thenComparing(group -> group.getNotes().get(0).getId()));
+        return groups;
+    }
+
+    /**
+     * Checks each member of a bucket against a few earlier members not yet in its group.
+     * Band hashes of unrelated notes can collide, so sharing a bucket is not enough.
+     */
+    private void checkBucket(long[] keys, int start, int end, double threshold, int[] parent, double[] lowest) {
+        for (int i = start + 1; i < end; i++) {
+            int doc = (int) keys[i];
+            int checks = 0;
+            for (int j = i - 1; j >= start && checks < MAX_CHECKS; j--) {
+                int other = (int) keys[j];
+                int a = find(parent, doc);
+                int b = find(parent, other);
+                if (a == b) {
+                    break;
+                }
+                checks++;
+                double similarity = MinHash.similarity(signatures, doc * MinHash.SIZE,
+                        signatures, other * MinHash.SIZE);
+                if (similarity >= threshold) {
+                    parent[b] = a;
+                    lowest[a] = Math.min(similarity, Math.min(lowest[a], lowest[b]));
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int find(int[] parent, int doc) {
+        while (parent[doc] != doc) {
+            parent[doc] = parent[parent[doc]];
+            doc = parent[doc];
+        }
+        return doc;
+    }
+
+    private void sign(int doc, String content) {
+        signed[doc] = MinHash.signature(content, signatures, doc * MinHash.SIZE);
+        if (signed[doc]) {
+            for (int band = 0; band < BANDS; band++) {
+                int from = doc * MinHash.SIZE + band * ROWS;
+                bandHashes[doc * BANDS + band] = (int) MinHash.hash(signatures, from, from + ROWS);
+            }
+        }
+    }
+
+    private void ensureCapacity(int docCount) {
+        if (docCount <= signed.length) {
+            return;
+        }
+        int capacity = Math.max(docCount, signed.length * 2);
+        signatures = Arrays.copyOf(signatures, capacity * MinHash.SIZE);
+        bandHashes = Arrays.copyOf(bandHashes, capacity * BANDS);
+        signed = Arrays.copyOf(signed, capacity);
+    }
+
+    private static LocalDateTime created(Note note) {
+        return note.getCreationDate();
+    }
+}
@@ -0,0 +1,47 @@
+package com.noteapp.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Notes found to be near-duplicates of each other by
+ * {@link NoteManager#findNearDuplicates(double)}
+ */
+public class DuplicateGroup {
+    private final List<Note> notes;
+    private final double similarity;
+
+    DuplicateGroup(List<Note> notes, double similarity) {
+        this.notes = Collections.unmodifiableList(notes);
+        this.similarity = similarity;
+    }
+
+    /**
+     * Gets the notes of the group, oldest first
+     * @return The notes, at least two
+     */
+    public List<Note> getNotes() {
+        return notes;
+    }
+
+    /**
+     * Gets the lowest estimated similarity among the pairs that joined the group
+     * @return The estimated Jaccard similarity of the notes' word shingles, between 0 and 1
+     */
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    /**
+     * Gets the number of notes in the group
+     * @return The note count, at least two
+     */
+    public int size() {
+        return notes.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DuplicateGroup{notes=%d, similarity=%.2f}", notes.size(), similarity);
+    }
+}
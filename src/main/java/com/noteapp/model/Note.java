@@ -2,8 +2,13 @@ package com.noteapp.model;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Note data model class representing a single note in the application.
@@ -15,6 +20,12 @@ public class Note {
     private String content;
     private LocalDateTime creationDate;
     private LocalDateTime modificationDate;
+    private String category;
+    private boolean pinned;
+    private boolean archived;
+    private Set<String> tags = new LinkedHashSet<>();
+    /** Produces the content on first access while {@code content} is null */
+    private Supplier<String> deferredContent;
 
     /**
      * Default constructor that initializes a new note with current timestamp.
@@ -39,6 +50,18 @@ public class Note {
         this.content = content != null ? content : "";
     }
 
+    /**
+     * Constructor with title, content and category parameters.
+     * 
+     * @param title The title of the note
+     * @param content The content of the note
+     * @param category The category of the note, or null if uncategorized
+     */
+    public Note(String title, String content, String category) {
+        this(title, content);
+        this.category = category;
+    }
+
     /**
      * Full constructor with all parameters.
      * 
@@ -56,6 +79,22 @@ public class Note {
         this.modificationDate = modificationDate != null ? modificationDate : LocalDateTime.now();
     }
 
+    /**
+     * Copy constructor. The copy shares no mutable state with the original,
+     * so it can be kept as a snapshot of the note before a modification.
+     * 
+     * @param other The note to copy
+     */
+    public Note(Note other) {
+        this(other.id, other.title, other.content, other.creationDate, other.modificationDate);
+        this.category = other.category;
+        this.pinned = other.pinned;
+        this.archived = other.archived;
+        this.tags = new LinkedHashSet<>(other.tags);
+        this.content = other.content;
+        this.deferredContent = other.deferredContent;
+    }
+
     /**
      * Gets the unique identifier of the note.
      * 
@@ -99,6 +138,9 @@ public class Note {
      * @return The note content
      */
     public String getContent() {
+        if (content == null) {
+            content = deferredContent.get();
+        }
         return content;
     }
 
@@ -109,9 +151,34 @@ public class Note {
      */
     public void setContent(String content) {
         this.content = content != null ? content : "";
+        this.deferredContent = null;
         this.modificationDate = LocalDateTime.now();
     }
 
+    /**
+     * Sets content that is produced only when first read, such as a body kept
+     * compressed by storage. Does not change the modification date.
+     * 
+     * @param source Produces the content; called at most once per materialization
+     */
+    public void deferContent(Supplier<String> source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Content source cannot be null");
+        }
+        this.content = null;
+        this.deferredContent = source;
+    }
+
+    /**
+     * Gets the source of deferred content. It stays attached after the content has been
+     * read, until the content is replaced, so storage can write it back unchanged.
+     * 
+     * @return The content source, or null if the content was set directly
+     */
+    public Supplier<String> deferredContent() {
+        return deferredContent;
+    }
+
     /**
      * Gets the creation date of the note.
      * 
@@ -142,4 +209,89 @@ public class Note {
     /**
      * Sets the modification date of the note.
      * 
-     * @param modificationDate The modification timestamp to set
\ No newline at end of file
+     * @param modificationDate The modification timestamp to set
+     */
+    public void setModificationDate(LocalDateTime modificationDate) {
+        this.modificationDate = modificationDate;
+    }
+
+    /**
+     * Gets the category of the note.
+     * 
+     * @return The note category, or null if uncategorized
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Sets the category of the note.
+     * 
+     * @param category The category to set, or null to clear it
+     */
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    /**
+     * Checks whether the note is pinned to the top of the list.
+     * 
+     * @return true if pinned
+     */
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    /**
+     * Sets whether the note is pinned.
+     * 
+     * @param pinned true to pin the note
+     */
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
+    /**
+     * Checks whether the note is archived.
+     * 
+     * @return true if archived
+     */
+    public boolean isArchived() {
+        return archived;
+    }
+
+    /**
+     * Sets whether the note is archived.
+     * 
+     * @param archived true to archive the note
+     */
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
+    /**
+     * Gets the tags of the note.
+     * 
+     * @return A read-only view of the tags, in the order they were added
+     */
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(tags);
+    }
+
+    /**
+     * Replaces the tags of the note. Tags are trimmed; blank ones are dropped.
+     * 
+     * @param tags The tags to set, or null to clear them
+     */
+    public void setTags(Collection<String> tags) {
+        Set<String> cleaned = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.trim().isEmpty()) {
+                    cleaned.add(tag.trim());
+                }
+            }
+        }
+        this.tags = cleaned;
+    }
+}
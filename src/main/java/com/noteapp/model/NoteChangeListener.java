@@ -0,0 +1,28 @@
+package com.noteapp.model;
+
+/**
+ * Receives notifications about mutations made through {@link NoteManager}.
+ * Used to keep secondary structures such as indexes in step with the notes.
+ * Notes modified directly through their setters are not reported.
+ */
+public interface NoteChangeListener {
+
+    /**
+     * Called after a note has been added
+     * @param note The added note
+     */
+    void noteAdded(Note note);
+
+    /**
+     * Called after a note has been modified
+     * @param previous A snapshot of the note taken before the modification
+     * @param current The modified note
+     */
+    void noteUpdated(Note previous, Note current);
+
+    /**
+     * Called after a note has been removed
+     * @param note The removed note
+     */
+    void noteRemoved(Note note);
+}
@@ -1,16 +1,46 @@
 package com.noteapp.model;
 
+import com.noteapp.utils.TopK;
+
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class NoteManager {
+    /** Most recently modified first, ties broken by id so that cursors are stable */
+    private static final Comparator<Note> RECENT_FIRST = Comparator
+            .comparing(NoteManager::recency, Comparator.reverseOrder())
+            .thenComparing(Note::getId);
+    
     private List<Note> notes;
     private int nextId;
+    private final List<NoteChangeListener> listeners;
+    private DuplicateDetector duplicateDetector;
     
     public NoteManager() {
         this.notes = new ArrayList<>();
         this.nextId = 1;
+        this.listeners = new ArrayList<>();
+    }
+    
+    /**
+     * Registers a listener for note mutations made through this manager
+     * @param listener The listener to add
+     */
+    public void addChangeListener(NoteChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+    
+    /**
+     * Unregisters a previously added listener
+     * @param listener The listener to remove
+     */
+    public void removeChangeListener(NoteChangeListener listener) {
+        listeners.remove(listener);
     }
     
     /**
@@ -26,6 +56,7 @@ public class NoteManager {
         
         Note note = new Note(nextId++, title.trim(), content != null ? content.trim() : "");
         notes.add(note);
+        fireNoteAdded(note);
         return note;
     }
     
@@ -49,6 +80,60 @@ public class NoteManager {
         return new ArrayList<>(notes);
     }
     
+    /**
+     * Gets a read-only live view of all notes, in insertion order.
+     * Unlike getAllNotes() this does not copy; it must not be iterated
+     * while the manager is being modified.
+     * @return An unmodifiable view of the managed notes
+     */
+    public List<Note> getNotesView() {
+        return Collections.unmodifiableList(notes);
+    }
+    
+    /**
+     * Gets the most recently modified notes using bounded-heap selection,
+     * without sorting or copying the whole collection
+     * @param count The maximum number of notes to return
+     * @return Up to count notes, most recently modified first
+     */
+    public List<Note> getRecentNotes(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        return Collections.unmodifiableList(TopK.select(notes, count, RECENT_FIRST));
+    }
+    
+    /**
+     * Gets one page of notes ordered by recency (most recently modified first).
+     * Each call scans the notes once but allocates only in proportion to the page size.
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param pageSize The maximum number of notes on the page
+     * @return The page and the cursor for the next one
+     */
+    public NotePage getNotesPage(String cursor, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        
+        NotePage.Cursor after = cursor != null ? NotePage.decodeCursor(cursor) : null;
+        // One extra note tells us whether another page follows; saturate so that
+        // Integer.MAX_VALUE means "everything" rather than overflowing
+        TopK<Note> topK = new TopK<>((int) Math.min((long) pageSize + 1, Integer.MAX_VALUE), RECENT_FIRST);
+        for (Note note : notes) {
+            if (after == null || isAfter(note, after)) {
+                topK.offer(note);
+            }
+        }
+        
+        List<Note> page = topK.toList();
+        if (page.size() <= pageSize) {
+            return new NotePage(page, null);
+        }
+        page.remove(pageSize);
+        Note last = page.get(pageSize - 1);
+        return new NotePage(page, NotePage.encodeCursor(recency(last), last.getId()));
+    }
+    
     /**
      * Updates an existing note
      * @param id The ID of the note to update
@@ -66,21 +151,215 @@ public class NoteManager {
             throw new IllegalArgumentException("Note title cannot be null or empty");
         }
         
+        Note previous = new Note(note);
         note.setTitle(title.trim());
         note.setContent(content != null ? content.trim() : "");
         note.setLastModified(LocalDateTime.now());
+        fireNoteUpdated(previous, note);
         return true;
     }
     
+    /**
+     * Changes the category of an existing note
+     * @param noteId The ID of the note to update
+     * @param category The new category, or null to clear it
+     * @return true if the note was updated, false if not found
+     */
+    public boolean updateCategory(String noteId, String category) {
+        Note note = findNote(noteId);
+        if (note == null) {
+            return false;
+        }
+        
+        Note previous = new Note(note);
+        note.setCategory(category != null && !category.trim().isEmpty() ? category.trim() : null);
+        note.setModificationDate(LocalDateTime.now());
+        fireNoteUpdated(previous, note);
+        return true;
+    }
+    
+    /**
+     * Applies a transaction's mutations, all or none. Every mutation is validated first,
+     * against the notes as the earlier mutations of the transaction would leave them;
+     * if any is invalid nothing is changed. Listeners are notified of each mutation as
+     * it is applied.
+     * @param transaction The staged mutations
+     * @return The notes created by the transaction, in the order they were staged
+     * @throws IllegalArgumentException if any mutation is invalid, listing every problem
+     */
+    public List<Note> commit(NoteTransaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+
+        List<String> problems = validate(transaction);
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Transaction rejected: " + String.join("; ", problems));
+        }
+
+        List<Note> created = new ArrayList<>();
+        for (NoteTransaction.Operation operation : transaction.getOperations()) {
+            switch (operation.kind) {
+                case CREATE:
+                    created.add(createNote(operation.title, operation.content));
+                    break;
+                case UPDATE:
+                    Note note = findNote(operation.noteId);
+                    Note previous = new Note(note);
+                    note.setTitle(operation.title.trim());
+                    note.setContent(operation.content != null ? operation.content.trim() : "");
+                    note.setModificationDate(LocalDateTime.now());
+                    fireNoteUpdated(previous, note);
+                    break;
+                case CATEGORY:
+                    updateCategory(operation.noteId, operation.category);
+                    break;
+                case DELETE:
+                    removeNote(operation.noteId);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation.kind);
+            }
+        }
+        return created;
+    }
+
+    private List<String> validate(NoteTransaction transaction) {
+        List<String> problems = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (Note note : notes) {
+            ids.add(note.getId());
+        }
+        int position = 0;
+        for (NoteTransaction.Operation operation : transaction.getOperations()) {
+            position++;
+            boolean needsTitle = operation.kind == NoteTransaction.Kind.CREATE
+                    || operation.kind == NoteTransaction.Kind.UPDATE;
+            if (needsTitle && (operation.title == null || operation.title.trim().isEmpty())) {
+                problems.add("#" + position + ": note title cannot be null or empty");
+            }
+            if (operation.kind != NoteTransaction.Kind.CREATE && !ids.contains(operation.noteId)) {
+                problems.add("#" + position + ": note " + operation.noteId + " not found");
+            }
+            if (operation.kind == NoteTransaction.Kind.DELETE) {
+                ids.remove(operation.noteId);
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Pins or unpins an existing note
+     * @param noteId The ID of the note to update
+     * @param pinned true to pin the note
+     * @return true if the note was updated, false if not found
+     */
+    public boolean updatePinned(String noteId, boolean pinned) {
+        return modify(noteId, note -> note.setPinned(pinned));
+    }
+
+    /**
+     * Archives or restores an existing note
+     * @param noteId The ID of the note to update
+     * @param archived true to archive the note
+     * @return true if the note was updated, false if not found
+     */
+    public boolean updateArchived(String noteId, boolean archived) {
+        return modify(noteId, note -> note.setArchived(archived));
+    }
+
+    /**
+     * Replaces the tags of an existing note
+     * @param noteId The ID of the note to update
+     * @param tags The new tags, or null to clear them
+     * @return true if the note was updated, false if not found
+     */
+    public boolean updateTags(String noteId, Collection<String> tags) {
+        return modify(noteId, note -> note.setTags(tags));
+    }
+
+    private boolean modify(String noteId, Consumer<Note> change) {
+        Note note = findNote(noteId);
+        if (note == null) {
+            return false;
+        }
+
+        Note previous = new Note(note);
+        change.accept(note);
+        note.setModificationDate(LocalDateTime.now());
+        fireNoteUpdated(previous, note);
+        return true;
+    }
+
     /**
      * Deletes a note by its ID
      * @param id The ID of the note to delete
      * @return true if the note was deleted, false if not found
      */
     public boolean deleteNote(int id) {
-        return notes.removeIf(note -> note.getId() == id);
+        Iterator<Note> iterator = notes.iterator();
+        while (iterator.hasNext()) {
+            Note note = iterator.next();
+            if (note.getId() == id) {
+                iterator.remove();
+                fireNoteRemoved(note);
+                return true;
+            }
+        }
+        return false;
     }
     
+    /**
+     * Adds a note, or replaces the note with the same ID, keeping the note's own
+     * timestamps. Used to apply notes replicated from another store.
+     * @param note The note to add or replace
+     * @return true if an existing note was replaced, false if the note was added
+     */
+    public boolean putNote(Note note) {
+        if (note == null || note.getId() == null) {
+            throw new IllegalArgumentException("Note and its ID cannot be null");
+        }
+
+        reserveId(note.getId());
+        Note existing = findNote(note.getId());
+        if (existing == null) {
+            notes.add(note);
+            fireNoteAdded(note);
+            return false;
+        }
+
+        Note previous = new Note(existing);
+        notes.set(notes.indexOf(existing), note);
+        fireNoteUpdated(previous, note);
+        return true;
+    }
+
+    /**
+     * Deletes a note by its string ID
+     * @param noteId The ID of the note to delete
+     * @return true if the note was deleted, false if not found
+     */
+    public boolean removeNote(String noteId) {
+        Note note = findNote(noteId);
+        if (note == null) {
+            return false;
+        }
+        notes.remove(note);
+        fireNoteRemoved(note);
+        return true;
+    }
+
+    /**
+     * Keeps generated IDs clear of a numeric ID that came from elsewhere
+     */
+    private void reserveId(String noteId) {
+        try {
+            nextId = Math.max(nextId, Integer.parseInt(noteId) + 1);
+        } catch (NumberFormatException e) {
+            // UUIDs and other non-numeric IDs cannot collide with generated ones
+        }
+    }
+
     /**
      * Searches for notes containing the specified query in title or content
      * @param query The search query
@@ -99,6 +378,27 @@ public class NoteManager {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Finds groups of notes whose contents are nearly the same, such as a note pasted
+     * twice with small edits. The first call indexes every note; the index is then kept
+     * current as notes change, so later calls only look up candidate pairs.
+     * @param threshold The minimum estimated similarity of two notes' contents, between 0 and 1
+     * @return The groups of near-duplicates, largest first
+     */
+    public List<DuplicateGroup> findNearDuplicates(double threshold) {
+        if (!(threshold > 0 && threshold <= 1)) {
+            throw new IllegalArgumentException("Threshold must be greater than 0 and at most 1");
+        }
+        if (duplicateDetector == null) {
+            duplicateDetector = new DuplicateDetector();
+            for (Note note : notes) {
+                duplicateDetector.noteAdded(note);
+            }
+            listeners.add(duplicateDetector);
+        }
+        return duplicateDetector.groups(threshold);
+    }
+    
     /**
      * Gets notes sorted by creation date (newest first)
      * @return A list of notes sorted by creation date
@@ -116,4 +416,70 @@ public class NoteManager {
     public List<Note> getNotesByModifiedDate() {
         return notes.stream()
                 .sorted((n1, n2) -> n2.getLastModified().compareTo(n1.getLastModified()))
-                .collect(Collectors.toList());
\ No newline at end of file
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Replaces the managed notes with notes loaded from storage
+     * @param loadedNotes The notes to manage, typically from FileStorage.loadNotes()
+     */
+    public void loadNotes(Collection<Note> loadedNotes) {
+        List<Note> removed = new ArrayList<>(notes);
+        notes.clear();
+        for (Note note : removed) {
+            fireNoteRemoved(note);
+        }
+        if (loadedNotes == null) {
+            return;
+        }
+        
+        for (Note note : loadedNotes) {
+            if (note != null) {
+                notes.add(note);
+                fireNoteAdded(note);
+            }
+        }
+    }
+    
+    private static LocalDateTime recency(Note note) {
+        return note.getModificationDate() != null ? note.getModificationDate() : LocalDateTime.MIN;
+    }
+    
+    private static boolean isAfter(Note note, NotePage.Cursor cursor) {
+        int order = recency(note).compareTo(cursor.sortKey);
+        if (order != 0) {
+            return order < 0;
+        }
+        return note.getId().compareTo(cursor.id) > 0;
+    }
+    
+    private Note findNote(String noteId) {
+        if (noteId == null) {
+            return null;
+        }
+        for (Note note : notes) {
+            if (noteId.equals(note.getId())) {
+                return note;
+            }
+        }
+        return null;
+    }
+    
+    private void fireNoteAdded(Note note) {
+        for (NoteChangeListener listener : listeners) {
+            listener.noteAdded(note);
+        }
+    }
+    
+    private void fireNoteUpdated(Note previous, Note current) {
+        for (NoteChangeListener listener : listeners) {
+            listener.noteUpdated(previous, current);
+        }
+    }
+    
+    private void fireNoteRemoved(Note note) {
+        for (NoteChangeListener listener : listeners) {
+            listener.noteRemoved(note);
+        }
+    }
+}
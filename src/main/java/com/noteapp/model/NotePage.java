@@ -0,0 +1,89 @@
+package com.noteapp.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of notes from a cursor-based listing, together with the cursor
+ * that continues the listing after the last note of the page.
+ */
+public class NotePage {
+    private final List<Note> notes;
+    private final String nextCursor;
+
+    NotePage(List<Note> notes, String nextCursor) {
+        this.notes = Collections.unmodifiableList(notes);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the notes of this page
+     * @return A read-only list of notes
+     */
+    public List<Note> getNotes() {
+        return notes;
+    }
+
+    /**
+     * Gets the opaque cursor for the following page
+     * @return The cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether another page follows
+     * @return true if {@link #getNextCursor()} is not null
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Encodes a position in the listing as an opaque, URL-safe cursor
+     * @param sortKey The sort key of the last returned note
+     * @param id The id of the last returned note
+     * @return The cursor
+     */
+    static String encodeCursor(LocalDateTime sortKey, String id) {
+        String raw = sortKey + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor(LocalDateTime, String)}
+     * @param cursor The cursor
+     * @return The decoded position
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int newline = raw.indexOf('\n');
+            if (newline < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, newline)), raw.substring(newline + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Decoded listing position: the sort key and id of the last note returned
+     */
+    static final class Cursor {
+        final LocalDateTime sortKey;
+        final String id;
+
+        Cursor(LocalDateTime sortKey, String id) {
+            this.sortKey = sortKey;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.noteapp.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of note mutations staged for {@link NoteManager#commit(NoteTransaction)}.
+ * Nothing changes until the transaction is committed; then every mutation is validated
+ * against the notes as they would be after the ones before it, and either all are
+ * applied or none is.
+ */
+public class NoteTransaction {
+
+    /**
+     * Kinds of staged mutation
+     */
+    enum Kind {
+        CREATE, UPDATE, CATEGORY, DELETE
+    }
+
+    /**
+     * One staged mutation
+     */
+    static final class Operation {
+        final Kind kind;
+        final String noteId;
+        final String title;
+        final String content;
+        final String category;
+
+        Operation(Kind kind, String noteId, String title, String content, String category) {
+            this.kind = kind;
+            this.noteId = noteId;
+            this.title = title;
+            this.content = content;
+            this.category = category;
+        }
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    /**
+     * Stages the creation of a note. Its ID is assigned on commit, so later mutations in
+     * the same transaction cannot refer to it.
+     * @param title The title of the note
+     * @param content The content of the note
+     * @return This transaction
+     */
+    public NoteTransaction create(String title, String content) {
+        operations.add(new Operation(Kind.CREATE, null, title, content, null));
+        return this;
+    }
+
+    /**
+     * Stages an update of a note's title and content
+     * @param noteId The ID of the note to update
+     * @param title The new title
+     * @param content The new content
+     * @return This transaction
+     */
+    public NoteTransaction update(String noteId, String title, String content) {
+        operations.add(new Operation(Kind.UPDATE, noteId, title, content, null));
+        return this;
+    }
+
+    /**
+     * Stages a change of a note's category
+     * @param noteId The ID of the note to update
+     * @param category The new category, or null to clear it
+     * @return This transaction
+     */
+    public NoteTransaction updateCategory(String noteId, String category) {
+        operations.add(new Operation(Kind.CATEGORY, noteId, null, null, category));
+        return this;
+    }
+
+    /**
+     * Stages the deletion of a note
+     * @param noteId The ID of the note to delete
+     * @return This transaction
+     */
+    public NoteTransaction delete(String noteId) {
+        operations.add(new Operation(Kind.DELETE, noteId, null, null, null));
+        return this;
+    }
+
+    /**
+     * Gets the number of staged mutations
+     * @return The mutation count
+     */
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * Checks whether any mutation is staged
+     * @return true if the transaction has no mutations
+     */
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+}
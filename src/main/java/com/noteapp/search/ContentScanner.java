@@ -0,0 +1,470 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Brute-force search of note titles and contents for queries no index can answer, such as
+ * regular expressions, code snippets and punctuation. The notes are split into chunks of
+ * roughly equal text size that are scanned in parallel on a {@link ForkJoinPool}.
+ *
+ * <ul>
+ *   <li>Literal queries are matched case-insensitively with Boyer-Moore-Horspool over the
+ *       UTF-8 bytes of each note, folding ASCII case byte by byte instead of lowercasing
+ *       copies of the text. The bytes are encoded on the first scan that sees a note's
+ *       current content and reused until it changes. A query with non-ASCII letters, whose
+ *       case cannot be folded byte by byte, is matched as a quoted regular expression.</li>
+ *   <li>Regular expressions are matched with the caller's compiled {@link Pattern}.</li>
+ *   <li>A scan stops once it has found its limit of notes, or when it is cancelled, even
+ *       in the middle of a regular expression backtracking through a long note.</li>
+ * </ul>
+ *
+ * <p>Scans start from the thread that owns the {@link NoteManager} and take a snapshot of
+ * the notes, so the notes may change while a scan runs. Kept current through
+ * {@link NoteChangeListener} callbacks.
+ */
+public class ContentScanner implements NoteChangeListener {
+
+    /** A limit that keeps every match */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    /** Characters of text a leaf task scans; larger ranges of notes are split */
+    static final int CHUNK_CHARS = 128 * 1024;
+    /** Characters a regular expression reads between checks for cancellation */
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+    private static final byte[] FOLD = new byte[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            FOLD[b] = (byte) (b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b);
+        }
+    }
+
+    private final NoteManager noteManager;
+    private final ForkJoinPool pool;
+    /** Note ID -> encoded title and content, or STALE until a scan encodes them */
+    private final ConcurrentHashMap<String, Encoded> encoded = new ConcurrentHashMap<>();
+
+    private ContentScanner(NoteManager noteManager, ForkJoinPool pool) {
+        this.noteManager = noteManager;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a scanner over the notes of a manager that runs on the common pool
+     * @param noteManager The manager whose notes to scan
+     * @return The attached scanner
+     */
+    public static ContentScanner attach(NoteManager noteManager) {
+        return attach(noteManager, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a scanner over the notes of a manager and registers it for updates
+     * @param noteManager The manager whose notes to scan
+     * @param pool The pool that runs the scans
+     * @return The attached scanner
+     */
+    public static ContentScanner attach(NoteManager noteManager, ForkJoinPool pool) {
+        if (noteManager == null || pool == null) {
+            throw new IllegalArgumentException("Note manager and pool cannot be null");
+        }
+        ContentScanner scanner = new ContentScanner(noteManager, pool);
+        for (Note note : noteManager.getNotesView()) {
+            scanner.noteAdded(note);
+        }
+        noteManager.addChangeListener(scanner);
+        return scanner;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        encoded.put(note.getId(), Encoded.STALE);
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        encoded.put(current.getId(), Encoded.STALE);
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        encoded.remove(note.getId());
+    }
+
+    /**
+     * Finds the notes whose title or content contains a string, ignoring case
+     * @param literal The string to find
+     * @param limit The most notes to find, or {@link #UNLIMITED}
+     * @return The matching notes in the manager's order
+     */
+    public List<Note> find(String literal, int limit) {
+        return scan(literal, limit).getResults();
+    }
+
+    /**
+     * Finds the notes whose title or content contains a match of a regular expression
+     * @param pattern The compiled expression
+     * @param limit The most notes to find, or {@link #UNLIMITED}
+     * @return The matching notes in the manager's order
+     */
+    public List<Note> find(Pattern pattern, int limit) {
+        return scan(pattern, limit).getResults();
+    }
+
+    /**
+     * Starts a case-insensitive scan for a string
+     * @param literal The string to find
+     * @param limit The most notes to find, or {@link #UNLIMITED}
+     * @return The running scan
+     */
+    public Scan scan(String literal, int limit) {
+        if (literal == null || literal.isEmpty()) {
+            throw new IllegalArgumentException("Query cannot be null or empty");
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c >= 0x80 && (Character.toLowerCase(c) != c || Character.toUpperCase(c) != c)) {
+                return scan(Pattern.compile(Pattern.quote(literal), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE), limit);
+            }
+        }
+        return start(new LiteralMatcher(literal), limit);
+    }
+
+    /**
+     * Starts a scan for a regular expression
+     * @param pattern The compiled expression
+     * @param limit The most notes to find, or {@link #UNLIMITED}
+     * @return The running scan
+     */
+    public Scan scan(Pattern pattern, int limit) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null");
+        }
+        return start(new RegexMatcher(pattern), limit);
+    }
+
+    private Scan start(ContentMatcher matcher, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        // Read on this thread: notes are not thread-safe and content may be deferred
+        List<Note> view = noteManager.getNotesView();
+        int size = view.size();
+        Note[] notes = new Note[size];
+        String[] titles = new String[size];
+        String[] contents = new String[size];
+        long[] ends = new long[size];
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            Note note = view.get(i);
+            notes[i] = note;
+            titles[i] = note.getTitle();
+            contents[i] = note.getContent();
+            total += titles[i].length() + contents[i].length();
+            ends[i] = total;
+        }
+        Scan scan = new Scan(new Snapshot(notes, titles, contents, ends), matcher, limit);
+        pool.execute(scan.root);
+        return scan;
+    }
+
+    /**
+     * Gets the title and content of a note as UTF-8, encoding them if they changed
+     */
+    private Encoded encode(Note note, String title, String content) {
+        Encoded current = encoded.get(note.getId());
+        if (current != null && current.title == title && current.content == content) {
+            return current;
+        }
+        Encoded fresh = new Encoded(title, content);
+        if (current != null) {
+            // Only if the note is still there, so a scan never resurrects a removed note
+            encoded.replace(note.getId(), current, fresh);
+        }
+        return fresh;
+    }
+
+    /**
+     * Finds the first occurrence of a pattern in a byte range, folding ASCII case
+     * @param text The bytes to search
+     * @param from The first index to search
+     * @param to The end of the range, exclusive
+     * @param pattern The pattern, already folded with {@link #fold}
+     * @param shift The bad-character shifts of the pattern from {@link #shifts}
+     * @return The index of the match, or -1
+     */
+    static int indexOf(byte[] text, int from, int to, byte[] pattern, int[] shift) {
+        int last = pattern.length - 1;
+        byte lastByte = pattern[last];
+        for (int i = from; i <= to - pattern.length; ) {
+            byte c = FOLD[text[i + last] & 0xFF];
+            if (c == lastByte) {
+                int j = last - 1;
+                while (j >= 0 && FOLD[text[i + j] & 0xFF] == pattern[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+            }
+            i += shift[c & 0xFF];
+        }
+        return -1;
+    }
+
+    static byte[] fold(byte[] bytes) {
+        byte[] folded = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            folded[i] = FOLD[bytes[i] & 0xFF];
+        }
+        return folded;
+    }
+
+    static int[] shifts(byte[] pattern) {
+        int[] shift = new int[256];
+        Arrays.fill(shift, pattern.length);
+        for (int i = 0; i < pattern.length - 1; i++) {
+            shift[pattern[i] & 0xFF] = pattern.length - 1 - i;
+        }
+        return shift;
+    }
+
+    /**
+     * A scan running in the background
+     */
+    public final class Scan {
+        private final Snapshot snapshot;
+        private final ContentMatcher matcher;
+        private final int limit;
+        private final AtomicInteger found = new AtomicInteger();
+        private final ScanTask root;
+        private volatile boolean stopped;
+        private volatile boolean cancelled;
+
+        private Scan(Snapshot snapshot, ContentMatcher matcher, int limit) {
+            this.snapshot = snapshot;
+            this.matcher = matcher;
+            this.limit = limit;
+            this.root = new ScanTask(this, 0, snapshot.notes.length);
+        }
+
+        /**
+         * Stops the scan as soon as each running task notices; notes found so far are kept
+         */
+        public void cancel() {
+            cancelled = true;
+            stopped = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return root.isDone();
+        }
+
+        /**
+         * Waits for the scan to finish
+         * @return The matching notes in the manager's order; with a limit, or after
+         *         cancellation, which matches were found first depends on scheduling
+         */
+        public List<Note> getResults() {
+            return Collections.unmodifiableList(root.join());
+        }
+
+        /**
+         * Checks a note and counts it towards the limit
+         * @return Whether the note should be kept
+         */
+        private boolean accept(int index) {
+            if (!matcher.matches(this, snapshot.notes[index], snapshot.titles[index], snapshot.contents[index])) {
+                return false;
+            }
+            int count = found.incrementAndGet();
+            if (count >= limit) {
+                stopped = true;
+            }
+            return count <= limit;
+        }
+    }
+
+    /**
+     * Scans a range of the snapshot, splitting it while it holds more than a chunk of text
+     */
+    private static final class ScanTask extends RecursiveTask<List<Note>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Note> compute() {
+            long[] ends = scan.snapshot.ends;
+            long start = from == 0 ? 0 : ends[from - 1];
+            if (to - from > 1 && ends[to - 1] - start > CHUNK_CHARS) {
+                // Split where half of the text is on either side
+                int mid = Arrays.binarySearch(ends, from, to, start + (ends[to - 1] - start) / 2);
+                mid = Math.max(from + 1, Math.min(to - 1, mid < 0 ? -mid - 1 : mid + 1));
+                ScanTask left = new ScanTask(scan, from, mid);
+                left.fork();
+                List<Note> right = new ScanTask(scan, mid, to).compute();
+                List<Note> results = left.join();
+                if (results.isEmpty()) {
+                    return right;
+                }
+                results.addAll(right);
+                return results;
+            }
+            List<Note> results = new ArrayList<>();
+            try {
+                for (int i = from; i < to && !scan.stopped; i++) {
+                    if (scan.accept(i)) {
+                        results.add(scan.snapshot.notes[i]);
+                    }
+                }
+            } catch (CancellationException e) {
+                // Cancelled inside a regular expression
+            }
+            return results;
+        }
+    }
+
+    private static final class Snapshot {
+        final Note[] notes;
+        final String[] titles;
+        final String[] contents;
+        /** Cumulative characters of title and content up to and including each note */
+        final long[] ends;
+
+        Snapshot(Note[] notes, String[] titles, String[] contents, long[] ends) {
+            this.notes = notes;
+            this.titles = titles;
+            this.contents = contents;
+            this.ends = ends;
+        }
+    }
+
+    private static final class Encoded {
+        static final Encoded STALE = new Encoded();
+
+        final String title;
+        final String content;
+        final byte[] titleBytes;
+        final byte[] contentBytes;
+
+        private Encoded() {
+            this.title = null;
+            this.content = null;
+            this.titleBytes = null;
+            this.contentBytes = null;
+        }
+
+        Encoded(String title, String content) {
+            this.title = title;
+            this.content = content;
+            this.titleBytes = title.getBytes(StandardCharsets.UTF_8);
+            this.contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private interface ContentMatcher {
+        boolean matches(Scan scan, Note note, String title, String content);
+    }
+
+    private final class LiteralMatcher implements ContentMatcher {
+        private final byte[] pattern;
+        private final int[] shift;
+
+        LiteralMatcher(String literal) {
+            this.pattern = fold(literal.getBytes(StandardCharsets.UTF_8));
+            this.shift = shifts(pattern);
+        }
+
+        @Override
+        public boolean matches(Scan scan, Note note, String title, String content) {
+            Encoded bytes = encode(note, title, content);
+            return indexOf(bytes.titleBytes, 0, bytes.titleBytes.length, pattern, shift) >= 0
+                    || indexOf(bytes.contentBytes, 0, bytes.contentBytes.length, pattern, shift) >= 0;
+        }
+    }
+
+    private static final class RegexMatcher implements ContentMatcher {
+        private final Pattern pattern;
+
+        RegexMatcher(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(Scan scan, Note note, String title, String content) {
+            Matcher matcher = pattern.matcher(title);
+            if (matcher.find()) {
+                return true;
+            }
+            return matcher.reset(new CancellableText(content, scan)).find();
+        }
+    }
+
+    /**
+     * Text that throws {@link CancellationException} from {@code charAt} once its scan has
+     * stopped, since nothing else interrupts a regular expression stuck backtracking
+     */
+    private static final class CancellableText implements CharSequence {
+        private final String text;
+        private final Scan scan;
+        private int reads;
+
+        CancellableText(String text, Scan scan) {
+            this.text = text;
+            this.scan = scan;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads == CANCEL_CHECK_INTERVAL) {
+                reads = 0;
+                if (scan.stopped) {
+                    throw new CancellationException();
+                }
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
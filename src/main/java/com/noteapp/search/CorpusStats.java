@@ -0,0 +1,382 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+import com.noteapp.utils.CountMinSketch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Aggregate statistics over the notes of a {@link NoteManager}, kept current as notes
+ * change so that reading them never iterates the notes or touches their content:
+ * <ul>
+ *   <li>notes created and modified per day,</li>
+ *   <li>total words, characters and UTF-8 bytes, and a histogram of words per note,</li>
+ *   <li>approximate top terms: term frequencies are kept in a {@link CountMinSketch} and
+ *       the most frequent terms seen so far in a bounded candidate set.</li>
+ * </ul>
+ *
+ * <p>A mutation costs one tokenization of the note, plus one of its previous version when
+ * its title or content changed; other updates only move the note between days. A term's
+ * place among the candidates is updated only when a note containing it changes, so a
+ * term that overtakes a candidate without being added itself is picked up the next time
+ * it is added. Kept current through {@link NoteChangeListener}
+ * callbacks; not thread-safe, like NoteManager itself.
+ */
+public class CorpusStats implements NoteChangeListener {
+
+    /** Number of power-of-two buckets in the words-per-note histogram */
+    public static final int WORD_BUCKETS = 20;
+    /** Default number of candidate terms tracked for {@link #getTopTerms} */
+    public static final int DEFAULT_CANDIDATES = 1024;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 1 << 16;
+    /** Words too common to be interesting as top terms; they are not counted */
+    static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have",
+            "i", "if", "in", "is", "it", "its", "not", "of", "on", "or", "so", "that", "the",
+            "this", "to", "was", "we", "were", "will", "with", "you");
+
+    private final int candidateLimit;
+    private final Map<String, Figures> figures = new HashMap<>();
+    private final TreeMap<LocalDate, Integer> createdPerDay = new TreeMap<>();
+    private final TreeMap<LocalDate, Integer> modifiedPerDay = new TreeMap<>();
+    private final int[] wordHistogram = new int[WORD_BUCKETS];
+    private final CountMinSketch termCounts = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+    /** Candidate term -> its estimated count when last touched */
+    private final Map<String, Long> candidates = new HashMap<>();
+    /** Candidates by descending count; entries must be removed before their count changes */
+    private final TreeSet<String> ranking;
+    private long totalWords;
+    private long totalCharacters;
+    private long totalBytes;
+
+    private CorpusStats(int candidateLimit) {
+        this.candidateLimit = candidateLimit;
+        this.ranking = new TreeSet<>(Comparator.<String>comparingLong(candidates::get).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Computes statistics over the current notes of a manager and registers them for updates
+     * @param noteManager The manager to aggregate
+     * @return The attached statistics
+     */
+    public static CorpusStats attach(NoteManager noteManager) {
+        return attach(noteManager, DEFAULT_CANDIDATES);
+    }
+
+    /**
+     * Computes statistics over the current notes of a manager and registers them for updates
+     * @param noteManager The manager to aggregate
+     * @param candidates The number of candidate top terms to track; more are more accurate
+     * @return The attached statistics
+     */
+    public static CorpusStats attach(NoteManager noteManager, int candidates) {
+        if (candidates < 1) {
+            throw new IllegalArgumentException("Candidates must be at least 1");
+        }
+        CorpusStats stats = new CorpusStats(candidates);
+        for (Note note : noteManager.getNotesView()) {
+            stats.noteAdded(note);
+        }
+        noteManager.addChangeListener(stats);
+        return stats;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        Figures existing = figures.remove(note.getId());
+        if (existing != null) {
+            // A second note with the same ID; its terms cannot be told apart from this one's
+            count(existing, -1);
+        }
+        Map<String, Integer> terms = terms(note, 1);
+        Figures added = new Figures(note, sum(terms));
+        figures.put(note.getId(), added);
+        count(added, 1);
+        applyTerms(terms);
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        Figures old = figures.get(current.getId());
+        if (old == null) {
+            noteAdded(current);
+            return;
+        }
+        if (previous.getTitle().equals(current.getTitle()) && previous.getContent().equals(current.getContent())) {
+            Figures updated = old.redate(current);
+            figures.put(current.getId(), updated);
+            count(old, -1);
+            count(updated, 1);
+            return;
+        }
+        Map<String, Integer> terms = terms(current, 1);
+        Figures updated = new Figures(current, sum(terms));
+        figures.put(current.getId(), updated);
+        count(old, -1);
+        count(updated, 1);
+        for (Map.Entry<String, Integer> removed : terms(previous, -1).entrySet()) {
+            terms.merge(removed.getKey(), removed.getValue(), Integer::sum);
+        }
+        applyTerms(terms);
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        Figures removed = figures.remove(note.getId());
+        if (removed == null) {
+            return;
+        }
+        count(removed, -1);
+        applyTerms(terms(note, -1));
+    }
+
+    /**
+     * Gets the number of notes aggregated
+     * @return The note count
+     */
+    public int getNoteCount() {
+        return figures.size();
+    }
+
+    /**
+     * Gets the words in all titles and contents
+     * @return The number of terms, as split by the tokenizer
+     */
+    public long getTotalWords() {
+        return totalWords;
+    }
+
+    /**
+     * Gets the characters in all titles and contents
+     * @return The number of UTF-16 characters
+     */
+    public long getTotalCharacters() {
+        return totalCharacters;
+    }
+
+    /**
+     * Gets the size of all titles and contents encoded as UTF-8, close to their size in notes.json
+     * @return The number of bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Gets the mean number of words per note
+     * @return The mean, or 0 without notes
+     */
+    public double getMeanWordsPerNote() {
+        return figures.isEmpty() ? 0 : (double) totalWords / figures.size();
+    }
+
+    /**
+     * Gets the histogram of words per note
+     * @return Note counts; bucket 0 holds notes without words, bucket i notes with
+     *         2^(i-1) to 2^i - 1 words, and the last bucket all longer notes
+     */
+    public int[] getWordsPerNoteHistogram() {
+        return wordHistogram.clone();
+    }
+
+    /**
+     * Gets the number of notes created on each day of a range; days without notes are absent
+     * @param from The first day
+     * @param to The last day, inclusive
+     * @return Day -> notes created, in date order
+     */
+    public NavigableMap<LocalDate, Integer> getCreatedPerDay(LocalDate from, LocalDate to) {
+        return Collections.unmodifiableNavigableMap(createdPerDay.subMap(from, true, to, true));
+    }
+
+    /**
+     * Gets the number of notes last modified on each day of a range; days without notes are absent
+     * @param from The first day
+     * @param to The last day, inclusive
+     * @return Day -> notes last modified, in date order
+     */
+    public NavigableMap<LocalDate, Integer> getModifiedPerDay(LocalDate from, LocalDate to) {
+        return Collections.unmodifiableNavigableMap(modifiedPerDay.subMap(from, true, to, true));
+    }
+
+    /**
+     * Gets the most frequent terms among the candidates, excluding common stop words
+     * @param k The number of terms
+     * @return Term -> estimated occurrences, most frequent first
+     */
+    public Map<String, Long> getTopTerms(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative");
+        }
+        Map<String, Long> top = new LinkedHashMap<>();
+        Iterator<String> terms = ranking.iterator();
+        while (top.size() < k && terms.hasNext()) {
+            String term = terms.next();
+            top.put(term, candidates.get(term));
+        }
+        return top;
+    }
+
+    /**
+     * Estimates how often a term occurs in all titles and contents
+     * @param term The lowercase term
+     * @return An estimate no lower than the true count; stop words are not counted
+     */
+    public long estimateTermCount(String term) {
+        return termCounts.estimate(term);
+    }
+
+    /**
+     * Summarizes the statistics for a status line
+     * @return For example "1,204 notes, 98,311 words, 612 KB"
+     */
+    public String summary() {
+        String size;
+        if (totalBytes < 1024 * 1024) {
+            size = String.format("%,d KB", (totalBytes + 1023) / 1024);
+        } else {
+            size = String.format("%.1f MB", totalBytes / (1024.0 * 1024));
+        }
+        return String.format("%,d %s, %,d words, %s", figures.size(), figures.size() == 1 ? "note" : "notes",
+                totalWords, size);
+    }
+
+    private void count(Figures note, int sign) {
+        totalWords += sign * note.words;
+        totalCharacters += sign * note.characters;
+        totalBytes += sign * note.bytes;
+        wordHistogram[bucket(note.words)] += sign;
+        addDay(createdPerDay, note.created, sign);
+        addDay(modifiedPerDay, note.modified, sign);
+    }
+
+    /**
+     * Counts the terms of a note's title and content
+     * @param sign 1 to count occurrences, -1 to count them negatively
+     */
+    private static Map<String, Integer> terms(Note note, int sign) {
+        Map<String, Integer> terms = new HashMap<>();
+        Tokenizer.tokenize(note.getTitle(), (term, start, end) -> terms.merge(term, sign, Integer::sum));
+        Tokenizer.tokenize(note.getContent(), (term, start, end) -> terms.merge(term, sign, Integer::sum));
+        return terms;
+    }
+
+    private static int sum(Map<String, Integer> terms) {
+        int sum = 0;
+        for (int count : terms.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private void applyTerms(Map<String, Integer> delta) {
+        for (Map.Entry<String, Integer> entry : delta.entrySet()) {
+            if (entry.getValue() != 0 && !STOP_WORDS.contains(entry.getKey())) {
+                termCounts.add(entry.getKey(), entry.getValue());
+                rank(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Updates a term's place among the candidates after its count changed
+     */
+    private void rank(String term) {
+        long estimate = termCounts.estimate(term);
+        if (candidates.containsKey(term)) {
+            ranking.remove(term);
+            if (estimate <= 0) {
+                candidates.remove(term);
+                return;
+            }
+            candidates.put(term, estimate);
+            ranking.add(term);
+        } else if (estimate > 0) {
+            if (candidates.size() == candidateLimit) {
+                String weakest = ranking.last();
+                if (estimate <= candidates.get(weakest)) {
+                    return;
+                }
+                ranking.pollLast();
+                candidates.remove(weakest);
+            }
+            candidates.put(term, estimate);
+            ranking.add(term);
+        }
+    }
+
+    private static void addDay(TreeMap<LocalDate, Integer> histogram, LocalDate day, int sign) {
+        if (day != null) {
+            histogram.merge(day, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private static int bucket(int words) {
+        return Math.min(WORD_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(words));
+    }
+
+    private static long utf8Length(String text) {
+        long bytes = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                // Three bytes, or four for a surrogate pair counted as 2 + 2
+                bytes += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * What a note contributes to the aggregates, kept so that a change can be subtracted
+     * without looking at the previous content
+     */
+    private static final class Figures {
+        final int words;
+        final long characters;
+        final long bytes;
+        final LocalDate created;
+        final LocalDate modified;
+
+        Figures(Note note, int words) {
+            this.words = words;
+            this.characters = note.getTitle().length() + note.getContent().length();
+            this.bytes = utf8Length(note.getTitle()) + utf8Length(note.getContent());
+            this.created = day(note.getCreationDate());
+            this.modified = day(note.getModificationDate());
+        }
+
+        private Figures(Figures figures, Note note) {
+            this.words = figures.words;
+            this.characters = figures.characters;
+            this.bytes = figures.bytes;
+            this.created = day(note.getCreationDate());
+            this.modified = day(note.getModificationDate());
+        }
+
+        Figures redate(Note note) {
+            return new Figures(this, note);
+        }
+
+        private static LocalDate day(LocalDateTime time) {
+            return time == null ? null : time.toLocalDate();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.noteapp.search;
+
+/**
+ * Levenshtein distance (insertions, deletions and substitutions, each costing one).
+ */
+public final class EditDistance {
+
+    private EditDistance() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Computes the exact distance with the full dynamic-programming table, O(|a| * |b|).
+     * @param a The first string
+     * @param b The second string
+     * @return The edit distance
+     */
+    public static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Computes the distance if it is at most a bound. Only the diagonal band of width
+     * 2 * maxDistance + 1 is evaluated, and evaluation stops as soon as every cell in a
+     * row exceeds the bound, so the cost is O(maxDistance * min(|a|, |b|)).
+     * @param a The first string
+     * @param b The second string
+     * @param maxDistance The bound
+     * @return The edit distance, or maxDistance + 1 if it exceeds the bound
+     */
+    public static int boundedDistance(String a, String b, int maxDistance) {
+        if (a.length() > b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int n = a.length();
+        int m = b.length();
+        if (m - n > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        int over = maxDistance + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= maxDistance ? j : over;
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(m, i + maxDistance);
+            current[0] = i <= maxDistance ? i : over;
+            if (from > 1) {
+                current[from - 1] = over;
+            }
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                int value = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, over);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = over;
+            }
+            if (rowMin > maxDistance) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], over);
+    }
+}
@@ -0,0 +1,280 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bitmap indexes over the notes of a {@link NoteManager}: one {@link RoaringBitmap} per
+ * category and per tag, and one each for pinned, archived and all notes. Every note is
+ * given a small integer document number, reused after deletion so the bitmaps stay
+ * dense. Filters are built by combining bitmaps with {@link RoaringBitmap#and},
+ * {@link RoaringBitmap#or} and {@link RoaringBitmap#andNot}, and facet counts for the
+ * sidebar are intersection cardinalities, so neither scans the notes.
+ *
+ * <p>Kept current through {@link NoteChangeListener} callbacks; not thread-safe, like
+ * NoteManager itself.
+ */
+public class FacetIndex implements NoteChangeListener {
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<Note> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap pinned = new RoaringBitmap();
+    private final RoaringBitmap archived = new RoaringBitmap();
+    private final Map<String, Facet> categories = new HashMap<>();
+    private final Map<String, Facet> tags = new HashMap<>();
+
+    /**
+     * Builds the index over the current notes of a manager and registers it for updates
+     * @param noteManager The manager to index
+     * @return The attached index
+     */
+    public static FacetIndex attach(NoteManager noteManager) {
+        FacetIndex index = new FacetIndex();
+        for (Note note : noteManager.getNotesView()) {
+            index.noteAdded(note);
+        }
+        noteManager.addChangeListener(index);
+        return index;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        if (docIds.containsKey(note.getId())) {
+            noteRemoved(docs.get(docIds.get(note.getId())));
+        }
+        int doc;
+        if (freeDocIds.isEmpty()) {
+            doc = docs.size();
+            docs.add(note);
+        } else {
+            doc = freeDocIds.pop();
+            docs.set(doc, note);
+        }
+        docIds.put(note.getId(), doc);
+        all.add(doc);
+        if (note.isPinned()) {
+            pinned.add(doc);
+        }
+        if (note.isArchived()) {
+            archived.add(doc);
+        }
+        add(categories, note.getCategory(), doc);
+        for (String tag : note.getTags()) {
+            add(tags, tag, doc);
+        }
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        Integer doc = docIds.get(current.getId());
+        if (doc == null) {
+            noteAdded(current);
+            return;
+        }
+        docs.set(doc, current);
+        if (previous.isPinned() != current.isPinned()) {
+            update(pinned, doc, current.isPinned());
+        }
+        if (previous.isArchived() != current.isArchived()) {
+            update(archived, doc, current.isArchived());
+        }
+        if (!Objects.equals(key(previous.getCategory()), key(current.getCategory()))) {
+            remove(categories, previous.getCategory(), doc);
+            add(categories, current.getCategory(), doc);
+        }
+        if (!previous.getTags().equals(current.getTags())) {
+            for (String tag : previous.getTags()) {
+                remove(tags, tag, doc);
+            }
+            for (String tag : current.getTags()) {
+                add(tags, tag, doc);
+            }
+        }
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        Integer doc = docIds.remove(note.getId());
+        if (doc == null) {
+            return;
+        }
+        all.remove(doc);
+        pinned.remove(doc);
+        archived.remove(doc);
+        remove(categories, note.getCategory(), doc);
+        for (String tag : note.getTags()) {
+            remove(tags, tag, doc);
+        }
+        docs.set(doc, null);
+        freeDocIds.push(doc);
+    }
+
+    /**
+     * Gets every indexed note
+     * @return A read-only bitmap of all document numbers
+     */
+    public RoaringBitmap all() {
+        return all;
+    }
+
+    /**
+     * Gets the pinned notes
+     * @return A read-only bitmap
+     */
+    public RoaringBitmap pinned() {
+        return pinned;
+    }
+
+    /**
+     * Gets the archived notes
+     * @return A read-only bitmap
+     */
+    public RoaringBitmap archived() {
+        return archived;
+    }
+
+    /**
+     * Gets the notes in a category
+     * @param category The category, compared case-insensitively
+     * @return A read-only bitmap, or a new empty one if no note has the category
+     */
+    public RoaringBitmap category(String category) {
+        Facet facet = categories.get(key(category));
+        return facet == null ? new RoaringBitmap() : facet.docs;
+    }
+
+    /**
+     * Gets the notes with a tag
+     * @param tag The tag, compared case-insensitively
+     * @return A read-only bitmap, or a new empty one if no note has the tag
+     */
+    public RoaringBitmap tag(String tag) {
+        Facet facet = tags.get(key(tag));
+        return facet == null ? new RoaringBitmap() : facet.docs;
+    }
+
+    /**
+     * Gets the notes with any of several tags
+     * @param anyOf The tags
+     * @return A new bitmap
+     */
+    public RoaringBitmap anyTag(Collection<String> anyOf) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (String tag : anyOf) {
+            result = RoaringBitmap.or(result, tag(tag));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the notes in a filter, in document number order
+     * @param filter A bitmap obtained from this index
+     * @return The notes
+     */
+    public List<Note> notes(RoaringBitmap filter) {
+        List<Note> notes = new ArrayList<>(filter.cardinality());
+        filter.forEach(doc -> notes.add(docs.get(doc)));
+        return notes;
+    }
+
+    /**
+     * Counts the notes in each category, for the sidebar
+     * @param filter The notes to count, or null for all of them
+     * @return Category names and counts, largest first; categories with no notes are left out
+     */
+    public Map<String, Integer> categoryCounts(RoaringBitmap filter) {
+        return counts(categories, filter);
+    }
+
+    /**
+     * Counts the notes with each tag, for the sidebar
+     * @param filter The notes to count, or null for all of them
+     * @return Tag names and counts, largest first; tags with no notes are left out
+     */
+    public Map<String, Integer> tagCounts(RoaringBitmap filter) {
+        return counts(tags, filter);
+    }
+
+    /**
+     * Counts the notes of a filter that are in another set, such as {@link #pinned()}
+     * @param facet The set to count
+     * @param filter The notes to count, or null for all of them
+     * @return The size of the intersection
+     */
+    public int count(RoaringBitmap facet, RoaringBitmap filter) {
+        return filter == null ? facet.cardinality() : RoaringBitmap.andCardinality(facet, filter);
+    }
+
+    private static Map<String, Integer> counts(Map<String, Facet> facets, RoaringBitmap filter) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>(facets.size());
+        for (Facet facet : facets.values()) {
+            int count = filter == null ? facet.docs.cardinality() : RoaringBitmap.andCardinality(facet.docs, filter);
+            if (count > 0) {
+                counts.add(new AbstractMap.SimpleImmutableEntry<>(facet.name, count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : counts) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private static void update(RoaringBitmap bitmap, int doc, boolean member) {
+        if (member) {
+            bitmap.add(doc);
+        } else {
+            bitmap.remove(doc);
+        }
+    }
+
+    private static void add(Map<String, Facet> facets, String name, int doc) {
+        String key = key(name);
+        if (key != null) {
+            facets.computeIfAbsent(key, k -> new Facet(name.trim())).docs.add(doc);
+        }
+    }
+
+    private static void remove(Map<String, Facet> facets, String name, int doc) {
+        String key = key(name);
+        Facet facet = key == null ? null : facets.get(key);
+        if (facet != null) {
+            facet.docs.remove(doc);
+            if (facet.docs.isEmpty()) {
+                facets.remove(key);
+            }
+        }
+    }
+
+    private static String key(String name) {
+        return name == null || name.trim().isEmpty() ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The notes sharing one category or tag, under the name first seen for it
+     */
+    private static final class Facet {
+        final String name;
+        final RoaringBitmap docs = new RoaringBitmap();
+
+        Facet(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.noteapp.search;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typo-tolerant ranked search. Each query term is expanded to the dictionary terms within
+ * a maximum edit distance using a {@link TrigramIndex}, and the expansions are scored with
+ * BM25 by the {@link RankedSearcher}, weighted by {@code 1 / (1 + distance)} so exact
+ * matches still rank first.
+ */
+public class FuzzySearcher {
+
+    public static final int DEFAULT_MAX_EDITS = 2;
+
+    /** Terms this short only tolerate one edit; two edits would match almost anything */
+    private static final int SHORT_TERM_LENGTH = 4;
+
+    private final InvertedIndex index;
+    private final RankedSearcher searcher;
+    private final TrigramIndex trigrams = new TrigramIndex();
+    private final int maxEdits;
+
+    /**
+     * Creates a searcher allowing up to {@link #DEFAULT_MAX_EDITS} edits per term
+     * @param index The index to search
+     */
+    public FuzzySearcher(InvertedIndex index) {
+        this(index, DEFAULT_MAX_EDITS);
+    }
+
+    /**
+     * Creates a searcher. The term dictionary is indexed immediately and new terms are
+     * picked up as notes are indexed.
+     * @param index The index to search
+     * @param maxEdits The default maximum edit distance per query term
+     */
+    public FuzzySearcher(InvertedIndex index, int maxEdits) {
+        if (index == null) {
+            throw new IllegalArgumentException("Index cannot be null");
+        }
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Maximum edits cannot be negative");
+        }
+        this.index = index;
+        this.searcher = new RankedSearcher(index);
+        this.maxEdits = maxEdits;
+        for (String term : index.terms()) {
+            trigrams.add(term);
+        }
+        index.addTermListener(trigrams::add);
+    }
+
+    /**
+     * Gets the default maximum edit distance
+     * @return The maximum edits per query term
+     */
+    public int getMaxEdits() {
+        return maxEdits;
+    }
+
+    /**
+     * Finds the most relevant notes, tolerating the default number of typos per term
+     * @param query The free-text query
+     * @param limit The maximum number of results
+     * @return The hits, most relevant first
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return search(query, maxEdits, limit);
+    }
+
+    /**
+     * Finds the most relevant notes, tolerating typos in the query
+     * @param query The free-text query
+     * @param maxEdits The maximum edit distance per query term
+     * @param limit The maximum number of results
+     * @return The hits, most relevant first
+     */
+    public List<SearchHit> search(String query, int maxEdits, int limit) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String term : Tokenizer.terms(query)) {
+            for (Map.Entry<String, Integer> match : expandTerm(term, maxEdits).entrySet()) {
+                double weight = 1.0 / (1 + match.getValue());
+                weights.merge(match.getKey(), weight, Math::max);
+            }
+        }
+        return searcher.search(weights, limit);
+    }
+
+    /**
+     * Finds the indexed terms close to a query term that occur in at least one live note
+     * @param term The lowercase query term
+     * @param maxEdits The maximum edit distance
+     * @return Matching terms mapped to their distance, closest first
+     */
+    public Map<String, Integer> expandTerm(String term, int maxEdits) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Maximum edits cannot be negative");
+        }
+        int edits = term.length() <= SHORT_TERM_LENGTH ? Math.min(maxEdits, 1) : maxEdits;
+        Map<String, Integer> matches = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> match : trigrams.lookup(term, edits).entrySet()) {
+            // The dictionary keeps terms whose notes were all deleted or edited
+            if (index.documentFrequency(match.getKey()) > 0) {
+                matches.put(match.getKey(), match.getValue());
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,416 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.search.InvertedIndex.IndexedNote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of the persisted search index: a snapshot file holding every indexed
+ * note, and a journal of changes appended after each storage write.
+ *
+ * <p>Snapshot: magic, format version, store generation, the term dictionary, then one
+ * record per note (id, modification date, field lengths and per-term frequencies and
+ * delta-coded offsets), followed by a CRC32 of everything before it. Journal: magic,
+ * format version and the snapshot generation it extends, then records of generation,
+ * kind, length, body and a CRC32 each. Integers in bodies are variable-length.
+ */
+final class IndexCodec {
+
+    static final int SNAPSHOT_MAGIC = 0x4E494458;
+    static final int JOURNAL_MAGIC = 0x4E494A4C;
+    static final int FORMAT_VERSION = 1;
+    static final int JOURNAL_HEADER_BYTES = 16;
+
+    static final byte RECORD_ADD = 1;
+    static final byte RECORD_REMOVE = 2;
+    static final byte RECORD_GENERATION = 3;
+
+    private IndexCodec() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * An indexed note as stored on disk, identified by note id rather than by object
+     */
+    static final class StoredNote {
+        final String noteId;
+        final String modified;
+        final int titleLength;
+        final int contentLength;
+        final String[] terms;
+        final int[] titleTf;
+        final int[] contentTf;
+        final int[][] offsets;
+
+        StoredNote(String noteId, String modified, int titleLength, int contentLength,
+                   String[] terms, int[] titleTf, int[] contentTf, int[][] offsets) {
+            this.noteId = noteId;
+            this.modified = modified;
+            this.titleLength = titleLength;
+            this.contentLength = contentLength;
+            this.terms = terms;
+            this.titleTf = titleTf;
+            this.contentTf = contentTf;
+            this.offsets = offsets;
+        }
+
+        IndexedNote toIndexed(Note note) {
+            return new IndexedNote(note, titleLength, contentLength, terms, titleTf, contentTf, offsets);
+        }
+    }
+
+    /**
+     * Decoded index contents: notes in indexing order and the generation they reflect
+     */
+    static final class Contents {
+        long generation;
+        final Map<String, StoredNote> notes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Gets the modification stamp recorded for a note, used to detect notes edited
+     * without the index hearing about it
+     */
+    static String modifiedStamp(Note note) {
+        return note.getModificationDate() == null ? "" : note.getModificationDate().toString();
+    }
+
+    /**
+     * Writes a snapshot of every live note in an index
+     * @param index The index to write
+     * @param generation The store generation the index reflects
+     * @param out The destination; closed on return
+     */
+    static void writeSnapshot(InvertedIndex index, long generation, OutputStream out) throws IOException {
+        writeSnapshot(index, generation, out, IndexCodec::modifiedStamp);
+    }
+
+    /**
+     * Writes a snapshot of every live note in an index, with modification stamps read
+     * earlier, for writing on another thread than the one that changes the notes
+     * @param index The index to write
+     * @param generation The store generation the index reflects
+     * @param out The destination; closed on return
+     * @param stamps Gets the {@link #modifiedStamp} each note had when it was indexed
+     */
+    static void writeSnapshot(InvertedIndex index, long generation, OutputStream out,
+                              Function<Note, String> stamps) throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataOutputStream data = new DataOutputStream(new ChecksumOutputStream(out, crc))) {
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeInt(FORMAT_VERSION);
+            data.writeLong(generation);
+
+            Map<String, Integer> termIds = new HashMap<>();
+            writeVarInt(data, index.terms().size());
+            for (String term : index.terms()) {
+                termIds.put(term, termIds.size());
+                writeString(data, term);
+            }
+
+            writeVarInt(data, index.size());
+            for (int docId = 0; docId < index.docCount(); docId++) {
+                IndexedNote indexed = index.indexed(docId);
+                if (indexed != null) {
+                    writeNote(data, indexed, stamps.apply(indexed.note), termIds);
+                }
+            }
+            data.flush();
+            data.writeLong(crc.getValue());
+        }
+    }
+
+    /**
+     * Reads a snapshot, verifying its checksum
+     * @param buffer The snapshot bytes, typically a mapped file
+     * @return The decoded contents
+     * @throws IOException if the snapshot is corrupt or of another format version
+     */
+    static Contents readSnapshot(ByteBuffer buffer) throws IOException {
+        int bodyEnd = buffer.limit() - Long.BYTES;
+        if (bodyEnd < 16) {
+            throw new IOException("Index snapshot is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(bodyEnd));
+        if (crc.getValue() != buffer.getLong(bodyEnd)) {
+            throw new IOException("Index snapshot checksum mismatch");
+        }
+
+        ByteBuffer in = buffer.duplicate().limit(bodyEnd);
+        if (in.getInt() != SNAPSHOT_MAGIC || in.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported index snapshot format");
+        }
+        Contents contents = new Contents();
+        contents.generation = in.getLong();
+
+        String[] terms = new String[readVarInt(in)];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = readString(in);
+        }
+        int count = readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            StoredNote note = readNote(in, terms);
+            contents.notes.put(note.noteId, note);
+        }
+        return contents;
+    }
+
+    /**
+     * Writes the header of an empty journal extending a snapshot
+     */
+    static void writeJournalHeader(DataOutput out, long baseGeneration) throws IOException {
+        out.writeInt(JOURNAL_MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(baseGeneration);
+    }
+
+    /**
+     * Encodes a journal record recording a note's indexed form
+     */
+    static byte[] addRecord(long generation, IndexedNote indexed) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeNote(new DataOutputStream(body), indexed, modifiedStamp(indexed.note), null);
+        return record(generation, RECORD_ADD, body.toByteArray());
+    }
+
+    /**
+     * Encodes a journal record recording a note's removal
+     */
+    static byte[] removeRecord(long generation, String noteId) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeString(new DataOutputStream(body), noteId);
+        return record(generation, RECORD_REMOVE, body.toByteArray());
+    }
+
+    /**
+     * Encodes a journal record advancing the generation without changing any note
+     */
+    static byte[] generationRecord(long generation) throws IOException {
+        return record(generation, RECORD_GENERATION, new byte[0]);
+    }
+
+    /**
+     * Applies a journal on top of snapshot contents. Replay stops at the first torn or
+     * corrupt record, as left by a crash during an append.
+     * @param buffer The journal bytes
+     * @param contents The snapshot contents, updated in place
+     * @throws IOException if the journal does not extend this snapshot
+     */
+    static void replayJournal(ByteBuffer buffer, Contents contents) throws IOException {
+        ByteBuffer in = buffer.duplicate();
+        if (in.remaining() < JOURNAL_HEADER_BYTES || in.getInt() != JOURNAL_MAGIC || in.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported index journal format");
+        }
+        if (in.getLong() != contents.generation) {
+            throw new IOException("Index journal does not extend the snapshot");
+        }
+
+        while (in.remaining() >= Long.BYTES + 1 + Integer.BYTES) {
+            int start = in.position();
+            long generation = in.getLong();
+            byte kind = in.get();
+            int length = in.getInt();
+            if (length < 0 || in.remaining() < length + Integer.BYTES) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(start).limit(in.position() + length));
+            ByteBuffer body = in.duplicate().limit(in.position() + length);
+            in.position(in.position() + length);
+            if ((int) crc.getValue() != in.getInt()) {
+                break;
+            }
+
+            if (kind == RECORD_ADD) {
+                StoredNote note = readNote(body, null);
+                // Re-insert at the end, matching the index giving updates a new document id
+                contents.notes.remove(note.noteId);
+                contents.notes.put(note.noteId, note);
+            } else if (kind == RECORD_REMOVE) {
+                contents.notes.remove(readString(body));
+            } else if (kind != RECORD_GENERATION) {
+                throw new IOException("Unknown index journal record " + kind);
+            }
+            contents.generation = generation;
+        }
+    }
+
+    private static byte[] record(long generation, byte kind, byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 17);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(generation);
+        out.writeByte(kind);
+        out.writeInt(body.length);
+        out.write(body);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a note, with terms as dictionary ids when a dictionary is given and
+     * inline otherwise
+     */
+    private static void writeNote(DataOutput out, IndexedNote indexed, String stamp, Map<String, Integer> termIds)
+            throws IOException {
+        writeString(out, indexed.note.getId());
+        writeString(out, stamp);
+        writeVarInt(out, indexed.titleLength);
+        writeVarInt(out, indexed.contentLength);
+        writeVarInt(out, indexed.terms.length);
+        for (int i = 0; i < indexed.terms.length; i++) {
+            if (termIds != null) {
+                writeVarInt(out, termIds.get(indexed.terms[i]));
+            } else {
+                writeString(out, indexed.terms[i]);
+            }
+            writeVarInt(out, indexed.titleTf[i]);
+            writeVarInt(out, indexed.contentTf[i]);
+            int[] offsets = indexed.offsets[i];
+            int previous = 0;
+            for (int k = 0; k < offsets.length; k += 2) {
+                if (k == indexed.titleTf[i] * 2) {
+                    // Content offsets restart from the beginning of the content
+                    previous = 0;
+                }
+                writeVarInt(out, offsets[k] - previous);
+                writeVarInt(out, offsets[k + 1] - offsets[k]);
+                previous = offsets[k + 1];
+            }
+        }
+    }
+
+    private static StoredNote readNote(ByteBuffer in, String[] dictionary) {
+        String noteId = readString(in);
+        String modified = readString(in);
+        int titleLength = readVarInt(in);
+        int contentLength = readVarInt(in);
+        int count = readVarInt(in);
+        String[] terms = new String[count];
+        int[] titleTf = new int[count];
+        int[] contentTf = new int[count];
+        int[][] offsets = new int[count][];
+        for (int i = 0; i < count; i++) {
+            terms[i] = dictionary != null ? dictionary[readVarInt(in)] : readString(in);
+            titleTf[i] = readVarInt(in);
+            contentTf[i] = readVarInt(in);
+            int[] pairs = new int[(titleTf[i] + contentTf[i]) * 2];
+            int previous = 0;
+            for (int k = 0; k < pairs.length; k += 2) {
+                if (k == titleTf[i] * 2) {
+                    previous = 0;
+                }
+                pairs[k] = previous + readVarInt(in);
+                pairs[k + 1] = pairs[k] + readVarInt(in);
+                previous = pairs[k + 1];
+            }
+            offsets[i] = pairs;
+        }
+        return new StoredNote(noteId, modified, titleLength, contentLength, terms, titleTf, contentTf, offsets);
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("String runs past the end of the index");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Buffers writes and feeds them to a running checksum on their way to the file
+     */
+    private static final class ChecksumOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final CRC32 crc;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int count;
+
+        ChecksumOutputStream(OutputStream out, CRC32 crc) {
+            this.out = out;
+            this.crc = crc;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > buffer.length - count) {
+                flushBuffer();
+            }
+            if (len > buffer.length) {
+                crc.update(b, off, len);
+                out.write(b, off, len);
+            } else {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            out.close();
+        }
+
+        private void flushBuffer() throws IOException {
+            crc.update(buffer, 0, count);
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
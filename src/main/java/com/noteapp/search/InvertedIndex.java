@@ -0,0 +1,449 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Term index over note titles and content. Each posting records the term frequency in
+ * the title and in the content, plus the character offsets of every occurrence so that
+ * hits can be highlighted without re-scanning the note.
+ *
+ * <p>Documents get increasing ids, so posting lists stay sorted by appending. An update
+ * retires the old document id and indexes the note again under a new one; retired
+ * postings are skipped at query time and dropped by periodic compaction.
+ * Not thread-safe, like {@link NoteManager}.
+ */
+public class InvertedIndex implements NoteChangeListener {
+
+    /** Compact once retired documents outnumber live ones (and there are enough to matter) */
+    private static final int MIN_STALE_FOR_COMPACTION = 64;
+
+    private final List<DocEntry> docs = new ArrayList<>();
+    private final Map<String, Integer> docIdsByNoteId = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final List<Consumer<String>> termListeners = new ArrayList<>();
+    private long totalTitleLength;
+    private long totalContentLength;
+    private int liveDocs;
+    private int staleDocs;
+
+    /**
+     * Indexes the current notes of a manager and registers for updates
+     * @param noteManager The manager to index
+     * @return The attached index
+     */
+    public static InvertedIndex attach(NoteManager noteManager) {
+        InvertedIndex index = new InvertedIndex();
+        for (Note note : noteManager.getNotesView()) {
+            index.noteAdded(note);
+        }
+        noteManager.addChangeListener(index);
+        return index;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        if (docIdsByNoteId.containsKey(note.getId())) {
+            remove(note.getId());
+        }
+        add(note);
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        remove(previous.getId());
+        add(current);
+        maybeCompact();
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        remove(note.getId());
+        maybeCompact();
+    }
+
+    /**
+     * Gets the number of indexed notes
+     * @return The live document count
+     */
+    public int size() {
+        return liveDocs;
+    }
+
+    /**
+     * Gets the term dictionary
+     * @return A read-only view of all indexed terms, possibly including terms
+     *         whose postings all belong to retired documents
+     */
+    public Set<String> terms() {
+        return Collections.unmodifiableSet(postings.keySet());
+    }
+
+    /**
+     * Registers a callback for terms entering the dictionary, so that structures
+     * derived from it (such as a trigram index) can be kept current
+     * @param listener Called with each new term
+     */
+    public void addTermListener(Consumer<String> listener) {
+        termListeners.add(listener);
+    }
+
+    /**
+     * Gets the number of live notes containing a term
+     * @param term The lowercase term
+     * @return The document frequency
+     */
+    public int documentFrequency(String term) {
+        PostingList list = postings.get(term);
+        return list == null ? 0 : list.live;
+    }
+
+    PostingList postings(String term) {
+        return postings.get(term);
+    }
+
+    DocEntry doc(int docId) {
+        return docs.get(docId);
+    }
+
+    double averageTitleLength() {
+        return liveDocs == 0 ? 0 : totalTitleLength / (double) liveDocs;
+    }
+
+    double averageContentLength() {
+        return liveDocs == 0 ? 0 : totalContentLength / (double) liveDocs;
+    }
+
+    /**
+     * Gets the number of document ids handed out, including retired ones
+     */
+    int docCount() {
+        return docs.size();
+    }
+
+    /**
+     * Gets the indexed form of a live document
+     * @param docId The document id
+     * @return The document's terms with their frequencies and offsets, or null if retired
+     */
+    IndexedNote indexed(int docId) {
+        DocEntry entry = docs.get(docId);
+        if (entry == null) {
+            return null;
+        }
+        int count = entry.terms.length;
+        int[] titleTf = new int[count];
+        int[] contentTf = new int[count];
+        int[][] offsets = new int[count][];
+        for (int i = 0; i < count; i++) {
+            PostingList list = postings.get(entry.terms[i]);
+            int position = list.advance(0, docId);
+            titleTf[i] = list.titleTf[position];
+            contentTf[i] = list.contentTf[position];
+            offsets[i] = list.offsets[position];
+        }
+        return new IndexedNote(entry.note, entry.titleLength, entry.contentLength, entry.terms, titleTf, contentTf, offsets);
+    }
+
+    /**
+     * Gets the indexed form of a live note
+     * @param noteId The note id
+     * @return The indexed form, or null if the note is not indexed
+     */
+    IndexedNote indexed(String noteId) {
+        Integer docId = docIdsByNoteId.get(noteId);
+        return docId == null ? null : indexed(docId);
+    }
+
+    /**
+     * Adds a note whose terms were analysed earlier, without tokenizing it again. Used
+     * to load persisted indexes; the note must not be indexed already.
+     * @param indexed The analysed note
+     */
+    void restore(IndexedNote indexed) {
+        if (docIdsByNoteId.containsKey(indexed.note.getId())) {
+            remove(indexed.note.getId());
+        }
+        insert(indexed);
+    }
+
+    /**
+     * Adds or replaces a note from its title and content read earlier, so that the index
+     * can be built on another thread than the one that owns and changes the note
+     * @param note The note, whose id must not change
+     * @param title The note's title
+     * @param content The note's content
+     */
+    void add(Note note, String title, String content) {
+        boolean replaced = docIdsByNoteId.containsKey(note.getId());
+        if (replaced) {
+            remove(note.getId());
+        }
+        analyse(note, title, content);
+        if (replaced) {
+            maybeCompact();
+        }
+    }
+
+    private void add(Note note) {
+        analyse(note, note.getTitle(), note.getContent());
+    }
+
+    private void analyse(Note note, String title, String content) {
+        Map<String, TermOccurrences> terms = new LinkedHashMap<>();
+        int[] titleLength = new int[1];
+        Tokenizer.tokenize(title, (term, start, end) -> {
+            terms.computeIfAbsent(term, t -> new TermOccurrences()).addTitle(start, end);
+            titleLength[0]++;
+        });
+        int[] contentLength = new int[1];
+        Tokenizer.tokenize(content, (term, start, end) -> {
+            terms.computeIfAbsent(term, t -> new TermOccurrences()).addContent(start, end);
+            contentLength[0]++;
+        });
+
+        int count = terms.size();
+        int[] titleTf = new int[count];
+        int[] contentTf = new int[count];
+        int[][] offsets = new int[count][];
+        int i = 0;
+        for (TermOccurrences occurrences : terms.values()) {
+            titleTf[i] = occurrences.titleTf;
+            contentTf[i] = occurrences.contentTf;
+            offsets[i] = occurrences.offsets();
+            i++;
+        }
+        insert(new IndexedNote(note, titleLength[0], contentLength[0], terms.keySet().toArray(new String[0]),
+                titleTf, contentTf, offsets));
+    }
+
+    private void insert(IndexedNote indexed) {
+        int docId = docs.size();
+        docs.add(new DocEntry(indexed.note, indexed.titleLength, indexed.contentLength, indexed.terms));
+        docIdsByNoteId.put(indexed.note.getId(), docId);
+        for (int i = 0; i < indexed.terms.length; i++) {
+            String term = indexed.terms[i];
+            PostingList list = postings.get(term);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(term, list);
+                for (Consumer<String> listener : termListeners) {
+                    listener.accept(term);
+                }
+            }
+            list.append(docId, indexed.titleTf[i], indexed.contentTf[i], indexed.offsets[i]);
+        }
+
+        totalTitleLength += indexed.titleLength;
+        totalContentLength += indexed.contentLength;
+        liveDocs++;
+    }
+
+    private void remove(String noteId) {
+        Integer docId = docIdsByNoteId.remove(noteId);
+        if (docId == null) {
+            return;
+        }
+        DocEntry entry = docs.set(docId, null);
+        for (String term : entry.terms) {
+            postings.get(term).live--;
+        }
+        totalTitleLength -= entry.titleLength;
+        totalContentLength -= entry.contentLength;
+        liveDocs--;
+        staleDocs++;
+    }
+
+    private void maybeCompact() {
+        if (staleDocs >= MIN_STALE_FOR_COMPACTION && staleDocs > liveDocs) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops retired documents and renumbers the live ones densely, preserving their order
+     */
+    void compact() {
+        int[] remap = new int[docs.size()];
+        List<DocEntry> live = new ArrayList<>(liveDocs);
+        for (int docId = 0; docId < docs.size(); docId++) {
+            DocEntry entry = docs.get(docId);
+            if (entry == null) {
+                remap[docId] = -1;
+            } else {
+                remap[docId] = live.size();
+                docIdsByNoteId.put(entry.note.getId(), live.size());
+                live.add(entry);
+            }
+        }
+        docs.clear();
+        docs.addAll(live);
+
+        postings.values().removeIf(list -> {
+            list.compact(remap);
+            return list.size == 0;
+        });
+        staleDocs = 0;
+    }
+
+    /**
+     * Per-document bookkeeping: field lengths in terms and the distinct terms, so
+     * that removal does not depend on the note's current (possibly changed) text
+     */
+    static final class DocEntry {
+        final Note note;
+        final int titleLength;
+        final int contentLength;
+        final String[] terms;
+
+        DocEntry(Note note, int titleLength, int contentLength, String[] terms) {
+            this.note = note;
+            this.titleLength = titleLength;
+            this.contentLength = contentLength;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * A note's analysed form: its field lengths and, per distinct term, the title and
+     * content frequencies and the occurrence offsets (title pairs first)
+     */
+    static final class IndexedNote {
+        final Note note;
+        final int titleLength;
+        final int contentLength;
+        final String[] terms;
+        final int[] titleTf;
+        final int[] contentTf;
+        final int[][] offsets;
+
+        IndexedNote(Note note, int titleLength, int contentLength, String[] terms,
+                    int[] titleTf, int[] contentTf, int[][] offsets) {
+            this.note = note;
+            this.titleLength = titleLength;
+            this.contentLength = contentLength;
+            this.terms = terms;
+            this.titleTf = titleTf;
+            this.contentTf = contentTf;
+            this.offsets = offsets;
+        }
+    }
+
+    /**
+     * Postings of one term in increasing document order. For posting i, {@code offsets[i]}
+     * holds start/end pairs: the first {@code titleTf[i]} pairs are in the title, the rest
+     * in the content.
+     */
+    static final class PostingList {
+        int size;
+        int[] docs = new int[2];
+        int[] titleTf = new int[2];
+        int[] contentTf = new int[2];
+        int[][] offsets = new int[2][];
+        /** Live documents containing the term */
+        int live;
+        /** Whether any posting ever had a title occurrence; used for score upper bounds */
+        boolean inTitle;
+
+        void append(int docId, int termTitleTf, int termContentTf, int[] termOffsets) {
+            if (size == docs.length) {
+                int capacity = size * 2;
+                docs = Arrays.copyOf(docs, capacity);
+                titleTf = Arrays.copyOf(titleTf, capacity);
+                contentTf = Arrays.copyOf(contentTf, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+            }
+            docs[size] = docId;
+            titleTf[size] = termTitleTf;
+            contentTf[size] = termContentTf;
+            offsets[size] = termOffsets;
+            inTitle |= termTitleTf > 0;
+            size++;
+            live++;
+        }
+
+        /**
+         * Finds the first posting at or after a position whose document is at least the target
+         * @param from The position to start from
+         * @param target The document id to reach
+         * @return The posting position, or size if there is none
+         */
+        int advance(int from, int target) {
+            // Gallop, then binary search the bracketed range
+            int step = 1;
+            int lo = from;
+            int hi = from;
+            while (hi < size && docs[hi] < target) {
+                lo = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            hi = Math.min(hi, size);
+            int index = Arrays.binarySearch(docs, lo, hi, target);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        void compact(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int docId = remap[docs[i]];
+                if (docId >= 0) {
+                    docs[kept] = docId;
+                    titleTf[kept] = titleTf[i];
+                    contentTf[kept] = contentTf[i];
+                    offsets[kept] = offsets[i];
+                    kept++;
+                }
+            }
+            Arrays.fill(offsets, kept, size, null);
+            size = kept;
+        }
+    }
+
+    /**
+     * Occurrences of one term in one note, gathered while tokenizing
+     */
+    private static final class TermOccurrences {
+        int titleTf;
+        int contentTf;
+        int[] titleOffsets = new int[0];
+        int[] contentOffsets = new int[0];
+
+        void addTitle(int start, int end) {
+            titleOffsets = append(titleOffsets, titleTf, start, end);
+            titleTf++;
+        }
+
+        void addContent(int start, int end) {
+            contentOffsets = append(contentOffsets, contentTf, start, end);
+            contentTf++;
+        }
+
+        int[] offsets() {
+            int[] all = new int[(titleTf + contentTf) * 2];
+            System.arraycopy(titleOffsets, 0, all, 0, titleTf * 2);
+            System.arraycopy(contentOffsets, 0, all, titleTf * 2, contentTf * 2);
+            return all;
+        }
+
+        private static int[] append(int[] pairs, int count, int start, int end) {
+            if ((count + 1) * 2 > pairs.length) {
+                pairs = Arrays.copyOf(pairs, Math.max(4, pairs.length * 2));
+            }
+            pairs[count * 2] = start;
+            pairs[count * 2 + 1] = end;
+            return pairs;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The graph of {@code [[Title]]} links between the notes of a {@link NoteManager}, kept in
+ * both directions: the titles each note links to, and the notes linking to each title.
+ * Links are kept by title rather than by note, so a link to a note that does not exist
+ * yet starts resolving as soon as the note is created, and "what links here" is one map
+ * lookup followed by the note's backlinks, O(degree) rather than a search of every note.
+ *
+ * <p>A note's links are re-parsed only when its content changes. Kept current through
+ * {@link NoteChangeListener} callbacks; not thread-safe, like NoteManager itself.
+ */
+public class LinkIndex implements NoteChangeListener {
+
+    /** The direction in which {@link #neighborhood} follows links */
+    public enum Direction {
+        OUTGOING, INCOMING, BOTH
+    }
+
+    private final NoteManager noteManager;
+    private final Map<String, Note> notes = new HashMap<>();
+    /** Note ID -> keys of the titles it links to */
+    private final Map<String, Set<String>> outgoing = new HashMap<>();
+    /** Title key -> IDs of the notes linking to it */
+    private final Map<String, Set<String>> incoming = new HashMap<>();
+    /** Title key -> IDs of the notes with that title */
+    private final Map<String, Set<String>> titles = new HashMap<>();
+
+    private LinkIndex(NoteManager noteManager) {
+        this.noteManager = noteManager;
+    }
+
+    /**
+     * Builds the index over the current notes of a manager and registers it for updates
+     * @param noteManager The manager to index
+     * @return The attached index
+     */
+    public static LinkIndex attach(NoteManager noteManager) {
+        LinkIndex index = new LinkIndex(noteManager);
+        for (Note note : noteManager.getNotesView()) {
+            index.noteAdded(note);
+        }
+        noteManager.addChangeListener(index);
+        return index;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        Note existing = notes.get(note.getId());
+        if (existing != null) {
+            noteRemoved(existing);
+        }
+        notes.put(note.getId(), note);
+        add(titles, LinkParser.key(note.getTitle()), note.getId());
+        setLinks(note.getId(), LinkParser.targets(note.getContent()));
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        if (!notes.containsKey(current.getId())) {
+            noteAdded(current);
+            return;
+        }
+        notes.put(current.getId(), current);
+        String oldKey = LinkParser.key(previous.getTitle());
+        String newKey = LinkParser.key(current.getTitle());
+        if (!Objects.equals(oldKey, newKey)) {
+            remove(titles, oldKey, current.getId());
+            add(titles, newKey, current.getId());
+        }
+        if (!Objects.equals(previous.getContent(), current.getContent())) {
+            setLinks(current.getId(), LinkParser.targets(current.getContent()));
+        }
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        if (notes.remove(note.getId()) == null) {
+            return;
+        }
+        remove(titles, LinkParser.key(note.getTitle()), note.getId());
+        setLinks(note.getId(), Collections.emptySet());
+    }
+
+    /**
+     * Gets the notes that link to a note
+     * @param noteId The ID of the linked note
+     * @return The linking notes, empty if there are none or the note does not exist
+     */
+    public List<Note> backlinks(String noteId) {
+        Note note = notes.get(noteId);
+        if (note == null) {
+            return new ArrayList<>();
+        }
+        return resolve(incoming.get(LinkParser.key(note.getTitle())), noteId);
+    }
+
+    /**
+     * Gets the notes a note links to. A title shared by several notes resolves to all of them.
+     * @param noteId The ID of the linking note
+     * @return The linked notes that exist, in order of first link
+     */
+    public List<Note> links(String noteId) {
+        List<Note> linked = new ArrayList<>();
+        for (String key : outgoing.getOrDefault(noteId, Collections.emptySet())) {
+            linked.addAll(resolve(titles.get(key), noteId));
+        }
+        return linked;
+    }
+
+    /**
+     * Gets the titles a note links to for which there is no note
+     * @param noteId The ID of the linking note
+     * @return The normalized titles
+     */
+    public List<String> unresolvedLinks(String noteId) {
+        List<String> unresolved = new ArrayList<>();
+        for (String key : outgoing.getOrDefault(noteId, Collections.emptySet())) {
+            if (!titles.containsKey(key)) {
+                unresolved.add(key);
+            }
+        }
+        return unresolved;
+    }
+
+    /**
+     * Gets the notes within a number of links of a note, breadth first
+     * @param noteId The ID of the starting note
+     * @param maxDepth The number of links to follow, at least 1
+     * @param direction Whether to follow links, backlinks or both
+     * @param maxNotes The most notes to return, bounding the work on dense graphs
+     * @return Each reached note and its distance in links, nearest first; the starting note is not included
+     */
+    public Map<Note, Integer> neighborhood(String noteId, int maxDepth, Direction direction, int maxNotes) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        if (maxNotes < 1) {
+            throw new IllegalArgumentException("Note limit must be at least 1");
+        }
+        Map<Note, Integer> reached = new LinkedHashMap<>();
+        if (!notes.containsKey(noteId)) {
+            return reached;
+        }
+        Set<String> visited = new LinkedHashSet<>();
+        visited.add(noteId);
+        Deque<String> frontier = new ArrayDeque<>();
+        frontier.add(noteId);
+        for (int depth = 1; depth <= maxDepth && !frontier.isEmpty(); depth++) {
+            Deque<String> next = new ArrayDeque<>();
+            for (String id : frontier) {
+                List<Note> adjacent = new ArrayList<>();
+                if (direction != Direction.INCOMING) {
+                    adjacent.addAll(links(id));
+                }
+                if (direction != Direction.OUTGOING) {
+                    adjacent.addAll(backlinks(id));
+                }
+                for (Note note : adjacent) {
+                    if (visited.add(note.getId())) {
+                        reached.put(note, depth);
+                        if (reached.size() == maxNotes) {
+                            return reached;
+                        }
+                        next.add(note.getId());
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return reached;
+    }
+
+    /**
+     * Renames a note and updates the links to it in one transaction. Links are rewritten
+     * only if no other note has the old title, since they would otherwise still resolve.
+     * @param noteId The ID of the note to rename
+     * @param newTitle The new title
+     * @return The number of other notes whose links were rewritten
+     * @throws IllegalArgumentException if the note does not exist or the title is blank
+     */
+    public int rename(String noteId, String newTitle) {
+        Note note = notes.get(noteId);
+        if (note == null) {
+            throw new IllegalArgumentException("Note " + noteId + " not found");
+        }
+        if (LinkParser.key(newTitle) == null) {
+            throw new IllegalArgumentException("Note title cannot be null or empty");
+        }
+        String oldTitle = note.getTitle();
+        String oldKey = LinkParser.key(oldTitle);
+        boolean rewrite = titles.getOrDefault(oldKey, Collections.emptySet()).size() == 1;
+
+        NoteTransaction transaction = new NoteTransaction();
+        String content = rewrite ? LinkParser.retarget(note.getContent(), oldTitle, newTitle) : note.getContent();
+        transaction.update(noteId, newTitle, content);
+        int rewritten = 0;
+        if (rewrite) {
+            for (String sourceId : new ArrayList<>(incoming.getOrDefault(oldKey, Collections.emptySet()))) {
+                if (!sourceId.equals(noteId)) {
+                    Note source = notes.get(sourceId);
+                    transaction.update(sourceId, source.getTitle(),
+                            LinkParser.retarget(source.getContent(), oldTitle, newTitle));
+                    rewritten++;
+                }
+            }
+        }
+        noteManager.commit(transaction);
+        return rewritten;
+    }
+
+    /**
+     * Replaces a note's outgoing links, updating the incoming side for the difference only
+     */
+    private void setLinks(String noteId, Set<String> targets) {
+        Set<String> previous = outgoing.getOrDefault(noteId, Collections.emptySet());
+        for (String key : previous) {
+            if (!targets.contains(key)) {
+                remove(incoming, key, noteId);
+            }
+        }
+        for (String key : targets) {
+            if (!previous.contains(key)) {
+                add(incoming, key, noteId);
+            }
+        }
+        if (targets.isEmpty()) {
+            outgoing.remove(noteId);
+        } else {
+            outgoing.put(noteId, targets);
+        }
+    }
+
+    private List<Note> resolve(Set<String> ids, String except) {
+        List<Note> resolved = new ArrayList<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (!id.equals(except)) {
+                    resolved.add(notes.get(id));
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private static void add(Map<String, Set<String>> map, String key, String noteId) {
+        if (key != null) {
+            map.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(noteId);
+        }
+    }
+
+    private static void remove(Map<String, Set<String>> map, String key, String noteId) {
+        Set<String> ids = key == null ? null : map.get(key);
+        if (ids != null) {
+            ids.remove(noteId);
+            if (ids.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.noteapp.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds links between notes in note content. A link is a note title in double brackets,
+ * {@code [[Title]]}, optionally followed by text to show instead: {@code [[Title|label]]}.
+ * Titles are matched case-insensitively and ignoring surrounding spaces.
+ */
+public final class LinkParser {
+    private static final String OPEN = "[[";
+    private static final String CLOSE = "]]";
+
+    private LinkParser() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Gets the titles a text links to
+     * @param content The text
+     * @return The normalized titles (see {@link #key(String)}), in order of first appearance
+     */
+    public static Set<String> targets(String content) {
+        Set<String> targets = new LinkedHashSet<>();
+        if (content == null) {
+            return targets;
+        }
+        int from = 0;
+        int start;
+        while ((start = content.indexOf(OPEN, from)) >= 0) {
+            int end = linkEnd(content, start);
+            if (end < 0) {
+                from = start + OPEN.length();
+                continue;
+            }
+            String key = key(target(content, start, end));
+            if (key != null) {
+                targets.add(key);
+            }
+            from = end + CLOSE.length();
+        }
+        return targets;
+    }
+
+    /**
+     * Points the links to one title at another, keeping any labels
+     * @param content The text
+     * @param oldTitle The title links currently use, matched case-insensitively
+     * @param newTitle The title to link to instead
+     * @return The rewritten text, or the same text if it has no such link
+     */
+    public static String retarget(String content, String oldTitle, String newTitle) {
+        String oldKey = key(oldTitle);
+        if (content == null || oldKey == null) {
+            return content;
+        }
+        StringBuilder result = null;
+        int copied = 0;
+        int from = 0;
+        int start;
+        while ((start = content.indexOf(OPEN, from)) >= 0) {
+            int end = linkEnd(content, start);
+            if (end < 0) {
+                from = start + OPEN.length();
+                continue;
+            }
+            String target = target(content, start, end);
+            if (oldKey.equals(key(target))) {
+                if (result == null) {
+                    result = new StringBuilder(content.length() + 16);
+                }
+                int targetStart = start + OPEN.length();
+                result.append(content, copied, targetStart).append(newTitle.trim());
+                copied = targetStart + target.length();
+            }
+            from = end + CLOSE.length();
+        }
+        if (result == null) {
+            return content;
+        }
+        return result.append(content, copied, content.length()).toString();
+    }
+
+    /**
+     * Normalizes a title for matching links to notes
+     * @param title The title
+     * @return The trimmed lowercase title, or null if it is blank
+     */
+    public static String key(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return null;
+        }
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds the closing brackets of a link, which may not span lines
+     * @return The index of the closing brackets, or -1 if the brackets do not form a link
+     */
+    private static int linkEnd(String content, int start) {
+        for (int i = start + OPEN.length(); i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '\n' || c == '[') {
+                return -1;
+            }
+            if (content.startsWith(CLOSE, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the title part of a link, before any label
+     */
+    private static String target(String content, int start, int end) {
+        int bar = content.indexOf('|', start);
+        return content.substring(start + OPEN.length(), bar >= 0 && bar < end ? bar : end);
+    }
+}
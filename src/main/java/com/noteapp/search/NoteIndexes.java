@@ -0,0 +1,237 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the notes of a {@link NoteManager}: a hash index on category
+ * and ordered indexes on creation and modification date. Kept current through
+ * {@link NoteChangeListener} callbacks; not thread-safe, like NoteManager itself.
+ */
+public class NoteIndexes implements NoteChangeListener {
+
+    /**
+     * Date attributes that have an ordered index
+     */
+    public enum DateField {
+        CREATED, MODIFIED
+    }
+
+    private final Map<String, Map<String, Note>> byCategory = new HashMap<>();
+    private final TreeMap<LocalDateTime, Map<String, Note>> byCreated = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Map<String, Note>> byModified = new TreeMap<>();
+    private int size;
+
+    /**
+     * Builds indexes over the current notes of a manager and registers them for updates
+     * @param noteManager The manager to index
+     * @return The attached indexes
+     */
+    public static NoteIndexes attach(NoteManager noteManager) {
+        NoteIndexes indexes = new NoteIndexes();
+        for (Note note : noteManager.getNotesView()) {
+            indexes.noteAdded(note);
+        }
+        noteManager.addChangeListener(indexes);
+        return indexes;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        add(note);
+        size++;
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        remove(previous);
+        add(current);
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        remove(note);
+        size--;
+    }
+
+    /**
+     * Gets the number of indexed notes
+     * @return The note count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the notes in a category
+     * @param category The category, compared case-insensitively
+     * @return A read-only view of the matching notes
+     */
+    public Collection<Note> category(String category) {
+        Map<String, Note> notes = byCategory.get(categoryKey(category));
+        return notes == null ? Collections.emptyList() : Collections.unmodifiableCollection(notes.values());
+    }
+
+    /**
+     * Gets the exact number of notes in a category
+     * @param category The category, compared case-insensitively
+     * @return The number of notes in the category
+     */
+    public int categoryCount(String category) {
+        Map<String, Note> notes = byCategory.get(categoryKey(category));
+        return notes == null ? 0 : notes.size();
+    }
+
+    /**
+     * Estimates how many notes fall in a date range, assuming dates are spread
+     * uniformly between the oldest and newest indexed value. Constant time.
+     * @param field The indexed date
+     * @param from Inclusive lower bound, or null
+     * @param to Exclusive upper bound, or null
+     * @return The estimated number of notes in the range
+     */
+    public double estimateRange(DateField field, LocalDateTime from, LocalDateTime to) {
+        TreeMap<LocalDateTime, Map<String, Note>> index = index(field);
+        if (index.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime min = index.firstKey();
+        LocalDateTime max = index.lastKey();
+        LocalDateTime lo = from == null || from.isBefore(min) ? min : from;
+        LocalDateTime hi = to == null || to.isAfter(max) ? max : to;
+        if (hi.isBefore(lo)) {
+            return 0;
+        }
+        long span = Duration.between(min, max).toMillis();
+        if (span == 0) {
+            return size;
+        }
+        double fraction = Duration.between(lo, hi).toMillis() / (double) span;
+        return Math.max(1, fraction * size);
+    }
+
+    /**
+     * Iterates the notes in a date range in date order
+     * @param field The indexed date
+     * @param from Inclusive lower bound, or null
+     * @param to Exclusive upper bound, or null
+     * @param descending true to iterate newest first
+     * @return The notes in the range
+     */
+    public Iterable<Note> range(DateField field, LocalDateTime from, LocalDateTime to, boolean descending) {
+        NavigableMap<LocalDateTime, Map<String, Note>> range = index(field);
+        if (from != null && to != null) {
+            range = range.subMap(from, true, to, false);
+        } else if (from != null) {
+            range = range.tailMap(from, true);
+        } else if (to != null) {
+            range = range.headMap(to, false);
+        }
+        NavigableMap<LocalDateTime, Map<String, Note>> ordered = descending ? range.descendingMap() : range;
+        return () -> new FlatteningIterator(ordered.values().iterator());
+    }
+
+    private void add(Note note) {
+        String key = categoryKey(note.getCategory());
+        if (key != null) {
+            byCategory.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(note.getId(), note);
+        }
+        put(byCreated, note.getCreationDate(), note);
+        put(byModified, note.getModificationDate(), note);
+    }
+
+    private void remove(Note note) {
+        String key = categoryKey(note.getCategory());
+        if (key != null) {
+            Map<String, Note> notes = byCategory.get(key);
+            if (notes != null) {
+                notes.remove(note.getId());
+                if (notes.isEmpty()) {
+                    byCategory.remove(key);
+                }
+            }
+        }
+        delete(byCreated, note.getCreationDate(), note.getId());
+        delete(byModified, note.getModificationDate(), note.getId());
+    }
+
+    private TreeMap<LocalDateTime, Map<String, Note>> index(DateField field) {
+        return field == DateField.CREATED ? byCreated : byModified;
+    }
+
+    private static void put(TreeMap<LocalDateTime, Map<String, Note>> index, LocalDateTime key, Note note) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(note.getId(), note);
+        }
+    }
+
+    private static void delete(TreeMap<LocalDateTime, Map<String, Note>> index, LocalDateTime key, String id) {
+        if (key == null) {
+            return;
+        }
+        Map<String, Note> notes = index.get(key);
+        if (notes != null) {
+            notes.remove(id);
+            if (notes.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? null : category.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Walks the per-timestamp buckets of a date index. Notes sharing a timestamp are
+     * yielded in id order, matching the tie-break of {@link NoteQuery#comparator()}.
+     */
+    private static final class FlatteningIterator implements Iterator<Note> {
+        private final Iterator<Map<String, Note>> buckets;
+        private Iterator<Note> current = Collections.emptyIterator();
+
+        FlatteningIterator(Iterator<Map<String, Note>> buckets) {
+            this.buckets = buckets;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && buckets.hasNext()) {
+                Map<String, Note> bucket = buckets.next();
+                if (bucket.size() == 1) {
+                    current = bucket.values().iterator();
+                } else {
+                    List<Note> tied = new ArrayList<>(bucket.values());
+                    tied.sort(Comparator.comparing(Note::getId));
+                    current = tied.iterator();
+                }
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public Note next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+}
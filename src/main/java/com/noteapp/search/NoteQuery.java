@@ -0,0 +1,544 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable description of a note query: predicates on title, content, category and
+ * dates, plus ordering and paging. Build one with {@link #builder()} or {@link #parse(String)}
+ * and run it through a {@link QueryPlanner}.
+ *
+ * <p>Text predicates are case-insensitive substring matches. Date ranges are half-open:
+ * the lower bound is inclusive and the upper bound exclusive.
+ */
+public final class NoteQuery {
+
+    /**
+     * Fields a query can be ordered by
+     */
+    public enum SortField {
+        TITLE, CREATED, MODIFIED
+    }
+
+    /** Largest offset a query may skip, far beyond any real page but well clear of overflow */
+    public static final int MAX_OFFSET = 10_000_000;
+
+    private static final Comparator<Note> BY_ID = Comparator.comparing(Note::getId);
+
+    private final String text;
+    private final String titleContains;
+    private final String contentContains;
+    private final String category;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+    private final LocalDateTime modifiedFrom;
+    private final LocalDateTime modifiedTo;
+    private final SortField sortField;
+    private final boolean descending;
+    private final int offset;
+    private final int limit;
+
+    private NoteQuery(Builder builder) {
+        this.text = lower(builder.text);
+        this.titleContains = lower(builder.titleContains);
+        this.contentContains = lower(builder.contentContains);
+        this.category = builder.category;
+        this.createdFrom = builder.createdFrom;
+        this.createdTo = builder.createdTo;
+        this.modifiedFrom = builder.modifiedFrom;
+        this.modifiedTo = builder.modifiedTo;
+        this.sortField = builder.sortField;
+        this.descending = builder.descending;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+    }
+
+    /**
+     * Creates a builder for a query that initially matches every note
+     * @return A new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parses the query syntax used by the search box and the headless API.
+     *
+     * <pre>
+     *   title:budget content:"next quarter" category:work
+     *   created&gt;=2024-01-01 modified&gt;=-7d modified&lt;2024-03-01T12:00
+     *   order:-modified limit:20 offset:40
+     * </pre>
+     *
+     * Bare words are matched against title or content. Dates accept {@code yyyy-MM-dd},
+     * ISO date-times, or {@code -Nd} for N days before now. {@code order:-field} sorts descending.
+     *
+     * @param expression The query expression
+     * @return The parsed query
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static NoteQuery parse(String expression) {
+        Builder builder = builder();
+        List<String> bareWords = new ArrayList<>();
+
+        for (String token : tokenize(expression == null ? "" : expression)) {
+            int colon = token.indexOf(':');
+            int comparison = indexOfComparison(token);
+
+            if (comparison > 0 && (colon < 0 || comparison < colon)) {
+                parseDateBound(builder, token, comparison);
+            } else if (colon > 0) {
+                String key = token.substring(0, colon).toLowerCase(Locale.ROOT);
+                String value = unquote(token.substring(colon + 1));
+                switch (key) {
+                    case "title":
+                        builder.titleContains(value);
+                        break;
+                    case "content":
+                        builder.contentContains(value);
+                        break;
+                    case "category":
+                        builder.category(value);
+                        break;
+                    case "order":
+                        boolean desc = value.startsWith("-");
+                        builder.orderBy(parseSortField(desc ? value.substring(1) : value), desc);
+                        break;
+                    case "limit":
+                        builder.limit(parseCount(key, value));
+                        break;
+                    case "offset":
+                        builder.offset(parseCount(key, value));
+                        break;
+                    default:
+                        bareWords.add(unquote(token));
+                }
+            } else {
+                bareWords.add(unquote(token));
+            }
+        }
+
+        if (!bareWords.isEmpty()) {
+            builder.text(String.join(" ", bareWords));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Evaluates every predicate of the query against a note
+     * @param note The note to test
+     * @return true if the note satisfies all predicates
+     */
+    public boolean matches(Note note) {
+        return matchesCategory(note)
+                && inRange(note.getCreationDate(), createdFrom, createdTo)
+                && inRange(note.getModificationDate(), modifiedFrom, modifiedTo)
+                && matchesText(note);
+    }
+
+    boolean matchesCategory(Note note) {
+        return category == null || category.equalsIgnoreCase(note.getCategory());
+    }
+
+    boolean matchesText(Note note) {
+        if (titleContains != null && !containsIgnoreCase(note.getTitle(), titleContains)) {
+            return false;
+        }
+        if (contentContains != null && !containsIgnoreCase(note.getContent(), contentContains)) {
+            return false;
+        }
+        return text == null
+                || containsIgnoreCase(note.getTitle(), text)
+                || containsIgnoreCase(note.getContent(), text);
+    }
+
+    /**
+     * Gets the comparator implementing the query's ordering. Ties are broken by note id
+     * so that paging over an unchanged store is stable.
+     * @return The result comparator, or null if the query is unordered
+     */
+    public Comparator<Note> comparator() {
+        if (sortField == null) {
+            return null;
+        }
+        Comparator<Note> order;
+        switch (sortField) {
+            case TITLE:
+                order = Comparator.comparing(Note::getTitle, String.CASE_INSENSITIVE_ORDER);
+                break;
+            case CREATED:
+                order = Comparator.comparing(Note::getCreationDate);
+                break;
+            default:
+                order = Comparator.comparing(Note::getModificationDate);
+        }
+        return (descending ? order.reversed() : order).thenComparing(BY_ID);
+    }
+
+    /**
+     * Gets the text that must occur in the title or the content
+     * @return The lowercase text, or null for any
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the text that must occur in the title
+     * @return The lowercase text, or null for any
+     */
+    public String getTitleContains() {
+        return titleContains;
+    }
+
+    /**
+     * Gets the text that must occur in the content
+     * @return The lowercase text, or null for any
+     */
+    public String getContentContains() {
+        return contentContains;
+    }
+
+    /**
+     * Gets the category the notes must have
+     * @return The category, or null for any
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets the earliest creation date, inclusive
+     * @return The lower bound, or null for none
+     */
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    /**
+     * Gets the creation date the notes must precede
+     * @return The exclusive upper bound, or null for none
+     */
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    /**
+     * Gets the earliest modification date, inclusive
+     * @return The lower bound, or null for none
+     */
+    public LocalDateTime getModifiedFrom() {
+        return modifiedFrom;
+    }
+
+    /**
+     * Gets the modification date the notes must precede
+     * @return The exclusive upper bound, or null for none
+     */
+    public LocalDateTime getModifiedTo() {
+        return modifiedTo;
+    }
+
+    /**
+     * Gets the field the results are ordered by
+     * @return The sort field, or null if unordered
+     */
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    /**
+     * Checks whether the results are in descending order
+     * @return true for descending order
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Gets the number of matching notes to skip
+     * @return The offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the maximum number of results
+     * @return The limit, or -1 if unlimited
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        if (text != null) {
+            parts.add("text contains \"" + text + "\"");
+        }
+        if (titleContains != null) {
+            parts.add("title contains \"" + titleContains + "\"");
+        }
+        if (contentContains != null) {
+            parts.add("content contains \"" + contentContains + "\"");
+        }
+        if (category != null) {
+            parts.add("category = \"" + category + "\"");
+        }
+        if (createdFrom != null || createdTo != null) {
+            parts.add("created in [" + bound(createdFrom) + ", " + bound(createdTo) + ")");
+        }
+        if (modifiedFrom != null || modifiedTo != null) {
+            parts.add("modified in [" + bound(modifiedFrom) + ", " + bound(modifiedTo) + ")");
+        }
+        return parts.isEmpty() ? "true" : String.join(" and ", parts);
+    }
+
+    private static String bound(LocalDateTime value) {
+        return value == null ? "*" : value.toString();
+    }
+
+    private static boolean inRange(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        return (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+    }
+
+    /**
+     * Case-insensitive substring test without allocating a lowercased copy of the haystack.
+     * The needle must already be lowercase.
+     */
+    static boolean containsIgnoreCase(String haystack, String lowerNeedle) {
+        if (haystack == null) {
+            return false;
+        }
+        int max = haystack.length() - lowerNeedle.length();
+        for (int i = 0; i <= max; i++) {
+            if (haystack.regionMatches(true, i, lowerNeedle, 0, lowerNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String lower(String value) {
+        return value == null || value.isEmpty() ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                current.append(c);
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote in query: " + expression);
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static int indexOfComparison(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '<' || c == '>') {
+                return i;
+            }
+            if (c == '"') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void parseDateBound(Builder builder, String token, int opStart) {
+        String field = token.substring(0, opStart).toLowerCase(Locale.ROOT);
+        boolean inclusive = opStart + 1 < token.length() && token.charAt(opStart + 1) == '=';
+        boolean lower = token.charAt(opStart) == '>';
+        String rawValue = token.substring(opStart + (inclusive ? 2 : 1));
+
+        // Normalise every bound to the half-open [from, to) form
+        LocalDateTime value;
+        boolean dateOnly = false;
+        if (rawValue.matches("-\\d+d")) {
+            int days = Integer.parseInt(rawValue.substring(1, rawValue.length() - 1));
+            value = LocalDateTime.now().minusDays(days);
+        } else {
+            try {
+                if (rawValue.length() == 10) {
+                    value = LocalDate.parse(rawValue).atStartOfDay();
+                    dateOnly = true;
+                } else {
+                    value = LocalDateTime.parse(rawValue);
+                }
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date in query: " + rawValue);
+            }
+        }
+        boolean exclusiveLower = lower && !inclusive;
+        boolean inclusiveUpper = !lower && inclusive;
+        if (exclusiveLower || inclusiveUpper) {
+            value = dateOnly ? value.plusDays(1) : value.plusNanos(1);
+        }
+
+        switch (field) {
+            case "created":
+                if (lower) {
+                    builder.createdFrom(value);
+                } else {
+                    builder.createdTo(value);
+                }
+                break;
+            case "modified":
+                if (lower) {
+                    builder.modifiedFrom(value);
+                } else {
+                    builder.modifiedTo(value);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown date field in query: " + field);
+        }
+    }
+
+    private static SortField parseSortField(String value) {
+        try {
+            return SortField.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown order field in query: " + value);
+        }
+    }
+
+    private static int parseCount(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + " in query: " + value);
+        }
+    }
+
+    /**
+     * Builder for {@link NoteQuery}
+     */
+    public static final class Builder {
+        private String text;
+        private String titleContains;
+        private String contentContains;
+        private String category;
+        private LocalDateTime createdFrom;
+        private LocalDateTime createdTo;
+        private LocalDateTime modifiedFrom;
+        private LocalDateTime modifiedTo;
+        private SortField sortField;
+        private boolean descending;
+        private int offset;
+        private int limit = -1;
+
+        private Builder() {
+        }
+
+        public Builder text(String text) {
+            this.text = text;
+            return this;
+        }
+
+        public Builder titleContains(String titleContains) {
+            this.titleContains = titleContains;
+            return this;
+        }
+
+        public Builder contentContains(String contentContains) {
+            this.contentContains = contentContains;
+            return this;
+        }
+
+        public Builder category(String category) {
+            this.category = category;
+            return this;
+        }
+
+        public Builder createdFrom(LocalDateTime createdFrom) {
+            this.createdFrom = createdFrom;
+            return this;
+        }
+
+        public Builder createdTo(LocalDateTime createdTo) {
+            this.createdTo = createdTo;
+            return this;
+        }
+
+        public Builder modifiedFrom(LocalDateTime modifiedFrom) {
+            this.modifiedFrom = modifiedFrom;
+            return this;
+        }
+
+        public Builder modifiedTo(LocalDateTime modifiedTo) {
+            this.modifiedTo = modifiedTo;
+            return this;
+        }
+
+        public Builder orderBy(SortField sortField, boolean descending) {
+            this.sortField = sortField;
+            this.descending = descending;
+            return this;
+        }
+
+        /**
+         * Sets the number of matching notes to skip
+         * @param offset The offset, from 0 to {@link NoteQuery#MAX_OFFSET}
+         * @return This builder
+         */
+        public Builder offset(int offset) {
+            if (offset < 0 || offset > MAX_OFFSET) {
+                throw new IllegalArgumentException("Offset must be between 0 and " + MAX_OFFSET);
+            }
+            this.offset = offset;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public NoteQuery build() {
+            return new NoteQuery(this);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.utils.TopK;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Physical plan chosen by {@link QueryPlanner}: an access path producing candidate
+ * notes, a residual filter, and an ordering strategy. Plans are single-use snapshots
+ * of the planner's statistics; execute them right after planning.
+ */
+public final class QueryPlan {
+
+    /**
+     * How candidate notes are produced
+     */
+    public enum AccessPath {
+        FULL_SCAN, CATEGORY_INDEX, CREATED_INDEX, MODIFIED_INDEX
+    }
+
+    /**
+     * How the requested order is established
+     */
+    public enum OrderStrategy {
+        /** The query is unordered; stop as soon as the page is filled */
+        NONE,
+        /** Candidates already arrive in the requested order; stop as soon as the page is filled */
+        INDEX_ORDER,
+        /** Keep the best offset+limit matches in a bounded heap */
+        TOP_K,
+        /** Collect every match and sort */
+        FULL_SORT
+    }
+
+    private final NoteQuery query;
+    private final AccessPath accessPath;
+    private final OrderStrategy orderStrategy;
+    private final String accessDetail;
+    private final double estimatedCandidates;
+    private final double estimatedCost;
+    private final Supplier<Iterable<Note>> candidates;
+
+    QueryPlan(NoteQuery query, AccessPath accessPath, String accessDetail, OrderStrategy orderStrategy,
+              double estimatedCandidates, double estimatedCost, Supplier<Iterable<Note>> candidates) {
+        this.query = query;
+        this.accessPath = accessPath;
+        this.accessDetail = accessDetail;
+        this.orderStrategy = orderStrategy;
+        this.estimatedCandidates = estimatedCandidates;
+        this.estimatedCost = estimatedCost;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Runs the plan
+     * @return The page of matching notes in the requested order
+     */
+    public List<Note> execute() {
+        int offset = query.getOffset();
+        int limit = query.getLimit();
+
+        switch (orderStrategy) {
+            case NONE:
+            case INDEX_ORDER:
+                return scanPage(offset, limit);
+            case TOP_K:
+                TopK<Note> topK = new TopK<>(heapSize(), query.comparator());
+                for (Note note : candidates.get()) {
+                    // Cheap order check first: most candidates cannot beat the current k-th result
+                    if (topK.accepts(note) && query.matches(note)) {
+                        topK.offer(note);
+                    }
+                }
+                return page(topK.toList(), offset, limit);
+            default:
+                List<Note> matches = new ArrayList<>();
+                for (Note note : candidates.get()) {
+                    if (query.matches(note)) {
+                        matches.add(note);
+                    }
+                }
+                Comparator<Note> order = query.comparator();
+                if (order != null) {
+                    matches.sort(order);
+                }
+                return page(matches, offset, limit);
+        }
+    }
+
+    /**
+     * Gets the number of results a TOP_K plan keeps, saturating instead of overflowing
+     */
+    private int heapSize() {
+        return (int) Math.min((long) query.getOffset() + query.getLimit(), Integer.MAX_VALUE);
+    }
+
+    private List<Note> scanPage(int offset, int limit) {
+        List<Note> result = new ArrayList<>(limit >= 0 ? Math.min(limit, 1024) : 16);
+        int skipped = 0;
+        for (Note note : candidates.get()) {
+            if (limit >= 0 && result.size() >= limit) {
+                break;
+            }
+            if (query.matches(note)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(note);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Note> page(List<Note> sorted, int offset, int limit) {
+        if (offset >= sorted.size()) {
+            return Collections.emptyList();
+        }
+        int end = limit < 0 ? sorted.size() : (int) Math.min(sorted.size(), (long) offset + limit);
+        return offset == 0 && end == sorted.size() ? sorted : new ArrayList<>(sorted.subList(offset, end));
+    }
+
+    /**
+     * Gets how the candidate notes are produced
+     * @return The access path
+     */
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    /**
+     * Gets how the requested order is established
+     * @return The order strategy
+     */
+    public OrderStrategy getOrderStrategy() {
+        return orderStrategy;
+    }
+
+    /**
+     * Gets the estimated number of candidate notes the access path produces
+     * @return The estimate
+     */
+    public double getEstimatedCandidates() {
+        return estimatedCandidates;
+    }
+
+    /**
+     * Gets the estimated work to produce the page, relative to visiting one note in a scan
+     * @return The estimate
+     */
+    public double getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    /**
+     * Describes the plan as an indented operator tree, outermost operator first
+     * @return A human-readable explanation
+     */
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        String indent = "";
+        if (query.getOffset() > 0 || query.getLimit() >= 0) {
+            sb.append("Limit offset=").append(query.getOffset())
+              .append(" limit=").append(query.getLimit() < 0 ? "all" : String.valueOf(query.getLimit()))
+              .append('\n');
+            indent += "  ";
+        }
+        String orderText = query.getSortField() == null ? ""
+                : query.getSortField().name().toLowerCase(Locale.ROOT) + (query.isDescending() ? " desc" : " asc");
+        switch (orderStrategy) {
+            case TOP_K:
+                sb.append(indent).append("TopK order=").append(orderText)
+                  .append(" k=").append(heapSize()).append('\n');
+                indent += "  ";
+                break;
+            case FULL_SORT:
+                if (query.getSortField() != null) {
+                    sb.append(indent).append("Sort order=").append(orderText).append('\n');
+                    indent += "  ";
+                }
+                break;
+            default:
+                break;
+        }
+        sb.append(indent).append("Filter ").append(query).append('\n');
+        indent += "  ";
+        sb.append(indent);
+        switch (accessPath) {
+            case FULL_SCAN:
+                sb.append("FullScan");
+                break;
+            default:
+                sb.append("IndexScan ").append(accessDetail);
+                if (orderStrategy == OrderStrategy.INDEX_ORDER) {
+                    sb.append(" ordered ").append(orderText);
+                }
+        }
+        sb.append(String.format(Locale.ROOT, " (est. rows=%.0f, cost=%.0f)", estimatedCandidates, estimatedCost));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+}
@@ -0,0 +1,202 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.search.NoteIndexes.DateField;
+import com.noteapp.search.NoteQuery.SortField;
+import com.noteapp.search.QueryPlan.AccessPath;
+import com.noteapp.search.QueryPlan.OrderStrategy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cost-based planner for {@link NoteQuery}. For each usable access path (full scan,
+ * category index, creation or modification date index) it estimates the number of
+ * candidates and the cost of establishing the requested order, then keeps the cheapest:
+ * <ul>
+ *   <li>an index already in the requested order is walked until the page is full,</li>
+ *   <li>otherwise a limited query keeps only offset+limit results in a bounded heap,</li>
+ *   <li>and only unlimited ordered queries pay for a full sort.</li>
+ * </ul>
+ */
+public class QueryPlanner {
+
+    /** Default selectivity assumed for an unindexed substring predicate */
+    static final double TEXT_SELECTIVITY = 0.1;
+    /** Relative cost of producing a row through an index instead of a sequential scan */
+    static final double INDEX_ROW_COST = 1.2;
+
+    private final NoteManager noteManager;
+    private final NoteIndexes indexes;
+
+    /**
+     * Creates a planner that can only scan
+     * @param noteManager The manager holding the notes
+     */
+    public QueryPlanner(NoteManager noteManager) {
+        this(noteManager, null);
+    }
+
+    /**
+     * Creates a planner that may use the given indexes
+     * @param noteManager The manager holding the notes
+     * @param indexes Indexes attached to the manager, or null to always scan
+     */
+    public QueryPlanner(NoteManager noteManager, NoteIndexes indexes) {
+        if (noteManager == null) {
+            throw new IllegalArgumentException("Note manager cannot be null");
+        }
+        this.noteManager = noteManager;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Plans and runs a query
+     * @param query The query to run
+     * @return The page of matching notes
+     */
+    public List<Note> execute(NoteQuery query) {
+        return plan(query).execute();
+    }
+
+    /**
+     * Chooses the cheapest plan for a query
+     * @param query The query to plan
+     * @return The chosen plan
+     */
+    public QueryPlan plan(NoteQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+
+        if (indexes == null) {
+            List<Note> all = noteManager.getNotesView();
+            double rows = all.size();
+            double matches = rows * textSelectivity(query);
+            OrderStrategy strategy = orderStrategy(query, false);
+            return new QueryPlan(query, AccessPath.FULL_SCAN, null, strategy, rows,
+                    cost(query, strategy, rows, matches, 1.0), () -> all);
+        }
+
+        double total = indexes.size();
+        double selectivity = selectivity(query, total);
+        double matches = total * selectivity;
+
+        OrderStrategy scanStrategy = orderStrategy(query, false);
+        QueryPlan best = new QueryPlan(query, AccessPath.FULL_SCAN, null, scanStrategy, total,
+                cost(query, scanStrategy, total, matches, 1.0), noteManager::getNotesView);
+
+        if (query.getCategory() != null) {
+            String category = query.getCategory();
+            double rows = indexes.categoryCount(category);
+            OrderStrategy strategy = orderStrategy(query, false);
+            best = cheaper(best, new QueryPlan(query, AccessPath.CATEGORY_INDEX,
+                    "category = \"" + category + "\"", strategy, rows,
+                    cost(query, strategy, rows, matches, INDEX_ROW_COST), () -> indexes.category(category)));
+        }
+
+        best = cheaper(best, dateIndexPlan(query, DateField.CREATED, SortField.CREATED,
+                query.getCreatedFrom(), query.getCreatedTo(), matches));
+        best = cheaper(best, dateIndexPlan(query, DateField.MODIFIED, SortField.MODIFIED,
+                query.getModifiedFrom(), query.getModifiedTo(), matches));
+        return best;
+    }
+
+    private QueryPlan dateIndexPlan(NoteQuery query, DateField field, SortField sortField,
+                                    LocalDateTime from, LocalDateTime to, double matches) {
+        boolean bounded = from != null || to != null;
+        boolean ordered = query.getSortField() == sortField;
+        if (!bounded && !ordered) {
+            return null;
+        }
+
+        double rows = indexes.estimateRange(field, from, to);
+        OrderStrategy strategy = orderStrategy(query, ordered);
+        boolean descending = ordered && query.isDescending();
+        String name = field == DateField.CREATED ? "created" : "modified";
+        String detail = bounded
+                ? name + " in [" + (from == null ? "*" : from) + ", " + (to == null ? "*" : to) + ")"
+                : name;
+        AccessPath path = field == DateField.CREATED ? AccessPath.CREATED_INDEX : AccessPath.MODIFIED_INDEX;
+        return new QueryPlan(query, path, detail, strategy, rows,
+                cost(query, strategy, rows, Math.min(matches, rows), INDEX_ROW_COST),
+                () -> indexes.range(field, from, to, descending));
+    }
+
+    private static OrderStrategy orderStrategy(NoteQuery query, boolean indexOrdered) {
+        if (query.getSortField() == null) {
+            return OrderStrategy.NONE;
+        }
+        if (indexOrdered) {
+            return OrderStrategy.INDEX_ORDER;
+        }
+        return query.getLimit() >= 0 ? OrderStrategy.TOP_K : OrderStrategy.FULL_SORT;
+    }
+
+    /**
+     * Estimates the work to produce the page: rows visited times their cost, plus ordering.
+     * Streaming strategies stop after about (offset + limit) / hitRate rows.
+     */
+    private static double cost(NoteQuery query, OrderStrategy strategy, double rows, double matches, double rowCost) {
+        int limit = query.getLimit();
+        double wanted = limit < 0 ? Double.MAX_VALUE : query.getOffset() + (double) limit;
+
+        switch (strategy) {
+            case NONE:
+            case INDEX_ORDER: {
+                if (rows == 0 || matches == 0) {
+                    return rows * rowCost;
+                }
+                double hitRate = Math.min(1.0, matches / rows);
+                return Math.min(rows, wanted / hitRate) * rowCost;
+            }
+            case TOP_K:
+                return rows * rowCost + matches * log2(wanted + 1);
+            default:
+                return rows * rowCost + matches * log2(matches + 1);
+        }
+    }
+
+    private double selectivity(NoteQuery query, double total) {
+        if (total == 0) {
+            return 0;
+        }
+        double selectivity = textSelectivity(query);
+        if (query.getCategory() != null) {
+            selectivity *= indexes.categoryCount(query.getCategory()) / total;
+        }
+        if (query.getCreatedFrom() != null || query.getCreatedTo() != null) {
+            selectivity *= indexes.estimateRange(DateField.CREATED, query.getCreatedFrom(), query.getCreatedTo()) / total;
+        }
+        if (query.getModifiedFrom() != null || query.getModifiedTo() != null) {
+            selectivity *= indexes.estimateRange(DateField.MODIFIED, query.getModifiedFrom(), query.getModifiedTo()) / total;
+        }
+        return selectivity;
+    }
+
+    private static double textSelectivity(NoteQuery query) {
+        double selectivity = 1.0;
+        if (query.getText() != null) {
+            selectivity *= TEXT_SELECTIVITY;
+        }
+        if (query.getTitleContains() != null) {
+            selectivity *= TEXT_SELECTIVITY;
+        }
+        if (query.getContentContains() != null) {
+            selectivity *= TEXT_SELECTIVITY;
+        }
+        return selectivity;
+    }
+
+    private static QueryPlan cheaper(QueryPlan current, QueryPlan candidate) {
+        if (candidate == null || candidate.getEstimatedCost() >= current.getEstimatedCost()) {
+            return current;
+        }
+        return candidate;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
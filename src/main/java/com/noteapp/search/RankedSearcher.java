@@ -0,0 +1,348 @@
+package com.noteapp.search;
+
+import com.noteapp.search.InvertedIndex.DocEntry;
+import com.noteapp.search.InvertedIndex.PostingList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Relevance-ranked search over an {@link InvertedIndex} using BM25 with a title boost.
+ *
+ * <p>Top-k retrieval uses MaxScore early termination: query terms are ordered by their
+ * maximum possible contribution, and once the k-th best score exceeds the combined bound
+ * of the weakest terms, those terms can no longer introduce a result on their own. They are
+ * then only probed for documents found through the stronger terms, and probing stops as
+ * soon as a document provably cannot enter the top k. Common words therefore stop
+ * driving the scan after the first few strong matches.
+ */
+public class RankedSearcher {
+
+    public static final double DEFAULT_K1 = 1.2;
+    public static final double DEFAULT_B = 0.75;
+    public static final double DEFAULT_TITLE_BOOST = 2.0;
+
+    /** Initial heap capacity; the heap grows to the limit only as hits are found */
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Comparator<Scored> WORST_FIRST =
+            Comparator.comparingDouble((Scored s) -> s.score).thenComparing(s -> -s.docId);
+
+    private final InvertedIndex index;
+    private final double k1;
+    private final double b;
+    private final double titleBoost;
+
+    /**
+     * Creates a searcher with the default BM25 parameters
+     * @param index The index to search
+     */
+    public RankedSearcher(InvertedIndex index) {
+        this(index, DEFAULT_K1, DEFAULT_B, DEFAULT_TITLE_BOOST);
+    }
+
+    /**
+     * Creates a searcher
+     * @param index The index to search
+     * @param k1 Term frequency saturation
+     * @param b Length normalisation strength, 0 to 1
+     * @param titleBoost Weight of title matches relative to content matches
+     */
+    public RankedSearcher(InvertedIndex index, double k1, double b, double titleBoost) {
+        if (index == null) {
+            throw new IllegalArgumentException("Index cannot be null");
+        }
+        if (k1 < 0 || b < 0 || b > 1 || titleBoost < 0) {
+            throw new IllegalArgumentException("Invalid BM25 parameters");
+        }
+        this.index = index;
+        this.k1 = k1;
+        this.b = b;
+        this.titleBoost = titleBoost;
+    }
+
+    /**
+     * Finds the most relevant notes for a free-text query
+     * @param query The query; every term contributes, none is required
+     * @param limit The maximum number of results
+     * @return The hits, most relevant first
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return search(unitWeights(query), limit);
+    }
+
+    /**
+     * Finds the most relevant notes for a set of weighted terms. Each term's BM25
+     * contribution is multiplied by its weight; used by fuzzy search to discount
+     * approximate matches.
+     * @param weightedTerms Lowercase terms and their weights
+     * @param limit The maximum number of results
+     * @return The hits, most relevant first
+     */
+    List<SearchHit> search(Map<String, Double> weightedTerms, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        List<TermCursor> cursors = cursors(weightedTerms);
+        if (cursors.isEmpty() || limit == 0) {
+            return new ArrayList<>();
+        }
+
+        // Weakest terms first; prefix[i] bounds the total contribution of terms 0..i
+        cursors.sort(Comparator.comparingDouble(c -> c.upperBound));
+        int n = cursors.size();
+        double[] prefix = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += cursors.get(i).upperBound;
+            prefix[i] = sum;
+        }
+
+        PriorityQueue<Scored> top = new PriorityQueue<>(Math.min(limit, INITIAL_CAPACITY) + 1, WORST_FIRST);
+        double threshold = 0;
+        int firstEssential = 0;
+
+        while (true) {
+            int docId = Integer.MAX_VALUE;
+            for (int i = firstEssential; i < n; i++) {
+                docId = Math.min(docId, cursors.get(i).doc());
+            }
+            if (docId == Integer.MAX_VALUE) {
+                break;
+            }
+
+            DocEntry doc = index.doc(docId);
+            double score = 0;
+            for (int i = firstEssential; i < n; i++) {
+                TermCursor cursor = cursors.get(i);
+                if (cursor.doc() == docId) {
+                    if (doc != null) {
+                        score += cursor.score(doc);
+                    }
+                    cursor.next();
+                }
+            }
+            if (doc == null) {
+                continue;
+            }
+
+            for (int i = firstEssential - 1; i >= 0; i--) {
+                if (score + prefix[i] <= threshold) {
+                    break;
+                }
+                TermCursor cursor = cursors.get(i);
+                cursor.advanceTo(docId);
+                if (cursor.doc() == docId) {
+                    score += cursor.score(doc);
+                }
+            }
+
+            if (top.size() < limit) {
+                top.add(new Scored(docId, score));
+            } else if (score > threshold) {
+                top.poll();
+                top.add(new Scored(docId, score));
+            } else {
+                continue;
+            }
+            if (top.size() == limit) {
+                threshold = top.peek().score;
+                while (firstEssential < n && prefix[firstEssential] <= threshold) {
+                    firstEssential++;
+                }
+            }
+        }
+
+        return toHits(top, cursors);
+    }
+
+    /**
+     * Counts the notes matching at least one term of a query. Walks the posting
+     * lists without scoring, so callers can report a total while asking
+     * {@link #search(String, int)} for a single page.
+     * @param query The query
+     * @return The number of notes {@code search} could return for the query
+     */
+    public int count(String query) {
+        List<TermCursor> cursors = cursors(unitWeights(query));
+        int count = 0;
+        while (true) {
+            int docId = Integer.MAX_VALUE;
+            for (TermCursor cursor : cursors) {
+                docId = Math.min(docId, cursor.doc());
+            }
+            if (docId == Integer.MAX_VALUE) {
+                return count;
+            }
+            for (TermCursor cursor : cursors) {
+                if (cursor.doc() == docId) {
+                    cursor.next();
+                }
+            }
+            if (index.doc(docId) != null) {
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Scores every matching note without pruning. Reference implementation for tests
+     * and benchmarks; produces the same ranking as {@link #search(String, int)}.
+     */
+    List<SearchHit> exhaustiveSearch(String query, int limit) {
+        List<TermCursor> cursors = cursors(unitWeights(query));
+        PriorityQueue<Scored> top = new PriorityQueue<>(Math.min(limit, INITIAL_CAPACITY) + 1, WORST_FIRST);
+        double[] scores = new double[0];
+        boolean[] seen = new boolean[0];
+        for (TermCursor cursor : cursors) {
+            for (; cursor.doc() != Integer.MAX_VALUE; cursor.next()) {
+                int docId = cursor.doc();
+                if (docId >= scores.length) {
+                    scores = Arrays.copyOf(scores, Math.max(docId + 1, scores.length * 2));
+                    seen = Arrays.copyOf(seen, scores.length);
+                }
+                DocEntry doc = index.doc(docId);
+                if (doc != null) {
+                    scores[docId] += cursor.score(doc);
+                    seen[docId] = true;
+                }
+            }
+        }
+        for (int docId = 0; docId < scores.length; docId++) {
+            if (seen[docId]) {
+                top.add(new Scored(docId, scores[docId]));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        return toHits(top, cursors);
+    }
+
+    private static Map<String, Double> unitWeights(String query) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String term : Tokenizer.terms(query)) {
+            weights.put(term, 1.0);
+        }
+        return weights;
+    }
+
+    private List<TermCursor> cursors(Map<String, Double> weightedTerms) {
+        List<TermCursor> cursors = new ArrayList<>(weightedTerms.size());
+        int totalDocs = index.size();
+        double avgTitle = index.averageTitleLength();
+        double avgContent = index.averageContentLength();
+        for (Map.Entry<String, Double> entry : weightedTerms.entrySet()) {
+            PostingList postings = index.postings(entry.getKey());
+            if (postings == null || postings.live == 0 || entry.getValue() <= 0) {
+                continue;
+            }
+            double df = postings.live;
+            double idf = Math.log(1 + (totalDocs - df + 0.5) / (df + 0.5));
+            cursors.add(new TermCursor(entry.getKey(), postings, idf * entry.getValue(), avgTitle, avgContent));
+        }
+        return cursors;
+    }
+
+    private List<SearchHit> toHits(PriorityQueue<Scored> top, List<TermCursor> cursors) {
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(WORST_FIRST.reversed());
+        List<SearchHit> hits = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            DocEntry doc = index.doc(scored.docId);
+            List<int[]> titleRanges = new ArrayList<>();
+            List<int[]> contentRanges = new ArrayList<>();
+            for (TermCursor cursor : cursors) {
+                int pos = cursor.postings.advance(0, scored.docId);
+                if (pos < cursor.postings.size && cursor.postings.docs[pos] == scored.docId) {
+                    int[] offsets = cursor.postings.offsets[pos];
+                    int titlePairs = cursor.postings.titleTf[pos];
+                    for (int p = 0; p < offsets.length / 2; p++) {
+                        int[] range = {offsets[p * 2], offsets[p * 2 + 1]};
+                        (p < titlePairs ? titleRanges : contentRanges).add(range);
+                    }
+                }
+            }
+            hits.add(new SearchHit(doc.note, scored.score, flatten(titleRanges), flatten(contentRanges)));
+        }
+        return hits;
+    }
+
+    private static int[] flatten(List<int[]> ranges) {
+        ranges.sort(Comparator.comparingInt(r -> r[0]));
+        int[] flat = new int[ranges.size() * 2];
+        for (int i = 0; i < ranges.size(); i++) {
+            flat[i * 2] = ranges.get(i)[0];
+            flat[i * 2 + 1] = ranges.get(i)[1];
+        }
+        return flat;
+    }
+
+    /**
+     * BM25 term-frequency component: saturates towards k1 + 1 as tf grows
+     */
+    private double tfWeight(int tf, int length, double averageLength) {
+        if (tf == 0) {
+            return 0;
+        }
+        double norm = averageLength > 0 ? length / averageLength : 1;
+        return tf * (k1 + 1) / (tf + k1 * (1 - b + b * norm));
+    }
+
+    private final class TermCursor {
+        final String term;
+        final PostingList postings;
+        final double idf;
+        final double upperBound;
+        final double avgTitle;
+        final double avgContent;
+        int position;
+
+        TermCursor(String term, PostingList postings, double idf, double avgTitle, double avgContent) {
+            this.term = term;
+            this.postings = postings;
+            this.idf = idf;
+            this.avgTitle = avgTitle;
+            this.avgContent = avgContent;
+            this.upperBound = idf * (k1 + 1) * ((postings.inTitle ? titleBoost : 0) + 1);
+        }
+
+        int doc() {
+            return position < postings.size ? postings.docs[position] : Integer.MAX_VALUE;
+        }
+
+        void next() {
+            position++;
+        }
+
+        void advanceTo(int docId) {
+            if (doc() < docId) {
+                position = postings.advance(position, docId);
+            }
+        }
+
+        double score(DocEntry doc) {
+            return idf * (titleBoost * tfWeight(postings.titleTf[position], doc.titleLength, avgTitle)
+                    + tfWeight(postings.contentTf[position], doc.contentLength, avgContent));
+        }
+
+        @Override
+        public String toString() {
+            return term;
+        }
+    }
+
+    private static final class Scored {
+        final int docId;
+        final double score;
+
+        Scored(int docId, double score) {
+            this.docId = docId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+
+/**
+ * One ranked search result with the character ranges of every matched term,
+ * ready for highlighting. Ranges are stored as start/end pairs sorted by start.
+ */
+public final class SearchHit {
+    private final Note note;
+    private final double score;
+    private final int[] titleMatches;
+    private final int[] contentMatches;
+
+    SearchHit(Note note, double score, int[] titleMatches, int[] contentMatches) {
+        this.note = note;
+        this.score = score;
+        this.titleMatches = titleMatches;
+        this.contentMatches = contentMatches;
+    }
+
+    /**
+     * Gets the matching note
+     * @return The note
+     */
+    public Note getNote() {
+        return note;
+    }
+
+    /**
+     * Gets the BM25 relevance score; higher is more relevant
+     * @return The score
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the matched ranges in the title
+     * @return Start/end offset pairs into {@code getNote().getTitle()}
+     */
+    public int[] getTitleMatches() {
+        return titleMatches.clone();
+    }
+
+    /**
+     * Gets the matched ranges in the content
+     * @return Start/end offset pairs into {@code getNote().getContent()}
+     */
+    public int[] getContentMatches() {
+        return contentMatches.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.3f)", note.getTitle(), score);
+    }
+}
@@ -0,0 +1,347 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+import com.noteapp.search.InvertedIndex.IndexedNote;
+import com.noteapp.storage.FileStorage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps an {@link InvertedIndex} on disk next to the notes file so that startup does
+ * not have to tokenize every note again.
+ *
+ * <p>The index lives in a snapshot file plus a journal. Both record the
+ * {@link FileStorage#getGeneration() store generation} they reflect; after each storage
+ * write, the notes changed since the previous write are appended to the journal under
+ * the new generation, and the journal is folded into a fresh snapshot once it grows
+ * large. On {@link #open}, the files are memory-mapped, checksummed and replayed, and
+ * the result is used only if it matches the store's generation and every note's id and
+ * modification date. Otherwise the index is rebuilt on a background thread, while
+ * {@link #isReady()} reports false.
+ *
+ * <p>Change events are expected on the thread that owns the {@link NoteManager}.
+ */
+public class SearchIndexStore implements NoteChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(SearchIndexStore.class.getName());
+    private static final String INDEX_DIR = "index";
+    private static final String SNAPSHOT_FILE = "search.idx";
+    private static final String JOURNAL_FILE = "search.journal";
+    /** Fold the journal into the snapshot once it exceeds this and half the snapshot */
+    private static final long MIN_JOURNAL_BYTES_FOR_SNAPSHOT = 1 << 20;
+
+    private final FileStorage storage;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Object lock = new Object();
+    private final CountDownLatch readyLatch = new CountDownLatch(1);
+    /** Notes changed since the last storage write, to journal with the next one */
+    private final Set<String> changedSinceWrite = new LinkedHashSet<>();
+    /** Changes arriving while a rebuild is running, replayed onto its result */
+    private final List<Consumer<InvertedIndex>> pendingChanges = new ArrayList<>();
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+    private boolean snapshotDue;
+
+    private SearchIndexStore(FileStorage storage) {
+        this.storage = storage;
+        Path directory = storage.getStorageDirectory().resolve(INDEX_DIR);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.journalPath = directory.resolve(JOURNAL_FILE);
+    }
+
+    /**
+     * Opens the persisted index for the notes of a manager, freshly loaded from storage,
+     * and keeps it current with later changes and storage writes
+     * @param storage The storage the notes were loaded from
+     * @param noteManager The manager holding the loaded notes
+     * @return The store; check {@link #isReady()} before searching
+     */
+    public static SearchIndexStore open(FileStorage storage, NoteManager noteManager) {
+        if (storage == null || noteManager == null) {
+            throw new IllegalArgumentException("Storage and note manager cannot be null");
+        }
+
+        SearchIndexStore store = new SearchIndexStore(storage);
+        long start = System.nanoTime();
+        InvertedIndex loaded = store.load(noteManager.getNotesView());
+        if (loaded != null) {
+            store.index = loaded;
+            store.ready = true;
+            store.readyLatch.countDown();
+            LOGGER.info("Loaded search index of " + loaded.size() + " notes in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } else {
+            store.startRebuild(noteManager.getNotesView(), storage.getGeneration());
+        }
+        noteManager.addChangeListener(store);
+        storage.addWriteListener(store::written);
+        return store;
+    }
+
+    /**
+     * Gets the index. While a rebuild is running this is an empty placeholder, so
+     * searchers should be created once {@link #isReady()} holds.
+     * @return The current index
+     */
+    public InvertedIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Checks whether the index covers all notes
+     * @return true once the index was loaded or rebuilt
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Waits for a background rebuild to finish
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return true if the index is ready
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return readyLatch.await(timeout, unit);
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        // Read the text now: a pending change is applied on the rebuild thread
+        String title = note.getTitle();
+        String content = note.getContent();
+        apply(note.getId(), index -> index.add(note, title, content));
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        String title = current.getTitle();
+        String content = current.getContent();
+        apply(current.getId(), index -> index.add(current, title, content));
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        apply(note.getId(), index -> index.noteRemoved(note));
+    }
+
+    private void apply(String noteId, Consumer<InvertedIndex> change) {
+        synchronized (lock) {
+            changedSinceWrite.add(noteId);
+            if (ready) {
+                change.accept(index);
+            } else {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    /**
+     * Records the notes changed since the previous storage write under the new generation
+     */
+    private void written(long generation) {
+        synchronized (lock) {
+            if (!ready) {
+                // The rebuild cannot tell which changes this write covered; snapshot after the next one
+                return;
+            }
+            try {
+                if (snapshotDue || journalTooLarge()) {
+                    writeSnapshot(index, generation);
+                    snapshotDue = false;
+                } else {
+                    appendJournal(generation);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to persist search index; it will be rebuilt on next start", e);
+                deleteFiles();
+            }
+            changedSinceWrite.clear();
+        }
+    }
+
+    private void appendJournal(long generation) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        if (changedSinceWrite.isEmpty()) {
+            // Still record the generation, or the next start would see the journal as stale
+            records.write(IndexCodec.generationRecord(generation));
+        }
+        for (String noteId : changedSinceWrite) {
+            IndexedNote indexed = index.indexed(noteId);
+            records.write(indexed != null
+                    ? IndexCodec.addRecord(generation, indexed)
+                    : IndexCodec.removeRecord(generation, noteId));
+        }
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(records.toByteArray()));
+        }
+    }
+
+    private boolean journalTooLarge() throws IOException {
+        if (!Files.exists(journalPath) || !Files.exists(snapshotPath)) {
+            return true;
+        }
+        long journalBytes = Files.size(journalPath);
+        return journalBytes > MIN_JOURNAL_BYTES_FOR_SNAPSHOT && journalBytes > Files.size(snapshotPath) / 2;
+    }
+
+    /**
+     * Replaces the snapshot and starts an empty journal extending it
+     */
+    private void writeSnapshot(InvertedIndex source, long generation) throws IOException {
+        writeSnapshot(source, generation, IndexCodec::modifiedStamp);
+    }
+
+    private void writeSnapshot(InvertedIndex source, long generation, Function<Note, String> stamps)
+            throws IOException {
+        Files.createDirectories(snapshotPath.getParent());
+        Path temp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            IndexCodec.writeSnapshot(source, generation, out, stamps);
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Path journalTemp = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(journalTemp))) {
+            IndexCodec.writeJournalHeader(out, generation);
+        }
+        Files.move(journalTemp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the persisted index if it reflects exactly the given notes
+     * @return The index, or null if it is missing, corrupt or stale
+     */
+    private InvertedIndex load(List<Note> notes) {
+        if (!Files.exists(snapshotPath)) {
+            LOGGER.info("No persisted search index, rebuilding");
+            return null;
+        }
+        try {
+            IndexCodec.Contents contents;
+            try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+                contents = IndexCodec.readSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+            if (Files.exists(journalPath)) {
+                try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+                    IndexCodec.replayJournal(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), contents);
+                }
+            }
+
+            if (contents.generation != storage.getGeneration()) {
+                LOGGER.info("Search index is at generation " + contents.generation + " but the store is at "
+                        + storage.getGeneration() + ", rebuilding");
+                return null;
+            }
+            if (contents.notes.size() != notes.size()) {
+                LOGGER.info("Search index does not cover the stored notes, rebuilding");
+                return null;
+            }
+            Map<String, Note> notesById = new HashMap<>(notes.size() * 2);
+            for (Note note : notes) {
+                notesById.put(note.getId(), note);
+            }
+            InvertedIndex loaded = new InvertedIndex();
+            for (IndexCodec.StoredNote stored : contents.notes.values()) {
+                Note note = notesById.get(stored.noteId);
+                if (note == null || !stored.modified.equals(IndexCodec.modifiedStamp(note))) {
+                    LOGGER.info("Search index is out of date for note " + stored.noteId + ", rebuilding");
+                    return null;
+                }
+                loaded.restore(stored.toIndexed(note));
+            }
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Persisted search index is unreadable, rebuilding", e);
+            return null;
+        }
+    }
+
+    private void startRebuild(List<Note> view, long generation) {
+        // Read on this thread: notes are not thread-safe and content may be deferred
+        int size = view.size();
+        Note[] notes = new Note[size];
+        String[] titles = new String[size];
+        String[] contents = new String[size];
+        Map<String, String> stamps = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Note note = view.get(i);
+            notes[i] = note;
+            titles[i] = note.getTitle();
+            contents[i] = note.getContent();
+            stamps.put(note.getId(), IndexCodec.modifiedStamp(note));
+        }
+        Thread rebuildThread = new Thread(() -> rebuild(notes, titles, contents, stamps, generation),
+                "search-index-rebuild");
+        rebuildThread.setDaemon(true);
+        rebuildThread.start();
+    }
+
+    private void rebuild(Note[] notes, String[] titles, String[] contents, Map<String, String> stamps,
+                         long generation) {
+        long start = System.nanoTime();
+        InvertedIndex built = new InvertedIndex();
+        for (int i = 0; i < notes.length; i++) {
+            built.add(notes[i], titles[i], contents[i]);
+        }
+
+        synchronized (lock) {
+            for (Consumer<InvertedIndex> change : pendingChanges) {
+                change.accept(built);
+            }
+            pendingChanges.clear();
+            index = built;
+            ready = true;
+
+            // Only snapshot now if the index reflects exactly what is on disk. The notes
+            // may be changing on their own thread, so write the stamps read with the text
+            if (changedSinceWrite.isEmpty() && storage.getGeneration() == generation) {
+                try {
+                    writeSnapshot(built, generation, note -> stamps.get(note.getId()));
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to persist rebuilt search index", e);
+                    deleteFiles();
+                }
+            } else {
+                snapshotDue = true;
+            }
+        }
+        readyLatch.countDown();
+        LOGGER.info("Rebuilt search index of " + built.size() + " notes in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void deleteFiles() {
+        try {
+            Files.deleteIfExists(snapshotPath);
+            Files.deleteIfExists(journalPath);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to delete search index files", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.noteapp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lowercase terms: maximal runs of letters and digits.
+ * Offsets refer to the original text so that matches can be highlighted in place.
+ */
+public final class Tokenizer {
+
+    /**
+     * Receives the terms of a text in order
+     */
+    @FunctionalInterface
+    public interface TermConsumer {
+        /**
+         * @param term The lowercase term
+         * @param start Offset of the first character of the term in the original text
+         * @param end Offset just past the last character of the term
+         */
+        void accept(String term, int start, int end);
+    }
+
+    private Tokenizer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Tokenizes a text
+     * @param text The text to split, may be null
+     * @param consumer Receives each term with its offsets
+     */
+    public static void tokenize(String text, TermConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            if (!Character.isLetterOrDigit(cp)) {
+                i += Character.charCount(cp);
+                continue;
+            }
+            int start = i;
+            while (i < length) {
+                cp = text.codePointAt(i);
+                if (!Character.isLetterOrDigit(cp)) {
+                    break;
+                }
+                i += Character.charCount(cp);
+            }
+            consumer.accept(text.substring(start, i).toLowerCase(Locale.ROOT), start, i);
+        }
+    }
+
+    /**
+     * Tokenizes a text into a list of terms, discarding offsets
+     * @param text The text to split, may be null
+     * @return The terms in order, including duplicates
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, (term, start, end) -> terms.add(term));
+        return terms;
+    }
+}
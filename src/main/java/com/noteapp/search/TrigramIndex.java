@@ -0,0 +1,159 @@
+package com.noteapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index over a term dictionary for approximate term lookup.
+ *
+ * <p>Each term is padded as {@code "$$term$"} and split into overlapping 3-grams. By the
+ * q-gram lemma, two strings within edit distance k share at least
+ * {@code max(|a|, |b|) + 2 - 3k} of these grams, so candidates are found by counting shared
+ * grams through the posting lists and only candidates reaching that count are verified
+ * with a bounded edit distance. Terms too short for the lemma to prune anything are
+ * found through a by-length directory instead.
+ */
+public class TrigramIndex {
+
+    private static final char PAD = '$';
+
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Map<String, int[]> grams = new HashMap<>();
+    private final Map<String, Integer> gramSizes = new HashMap<>();
+    private final Map<Integer, List<Integer>> termsByLength = new HashMap<>();
+    private int[] counts = new int[0];
+
+    /**
+     * Adds a term; adding a known term has no effect
+     * @param term The lowercase term
+     */
+    public void add(String term) {
+        if (termIds.containsKey(term)) {
+            return;
+        }
+        int termId = terms.size();
+        terms.add(term);
+        termIds.put(term, termId);
+        termsByLength.computeIfAbsent(term.length(), l -> new ArrayList<>()).add(termId);
+
+        String previous = null;
+        for (String gram : distinctGrams(term)) {
+            if (gram.equals(previous)) {
+                continue;
+            }
+            previous = gram;
+            int[] postings = grams.get(gram);
+            int size = gramSizes.getOrDefault(gram, 0);
+            if (postings == null) {
+                postings = new int[2];
+            } else if (size == postings.length) {
+                postings = Arrays.copyOf(postings, size * 2);
+            }
+            postings[size] = termId;
+            grams.put(gram, postings);
+            gramSizes.put(gram, size + 1);
+        }
+    }
+
+    /**
+     * Gets the number of indexed terms
+     * @return The dictionary size
+     */
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * Finds every indexed term within an edit distance of a query term
+     * @param query The lowercase query term
+     * @param maxDistance The maximum Levenshtein distance
+     * @return Matching terms mapped to their distance, closest first
+     */
+    public Map<String, Integer> lookup(String query, int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Maximum distance cannot be negative");
+        }
+        List<String> queryGrams = distinctGrams(query);
+        int gramCount = query.length() + 2;
+        int duplicates = gramCount - queryGrams.size();
+        int minLength = Math.max(0, query.length() - maxDistance);
+        int maxLength = query.length() + maxDistance;
+
+        List<int[]> matches = new ArrayList<>();
+        // Shared distinct grams needed, for the shortest candidate length allowed
+        int required = gramCount - 3 * maxDistance - duplicates;
+        if (required <= 0) {
+            for (int length = minLength; length <= maxLength; length++) {
+                for (int termId : termsByLength.getOrDefault(length, new ArrayList<>())) {
+                    verify(query, termId, maxDistance, matches);
+                }
+            }
+        } else {
+            if (counts.length < terms.size()) {
+                counts = new int[Math.max(terms.size(), counts.length * 2)];
+            }
+            List<Integer> touched = new ArrayList<>();
+            for (String gram : queryGrams) {
+                int[] postings = grams.get(gram);
+                if (postings == null) {
+                    continue;
+                }
+                int size = gramSizes.get(gram);
+                for (int i = 0; i < size; i++) {
+                    int termId = postings[i];
+                    if (counts[termId]++ == 0) {
+                        touched.add(termId);
+                    }
+                }
+            }
+            for (int termId : touched) {
+                int length = terms.get(termId).length();
+                // A longer candidate must share more grams: max(|a|, |b|) + 2 - 3k
+                int needed = Math.max(length, query.length()) + 2 - 3 * maxDistance - duplicates;
+                if (counts[termId] >= needed && length >= minLength && length <= maxLength) {
+                    verify(query, termId, maxDistance, matches);
+                }
+                counts[termId] = 0;
+            }
+        }
+
+        matches.sort((x, y) -> x[1] != y[1] ? Integer.compare(x[1], y[1])
+                : terms.get(x[0]).compareTo(terms.get(y[0])));
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int[] match : matches) {
+            result.put(terms.get(match[0]), match[1]);
+        }
+        return result;
+    }
+
+    private void verify(String query, int termId, int maxDistance, List<int[]> matches) {
+        int distance = EditDistance.boundedDistance(query, terms.get(termId), maxDistance);
+        if (distance <= maxDistance) {
+            matches.add(new int[] {termId, distance});
+        }
+    }
+
+    /**
+     * Splits a padded term into its trigrams, sorted and with duplicates removed
+     */
+    static List<String> distinctGrams(String term) {
+        String padded = "" + PAD + PAD + term + PAD;
+        String[] all = new String[padded.length() - 2];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = padded.substring(i, i + 3);
+        }
+        Arrays.sort(all);
+        List<String> distinct = new ArrayList<>(all.length);
+        for (String gram : all) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(gram)) {
+                distinct.add(gram);
+            }
+        }
+        return distinct;
+    }
+}
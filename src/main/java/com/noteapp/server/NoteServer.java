@@ -0,0 +1,538 @@
+package com.noteapp.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NotePage;
+import com.noteapp.search.RankedSearcher;
+import com.noteapp.search.SearchHit;
+import com.noteapp.search.SearchIndexStore;
+import com.noteapp.storage.FileStorage;
+import com.noteapp.utils.TopK;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless HTTP/JSON front end for a {@link NoteManager}, bound to the loopback interface.
+ *
+ * <p>Endpoints:
+ * <ul>
+ *   <li>{@code GET /notes?order=created|modified&offset=&limit=} - ordered, paged listing</li>
+ *   <li>{@code GET /notes?cursor=&limit=} - cursor-paged listing by recency; pass the returned
+ *       {@code nextCursor} to continue</li>
+ *   <li>{@code POST /notes} - create from {@code {"title": ..., "content": ...}}</li>
+ *   <li>{@code GET|PUT|DELETE /notes/{id}} - read, update or delete a single note</li>
+ *   <li>{@code GET /search?q=&offset=&limit=} - BM25-ranked search over the
+ *       {@link SearchIndexStore} when one is given and ready, otherwise substring search</li>
+ * </ul>
+ *
+ * Requests run on virtual threads when the JDK provides them, otherwise on a bounded pool.
+ * NoteManager is not thread-safe, so reads share a read lock and mutations take the write lock.
+ */
+public class NoteServer {
+    private static final Logger LOGGER = Logger.getLogger(NoteServer.class.getName());
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final Comparator<Note> NEWEST_CREATED = Comparator
+            .comparing(Note::getCreationDate, Comparator.reverseOrder()).thenComparing(Note::getId);
+    private static final Comparator<Note> NEWEST_MODIFIED = Comparator
+            .comparing(Note::getModificationDate, Comparator.reverseOrder()).thenComparing(Note::getId);
+
+    static {
+        // The JDK server leaves Nagle enabled by default, which adds ~40 ms of delayed-ACK
+        // stall to every small keep-alive response. Read once when the first server is created.
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+    }
+
+    private final NoteManager noteManager;
+    private final FileStorage fileStorage;
+    private final SearchIndexStore searchIndex;
+    private final int requestedPort;
+    private final ObjectMapper objectMapper;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private HttpServer httpServer;
+    private ExecutorService executor;
+
+    /**
+     * Creates a server over the given manager
+     * @param noteManager The manager to serve
+     * @param fileStorage Storage to write through after each mutation, or null for in-memory only
+     * @param port The port to listen on, or 0 for an ephemeral port
+     */
+    public NoteServer(NoteManager noteManager, FileStorage fileStorage, int port) {
+        this(noteManager, fileStorage, null, port);
+    }
+
+    /**
+     * Creates a server over the given manager that ranks search results with an index
+     * @param noteManager The manager to serve
+     * @param fileStorage Storage to write through after each mutation, or null for in-memory only
+     * @param searchIndex The index kept for the manager's notes, or null for substring search
+     * @param port The port to listen on, or 0 for an ephemeral port
+     */
+    public NoteServer(NoteManager noteManager, FileStorage fileStorage, SearchIndexStore searchIndex, int port) {
+        if (noteManager == null) {
+            throw new IllegalArgumentException("Note manager cannot be null");
+        }
+
+        this.noteManager = noteManager;
+        this.fileStorage = fileStorage;
+        this.searchIndex = searchIndex;
+        this.requestedPort = port;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Binds the listening socket and starts accepting requests
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("Server already started");
+        }
+
+        executor = createRequestExecutor();
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort), 0);
+        httpServer.createContext("/notes", this::handle);
+        httpServer.createContext("/search", this::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+
+        LOGGER.info("Note server listening on port " + getPort());
+    }
+
+    /**
+     * Stops the server, letting in-flight requests finish briefly
+     */
+    public synchronized void stop() {
+        if (httpServer == null) {
+            return;
+        }
+
+        httpServer.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        httpServer = null;
+        executor = null;
+        LOGGER.info("Note server stopped");
+    }
+
+    /**
+     * Gets the bound port, useful when the server was started on port 0
+     * @return The listening port
+     */
+    public synchronized int getPort() {
+        if (httpServer == null) {
+            throw new IllegalStateException("Server not started");
+        }
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Creates the request executor: one virtual thread per request on JDK 21+,
+     * otherwise a bounded pool whose queue overflow runs on the dispatcher thread
+     * so that overload turns into backpressure instead of rejected connections.
+     */
+    static ExecutorService createRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            LOGGER.info("Handling requests on virtual threads");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            AtomicInteger counter = new AtomicInteger();
+            LOGGER.info("Virtual threads unavailable, handling requests on " + threads + " pooled threads");
+            return new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(threads * 64),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "note-server-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if (path.equals("/search")) {
+                requireMethod(method, "GET");
+                sendJson(exchange, 200, search(params));
+            } else if (path.equals("/notes") || path.equals("/notes/")) {
+                if (method.equals("GET")) {
+                    sendJson(exchange, 200, listNotes(params));
+                } else if (method.equals("POST")) {
+                    sendJson(exchange, 201, createNote(readBody(exchange)));
+                } else {
+                    throw new MethodNotAllowedException(method);
+                }
+            } else if (path.startsWith("/notes/")) {
+                int id = parseId(path.substring("/notes/".length()));
+                handleNote(exchange, method, id);
+            } else {
+                sendError(exchange, 404, "Unknown path: " + path);
+            }
+        } catch (MethodNotAllowedException e) {
+            sendError(exchange, 405, "Method not allowed: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "I/O error while handling request", e);
+            sendError(exchange, 500, "I/O error");
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Unexpected error while handling request", e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleNote(HttpExchange exchange, String method, int id) throws IOException {
+        switch (method) {
+            case "GET": {
+                Note note;
+                lock.readLock().lock();
+                try {
+                    note = snapshot(noteManager.getNoteById(id));
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (note == null) {
+                    sendError(exchange, 404, "Note not found: " + id);
+                } else {
+                    sendJson(exchange, 200, note);
+                }
+                break;
+            }
+            case "PUT": {
+                JsonNode body = readBody(exchange);
+                Note note;
+                lock.writeLock().lock();
+                try {
+                    if (!noteManager.updateNote(id, text(body, "title"), text(body, "content"))) {
+                        note = null;
+                    } else {
+                        note = snapshot(noteManager.getNoteById(id));
+                        persist();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (note == null) {
+                    sendError(exchange, 404, "Note not found: " + id);
+                } else {
+                    sendJson(exchange, 200, note);
+                }
+                break;
+            }
+            case "DELETE": {
+                boolean deleted;
+                lock.writeLock().lock();
+                try {
+                    deleted = noteManager.deleteNote(id);
+                    if (deleted) {
+                        persist();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (deleted) {
+                    exchange.sendResponseHeaders(204, -1);
+                } else {
+                    sendError(exchange, 404, "Note not found: " + id);
+                }
+                break;
+            }
+            default:
+                throw new MethodNotAllowedException(method);
+        }
+    }
+
+    private Note createNote(JsonNode body) {
+        lock.writeLock().lock();
+        try {
+            Note note = noteManager.createNote(text(body, "title"), text(body, "content"));
+            persist();
+            return snapshot(note);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, Object> listNotes(Map<String, String> params) {
+        int limit = Math.min(parseInt(params, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        if (params.containsKey("cursor")) {
+            return cursorPage(params.get("cursor"), limit);
+        }
+
+        String order = params.getOrDefault("order", "modified");
+        Comparator<Note> comparator;
+        if (order.equals("created")) {
+            comparator = NEWEST_CREATED;
+        } else if (order.equals("modified")) {
+            comparator = NEWEST_MODIFIED;
+        } else {
+            throw new IllegalArgumentException("Unknown order: " + order);
+        }
+        int offset = parseInt(params, "offset", 0);
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+
+        // Select only the first offset+limit notes instead of sorting a copy of the store
+        List<Note> selected;
+        int total;
+        lock.readLock().lock();
+        try {
+            List<Note> view = noteManager.getNotesView();
+            total = view.size();
+            if (offset >= total) {
+                selected = new ArrayList<>();
+            } else {
+                int k = (int) Math.min((long) offset + limit, total);
+                selected = TopK.select(view, k, comparator);
+                selected = snapshots(selected.subList(offset, selected.size()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("total", total);
+        page.put("offset", offset);
+        page.put("limit", limit);
+        page.put("notes", selected);
+        return page;
+    }
+
+    private Map<String, Object> cursorPage(String cursor, int limit) {
+        NotePage notePage;
+        List<Note> notes;
+        lock.readLock().lock();
+        try {
+            notePage = noteManager.getNotesPage(cursor == null || cursor.isEmpty() ? null : cursor, limit);
+            notes = snapshots(notePage.getNotes());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("notes", notes);
+        page.put("nextCursor", notePage.getNextCursor());
+        return page;
+    }
+
+    private Map<String, Object> search(Map<String, String> params) {
+        lock.readLock().lock();
+        try {
+            String query = params.get("q");
+            if (searchIndex == null || !searchIndex.isReady() || query == null || query.trim().isEmpty()) {
+                return page(noteManager.searchNotes(query), params);
+            }
+            int offset = parseInt(params, "offset", 0);
+            int limit = Math.min(parseInt(params, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+            if (offset < 0 || limit < 0) {
+                throw new IllegalArgumentException("Offset and limit must not be negative");
+            }
+
+            // Rank only the first offset+limit hits so the top-k search can prune;
+            // the total comes from a separate unscored count of the matches
+            RankedSearcher searcher = new RankedSearcher(searchIndex.getIndex());
+            int total = searcher.count(query);
+            List<Note> notes = new ArrayList<>();
+            if (offset < total) {
+                List<SearchHit> hits = searcher.search(query, (int) Math.min((long) offset + limit, total));
+                for (SearchHit hit : hits.subList(Math.min(offset, hits.size()), hits.size())) {
+                    notes.add(hit.getNote());
+                }
+            }
+            return page(notes, total, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a page of copies of the notes. Called with the lock held.
+     */
+    private Map<String, Object> page(List<Note> notes, Map<String, String> params) {
+        int offset = parseInt(params, "offset", 0);
+        int limit = Math.min(parseInt(params, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+
+        int from = Math.min(offset, notes.size());
+        int to = Math.min(from + limit, notes.size());
+        return page(notes.subList(from, to), notes.size(), offset, limit);
+    }
+
+    /**
+     * Builds a page from notes already cut to the requested window. Called with the lock held.
+     */
+    private Map<String, Object> page(List<Note> window, int total, int offset, int limit) {
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("total", total);
+        page.put("offset", offset);
+        page.put("limit", limit);
+        page.put("notes", snapshots(window));
+        return page;
+    }
+
+    /**
+     * Copies a note with its content read, so that it can be serialized after the lock
+     * is released without seeing a concurrent update or loading deferred content unlocked.
+     * Called with the lock held.
+     */
+    private static Note snapshot(Note note) {
+        if (note == null) {
+            return null;
+        }
+        Note copy = new Note(note);
+        copy.getContent();
+        return copy;
+    }
+
+    private static List<Note> snapshots(List<Note> notes) {
+        List<Note> copies = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            copies.add(snapshot(note));
+        }
+        return copies;
+    }
+
+    /**
+     * Writes the store through to storage. Called with the write lock held
+     * so the saved snapshot always reflects a consistent state.
+     */
+    private void persist() {
+        if (fileStorage != null && !fileStorage.saveNotes(noteManager.getAllNotes())) {
+            LOGGER.warning("Failed to persist notes after mutation");
+        }
+    }
+
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonNode body = objectMapper.readTree(in);
+            if (body == null || !body.isObject()) {
+                throw new IllegalArgumentException("Request body must be a JSON object");
+            }
+            return body;
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object value) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(value);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", message);
+        sendJson(exchange, status, error);
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!actual.equals(expected)) {
+            throw new MethodNotAllowedException(actual);
+        }
+    }
+
+    private static String text(JsonNode body, String field) {
+        JsonNode value = body.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static int parseId(String raw) {
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid note id: " + raw);
+        }
+    }
+
+    private static int parseInt(Map<String, String> params, String name, int defaultValue) {
+        String raw = params.get(name);
+        if (raw == null || raw.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + raw);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static class MethodNotAllowedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        MethodNotAllowedException(String method) {
+            super(method);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.noteapp.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Incremental backups of a store. The first backup is a full copy of every note; each
+ * later one holds only the notes added or changed since its parent, plus the ids deleted,
+ * so its cost follows the number of edits rather than the size of the store.
+ *
+ * <p>Each backup is a data file and a manifest ({@link BackupManifest}) recording the
+ * store generation, the parent backup and the SHA-256 of the data. The manifest is moved
+ * into place last, so an interrupted backup is simply absent from the chain. Restoring
+ * replays the latest full backup and the incrementals after it, verifying every checksum.
+ *
+ * <p>Changes are tracked from the manager's events. The ids changed since the last
+ * backup are appended to a pending log whenever the store is written, so that they are
+ * still known after a restart. Writing a backup happens on a background thread; the
+ * caller only copies the changed notes, never the whole store.
+ */
+public class BackupManager implements NoteChangeListener, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(BackupManager.class.getName());
+    private static final String PENDING_FILE = "pending.log";
+    private static final Pattern MANIFEST_NAME = Pattern.compile("backup-(\\d+)\\.manifest\\.json");
+
+    private final Path directory;
+    private final FileStorage storage;
+    private final NoteManager noteManager;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+
+    /** Notes changed since the last backup, keyed by id */
+    private final Map<String, Note> changed = new LinkedHashMap<>();
+    /** Notes deleted since the last backup */
+    private final Set<String> deleted = new LinkedHashSet<>();
+    /** Ids changed since the pending log was last appended to, as "A id" or "D id" */
+    private final List<String> unflushed = new ArrayList<>();
+    /** The backup the next one builds on, or 0 when the next one must be full */
+    private int parentSequence;
+    private int nextSequence;
+
+    private BackupManager(Path directory, FileStorage storage, NoteManager noteManager) {
+        this.directory = directory;
+        this.storage = storage;
+        this.noteManager = noteManager;
+        this.objectMapper = createObjectMapper();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "note-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the backup chain in a directory and starts tracking changes to the manager's
+     * notes. If the chain's pending log does not match its latest backup, the next
+     * backup is a full one.
+     * @param storage The storage being backed up
+     * @param noteManager The manager holding the notes
+     * @param directory The directory holding the backups
+     * @return The attached backup manager
+     * @throws IOException if the directory cannot be read
+     */
+    public static BackupManager open(FileStorage storage, NoteManager noteManager, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        BackupManager manager = new BackupManager(directory, storage, noteManager);
+        synchronized (manager) {
+            TreeMap<Integer, BackupManifest> chain = readManifests(manager.objectMapper, directory);
+            manager.nextSequence = chain.isEmpty() ? 1 : chain.lastKey() + 1;
+            if (!chain.isEmpty() && manager.readPending(chain.lastKey())) {
+                manager.parentSequence = chain.lastKey();
+            }
+            noteManager.addChangeListener(manager);
+            storage.addWriteListener(generation -> manager.flushPending());
+        }
+        return manager;
+    }
+
+    @Override
+    public synchronized void noteAdded(Note note) {
+        markChanged(note);
+    }
+
+    @Override
+    public synchronized void noteUpdated(Note previous, Note current) {
+        markChanged(current);
+    }
+
+    @Override
+    public synchronized void noteRemoved(Note note) {
+        changed.remove(note.getId());
+        deleted.add(note.getId());
+        unflushed.add("D " + note.getId());
+    }
+
+    private void markChanged(Note note) {
+        changed.put(note.getId(), note);
+        deleted.remove(note.getId());
+        unflushed.add("A " + note.getId());
+    }
+
+    /**
+     * Gets the number of notes changed or deleted since the last backup
+     * @return The pending change count
+     */
+    public synchronized int getPendingChanges() {
+        return changed.size() + deleted.size();
+    }
+
+    /**
+     * Starts a backup. The changed notes are copied on the calling thread; the data file
+     * and manifest are written in the background.
+     * @return A future completing with the new backup's manifest
+     */
+    public CompletableFuture<BackupManifest> backup() {
+        final List<Note> notes;
+        final List<String> deletedIds;
+        final int parent;
+        final int sequence;
+        final long generation;
+        synchronized (this) {
+            parent = parentSequence;
+            sequence = nextSequence++;
+            parentSequence = sequence;
+            generation = storage.getGeneration();
+            Collection<Note> source = parent == 0 ? noteManager.getNotesView() : changed.values();
+            notes = new ArrayList<>(source.size());
+            for (Note note : source) {
+                notes.add(new Note(note));
+            }
+            deletedIds = parent == 0 ? new ArrayList<>() : new ArrayList<>(deleted);
+            changed.clear();
+            deleted.clear();
+            unflushed.clear();
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                BackupManifest manifest = write(sequence, parent, generation, notes, deletedIds);
+                synchronized (this) {
+                    // A backup started since then rewrites the log itself when it completes
+                    if (parentSequence == sequence) {
+                        rewritePending(sequence);
+                    }
+                }
+                LOGGER.info("Backup " + sequence + " (" + manifest.getType() + ") saved "
+                        + notes.size() + " notes");
+                return manifest;
+            } catch (IOException e) {
+                synchronized (this) {
+                    // The changes it held are lost to the chain, so start a new one
+                    if (parentSequence >= sequence) {
+                        parentSequence = 0;
+                    }
+                }
+                throw new UncheckedIOException("Backup " + sequence + " failed", e);
+            }
+        }, executor);
+    }
+
+    private BackupManifest write(int sequence, int parent, long generation,
+                                 List<Note> notes, List<String> deletedIds) throws IOException {
+        // Backups are written in order, so a missing parent means it failed
+        if (parent != 0 && !Files.exists(manifestFile(parent))) {
+            throw new IOException("Parent backup " + parent + " was not completed");
+        }
+        List<StoredNote> stored = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            stored.add(StoredNote.plain(note));
+        }
+        String dataFile = String.format("backup-%06d.json", sequence);
+        Path temp = directory.resolve(dataFile + ".tmp");
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+            objectMapper.writeValue(out, stored);
+        }
+        Files.move(temp, directory.resolve(dataFile), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        BackupManifest manifest = new BackupManifest(sequence,
+                parent == 0 ? BackupManifest.Type.FULL : BackupManifest.Type.INCREMENTAL,
+                parent, generation, notes.size(), deletedIds,
+                dataFile, toHex(digest.digest()));
+        Path manifestFile = manifestFile(sequence);
+        Path manifestTemp = directory.resolve(manifestFile.getFileName() + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(manifestTemp.toFile(), manifest);
+        Files.move(manifestTemp, manifestFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        return manifest;
+    }
+
+    private Path manifestFile(int sequence) {
+        return directory.resolve(String.format("backup-%06d.manifest.json", sequence));
+    }
+
+    /**
+     * Restores the notes as of the latest backup in a directory
+     * @param directory The directory holding the backups
+     * @return The restored notes
+     * @throws IOException if there are no backups, or a file is missing or corrupt
+     */
+    public static List<Note> restore(Path directory) throws IOException {
+        return restore(directory, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Restores the notes as of a given backup, replaying the full backup it builds on and
+     * every incremental one up to it
+     * @param directory The directory holding the backups
+     * @param sequence The backup to restore; later ones are ignored
+     * @return The restored notes
+     * @throws IOException if there is no such backup, or a file is missing or corrupt
+     */
+    public static List<Note> restore(Path directory, int sequence) throws IOException {
+        ObjectMapper objectMapper = createObjectMapper();
+        TreeMap<Integer, BackupManifest> chain = readManifests(objectMapper, directory);
+        Map.Entry<Integer, BackupManifest> target = chain.floorEntry(sequence);
+        if (target == null) {
+            throw new IOException("No backup found in " + directory);
+        }
+
+        List<BackupManifest> replay = new ArrayList<>();
+        BackupManifest manifest = target.getValue();
+        while (manifest.getType() == BackupManifest.Type.INCREMENTAL) {
+            replay.add(manifest);
+            manifest = chain.get(manifest.getParentSequence());
+            if (manifest == null) {
+                throw new IOException("Backup chain is broken before backup " + replay.get(replay.size() - 1).getSequence());
+            }
+        }
+        replay.add(manifest);
+        Collections.reverse(replay);
+
+        CollectionType listType = objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, StoredNote.class);
+        Map<String, Note> notes = new LinkedHashMap<>();
+        for (BackupManifest step : replay) {
+            byte[] data = Files.readAllBytes(directory.resolve(step.getDataFile()));
+            if (!toHex(sha256().digest(data)).equals(step.getDataSha256())) {
+                throw new IOException("Checksum mismatch in " + step.getDataFile());
+            }
+            for (String id : step.getDeletedIds()) {
+                notes.remove(id);
+            }
+            List<StoredNote> stored = objectMapper.readValue(data, listType);
+            for (StoredNote note : stored) {
+                notes.put(note.id, note.toNote());
+            }
+        }
+        return new ArrayList<>(notes.values());
+    }
+
+    /**
+     * Gets the completed backups in a directory
+     * @param directory The directory holding the backups
+     * @return The manifests, oldest first
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<BackupManifest> listBackups(Path directory) throws IOException {
+        return new ArrayList<>(readManifests(createObjectMapper(), directory).values());
+    }
+
+    /**
+     * Stops tracking changes, records the pending ones, and stops the background thread
+     * once queued backups have been written
+     */
+    @Override
+    public void close() {
+        noteManager.removeChangeListener(this);
+        flushPending();
+        executor.shutdown();
+    }
+
+    private static TreeMap<Integer, BackupManifest> readManifests(ObjectMapper objectMapper, Path directory)
+            throws IOException {
+        TreeMap<Integer, BackupManifest> chain = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return chain;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = MANIFEST_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    BackupManifest manifest = objectMapper.readValue(file.toFile(), BackupManifest.class);
+                    chain.put(manifest.getSequence(), manifest);
+                }
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * Appends ids changed since the last flush to the pending log. Called after every
+     * store write, so the log never lags the store by more than the write in progress.
+     */
+    private synchronized void flushPending() {
+        if (unflushed.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(PENDING_FILE),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String line : unflushed) {
+                writer.write(line);
+                writer.newLine();
+            }
+            unflushed.clear();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to update pending backup log", e);
+        }
+    }
+
+    /**
+     * Starts a new pending log after a backup, keeping changes made while it was written
+     */
+    private void rewritePending(int base) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("base " + base);
+        for (String id : changed.keySet()) {
+            lines.add("A " + id);
+        }
+        for (String id : deleted) {
+            lines.add("D " + id);
+        }
+        Path temp = directory.resolve(PENDING_FILE + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(PENDING_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        unflushed.clear();
+    }
+
+    /**
+     * Loads the changes recorded since a backup
+     * @return false if the pending log is missing or belongs to another backup
+     */
+    private boolean readPending(int base) throws IOException {
+        Path file = directory.resolve(PENDING_FILE);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals("base " + base)) {
+            return false;
+        }
+        Map<String, Note> notesById = new LinkedHashMap<>();
+        for (Note note : noteManager.getNotesView()) {
+            notesById.put(note.getId(), note);
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.length() < 3) {
+                continue;
+            }
+            String id = line.substring(2);
+            Note note = notesById.get(id);
+            if (line.charAt(0) == 'A' && note != null) {
+                changed.put(id, note);
+                deleted.remove(id);
+            } else {
+                // Deleted, or added and deleted again before a restart
+                changed.remove(id);
+                deleted.add(id);
+            }
+        }
+        return true;
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.noteapp.storage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes one backup in a chain: which store generation it captures, which backup
+ * it builds on, the notes it deletes, and the checksum of its data file. A full backup
+ * holds every note; an incremental one only the notes changed since its parent.
+ * The manifest is written last, so a backup without one is incomplete and ignored.
+ */
+public class BackupManifest {
+
+    public enum Type {
+        FULL,
+        INCREMENTAL
+    }
+
+    private int sequence;
+    private Type type;
+    private int parentSequence;
+    private long generation;
+    private LocalDateTime createdAt;
+    private int noteCount;
+    private List<String> deletedIds = new ArrayList<>();
+    private String dataFile;
+    private String dataSha256;
+
+    BackupManifest() {
+        // For JSON deserialization
+    }
+
+    BackupManifest(int sequence, Type type, int parentSequence, long generation, int noteCount,
+                   List<String> deletedIds, String dataFile, String dataSha256) {
+        this.sequence = sequence;
+        this.type = type;
+        this.parentSequence = parentSequence;
+        this.generation = generation;
+        this.createdAt = LocalDateTime.now();
+        this.noteCount = noteCount;
+        this.deletedIds = deletedIds;
+        this.dataFile = dataFile;
+        this.dataSha256 = dataSha256;
+    }
+
+    /**
+     * Gets the position of this backup in the chain
+     * @return The sequence number, starting at 1
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets whether the backup holds every note or only the changed ones
+     * @return The backup type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the backup this one applies on top of
+     * @return The parent's sequence number, or 0 for a full backup
+     */
+    public int getParentSequence() {
+        return parentSequence;
+    }
+
+    /**
+     * Gets the store generation captured
+     * @return The generation of the last storage write before the backup
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets when the backup was taken
+     * @return The creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the number of notes in the data file
+     * @return All notes for a full backup, the changed ones for an incremental one
+     */
+    public int getNoteCount() {
+        return noteCount;
+    }
+
+    /**
+     * Gets the notes deleted since the parent backup
+     * @return The deleted note ids
+     */
+    public List<String> getDeletedIds() {
+        return deletedIds;
+    }
+
+    /**
+     * Gets the data file holding the backed-up notes
+     * @return The file name, relative to the backup directory
+     */
+    public String getDataFile() {
+        return dataFile;
+    }
+
+    /**
+     * Gets the checksum of the data file, verified before a restore
+     * @return The SHA-256 digest in lowercase hex
+     */
+    public String getDataSha256() {
+        return dataSha256;
+    }
+}
@@ -0,0 +1,42 @@
+package com.noteapp.storage;
+
+import java.util.Arrays;
+
+/**
+ * The SHA-256 of a chunk, identifying it in a {@link ChunkStore}.
+ */
+public final class ChunkId {
+    private final byte[] hash;
+    private final int hashCode;
+
+    ChunkId(byte[] hash) {
+        if (hash.length != ChunkStore.HASH_BYTES) {
+            throw new IllegalArgumentException("Chunk ids are " + ChunkStore.HASH_BYTES + " bytes");
+        }
+        this.hash = hash;
+        this.hashCode = Arrays.hashCode(hash);
+    }
+
+    byte[] bytes() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ChunkId && Arrays.equals(hash, ((ChunkId) o).hash));
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
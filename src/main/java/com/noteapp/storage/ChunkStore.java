@@ -0,0 +1,171 @@
+package com.noteapp.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Append-only, content-addressed store of chunks keyed by their SHA-256. A chunk already
+ * present is never written again, so identical content shared between revisions or
+ * notes costs its bytes once.
+ *
+ * <p>The pack file is a sequence of records: the 32-byte hash, the length, then the bytes.
+ * Offsets are longs, so the pack may grow past 2 GB; each chunk is read on its own.
+ * The hash-to-offset table is rebuilt by scanning record headers on open; a torn record
+ * at the end, left by a crash during an append, is cut off.
+ */
+public class ChunkStore implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ChunkStore.class.getName());
+    static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = HASH_BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Map<ChunkId, Location> locations = new HashMap<>();
+    private long size;
+
+    /**
+     * Opens or creates a pack file
+     * @param packFile The file holding the chunks
+     * @throws IOException if the file cannot be opened
+     */
+    public ChunkStore(Path packFile) throws IOException {
+        this.channel = FileChannel.open(packFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        scan();
+    }
+
+    private void scan() throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        while (position + HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            byte[] hash = new byte[HASH_BYTES];
+            header.get(hash);
+            int length = header.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > fileSize) {
+                break;
+            }
+            locations.put(new ChunkId(hash), new Location(position + HEADER_BYTES, length));
+            position += HEADER_BYTES + length;
+        }
+        if (position < fileSize) {
+            LOGGER.warning("Discarding " + (fileSize - position) + " bytes of torn chunk data");
+            channel.truncate(position);
+        }
+        size = position;
+    }
+
+    /**
+     * Stores a chunk unless an identical one is already present
+     * @param data The chunk bytes
+     * @return The chunk's id
+     * @throws IOException if the chunk cannot be written
+     */
+    public synchronized ChunkId put(byte[] data) throws IOException {
+        ChunkId id = new ChunkId(sha256(data));
+        if (locations.containsKey(id)) {
+            return id;
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + data.length);
+        record.put(id.bytes()).putInt(data.length).put(data).flip();
+        while (record.hasRemaining()) {
+            channel.write(record, size + record.position());
+        }
+        locations.put(id, new Location(size + HEADER_BYTES, data.length));
+        size += record.limit();
+        return id;
+    }
+
+    /**
+     * Reads a chunk
+     * @param id The chunk id
+     * @return The chunk bytes
+     * @throws IOException if the chunk is missing or cannot be read
+     */
+    public synchronized byte[] get(ChunkId id) throws IOException {
+        Location location = locations.get(id);
+        if (location == null) {
+            throw new IOException("Missing chunk " + id);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        readFully(buffer, location.offset);
+        return buffer.array();
+    }
+
+    /**
+     * Checks whether a chunk is stored
+     * @param id The chunk id
+     * @return true if present
+     */
+    public synchronized boolean contains(ChunkId id) {
+        return locations.containsKey(id);
+    }
+
+    /**
+     * Gets the number of distinct chunks
+     * @return The chunk count
+     */
+    public synchronized int getChunkCount() {
+        return locations.size();
+    }
+
+    /**
+     * Gets the size of the pack file
+     * @return The stored bytes, including record headers
+     */
+    public synchronized long getStoredBytes() {
+        return size;
+    }
+
+    /**
+     * Forces appended chunks to disk
+     * @throws IOException if the sync fails
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of chunk pack");
+            }
+        }
+    }
+
+    /**
+     * Where a chunk's bytes start in the pack and how many there are
+     */
+    private static final class Location {
+        final long offset;
+        final int length;
+
+        Location(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
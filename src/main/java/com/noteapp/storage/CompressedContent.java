@@ -0,0 +1,115 @@
+package com.noteapp.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A note body held in Deflate-compressed form, inflated when the note's content is
+ * first read. Attached to notes through {@link com.noteapp.model.Note#deferContent}.
+ */
+class CompressedContent implements Supplier<String> {
+    static final String CODEC = "deflate";
+
+    /**
+     * Keep the compressed form only if it saves at least this fraction. The data is
+     * compared as notes.json stores it, base64-encoded, so the deflated bytes must come
+     * to about 0.67 of the body or less.
+     */
+    private static final double MAX_RATIO = 0.9;
+
+    private final byte[] data;
+    private final int rawLength;
+    private final CompressionDictionary dictionary;
+    private final CompressionStats stats;
+
+    CompressedContent(byte[] data, int rawLength, CompressionDictionary dictionary, CompressionStats stats) {
+        this.data = data;
+        this.rawLength = rawLength;
+        this.dictionary = dictionary;
+        this.stats = stats;
+    }
+
+    /**
+     * Compresses a body
+     * @param text The body
+     * @param dictionary A preset dictionary, or null
+     * @param stats Totals to record codec time in
+     * @return The compressed body, or null if compression does not pay off
+     */
+    static CompressedContent compress(String text, CompressionDictionary dictionary, CompressionStats stats) {
+        long start = System.nanoTime();
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary.bytes());
+            }
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            stats.recordCompression(raw.length, length, System.nanoTime() - start);
+            if (base64Length(length) > raw.length * MAX_RATIO) {
+                return null;
+            }
+            return new CompressedContent(Arrays.copyOf(buffer, length), raw.length, dictionary, stats);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long base64Length(int bytes) {
+        return 4L * ((bytes + 2L) / 3);
+    }
+
+    @Override
+    public String get() {
+        long start = System.nanoTime();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary() && dictionary != null) {
+                        inflater.setDictionary(dictionary.bytes());
+                    } else {
+                        throw new IllegalStateException("Compressed note content is truncated");
+                    }
+                }
+                length += inflated;
+            }
+            String text = new String(raw, StandardCharsets.UTF_8);
+            stats.recordDecompression(System.nanoTime() - start);
+            return text;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed note content is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    int getRawLength() {
+        return rawLength;
+    }
+
+    CompressionDictionary getDictionary() {
+        return dictionary;
+    }
+}
@@ -0,0 +1,123 @@
+package com.noteapp.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A preset dictionary for Deflate, primed with phrases that recur across notes. Short
+ * notes compress poorly on their own because Deflate has no history to refer back to;
+ * with a dictionary, boilerplate shared with other notes becomes back-references.
+ */
+public class CompressionDictionary {
+
+    /** Deflate only looks back 32 KB, so a larger dictionary is wasted */
+    public static final int MAX_SIZE = 32 * 1024;
+
+    private static final int PHRASE_WORDS = 3;
+    private static final int MAX_SAMPLE_CHARS = 64 * 1024;
+
+    private final String id;
+    private final byte[] bytes;
+
+    /**
+     * Wraps existing dictionary bytes
+     * @param bytes The dictionary content
+     */
+    public CompressionDictionary(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes.length > MAX_SIZE) {
+            throw new IllegalArgumentException("Dictionary must hold 1 to " + MAX_SIZE + " bytes");
+        }
+        this.bytes = bytes.clone();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        this.id = String.format("%08x", crc.getValue());
+    }
+
+    /**
+     * Trains a dictionary from sample note bodies. Phrases of a few words are counted
+     * across the samples and the most valuable recurring ones (occurrences times length)
+     * are kept, with the best placed last where Deflate reaches them with the shortest
+     * distances.
+     * @param samples Representative note bodies
+     * @param maxSize The maximum dictionary size in bytes
+     * @return The dictionary, or null if the samples share no phrases
+     */
+    public static CompressionDictionary train(Collection<String> samples, int maxSize) {
+        if (maxSize <= 0 || maxSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Dictionary size must be between 1 and " + MAX_SIZE);
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (String sample : samples) {
+            String text = sample.length() > MAX_SAMPLE_CHARS ? sample.substring(0, MAX_SAMPLE_CHARS) : sample;
+            List<Integer> wordStarts = new ArrayList<>();
+            for (int i = 0; i < text.length(); i++) {
+                if (!Character.isWhitespace(text.charAt(i)) && (i == 0 || Character.isWhitespace(text.charAt(i - 1)))) {
+                    wordStarts.add(i);
+                }
+            }
+            for (int w = 0; w + PHRASE_WORDS < wordStarts.size(); w++) {
+                // A phrase includes the whitespace after it, so consecutive phrases chain
+                counts.merge(text.substring(wordStarts.get(w), wordStarts.get(w + PHRASE_WORDS)), 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<String, Integer>> phrases = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 1) {
+                phrases.add(entry);
+            }
+        }
+        phrases.sort((a, b) -> {
+            long scoreA = (long) a.getValue() * a.getKey().length();
+            long scoreB = (long) b.getValue() * b.getKey().length();
+            return scoreA != scoreB ? Long.compare(scoreB, scoreA) : a.getKey().compareTo(b.getKey());
+        });
+
+        List<byte[]> chosen = new ArrayList<>();
+        int size = 0;
+        for (Map.Entry<String, Integer> phrase : phrases) {
+            byte[] encoded = phrase.getKey().getBytes(StandardCharsets.UTF_8);
+            if (size + encoded.length <= maxSize) {
+                chosen.add(encoded);
+                size += encoded.length;
+            }
+        }
+        if (size == 0) {
+            return null;
+        }
+
+        byte[] dictionary = new byte[size];
+        int position = size;
+        for (byte[] phrase : chosen) {
+            position -= phrase.length;
+            System.arraycopy(phrase, 0, dictionary, position, phrase.length);
+        }
+        return new CompressionDictionary(dictionary);
+    }
+
+    /**
+     * Gets the identifier recorded with notes compressed against this dictionary
+     * @return The CRC32 of the content, in hex
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the dictionary content
+     * @return A copy of the bytes
+     */
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,104 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+
+import java.time.LocalDateTime;
+
+/**
+ * Decides which note bodies {@link FileStorage} keeps compressed: large ones, and cold
+ * ones that have not been modified for a number of days. Recently edited small notes
+ * stay plain text so that reading them never pays for decompression.
+ */
+public class CompressionPolicy {
+
+    public static final int DEFAULT_MIN_CHARS = 4 * 1024;
+    public static final int DEFAULT_COLD_DAYS = 30;
+    /** Below this even cold bodies are left alone; Deflate overhead would eat the gain */
+    public static final int MIN_COLD_CHARS = 256;
+
+    private static final CompressionPolicy DISABLED = new CompressionPolicy(Integer.MAX_VALUE, -1, null);
+
+    private final int minChars;
+    private final int coldDays;
+    private final CompressionDictionary dictionary;
+
+    /**
+     * Creates a policy
+     * @param minChars Bodies of at least this many characters are compressed
+     * @param coldDays Bodies untouched for this many days are compressed too; negative to disable
+     * @param dictionary A preset dictionary, or null for plain Deflate
+     */
+    public CompressionPolicy(int minChars, int coldDays, CompressionDictionary dictionary) {
+        if (minChars < 0) {
+            throw new IllegalArgumentException("Minimum size cannot be negative");
+        }
+        this.minChars = minChars;
+        this.coldDays = coldDays;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Gets the default policy: bodies of 4K characters and 30-day-old notes, no dictionary
+     * @return The default policy
+     */
+    public static CompressionPolicy defaults() {
+        return new CompressionPolicy(DEFAULT_MIN_CHARS, DEFAULT_COLD_DAYS, null);
+    }
+
+    /**
+     * Gets a policy that stores every body as plain text
+     * @return The disabled policy
+     */
+    public static CompressionPolicy disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Checks whether a body should be stored compressed
+     * @param note The note
+     * @param now The current time
+     * @return true if the body qualifies by size or by age
+     */
+    public boolean shouldCompress(Note note, LocalDateTime now) {
+        int length = note.getContent().length();
+        if (length >= minChars) {
+            return true;
+        }
+        if (coldDays < 0 || length < MIN_COLD_CHARS || note.getModificationDate() == null) {
+            return false;
+        }
+        return note.getModificationDate().isBefore(now.minusDays(coldDays));
+    }
+
+    /**
+     * Checks whether this policy compresses anything
+     * @return false if no body can qualify
+     */
+    public boolean isEnabled() {
+        return minChars != Integer.MAX_VALUE || coldDays >= 0;
+    }
+
+    /**
+     * Gets the body size from which notes are compressed
+     * @return The minimum number of characters
+     */
+    public int getMinChars() {
+        return minChars;
+    }
+
+    /**
+     * Gets the age after which bodies are compressed regardless of size
+     * @return The number of days without modification, or negative if disabled
+     */
+    public int getColdDays() {
+        return coldDays;
+    }
+
+    /**
+     * Gets the preset dictionary used for compression
+     * @return The dictionary, or null for plain Deflate
+     */
+    public CompressionDictionary getDictionary() {
+        return dictionary;
+    }
+}
@@ -0,0 +1,93 @@
+package com.noteapp.storage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals for the content compression tier: how much was compressed, how well,
+ * and how much CPU time the codec took in each direction. Thread-safe.
+ */
+public class CompressionStats {
+    private final AtomicLong compressedNotes = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong compressNanos = new AtomicLong();
+    private final AtomicLong decompressions = new AtomicLong();
+    private final AtomicLong decompressNanos = new AtomicLong();
+
+    void recordCompression(int raw, int compressed, long nanos) {
+        compressedNotes.incrementAndGet();
+        rawBytes.addAndGet(raw);
+        compressedBytes.addAndGet(compressed);
+        compressNanos.addAndGet(nanos);
+    }
+
+    void recordDecompression(long nanos) {
+        decompressions.incrementAndGet();
+        decompressNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Gets the number of note bodies compressed
+     * @return The compression count
+     */
+    public long getCompressedNotes() {
+        return compressedNotes.get();
+    }
+
+    /**
+     * Gets the UTF-8 size of the bodies before compression
+     * @return The raw byte count
+     */
+    public long getRawBytes() {
+        return rawBytes.get();
+    }
+
+    /**
+     * Gets the size of the bodies after compression
+     * @return The compressed byte count
+     */
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    /**
+     * Gets the compressed size as a fraction of the raw size
+     * @return The ratio, or 1 if nothing was compressed
+     */
+    public double getRatio() {
+        long raw = rawBytes.get();
+        return raw == 0 ? 1.0 : compressedBytes.get() / (double) raw;
+    }
+
+    /**
+     * Gets the CPU time spent compressing
+     * @return The time in nanoseconds
+     */
+    public long getCompressNanos() {
+        return compressNanos.get();
+    }
+
+    /**
+     * Gets the number of bodies decompressed on access
+     * @return The decompression count
+     */
+    public long getDecompressions() {
+        return decompressions.get();
+    }
+
+    /**
+     * Gets the CPU time spent decompressing
+     * @return The time in nanoseconds
+     */
+    public long getDecompressNanos() {
+        return decompressNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d notes compressed, %d -> %d bytes (ratio %.2f), compress %.1f ms, "
+                        + "%d decompressions %.1f ms",
+                getCompressedNotes(), getRawBytes(), getCompressedBytes(), getRatio(),
+                getCompressNanos() / 1e6, getDecompressions(), getDecompressNanos() / 1e6);
+    }
+}
@@ -0,0 +1,65 @@
+package com.noteapp.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Content-defined chunking with a Gear rolling hash. A chunk ends where the hash of the
+ * preceding 64 bytes hits a fixed pattern, so boundaries depend on local content only:
+ * an edit changes the chunks it touches, and the chunking resynchronises right after,
+ * leaving every other chunk byte-identical to the previous revision.
+ */
+public final class ContentChunker {
+
+    public static final int MIN_CHUNK = 256;
+    public static final int MAX_CHUNK = 4096;
+    /** A boundary needs the top 10 hash bits clear: on average every 1 KB past the minimum */
+    private static final int BOUNDARY_BITS = 10;
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // Fixed seed: boundaries must be stable across runs for deduplication to work
+        SplittableRandom random = new SplittableRandom(0x6E6F746573L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private ContentChunker() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Splits data into content-defined chunks
+     * @param data The bytes to split
+     * @return The chunks in order; empty for empty data
+     */
+    public static List<byte[]> split(byte[] data) {
+        List<byte[]> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < data.length) {
+            int end = cut(data, start);
+            chunks.add(Arrays.copyOfRange(data, start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static int cut(byte[] data, int start) {
+        if (data.length - start <= MIN_CHUNK) {
+            return data.length;
+        }
+        int limit = Math.min(data.length, start + MAX_CHUNK);
+        long hash = 0;
+        for (int i = start + MIN_CHUNK; i < limit; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+            if (hash >>> (Long.SIZE - BOUNDARY_BITS) == 0) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+}
@@ -1,15 +1,28 @@
 package com.noteapp.storage;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.noteapp.model.Note;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,22 +30,30 @@ public class FileStorage {
     private static final Logger LOGGER = Logger.getLogger(FileStorage.class.getName());
     private static final String STORAGE_DIR = "notes";
     private static final String NOTES_FILE = "notes.json";
+    private static final String GENERATION_FILE = "store.generation";
+    private static final String DICTIONARY_DIR = "dictionaries";
     
-    private final ObjectMapper objectMapper;
+    /** notes.json is read and written with {@link NoteCodec} on the streaming API */
+    private final JsonFactory jsonFactory = new JsonFactory();
     private final Path storageDirectory;
     private final Path notesFilePath;
+    private final Path generationFilePath;
+    private final List<LongConsumer> writeListeners = new CopyOnWriteArrayList<>();
+    private volatile long generation;
+    private volatile CompressionPolicy compressionPolicy = CompressionPolicy.defaults();
+    private final CompressionStats compressionStats = new CompressionStats();
+    private final Map<String, CompressionDictionary> dictionaries = new ConcurrentHashMap<>();
+    /** Compressed forms of bodies written by the last save, reused while the text is unchanged */
+    private Map<String, CachedBody> compressedBodies = new HashMap<>();
     
     public FileStorage() {
-        this.objectMapper = new ObjectMapper();
-        this.storageDirectory = Paths.get(STORAGE_DIR);
-        this.notesFilePath = storageDirectory.resolve(NOTES_FILE);
-        initializeStorage();
+        this(STORAGE_DIR);
     }
     
     public FileStorage(String customStorageDir) {
-        this.objectMapper = new ObjectMapper();
         this.storageDirectory = Paths.get(customStorageDir);
         this.notesFilePath = storageDirectory.resolve(NOTES_FILE);
+        this.generationFilePath = storageDirectory.resolve(GENERATION_FILE);
         initializeStorage();
     }
     
@@ -43,6 +64,8 @@ public class FileStorage {
                 LOGGER.info("Created storage directory: " + storageDirectory);
             }
             
+            generation = readGeneration();
+            
             if (!Files.exists(notesFilePath)) {
                 saveNotes(new ArrayList<>());
                 LOGGER.info("Created notes file: " + notesFilePath);
@@ -53,18 +76,96 @@ public class FileStorage {
         }
     }
     
+    /**
+     * Gets the store generation, which increases with every write of the notes file.
+     * Derived files such as persisted indexes record the generation they reflect.
+     * @return The current generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+    
+    /**
+     * Gets the directory holding the notes file
+     * @return The storage directory
+     */
+    public Path getStorageDirectory() {
+        return storageDirectory;
+    }
+    
+    /**
+     * Registers a callback run after each successful write of the notes file
+     * @param listener Called with the generation of the write
+     */
+    public void addWriteListener(LongConsumer listener) {
+        writeListeners.add(listener);
+    }
+    
+    /**
+     * Sets which note bodies are stored compressed from the next save on. Bodies already
+     * compressed stay so while unchanged.
+     * @param policy The policy; {@link CompressionPolicy#disabled()} stores plain text
+     */
+    public void setCompressionPolicy(CompressionPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Compression policy cannot be null");
+        }
+        this.compressionPolicy = policy;
+    }
+    
+    /**
+     * Gets the compression policy
+     * @return The current policy
+     */
+    public CompressionPolicy getCompressionPolicy() {
+        return compressionPolicy;
+    }
+    
+    /**
+     * Gets compression ratios and codec time since this storage was created
+     * @return The running totals
+     */
+    public CompressionStats getCompressionStats() {
+        return compressionStats;
+    }
+    
+    private long readGeneration() {
+        try {
+            if (Files.exists(generationFilePath)) {
+                return Long.parseLong(new String(Files.readAllBytes(generationFilePath), StandardCharsets.UTF_8).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Unreadable store generation, starting from zero", e);
+        }
+        return 0;
+    }
+    
+    private void writeGeneration(long value) throws IOException {
+        Path temp = generationFilePath.resolveSibling(GENERATION_FILE + ".tmp");
+        Files.write(temp, Long.toString(value).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, generationFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
     public List<Note> loadNotes() {
         try {
             if (!Files.exists(notesFilePath) || Files.size(notesFilePath) == 0) {
                 return new ArrayList<>();
             }
             
-            CollectionType listType = objectMapper.getTypeFactory()
-                    .constructCollectionType(List.class, Note.class);
-            List<Note> notes = objectMapper.readValue(notesFilePath.toFile(), listType);
+            List<StoredNote> stored;
+            try (JsonParser parser = jsonFactory.createParser(notesFilePath.toFile())) {
+                stored = NoteCodec.read(parser);
+            }
+            if (stored == null) {
+                return new ArrayList<>();
+            }
             
-            LOGGER.info("Loaded " + notes.size() + " notes from storage");
-            return notes != null ? notes : new ArrayList<>();
+            List<Note> notes = new ArrayList<>(stored.size());
+            for (StoredNote storedNote : stored) {
+                notes.add(toNote(storedNote));
+            }
+            LOGGER.info("Loaded " + notes.size() + " notes (" + Files.size(notesFilePath) + " bytes) from storage");
+            return notes;
             
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load notes from file", e);
@@ -73,15 +174,53 @@ public class FileStorage {
     }
     
     public boolean saveNotes(List<Note> notes) {
+        return save(notes, false);
+    }
+    
+    /**
+     * Saves notes like {@link #saveNotes(List)}, and forces the file to disk before
+     * returning, so that the write survives a crash
+     * @param notes The notes to save
+     * @return true if the notes were saved and synced
+     */
+    public boolean saveNotesDurably(List<Note> notes) {
+        return save(notes, true);
+    }
+    
+    private synchronized boolean save(List<Note> notes, boolean force) {
         if (notes == null) {
             notes = new ArrayList<>();
         }
         
         try {
-            objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValue(notesFilePath.toFile(), notes);
+            // Advance the generation first: a crash mid-write then leaves derived
+            // files looking stale rather than current
+            long next = generation + 1;
+            writeGeneration(next);
+            generation = next;
+            List<StoredNote> stored = toStored(notes);
+            // Write a temporary file and move it into place, so readers never see a
+            // half-written notes file
+            Path temp = notesFilePath.resolveSibling(NOTES_FILE + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                    generator.setPrettyPrinter(new DefaultPrettyPrinter());
+                    NoteCodec.write(generator, stored);
+                }
+                if (force) {
+                    out.getFD().sync();
+                }
+            }
+            Files.move(temp, notesFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             
             LOGGER.info("Saved " + notes.size() + " notes to storage");
+            if (compressionStats.getCompressedNotes() > 0) {
+                LOGGER.fine("Content compression: " + compressionStats);
+            }
+            for (LongConsumer listener : writeListeners) {
+                listener.accept(next);
+            }
             return true;
             
         } catch (IOException e) {
@@ -90,6 +229,107 @@ public class FileStorage {
         }
     }
     
+    private Note toNote(StoredNote stored) throws IOException {
+        Note note = stored.toNote();
+        if (stored.compressedContent != null) {
+            StoredNote.Compressed compressed = stored.compressedContent;
+            if (!CompressedContent.CODEC.equals(compressed.codec) || compressed.data == null) {
+                throw new IOException("Unsupported content codec for note " + stored.id);
+            }
+            CompressionDictionary dictionary = compressed.dictionary == null ? null : loadDictionary(compressed.dictionary);
+            note.deferContent(new CompressedContent(compressed.data, compressed.length, dictionary, compressionStats));
+        }
+        return note;
+    }
+    
+    /**
+     * Converts notes to their stored form, compressing bodies the policy selects. Bodies
+     * loaded compressed are written back as they are, without being inflated.
+     */
+    private List<StoredNote> toStored(List<Note> notes) throws IOException {
+        CompressionPolicy policy = compressionPolicy;
+        if (policy.getDictionary() != null) {
+            storeDictionary(policy.getDictionary());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, CachedBody> cache = new HashMap<>();
+        List<StoredNote> stored = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            StoredNote storedNote = StoredNote.withoutContent(note);
+            CompressedContent compressed = null;
+            if (policy.isEnabled()) {
+                Supplier<String> deferred = note.deferredContent();
+                if (deferred instanceof CompressedContent) {
+                    compressed = (CompressedContent) deferred;
+                } else if (policy.shouldCompress(note, now)) {
+                    CachedBody cached = compressedBodies.get(note.getId());
+                    // Identity check: the note still holds the very text compressed last time
+                    compressed = cached != null && cached.text == note.getContent()
+                            ? cached.compressed
+                            : CompressedContent.compress(note.getContent(), policy.getDictionary(), compressionStats);
+                    // Bodies that did not compress well are remembered too, so they are not retried
+                    cache.put(note.getId(), new CachedBody(note.getContent(), compressed));
+                }
+            }
+            if (compressed != null) {
+                storedNote.compressedContent = new StoredNote.Compressed();
+                storedNote.compressedContent.codec = CompressedContent.CODEC;
+                storedNote.compressedContent.dictionary = compressed.getDictionary() == null
+                        ? null : compressed.getDictionary().getId();
+                storedNote.compressedContent.length = compressed.getRawLength();
+                storedNote.compressedContent.data = compressed.getData();
+            } else {
+                storedNote.content = note.getContent();
+            }
+            stored.add(storedNote);
+        }
+        compressedBodies = cache;
+        return stored;
+    }
+    
+    private void storeDictionary(CompressionDictionary dictionary) throws IOException {
+        if (dictionaries.containsKey(dictionary.getId())) {
+            return;
+        }
+        Path directory = storageDirectory.resolve(DICTIONARY_DIR);
+        Path file = directory.resolve(dictionary.getId() + ".dict");
+        if (!Files.exists(file)) {
+            Files.createDirectories(directory);
+            Files.write(file, dictionary.bytes());
+        }
+        dictionaries.put(dictionary.getId(), dictionary);
+    }
+    
+    private CompressionDictionary loadDictionary(String id) throws IOException {
+        CompressionDictionary dictionary = dictionaries.get(id);
+        if (dictionary == null) {
+            Path file = storageDirectory.resolve(DICTIONARY_DIR).resolve(id + ".dict");
+            if (!Files.exists(file)) {
+                throw new IOException("Missing compression dictionary " + id);
+            }
+            dictionary = new CompressionDictionary(Files.readAllBytes(file));
+            if (!dictionary.getId().equals(id)) {
+                throw new IOException("Compression dictionary " + id + " is corrupt");
+            }
+            dictionaries.put(id, dictionary);
+        }
+        return dictionary;
+    }
+    
+    /**
+     * A body and its compressed form (null if it did not pay off), valid while a note
+     * keeps the same text
+     */
+    private static final class CachedBody {
+        final String text;
+        final CompressedContent compressed;
+        
+        CachedBody(String text, CompressedContent compressed) {
+            this.text = text;
+            this.compressed = compressed;
+        }
+    }
+    
     public boolean saveNote(Note note) {
         if (note == null) {
             LOGGER.warning("Attempted to save null note");
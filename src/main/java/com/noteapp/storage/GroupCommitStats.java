@@ -0,0 +1,139 @@
+package com.noteapp.storage;
+
+import java.util.Arrays;
+
+/**
+ * Commit latency and batch sizes of a {@link GroupCommitter}. Latency runs from
+ * submission to the transaction being durable; percentiles are taken over the most
+ * recent {@value #WINDOW} commits. Thread-safe.
+ */
+public class GroupCommitStats {
+    static final int WINDOW = 4096;
+    /** Batch sizes by power of two: bucket b counts batches of 2^b to 2^(b+1)-1 transactions */
+    private static final int SIZE_BUCKETS = 16;
+
+    private final long[] latencies = new long[WINDOW];
+    private final long[] batchSizes = new long[SIZE_BUCKETS];
+    private long transactions;
+    private long rejected;
+    private long batches;
+    private long batchedTransactions;
+    private long mutations;
+    private int maxBatch;
+    private long writeNanos;
+
+    synchronized void recordBatch(int size, int batchMutations, long nanos) {
+        batches++;
+        batchedTransactions += size;
+        mutations += batchMutations;
+        maxBatch = Math.max(maxBatch, size);
+        writeNanos += nanos;
+        batchSizes[Math.min(SIZE_BUCKETS - 1, 31 - Integer.numberOfLeadingZeros(size))]++;
+    }
+
+    synchronized void recordCommit(long latencyNanos) {
+        latencies[(int) (transactions % WINDOW)] = latencyNanos;
+        transactions++;
+    }
+
+    synchronized void recordRejected() {
+        rejected++;
+    }
+
+    /**
+     * Gets the number of transactions committed
+     * @return The commit count
+     */
+    public synchronized long getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Gets the number of transactions rejected by validation or a failed write
+     * @return The rejection count
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the number of storage writes, each shared by a batch of transactions
+     * @return The batch count
+     */
+    public synchronized long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Gets the number of mutations written
+     * @return The mutation count
+     */
+    public synchronized long getMutations() {
+        return mutations;
+    }
+
+    /**
+     * Gets the mean number of transactions per storage write
+     * @return The mean batch size, or 0 before the first batch
+     */
+    public synchronized double getMeanBatchSize() {
+        return batches == 0 ? 0 : batchedTransactions / (double) batches;
+    }
+
+    /**
+     * Gets the largest number of transactions that shared one storage write
+     * @return The maximum batch size
+     */
+    public synchronized int getMaxBatchSize() {
+        return maxBatch;
+    }
+
+    /**
+     * Gets the mean time of one storage write, including the fsync
+     * @return The mean in milliseconds
+     */
+    public synchronized double getMeanWriteMillis() {
+        return batches == 0 ? 0 : writeNanos / 1e6 / batches;
+    }
+
+    /**
+     * Gets a commit latency percentile over the recent commits
+     * @param percentile The percentile, from 0 to 100
+     * @return The latency in milliseconds, or 0 before the first commit
+     */
+    public synchronized double getLatencyMillis(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        int count = (int) Math.min(transactions, WINDOW);
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Gets the batch size histogram
+     * @return Counts of batches with 1, 2-3, 4-7, ... transactions
+     */
+    public synchronized long[] getBatchSizeHistogram() {
+        return batchSizes.clone();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder histogram = new StringBuilder();
+        for (int b = 0; b < SIZE_BUCKETS; b++) {
+            if (batchSizes[b] > 0) {
+                histogram.append(histogram.length() == 0 ? "" : ", ").append(1 << b).append("+: ").append(batchSizes[b]);
+            }
+        }
+        return String.format("%d transactions (%d rejected) in %d writes, batch size mean %.1f max %d [%s], "
+                        + "write %.2f ms, latency p50 %.2f ms p99 %.2f ms", transactions, rejected, batches,
+                getMeanBatchSize(), maxBatch, histogram, getMeanWriteMillis(), getLatencyMillis(50),
+                getLatencyMillis(99));
+    }
+}
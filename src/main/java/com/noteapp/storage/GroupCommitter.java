@@ -0,0 +1,196 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Logger;
+
+/**
+ * Commits {@link NoteTransaction}s with group commit. Transactions from any number of
+ * threads are queued; a single committer thread takes everything queued, applies each
+ * transaction to the manager in submission order, and then writes and fsyncs the notes
+ * file once for the whole batch. While one write is in progress the next batch builds
+ * up, so under load many small transactions share one fsync, and an idle committer
+ * still writes a lone transaction straight away.
+ *
+ * <p>A transaction that fails validation is rejected on its own; the rest of its batch
+ * is unaffected. If the write itself fails, every transaction of the batch completes with
+ * a {@link NotDurableException}: its changes stay applied in memory and are written by the
+ * next batch, so it must not be submitted again.
+ *
+ * <p>The committer thread owns the manager while the committer is open: make all
+ * changes through {@link #submit(NoteTransaction)}.
+ */
+public class GroupCommitter implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(GroupCommitter.class.getName());
+    /** Upper bound on transactions per write, so one batch cannot delay its first commit indefinitely */
+    static final int MAX_BATCH = 10_000;
+    private static final Pending STOP = new Pending(null);
+
+    private final FileStorage storage;
+    private final NoteManager noteManager;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final GroupCommitStats stats = new GroupCommitStats();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Creates a committer and starts its thread
+     * @param storage The storage to write
+     * @param noteManager The manager to apply transactions to
+     */
+    public GroupCommitter(FileStorage storage, NoteManager noteManager) {
+        this.storage = storage;
+        this.noteManager = noteManager;
+        this.thread = new Thread(this::run, "note-group-commit");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a transaction
+     * @param transaction The staged mutations
+     * @return A future completing with the created notes once the transaction is on disk,
+     *         or exceptionally with IllegalArgumentException if it was invalid,
+     *         NotDurableException if it was applied but the write failed, or
+     *         IllegalStateException if the committer closed before taking it
+     */
+    public CompletableFuture<List<Note>> submit(NoteTransaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Group committer is closed");
+        }
+        Pending pending = new Pending(transaction);
+        queue.add(pending);
+        // close() may have queued STOP between the check above and the add; if the
+        // committer did not take the transaction before stopping, nothing else will
+        if (closed && queue.remove(pending)) {
+            pending.future.completeExceptionally(new IllegalStateException("Group committer is closed"));
+        }
+        return pending.future;
+    }
+
+    /**
+     * Gets commit latency and batch size statistics
+     * @return The live statistics
+     */
+    public GroupCommitStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Commits the transactions already queued, then stops the committer thread
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(STOP);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Group commit: " + stats);
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            if (batch.remove(STOP)) {
+                stopping = true;
+                queue.drainTo(batch);
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        List<Pending> applied = new ArrayList<>(batch.size());
+        int mutations = 0;
+        for (Pending pending : batch) {
+            try {
+                pending.created = noteManager.commit(pending.transaction);
+                applied.add(pending);
+                mutations += pending.transaction.size();
+            } catch (RuntimeException e) {
+                stats.recordRejected();
+                pending.future.completeExceptionally(e);
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean written = storage.saveNotesDurably(noteManager.getAllNotes());
+        long end = System.nanoTime();
+        stats.recordBatch(applied.size(), mutations, end - start);
+        for (Pending pending : applied) {
+            if (written) {
+                stats.recordCommit(end - pending.submitted);
+                pending.future.complete(pending.created);
+            } else {
+                stats.recordRejected();
+                pending.future.completeExceptionally(new NotDurableException(pending.created));
+            }
+        }
+        LOGGER.fine(() -> "Committed " + applied.size() + " transactions in one write");
+    }
+
+    /**
+     * Signals a transaction that was applied to the manager but not yet written, because
+     * the write of its batch failed. The next successful write includes it.
+     */
+    public static final class NotDurableException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Note> created;
+
+        NotDurableException(List<Note> created) {
+            super("Transaction applied but the notes could not be written");
+            this.created = created;
+        }
+
+        /**
+         * Gets the notes the transaction created in memory
+         * @return The created notes, in the order they were staged
+         */
+        public List<Note> getCreated() {
+            return created;
+        }
+    }
+
+    /**
+     * A queued transaction and its caller's future
+     */
+    private static final class Pending {
+        final NoteTransaction transaction;
+        final CompletableFuture<List<Note>> future = new CompletableFuture<>();
+        final long submitted = System.nanoTime();
+        List<Note> created;
+
+        Pending(NoteTransaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+}
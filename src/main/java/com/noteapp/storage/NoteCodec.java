@@ -0,0 +1,358 @@
+package com.noteapp.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes notes.json on Jackson's streaming API, field by field, instead of
+ * through databind's bean introspection. The output is byte for byte what an
+ * {@code ObjectMapper} with the JSR-310 module, ISO dates and the default pretty printer
+ * writes for a list of {@link StoredNote}: the same field order, the same inclusion
+ * rules, and timestamps formatted as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} does.
+ *
+ * <p>Timestamps are formatted into a character buffer reused across the notes of a file
+ * and parsed straight from the parser's text buffer, so neither side makes a string per
+ * date. Unknown fields are skipped when reading.
+ */
+final class NoteCodec {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString CREATION_DATE = new SerializedString("creationDate");
+    private static final SerializableString MODIFICATION_DATE = new SerializedString("modificationDate");
+    private static final SerializableString CATEGORY = new SerializedString("category");
+    private static final SerializableString PINNED = new SerializedString("pinned");
+    private static final SerializableString ARCHIVED = new SerializedString("archived");
+    private static final SerializableString TAGS = new SerializedString("tags");
+    private static final SerializableString COMPRESSED_CONTENT = new SerializedString("compressedContent");
+    private static final SerializableString CODEC = new SerializedString("codec");
+    private static final SerializableString DICTIONARY = new SerializedString("dictionary");
+    private static final SerializableString LENGTH = new SerializedString("length");
+    private static final SerializableString DATA = new SerializedString("data");
+
+    /** Longest timestamp in the fast format: yyyy-MM-ddTHH:mm:ss.nnnnnnnnn */
+    private static final int MAX_DATE_LENGTH = 29;
+
+    private NoteCodec() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Writes notes as a JSON array
+     * @param generator The generator, with the pretty printer already set if wanted
+     * @param notes The notes
+     * @throws IOException if writing fails
+     */
+    static void write(JsonGenerator generator, List<StoredNote> notes) throws IOException {
+        char[] dateBuffer = new char[MAX_DATE_LENGTH];
+        generator.writeStartArray();
+        for (StoredNote note : notes) {
+            writeNote(generator, note, dateBuffer);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNote(JsonGenerator generator, StoredNote note, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeString(generator, note.id);
+        generator.writeFieldName(TITLE);
+        writeString(generator, note.title);
+        if (note.content != null) {
+            generator.writeFieldName(CONTENT);
+            generator.writeString(note.content);
+        }
+        generator.writeFieldName(CREATION_DATE);
+        writeDate(generator, note.creationDate, dateBuffer);
+        generator.writeFieldName(MODIFICATION_DATE);
+        writeDate(generator, note.modificationDate, dateBuffer);
+        generator.writeFieldName(CATEGORY);
+        writeString(generator, note.category);
+        if (note.pinned) {
+            generator.writeFieldName(PINNED);
+            generator.writeBoolean(true);
+        }
+        if (note.archived) {
+            generator.writeFieldName(ARCHIVED);
+            generator.writeBoolean(true);
+        }
+        if (note.tags != null && !note.tags.isEmpty()) {
+            generator.writeFieldName(TAGS);
+            generator.writeStartArray();
+            for (String tag : note.tags) {
+                writeString(generator, tag);
+            }
+            generator.writeEndArray();
+        }
+        if (note.compressedContent != null) {
+            StoredNote.Compressed compressed = note.compressedContent;
+            generator.writeFieldName(COMPRESSED_CONTENT);
+            generator.writeStartObject();
+            generator.writeFieldName(CODEC);
+            writeString(generator, compressed.codec);
+            if (compressed.dictionary != null) {
+                generator.writeFieldName(DICTIONARY);
+                generator.writeString(compressed.dictionary);
+            }
+            generator.writeFieldName(LENGTH);
+            generator.writeNumber(compressed.length);
+            generator.writeFieldName(DATA);
+            if (compressed.data == null) {
+                generator.writeNull();
+            } else {
+                generator.writeBinary(compressed.data);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    /**
+     * Writes a timestamp as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} formats it:
+     * seconds always, and the fraction only if not zero, without trailing zeros
+     */
+    static void writeDate(JsonGenerator generator, LocalDateTime date, char[] buffer) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed or expanded years are rare enough to leave to the formatter
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(date));
+            return;
+        }
+        digits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        digits(buffer, 5, date.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, date.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, date.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, date.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, date.getSecond(), 2);
+        int length = 19;
+        int nano = date.getNano();
+        if (nano != 0) {
+            buffer[19] = '.';
+            digits(buffer, 20, nano, 9);
+            length = MAX_DATE_LENGTH;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Reads notes from a JSON array
+     * @param parser The parser, before the array
+     * @return The notes, or null if the document is {@code null}
+     * @throws IOException if the JSON is malformed or does not describe notes
+     */
+    static List<StoredNote> read(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<StoredNote> notes = new ArrayList<>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(parser, token, JsonToken.START_OBJECT);
+            notes.add(readNote(parser));
+        }
+        return notes;
+    }
+
+    private static StoredNote readNote(JsonParser parser) throws IOException {
+        StoredNote note = new StoredNote();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    note.id = readString(parser, value);
+                    break;
+                case "title":
+                    note.title = readString(parser, value);
+                    break;
+                case "content":
+                    note.content = readString(parser, value);
+                    break;
+                case "creationDate":
+                    note.creationDate = readDate(parser, value);
+                    break;
+                case "modificationDate":
+                    note.modificationDate = readDate(parser, value);
+                    break;
+                case "category":
+                    note.category = readString(parser, value);
+                    break;
+                case "pinned":
+                    note.pinned = readBoolean(parser, value);
+                    break;
+                case "archived":
+                    note.archived = readBoolean(parser, value);
+                    break;
+                case "tags":
+                    note.tags = readTags(parser, value);
+                    break;
+                case "compressedContent":
+                    note.compressedContent = readCompressed(parser, value);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+        return note;
+    }
+
+    private static StoredNote.Compressed readCompressed(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.START_OBJECT);
+        StoredNote.Compressed compressed = new StoredNote.Compressed();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "codec":
+                    compressed.codec = readString(parser, value);
+                    break;
+                case "dictionary":
+                    compressed.dictionary = readString(parser, value);
+                    break;
+                case "length":
+                    expect(parser, value, JsonToken.VALUE_NUMBER_INT);
+                    compressed.length = parser.getIntValue();
+                    break;
+                case "data":
+                    compressed.data = value == JsonToken.VALUE_NULL ? null : parser.getBinaryValue();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return compressed;
+    }
+
+    private static List<String> readTags(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<String> tags = new ArrayList<>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            tags.add(readString(parser, token));
+        }
+        return tags;
+    }
+
+    private static String readString(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.VALUE_STRING);
+        return parser.getText();
+    }
+
+    private static boolean readBoolean(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        throw new JsonParseException(parser, "Expected a boolean but found " + token);
+    }
+
+    /**
+     * Reads a timestamp from the parser's buffer. Anything but yyyy-MM-ddTHH:mm:ss with an
+     * optional fraction goes through {@link LocalDateTime#parse}.
+     */
+    static LocalDateTime readDate(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.VALUE_STRING);
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        try {
+            if (length >= 19 && length <= MAX_DATE_LENGTH && length != 20
+                    && text[offset + 4] == '-' && text[offset + 7] == '-' && text[offset + 10] == 'T'
+                    && text[offset + 13] == ':' && text[offset + 16] == ':'
+                    && (length == 19 || text[offset + 19] == '.')) {
+                int year = number(text, offset, 4);
+                int month = number(text, offset + 5, 2);
+                int day = number(text, offset + 8, 2);
+                int hour = number(text, offset + 11, 2);
+                int minute = number(text, offset + 14, 2);
+                int second = number(text, offset + 17, 2);
+                int nano = 0;
+                if (length > 19) {
+                    nano = number(text, offset + 20, length - 20);
+                    for (int i = length - 20; i < 9; i++) {
+                        nano *= 10;
+                    }
+                }
+                if ((year | month | day | hour | minute | second | nano) >= 0) {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                }
+            }
+            return LocalDateTime.parse(new String(text, offset, length));
+        } catch (DateTimeException e) {
+            throw new JsonParseException(parser, "Invalid timestamp: " + new String(text, offset, length), e);
+        }
+    }
+
+    /**
+     * Parses a run of decimal digits
+     * @return The value, or -1 if a character is not a digit
+     */
+    private static int number(char[] text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+}
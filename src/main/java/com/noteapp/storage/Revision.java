@@ -0,0 +1,71 @@
+package com.noteapp.storage;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One saved version of a note: its title and a list of references to the content
+ * chunks that make up its body. Fetch the body with {@link RevisionHistory#getContent}.
+ */
+public final class Revision {
+    private final String noteId;
+    private final int number;
+    private final LocalDateTime timestamp;
+    private final String title;
+    private final int length;
+    private final List<ChunkId> chunks;
+
+    Revision(String noteId, int number, LocalDateTime timestamp, String title, int length, List<ChunkId> chunks) {
+        this.noteId = noteId;
+        this.number = number;
+        this.timestamp = timestamp;
+        this.title = title;
+        this.length = length;
+        this.chunks = Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * Gets the note this revision belongs to
+     * @return The note id
+     */
+    public String getNoteId() {
+        return noteId;
+    }
+
+    /**
+     * Gets the position of this revision in the note's history
+     * @return The revision number, starting at 1
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Gets the note's modification date when this revision was recorded
+     * @return The timestamp, or null if the note had none
+     */
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the note's title at this revision
+     * @return The title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the size of the body
+     * @return The length in UTF-8 bytes
+     */
+    public int getLength() {
+        return length;
+    }
+
+    List<ChunkId> getChunks() {
+        return chunks;
+    }
+}
@@ -0,0 +1,273 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Revision history of note bodies. Each recorded version is split into content-defined
+ * chunks ({@link ContentChunker}) kept once in a {@link ChunkStore}; a revision is just
+ * the list of its chunk hashes. An edit therefore stores only the chunks around the
+ * change, and any revision is rebuilt by reading its chunks back.
+ *
+ * <p>Revisions are kept in an append-only log next to the chunk pack; each record is
+ * checksummed so that a torn final record is dropped on open. New chunks are forced to
+ * disk before the revision that refers to them is logged, so a crash never leaves a
+ * logged revision pointing at chunks that were lost.
+ */
+public class RevisionHistory implements NoteChangeListener, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(RevisionHistory.class.getName());
+    private static final String HISTORY_DIR = "history";
+    private static final String PACK_FILE = "chunks.pack";
+    private static final String LOG_FILE = "revisions.log";
+
+    private final ChunkStore chunks;
+    private final FileChannel log;
+    private final Map<String, List<Revision>> revisions = new HashMap<>();
+    private long logicalBytes;
+
+    /**
+     * Opens or creates a history in a directory
+     * @param directory The directory holding the chunk pack and revision log
+     * @throws IOException if the files cannot be opened
+     */
+    public RevisionHistory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path logFile = directory.resolve(LOG_FILE);
+        this.chunks = new ChunkStore(directory.resolve(PACK_FILE));
+        this.log = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        readLog(logFile);
+    }
+
+    /**
+     * Opens the history kept alongside a store, records a first revision for notes that
+     * have none yet, and records a new revision whenever a note changes
+     * @param storage The storage whose directory holds the history
+     * @param noteManager The manager to follow
+     * @return The attached history
+     * @throws IOException if the history cannot be opened
+     */
+    public static RevisionHistory open(FileStorage storage, NoteManager noteManager) throws IOException {
+        RevisionHistory history = new RevisionHistory(storage.getStorageDirectory().resolve(HISTORY_DIR));
+        for (Note note : noteManager.getNotesView()) {
+            if (!history.revisions.containsKey(note.getId())) {
+                history.record(note);
+            }
+        }
+        noteManager.addChangeListener(history);
+        return history;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        recordQuietly(note);
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        recordQuietly(current);
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        // History outlives the note so that it can be restored
+    }
+
+    private void recordQuietly(Note note) {
+        try {
+            record(note);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to record revision of note " + note.getId(), e);
+        }
+    }
+
+    /**
+     * Records the note's current title and body as a new revision, unless both are
+     * unchanged since the latest one
+     * @param note The note
+     * @return The new revision, or the latest one if nothing changed
+     * @throws IOException if the revision cannot be written
+     */
+    public synchronized Revision record(Note note) throws IOException {
+        byte[] body = note.getContent().getBytes(StandardCharsets.UTF_8);
+        long packSize = chunks.getStoredBytes();
+        List<ChunkId> ids = new ArrayList<>();
+        for (byte[] chunk : ContentChunker.split(body)) {
+            ids.add(chunks.put(chunk));
+        }
+
+        List<Revision> history = revisions.get(note.getId());
+        Revision latest = history == null ? null : history.get(history.size() - 1);
+        if (latest != null && latest.getChunks().equals(ids) && latest.getTitle().equals(note.getTitle())) {
+            return latest;
+        }
+
+        Revision revision = new Revision(note.getId(), latest == null ? 1 : latest.getNumber() + 1,
+                note.getModificationDate(), note.getTitle(), body.length, ids);
+        if (chunks.getStoredBytes() != packSize) {
+            chunks.sync();
+        }
+        appendToLog(revision);
+        add(revision);
+        return revision;
+    }
+
+    /**
+     * Gets the recorded revisions of a note
+     * @param noteId The note id
+     * @return The revisions, oldest first; empty if there are none
+     */
+    public synchronized List<Revision> getRevisions(String noteId) {
+        List<Revision> history = revisions.get(noteId);
+        return history == null ? Collections.emptyList() : new ArrayList<>(history);
+    }
+
+    /**
+     * Rebuilds the body of a revision from its chunks
+     * @param revision The revision
+     * @return The body as it was when recorded
+     * @throws IOException if a chunk cannot be read
+     */
+    public String getContent(Revision revision) throws IOException {
+        byte[] body = new byte[revision.getLength()];
+        int position = 0;
+        for (ChunkId id : revision.getChunks()) {
+            byte[] chunk = chunks.get(id);
+            System.arraycopy(chunk, 0, body, position, chunk.length);
+            position += chunk.length;
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the total size of all recorded bodies, as if each were stored in full
+     * @return The logical size in bytes
+     */
+    public synchronized long getLogicalBytes() {
+        return logicalBytes;
+    }
+
+    /**
+     * Gets the bytes actually stored for the bodies after deduplication
+     * @return The size of the chunk pack
+     */
+    public long getStoredBytes() {
+        return chunks.getStoredBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            chunks.close();
+        } finally {
+            log.close();
+        }
+    }
+
+    private void add(Revision revision) {
+        revisions.computeIfAbsent(revision.getNoteId(), id -> new ArrayList<>()).add(revision);
+        logicalBytes += revision.getLength();
+    }
+
+    private void appendToLog(Revision revision) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        writeString(out, revision.getNoteId());
+        out.writeInt(revision.getNumber());
+        writeString(out, revision.getTimestamp() == null ? "" : revision.getTimestamp().toString());
+        writeString(out, revision.getTitle());
+        out.writeInt(revision.getLength());
+        out.writeInt(revision.getChunks().size());
+        for (ChunkId id : revision.getChunks()) {
+            out.write(id.bytes());
+        }
+
+        byte[] bytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ByteBuffer record = ByteBuffer.allocate(bytes.length + 2 * Integer.BYTES);
+        record.putInt(bytes.length).put(bytes).putInt((int) crc.getValue()).flip();
+        long position = log.size();
+        while (record.hasRemaining()) {
+            log.write(record, position + record.position());
+        }
+    }
+
+    private void readLog(Path logFile) throws IOException {
+        // Streamed record by record: the log only grows, so it cannot be assumed to fit in memory
+        long size = log.size();
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+            while (size - valid >= 2 * Integer.BYTES) {
+                int length = in.readInt();
+                if (length < 0 || (long) length > size - valid - 2 * Integer.BYTES) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != in.readInt()) {
+                    break;
+                }
+                add(readRevision(ByteBuffer.wrap(body)));
+                valid += 2 * Integer.BYTES + length;
+            }
+        }
+        if (valid < size) {
+            LOGGER.warning("Discarding " + (size - valid) + " bytes of torn revision log");
+            log.truncate(valid);
+        }
+    }
+
+    private static Revision readRevision(ByteBuffer in) {
+        String noteId = readString(in);
+        int number = in.getInt();
+        String timestamp = readString(in);
+        String title = readString(in);
+        int length = in.getInt();
+        int count = in.getInt();
+        List<ChunkId> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] hash = new byte[ChunkStore.HASH_BYTES];
+            in.get(hash);
+            ids.add(new ChunkId(hash));
+        }
+        return new Revision(noteId, number, timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+                title, length, ids);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.noteapp.storage;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.noteapp.model.Note;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The JSON form of a note in notes.json. Plain bodies are written as {@code content},
+ * exactly as before; compressed bodies replace it with {@code compressedContent}.
+ * Flags and tags are only written when set, so untagged notes look as they always did.
+ */
+class StoredNote {
+    public String id;
+    public String title;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String content;
+    public LocalDateTime creationDate;
+    public LocalDateTime modificationDate;
+    public String category;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean pinned;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean archived;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public List<String> tags;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Compressed compressedContent;
+
+    /**
+     * Copies a note's fields other than its body
+     */
+    static StoredNote withoutContent(Note note) {
+        StoredNote stored = new StoredNote();
+        stored.id = note.getId();
+        stored.title = note.getTitle();
+        stored.creationDate = note.getCreationDate();
+        stored.modificationDate = note.getModificationDate();
+        stored.category = note.getCategory();
+        stored.pinned = note.isPinned();
+        stored.archived = note.isArchived();
+        stored.tags = new ArrayList<>(note.getTags());
+        return stored;
+    }
+
+    /**
+     * Copies a note with its body as plain text
+     */
+    static StoredNote plain(Note note) {
+        StoredNote stored = withoutContent(note);
+        stored.content = note.getContent();
+        return stored;
+    }
+
+    /**
+     * Creates the note, with a plain body; compressed bodies are attached by the caller
+     */
+    Note toNote() {
+        Note note = new Note(id, title, content, creationDate, modificationDate);
+        note.setCategory(category);
+        note.setPinned(pinned);
+        note.setArchived(archived);
+        note.setTags(tags);
+        return note;
+    }
+
+    /**
+     * A Deflate-compressed body; {@code data} is written as base64
+     */
+    static class Compressed {
+        public String codec;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String dictionary;
+        public int length;
+        public byte[] data;
+    }
+}
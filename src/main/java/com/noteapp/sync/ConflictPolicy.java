@@ -0,0 +1,11 @@
+package com.noteapp.sync;
+
+/**
+ * What to do when a note changed in both stores since they last synchronised.
+ */
+public enum ConflictPolicy {
+    /** Keep the version with the later modification timestamp */
+    LAST_WRITER_WINS,
+    /** Leave both versions alone and queue the conflict for the user to resolve */
+    QUEUE
+}
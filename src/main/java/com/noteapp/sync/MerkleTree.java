@@ -0,0 +1,81 @@
+package com.noteapp.sync;
+
+/**
+ * A fixed-shape Merkle tree over note versions. Note ids are spread over
+ * {@value #FANOUT}<sup>{@value #DEPTH}</sup> leaf buckets by a hash of the id; every node
+ * holds the XOR of the version hashes beneath it. Because XOR is its own inverse, adding,
+ * replacing or removing a version updates one node per level without rehashing siblings,
+ * and two stores hold the same versions under a node exactly when (barring a 64-bit
+ * collision) their hashes for that node are equal.
+ *
+ * <p>Level 0 is the root; level {@link #DEPTH} holds the leaves. Node {@code i} at level
+ * {@code l} has the children {@code i * FANOUT} to {@code i * FANOUT + FANOUT - 1} at
+ * level {@code l + 1}.
+ */
+public class MerkleTree {
+    public static final int FANOUT = 16;
+    public static final int DEPTH = 4;
+    private static final int LEAF_BITS = 16;
+
+    private final long[][] levels = new long[DEPTH + 1][];
+
+    public MerkleTree() {
+        int size = 1;
+        for (int level = 0; level <= DEPTH; level++) {
+            levels[level] = new long[size];
+            size *= FANOUT;
+        }
+    }
+
+    /**
+     * Gets the leaf bucket holding a note. The bucket depends only on the id, so it is
+     * the same in every store.
+     * @param noteId The note id
+     * @return The leaf index
+     */
+    public static int leafOf(String noteId) {
+        int h = noteId.hashCode();
+        // Spread the bits so that sequential numeric ids land in distant buckets
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h >>> (Integer.SIZE - LEAF_BITS);
+    }
+
+    /**
+     * Folds a version into the tree
+     * @param version The version to add
+     */
+    public void add(NoteVersion version) {
+        toggle(leafOf(version.getId()), version.hash());
+    }
+
+    /**
+     * Removes a version previously added
+     * @param version The version to remove
+     */
+    public void remove(NoteVersion version) {
+        // XOR again cancels the earlier addition
+        toggle(leafOf(version.getId()), version.hash());
+    }
+
+    /**
+     * Gets the hash of a node
+     * @param level The level, 0 for the root
+     * @param index The node's index within the level
+     * @return The node hash; 0 for an empty subtree
+     */
+    public long hash(int level, int index) {
+        return levels[level][index];
+    }
+
+    private void toggle(int leaf, long hash) {
+        int index = leaf;
+        for (int level = DEPTH; level >= 0; level--) {
+            levels[level][index] ^= hash;
+            index /= FANOUT;
+        }
+    }
+}
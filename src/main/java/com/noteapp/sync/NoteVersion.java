@@ -0,0 +1,133 @@
+package com.noteapp.sync;
+
+import com.noteapp.model.Note;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * The version of one note in a store: its id, its modification timestamp, and whether
+ * it has been deleted. Deleted notes are kept as tombstones stamped with the time of
+ * deletion, so that a deletion can be told apart from a note the other store never had.
+ */
+public final class NoteVersion {
+    private String id;
+    private LocalDateTime modified;
+    private boolean deleted;
+
+    private NoteVersion() {
+        // For JSON deserialization
+    }
+
+    /**
+     * Creates a version
+     * @param id The note's id
+     * @param modified When the note was last modified or deleted, or null if unknown
+     * @param deleted true for a tombstone
+     */
+    public NoteVersion(String id, LocalDateTime modified, boolean deleted) {
+        if (id == null) {
+            throw new IllegalArgumentException("Note id cannot be null");
+        }
+        this.id = id;
+        this.modified = modified != null ? modified : LocalDateTime.MIN;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Gets the version of a live note
+     * @param note The note
+     * @return Its current version
+     */
+    public static NoteVersion of(Note note) {
+        return new NoteVersion(note.getId(), note.getModificationDate(), false);
+    }
+
+    /**
+     * Gets the version recording a note's deletion
+     * @param id The deleted note's id
+     * @param deletedAt When it was deleted
+     * @return The tombstone version
+     */
+    public static NoteVersion tombstone(String id, LocalDateTime deletedAt) {
+        return new NoteVersion(id, deletedAt, true);
+    }
+
+    /**
+     * Gets the note's id
+     * @return The id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets when the note was last modified, or deleted for a tombstone
+     * @return The timestamp; LocalDateTime.MIN if unknown
+     */
+    public LocalDateTime getModified() {
+        return modified;
+    }
+
+    /**
+     * Checks whether this version records a deletion
+     * @return true for a tombstone
+     */
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Orders two versions of the same note for last-writer-wins: the later timestamp
+     * wins, and on a tie a deletion wins over an edit
+     * @param other The other version
+     * @return true if this version should replace the other
+     */
+    public boolean supersedes(NoteVersion other) {
+        int order = modified.compareTo(other.modified);
+        return order > 0 || (order == 0 && deleted && !other.deleted);
+    }
+
+    /**
+     * Hashes the version into the 64-bit value folded into the Merkle tree
+     * @return The version hash
+     */
+    long hash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest((id + '\0' + modified + '\0' + deleted).getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (bytes[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NoteVersion)) {
+            return false;
+        }
+        NoteVersion other = (NoteVersion) o;
+        return deleted == other.deleted && id.equals(other.id) && modified.equals(other.modified);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, modified, deleted);
+    }
+
+    @Override
+    public String toString() {
+        return id + "@" + modified + (deleted ? " (deleted)" : "");
+    }
+}
@@ -0,0 +1,50 @@
+package com.noteapp.sync;
+
+import com.noteapp.model.Note;
+
+/**
+ * A note changed in both stores since they last synchronised, queued under
+ * {@link ConflictPolicy#QUEUE} until one side is chosen with
+ * {@link SyncNode#resolve(SyncConflict, boolean)}.
+ */
+public class SyncConflict {
+    private final String noteId;
+    private final Note local;
+    private final Note remote;
+    private final NoteVersion remoteVersion;
+
+    SyncConflict(String noteId, Note local, Note remote, NoteVersion remoteVersion) {
+        this.noteId = noteId;
+        this.local = local;
+        this.remote = remote;
+        this.remoteVersion = remoteVersion;
+    }
+
+    /**
+     * Gets the id of the conflicting note
+     * @return The note id
+     */
+    public String getNoteId() {
+        return noteId;
+    }
+
+    /**
+     * Gets the local version of the note
+     * @return A copy of the local note, or null if it was deleted locally
+     */
+    public Note getLocal() {
+        return local;
+    }
+
+    /**
+     * Gets the other store's version of the note
+     * @return A copy of the remote note, or null if it was deleted there
+     */
+    public Note getRemote() {
+        return remote;
+    }
+
+    NoteVersion getRemoteVersion() {
+        return remoteVersion;
+    }
+}
@@ -0,0 +1,209 @@
+package com.noteapp.sync;
+
+import com.noteapp.model.Note;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Synchronises two stores in both directions. The engine walks the two Merkle trees
+ * from the root, asking for the children of a node only where the hashes differ, so
+ * the work and traffic follow the number of changed notes rather than the size of the
+ * stores. In the differing leaves each note's two versions are compared with the
+ * version last agreed on: a note changed on one side is copied to the other, and a
+ * note changed on both is settled by the {@link ConflictPolicy}.
+ *
+ * <p>Synchronisation is meant for a pair of stores, such as a laptop and a workstation.
+ * Numeric ids generated independently in both can collide, so a note that differs in
+ * the two stores and has never been synchronised is always queued as a conflict,
+ * whatever the policy, rather than one note silently replacing the other. Two
+ * tombstones of the same note count as the same deletion whenever they were stamped.
+ */
+public class SyncEngine {
+    private final ConflictPolicy policy;
+
+    /**
+     * Creates an engine
+     * @param policy How to settle notes changed in both stores
+     */
+    public SyncEngine(ConflictPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Conflict policy cannot be null");
+        }
+        this.policy = policy;
+    }
+
+    /**
+     * Brings two stores to the same notes, apart from queued conflicts
+     * @param local This store
+     * @param remote The other store
+     * @return What was compared and exchanged
+     */
+    public SyncReport sync(SyncNode local, SyncPeer remote) {
+        SyncReport report = new SyncReport();
+        int[] leaves = differingLeaves(local, remote, report);
+        if (leaves.length == 0) {
+            return report;
+        }
+
+        Map<String, NoteVersion> mine = byId(local.versions(leaves));
+        Map<String, NoteVersion> theirs = byId(remote.versions(leaves));
+        report.addRoundTrip();
+        report.addVersionsCompared(mine.size() + theirs.size());
+
+        List<NoteVersion> push = new ArrayList<>();
+        List<NoteVersion> pull = new ArrayList<>();
+        List<String> conflicted = new ArrayList<>();
+        TreeSet<String> ids = new TreeSet<>(mine.keySet());
+        ids.addAll(theirs.keySet());
+        for (String id : ids) {
+            NoteVersion l = mine.get(id);
+            NoteVersion r = theirs.get(id);
+            if ((l != null && l.equals(r)) || local.hasConflict(id)) {
+                continue;
+            }
+            if (r == null) {
+                push.add(l);
+                continue;
+            }
+            if (l == null) {
+                pull.add(r);
+                continue;
+            }
+            if (l.isDeleted() && r.isDeleted()) {
+                // Deleted on both sides: agree on the later tombstone
+                if (l.supersedes(r)) {
+                    push.add(l);
+                } else {
+                    pull.add(r);
+                }
+                continue;
+            }
+            NoteVersion base = local.getSyncedVersion(id);
+            boolean localChanged = !l.equals(base);
+            boolean remoteChanged = !r.equals(base);
+            if (base == null) {
+                // Never synchronised: likely two unrelated notes created under the same id
+                conflicted.add(id);
+            } else if (!remoteChanged) {
+                push.add(l);
+            } else if (!localChanged) {
+                pull.add(r);
+            } else if (policy == ConflictPolicy.LAST_WRITER_WINS) {
+                if (l.supersedes(r)) {
+                    push.add(l);
+                } else {
+                    pull.add(r);
+                }
+            } else {
+                conflicted.add(id);
+            }
+        }
+
+        transfer(local, remote, push, report, true);
+        transfer(remote, local, pull, report, false);
+        queueConflicts(local, remote, conflicted, theirs, report);
+        return report;
+    }
+
+    /**
+     * Descends both trees level by level, keeping only the nodes whose hashes differ
+     */
+    private static int[] differingLeaves(SyncNode local, SyncPeer remote, SyncReport report) {
+        int[] nodes = {0};
+        for (int level = 0; ; level++) {
+            long[] mine = local.hashes(level, nodes);
+            long[] theirs = remote.hashes(level, nodes);
+            report.addRoundTrip();
+            report.addNodesCompared(nodes.length);
+
+            int differing = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                if (mine[i] != theirs[i]) {
+                    nodes[differing++] = nodes[i];
+                }
+            }
+            if (differing == 0 || level == MerkleTree.DEPTH) {
+                int[] result = new int[differing];
+                System.arraycopy(nodes, 0, result, 0, differing);
+                return result;
+            }
+
+            int[] children = new int[differing * MerkleTree.FANOUT];
+            for (int i = 0; i < differing; i++) {
+                for (int c = 0; c < MerkleTree.FANOUT; c++) {
+                    children[i * MerkleTree.FANOUT + c] = nodes[i] * MerkleTree.FANOUT + c;
+                }
+            }
+            nodes = children;
+        }
+    }
+
+    /**
+     * Copies the chosen versions from one store to the other and records them as agreed
+     * on both sides
+     */
+    private static void transfer(SyncPeer from, SyncPeer to, List<NoteVersion> chosen, SyncReport report,
+                                 boolean sending) {
+        if (chosen.isEmpty()) {
+            return;
+        }
+        List<String> liveIds = new ArrayList<>();
+        List<NoteVersion> deletions = new ArrayList<>();
+        for (NoteVersion version : chosen) {
+            if (version.isDeleted()) {
+                deletions.add(version);
+            } else {
+                liveIds.add(version.getId());
+            }
+        }
+        List<Note> notes = liveIds.isEmpty() ? new ArrayList<>() : from.fetch(liveIds);
+        to.apply(notes, deletions);
+        from.markSynced(chosen);
+        if (sending) {
+            // apply
+            report.addRoundTrip();
+            report.addSent(notes.size(), deletions.size());
+        } else {
+            // fetch, if any notes are live, and markSynced
+            if (!liveIds.isEmpty()) {
+                report.addRoundTrip();
+            }
+            report.addRoundTrip();
+            report.addReceived(notes.size(), deletions.size());
+        }
+    }
+
+    private static void queueConflicts(SyncNode local, SyncPeer remote, List<String> ids,
+                                       Map<String, NoteVersion> theirs, SyncReport report) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<String, Note> localNotes = notesById(local.fetch(ids));
+        Map<String, Note> remoteNotes = notesById(remote.fetch(ids));
+        report.addRoundTrip();
+        for (String id : ids) {
+            local.addConflict(new SyncConflict(id, localNotes.get(id), remoteNotes.get(id), theirs.get(id)));
+        }
+        report.addConflicts(ids.size());
+    }
+
+    private static Map<String, NoteVersion> byId(List<NoteVersion> versions) {
+        Map<String, NoteVersion> byId = new HashMap<>();
+        for (NoteVersion version : versions) {
+            byId.put(version.getId(), version);
+        }
+        return byId;
+    }
+
+    private static Map<String, Note> notesById(List<Note> notes) {
+        Map<String, Note> byId = new HashMap<>();
+        for (Note note : notes) {
+            byId.put(note.getId(), note);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,315 @@
+package com.noteapp.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteChangeListener;
+import com.noteapp.model.NoteManager;
+import com.noteapp.storage.FileStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One store taking part in synchronisation. It keeps the version of every note, and a
+ * tombstone for every deleted one, folded into a {@link MerkleTree} that follows the
+ * manager's changes, so comparing two stores costs nothing until their roots differ.
+ *
+ * <p>It also remembers the version of each note both stores agreed on when they last
+ * synchronised. A note that differs is then known to have changed on one side or on
+ * both, which is what tells an edit to carry over from a conflict. Tombstones and the
+ * agreed versions are saved in {@code sync/state.json} next to the notes file.
+ *
+ * <p>Like {@link NoteManager}, a node is not thread-safe: synchronise on the thread that
+ * owns the manager.
+ */
+public class SyncNode implements SyncPeer, NoteChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(SyncNode.class.getName());
+    private static final String SYNC_DIR = "sync";
+    private static final String STATE_FILE = "state.json";
+
+    private final FileStorage storage;
+    private final NoteManager noteManager;
+    private final Path statePath;
+    private final ObjectMapper objectMapper;
+    private final MerkleTree tree = new MerkleTree();
+    /** Current versions of live and deleted notes */
+    private final Map<String, NoteVersion> versions = new HashMap<>();
+    /** Note ids by leaf bucket */
+    private final Map<Integer, Set<String>> buckets = new HashMap<>();
+    /** Versions agreed with the other store at the last synchronisation */
+    private final Map<String, NoteVersion> synced = new HashMap<>();
+    private final Map<String, SyncConflict> conflicts = new LinkedHashMap<>();
+    /** Set while applying changes from the other store, whose versions are recorded as they are */
+    private boolean applying;
+    private boolean stateDirty;
+
+    private SyncNode(FileStorage storage, NoteManager noteManager) {
+        this.storage = storage;
+        this.noteManager = noteManager;
+        this.statePath = storage.getStorageDirectory().resolve(SYNC_DIR).resolve(STATE_FILE);
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Builds the node for a store from the manager's notes and the saved sync state, and
+     * follows the manager's changes from then on
+     * @param storage The storage holding the notes; applied changes are saved to it
+     * @param noteManager The manager holding the notes
+     * @return The attached node
+     * @throws IOException if the sync state cannot be read
+     */
+    public static SyncNode open(FileStorage storage, NoteManager noteManager) throws IOException {
+        SyncNode node = new SyncNode(storage, noteManager);
+        State state = node.readState();
+        for (NoteVersion version : state.synced) {
+            node.synced.put(version.getId(), version);
+        }
+        for (NoteVersion tombstone : state.tombstones) {
+            node.setVersion(tombstone);
+        }
+        for (Note note : noteManager.getNotesView()) {
+            node.setVersion(NoteVersion.of(note));
+        }
+        noteManager.addChangeListener(node);
+        storage.addWriteListener(generation -> node.saveStateQuietly());
+        return node;
+    }
+
+    @Override
+    public void noteAdded(Note note) {
+        if (!applying) {
+            setVersion(NoteVersion.of(note));
+        }
+    }
+
+    @Override
+    public void noteUpdated(Note previous, Note current) {
+        if (!applying) {
+            setVersion(NoteVersion.of(current));
+        }
+    }
+
+    @Override
+    public void noteRemoved(Note note) {
+        if (!applying) {
+            setVersion(NoteVersion.tombstone(note.getId(), LocalDateTime.now()));
+            stateDirty = true;
+        }
+    }
+
+    private void setVersion(NoteVersion version) {
+        NoteVersion old = versions.put(version.getId(), version);
+        if (old != null) {
+            tree.remove(old);
+        } else {
+            buckets.computeIfAbsent(MerkleTree.leafOf(version.getId()), leaf -> new LinkedHashSet<>())
+                    .add(version.getId());
+        }
+        tree.add(version);
+    }
+
+    /**
+     * Gets the current version of a note
+     * @param noteId The note id
+     * @return The live or deleted version, or null if the store never had the note
+     */
+    public NoteVersion getVersion(String noteId) {
+        return versions.get(noteId);
+    }
+
+    /**
+     * Gets the version both stores agreed on at the last synchronisation
+     * @param noteId The note id
+     * @return The agreed version, or null if the note has never been synchronised
+     */
+    public NoteVersion getSyncedVersion(String noteId) {
+        return synced.get(noteId);
+    }
+
+    /**
+     * Gets the root hash, equal in two stores holding the same versions
+     * @return The Merkle root
+     */
+    public long getRootHash() {
+        return tree.hash(0, 0);
+    }
+
+    @Override
+    public long[] hashes(int level, int[] indices) {
+        long[] hashes = new long[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            hashes[i] = tree.hash(level, indices[i]);
+        }
+        return hashes;
+    }
+
+    @Override
+    public List<NoteVersion> versions(int[] leaves) {
+        List<NoteVersion> result = new ArrayList<>();
+        for (int leaf : leaves) {
+            Set<String> ids = buckets.get(leaf);
+            if (ids != null) {
+                for (String id : ids) {
+                    result.add(versions.get(id));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Note> fetch(Collection<String> ids) {
+        Set<String> wanted = new LinkedHashSet<>(ids);
+        List<Note> notes = new ArrayList<>(wanted.size());
+        for (Note note : noteManager.getNotesView()) {
+            if (wanted.contains(note.getId())) {
+                notes.add(new Note(note));
+            }
+        }
+        return notes;
+    }
+
+    @Override
+    public void apply(List<Note> notes, List<NoteVersion> deletions) {
+        if (notes.isEmpty() && deletions.isEmpty()) {
+            return;
+        }
+        applying = true;
+        try {
+            for (Note note : notes) {
+                noteManager.putNote(new Note(note));
+                NoteVersion version = NoteVersion.of(note);
+                setVersion(version);
+                synced.put(version.getId(), version);
+            }
+            for (NoteVersion tombstone : deletions) {
+                noteManager.removeNote(tombstone.getId());
+                setVersion(tombstone);
+                synced.put(tombstone.getId(), tombstone);
+            }
+        } finally {
+            applying = false;
+        }
+        stateDirty = true;
+        // Saving the notes also saves the state, through the write listener
+        if (!storage.saveNotes(noteManager.getAllNotes())) {
+            LOGGER.warning("Failed to save notes received by synchronisation");
+        }
+    }
+
+    @Override
+    public void markSynced(List<NoteVersion> agreed) {
+        if (agreed.isEmpty()) {
+            return;
+        }
+        for (NoteVersion version : agreed) {
+            synced.put(version.getId(), version);
+        }
+        stateDirty = true;
+        saveStateQuietly();
+    }
+
+    /**
+     * Checks whether a note has a conflict waiting to be resolved; such notes are left
+     * alone by synchronisation until then
+     * @param noteId The note id
+     * @return true if a conflict is queued
+     */
+    public boolean hasConflict(String noteId) {
+        return conflicts.containsKey(noteId);
+    }
+
+    void addConflict(SyncConflict conflict) {
+        conflicts.put(conflict.getNoteId(), conflict);
+    }
+
+    /**
+     * Gets the queued conflicts. The queue is not saved: unresolved conflicts are found
+     * again by the next synchronisation after a restart.
+     * @return The conflicts, oldest first
+     */
+    public List<SyncConflict> getConflicts() {
+        return new ArrayList<>(conflicts.values());
+    }
+
+    /**
+     * Resolves a conflict by choosing one side. The chosen version is stamped with the
+     * current time, so the next synchronisation carries it to the other store.
+     * @param conflict The queued conflict
+     * @param keepLocal true to keep this store's version, false to take the other's
+     */
+    public void resolve(SyncConflict conflict, boolean keepLocal) {
+        if (conflicts.remove(conflict.getNoteId()) == null) {
+            throw new IllegalArgumentException("No conflict queued for note " + conflict.getNoteId());
+        }
+        // The other store's version has now been seen, so only our answer counts as a change
+        synced.put(conflict.getNoteId(), conflict.getRemoteVersion());
+        stateDirty = true;
+
+        Note chosen = keepLocal ? conflict.getLocal() : conflict.getRemote();
+        if (chosen != null) {
+            Note resolved = new Note(chosen);
+            resolved.setModificationDate(LocalDateTime.now());
+            noteManager.putNote(resolved);
+        } else if (!noteManager.removeNote(conflict.getNoteId())) {
+            setVersion(NoteVersion.tombstone(conflict.getNoteId(), LocalDateTime.now()));
+        }
+        if (!storage.saveNotes(noteManager.getAllNotes())) {
+            LOGGER.warning("Failed to save resolution of note " + conflict.getNoteId());
+        }
+    }
+
+    private void saveStateQuietly() {
+        if (!stateDirty) {
+            return;
+        }
+        try {
+            State state = new State();
+            for (NoteVersion version : versions.values()) {
+                if (version.isDeleted()) {
+                    state.tombstones.add(version);
+                }
+            }
+            state.synced.addAll(synced.values());
+            Files.createDirectories(statePath.getParent());
+            Path temp = statePath.resolveSibling(STATE_FILE + ".tmp");
+            objectMapper.writeValue(temp.toFile(), state);
+            Files.move(temp, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            stateDirty = false;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save sync state", e);
+        }
+    }
+
+    private State readState() throws IOException {
+        if (!Files.exists(statePath)) {
+            return new State();
+        }
+        return objectMapper.readValue(statePath.toFile(), State.class);
+    }
+
+    /**
+     * The JSON form of sync/state.json
+     */
+    static class State {
+        public List<NoteVersion> tombstones = new ArrayList<>();
+        public List<NoteVersion> synced = new ArrayList<>();
+    }
+}
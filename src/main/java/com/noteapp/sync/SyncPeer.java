@@ -0,0 +1,51 @@
+package com.noteapp.sync;
+
+import com.noteapp.model.Note;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The operations a {@link SyncEngine} performs on the other store. Every call is
+ * batched, so one call is one round trip whatever the transport; {@link SyncNode}
+ * implements it directly for two stores in the same process.
+ */
+public interface SyncPeer {
+
+    /**
+     * Gets the hashes of Merkle tree nodes on one level
+     * @param level The tree level, 0 for the root
+     * @param indices The node indices within the level
+     * @return The hashes, in the order of the indices
+     */
+    long[] hashes(int level, int[] indices);
+
+    /**
+     * Gets the versions, including tombstones, held in leaf buckets
+     * @param leaves The leaf indices
+     * @return The versions in those buckets
+     */
+    List<NoteVersion> versions(int[] leaves);
+
+    /**
+     * Gets copies of live notes
+     * @param ids The note ids
+     * @return The notes that still exist
+     */
+    List<Note> fetch(Collection<String> ids);
+
+    /**
+     * Applies notes and deletions chosen from the other store, and records them as
+     * synchronised
+     * @param notes The notes to add or replace
+     * @param deletions The tombstones of notes to delete
+     */
+    void apply(List<Note> notes, List<NoteVersion> deletions);
+
+    /**
+     * Records versions this store already holds as synchronised, after the other store
+     * has taken them
+     * @param versions The versions both stores now share
+     */
+    void markSynced(List<NoteVersion> versions);
+}
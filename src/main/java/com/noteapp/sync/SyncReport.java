@@ -0,0 +1,112 @@
+package com.noteapp.sync;
+
+/**
+ * What one {@link SyncEngine#sync} run compared and exchanged.
+ */
+public class SyncReport {
+    private int roundTrips;
+    private int nodesCompared;
+    private int versionsCompared;
+    private int notesSent;
+    private int notesReceived;
+    private int deletionsSent;
+    private int deletionsReceived;
+    private int conflicts;
+
+    void addRoundTrip() {
+        roundTrips++;
+    }
+
+    void addNodesCompared(int count) {
+        nodesCompared += count;
+    }
+
+    void addVersionsCompared(int count) {
+        versionsCompared += count;
+    }
+
+    void addSent(int notes, int deletions) {
+        notesSent += notes;
+        deletionsSent += deletions;
+    }
+
+    void addReceived(int notes, int deletions) {
+        notesReceived += notes;
+        deletionsReceived += deletions;
+    }
+
+    void addConflicts(int count) {
+        conflicts += count;
+    }
+
+    /**
+     * Gets the number of calls made to the other store
+     * @return The round trips
+     */
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    /**
+     * Gets the number of Merkle tree node hashes compared
+     * @return The nodes compared, over all levels
+     */
+    public int getNodesCompared() {
+        return nodesCompared;
+    }
+
+    /**
+     * Gets the number of note versions read from differing leaves of both stores
+     * @return The versions compared
+     */
+    public int getVersionsCompared() {
+        return versionsCompared;
+    }
+
+    /**
+     * Gets the number of notes copied to the other store
+     * @return The notes sent
+     */
+    public int getNotesSent() {
+        return notesSent;
+    }
+
+    /**
+     * Gets the number of notes copied from the other store
+     * @return The notes received
+     */
+    public int getNotesReceived() {
+        return notesReceived;
+    }
+
+    /**
+     * Gets the number of deletions applied to the other store
+     * @return The deletions sent
+     */
+    public int getDeletionsSent() {
+        return deletionsSent;
+    }
+
+    /**
+     * Gets the number of deletions applied from the other store
+     * @return The deletions received
+     */
+    public int getDeletionsReceived() {
+        return deletionsReceived;
+    }
+
+    /**
+     * Gets the number of notes changed on both sides and queued for the user
+     * @return The new conflicts
+     */
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d round trips, %d nodes and %d versions compared, sent %d notes and %d deletions, "
+                        + "received %d notes and %d deletions, %d conflicts", roundTrips, nodesCompared,
+                versionsCompared, notesSent, deletionsSent, notesReceived, deletionsReceived, conflicts);
+    }
+}
@@ -0,0 +1,483 @@
+package com.noteapp.ui;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.AbstractUndoableEdit;
+import javax.swing.undo.CannotRedoException;
+import javax.swing.undo.CannotUndoException;
+import javax.swing.undo.UndoableEdit;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Document content kept as a list of chunks of at most {@value #MAX_CHUNK} characters,
+ * each its own gap buffer, so an edit moves at most one chunk's worth of text however
+ * large the document is. Text inserted in bulk, such as a note being loaded, stays a
+ * slice of the inserted string until a chunk is first edited.
+ *
+ * <p>Positions are stored relative to the start of their chunk. An edit only adjusts the
+ * positions in the chunk it touches; those in later chunks follow because the chunk
+ * start offsets are recomputed, which costs one pass over the chunks rather than one over
+ * every position (a document has two per line). Positions behave like those of
+ * {@link javax.swing.text.GapContent}: they move with text inserted at or before them,
+ * except at offset 0, and collapse to the start of removed text.
+ */
+public class ChunkedContent implements AbstractDocument.Content {
+    /** Chunk size for text inserted in bulk */
+    static final int LOAD_CHUNK = 16 * 1024;
+    /** Size at which an edited chunk is split in two */
+    static final int MAX_CHUNK = 2 * LOAD_CHUNK;
+    private static final int GAP = 256;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    /** Start offset of each chunk, plus the total length at the end */
+    private int[] starts;
+
+    /**
+     * Creates content holding only the implied newline every document ends with
+     */
+    public ChunkedContent() {
+        chunks.add(new Chunk("\n", 0, 1));
+        reindex();
+    }
+
+    @Override
+    public Position createPosition(int offset) throws BadLocationException {
+        if (offset < 0 || offset > length()) {
+            throw new BadLocationException("Invalid position", offset);
+        }
+        Mark mark = new Mark();
+        place(mark, offset);
+        return mark;
+    }
+
+    @Override
+    public int length() {
+        return starts[chunks.size()];
+    }
+
+    @Override
+    public UndoableEdit insertString(int where, String str) throws BadLocationException {
+        if (where < 0 || where > length()) {
+            throw new BadLocationException("Invalid insert", length());
+        }
+        insert(where, str);
+        return new InsertEdit(where, str.length());
+    }
+
+    @Override
+    public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+        if (where < 0 || nitems < 0 || where + nitems >= length()) {
+            throw new BadLocationException("Invalid remove", length() + 1);
+        }
+        String removed = getString(where, nitems);
+        delete(where, nitems);
+        return new RemoveEdit(where, removed);
+    }
+
+    @Override
+    public String getString(int where, int len) throws BadLocationException {
+        checkRange(where, len);
+        char[] text = new char[len];
+        copy(where, len, text);
+        return new String(text);
+    }
+
+    @Override
+    public void getChars(int where, int len, Segment txt) throws BadLocationException {
+        checkRange(where, len);
+        if (len > 0) {
+            Chunk chunk = chunks.get(chunkContaining(where));
+            int rel = where - starts[chunk.index];
+            // Share the chunk's buffer when the range does not cross the gap, like GapContent
+            int direct = chunk.contiguous(rel);
+            if (direct >= len || (direct > 0 && txt.isPartialReturn())) {
+                txt.array = chunk.buffer;
+                txt.offset = chunk.bufferIndex(rel);
+                txt.count = Math.min(len, direct);
+                return;
+            }
+        }
+        txt.array = new char[len];
+        txt.offset = 0;
+        txt.count = len;
+        copy(where, len, txt.array);
+    }
+
+    /**
+     * Gets the number of chunks, for tests and diagnostics
+     * @return The chunk count
+     */
+    int chunkCount() {
+        return chunks.size();
+    }
+
+    private void checkRange(int where, int len) throws BadLocationException {
+        if (where < 0 || len < 0 || where + len > length()) {
+            throw new BadLocationException("Invalid range", length());
+        }
+    }
+
+    private void copy(int where, int len, char[] dst) {
+        int i = chunkContaining(Math.min(where, length() - 1));
+        int copied = 0;
+        while (copied < len) {
+            Chunk chunk = chunks.get(i++);
+            int rel = where + copied - starts[chunk.index];
+            int n = Math.min(len - copied, chunk.length - rel);
+            chunk.getChars(rel, n, dst, copied);
+            copied += n;
+        }
+    }
+
+    private void insert(int where, String str) {
+        if (str.isEmpty()) {
+            return;
+        }
+        int i = chunkFor(where);
+        Chunk chunk = chunks.get(i);
+        int rel = where - starts[i];
+        if (str.length() <= LOAD_CHUNK) {
+            chunk.insert(rel, str);
+            for (Mark mark : chunk.liveMarks()) {
+                if (mark.rel >= rel && !(where == 0 && mark.rel == 0)) {
+                    mark.rel += str.length();
+                }
+            }
+            if (chunk.length > MAX_CHUNK) {
+                chunks.add(i + 1, chunk.splitOff(chunk.length / 2, false));
+            }
+        } else {
+            Chunk tail = chunk.splitOff(rel, where == 0);
+            List<Chunk> added = new ArrayList<>();
+            for (int from = 0; from < str.length(); from += LOAD_CHUNK) {
+                added.add(new Chunk(str, from, Math.min(LOAD_CHUNK, str.length() - from)));
+            }
+            added.add(tail);
+            chunks.addAll(i + 1, added);
+            dropEmptyChunks();
+        }
+        reindex();
+    }
+
+    private void delete(int where, int n) {
+        if (n == 0) {
+            return;
+        }
+        int end = where + n;
+        int first = chunkContaining(where);
+        int last = chunkFor(end);
+
+        // Positions in the touched chunks are re-placed by absolute offset afterwards
+        List<Mark> moved = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        for (int k = first; k <= last; k++) {
+            Chunk chunk = chunks.get(k);
+            for (Mark mark : chunk.liveMarks()) {
+                int offset = starts[k] + mark.rel;
+                moved.add(mark);
+                offsets.add(offset <= where ? offset : offset <= end ? where : offset - n);
+            }
+            chunk.marks.clear();
+            int from = Math.max(where, starts[k]) - starts[k];
+            int to = Math.min(end, starts[k + 1]) - starts[k];
+            chunk.remove(from, to - from);
+        }
+        dropEmptyChunks();
+        reindex();
+        for (int m = 0; m < moved.size(); m++) {
+            place(moved.get(m), offsets.get(m));
+        }
+    }
+
+    /**
+     * Removes empty chunks, handing their positions to a neighbour at the same offset
+     */
+    private void dropEmptyChunks() {
+        for (int k = 0; k < chunks.size() && chunks.size() > 1; k++) {
+            Chunk chunk = chunks.get(k);
+            if (chunk.length > 0) {
+                continue;
+            }
+            boolean hasNext = k + 1 < chunks.size();
+            Chunk heir = hasNext ? chunks.get(k + 1) : chunks.get(k - 1);
+            for (Mark mark : chunk.liveMarks()) {
+                mark.rel = hasNext ? 0 : heir.length;
+                heir.addMark(mark);
+            }
+            chunks.remove(k--);
+        }
+    }
+
+    private void place(Mark mark, int offset) {
+        int i = chunkFor(offset);
+        mark.rel = offset - starts[i];
+        chunks.get(i).addMark(mark);
+    }
+
+    private void reindex() {
+        int[] updated = new int[chunks.size() + 1];
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            chunk.index = i;
+            updated[i + 1] = updated[i] + chunk.length;
+        }
+        starts = updated;
+    }
+
+    /**
+     * Finds the chunk that text inserted at an offset goes into, and that a position at
+     * the offset belongs to: the one ending there rather than the one starting there
+     */
+    private int chunkFor(int offset) {
+        if (offset == 0) {
+            return 0;
+        }
+        int found = Arrays.binarySearch(starts, 0, chunks.size() + 1, offset);
+        return found >= 0 ? found - 1 : -found - 2;
+    }
+
+    /**
+     * Finds the chunk holding the character at an offset
+     */
+    private int chunkContaining(int offset) {
+        int found = Arrays.binarySearch(starts, 0, chunks.size() + 1, offset);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * A position: an offset relative to the start of its chunk
+     */
+    private final class Mark implements Position {
+        Chunk chunk;
+        int rel;
+
+        @Override
+        public int getOffset() {
+            return starts[chunk.index] + rel;
+        }
+
+        @Override
+        public String toString() {
+            return Integer.toString(getOffset());
+        }
+    }
+
+    /**
+     * A run of text: a slice of a loaded string until first edited, then a gap buffer
+     */
+    private static final class Chunk {
+        private String source;
+        private int sourceFrom;
+        private char[] buffer;
+        private int gapStart;
+        private int gapEnd;
+        int length;
+        int index;
+        final List<WeakReference<Mark>> marks = new ArrayList<>();
+        private int purgeAt = 16;
+
+        Chunk(String source, int from, int length) {
+            this.source = source;
+            this.sourceFrom = from;
+            this.length = length;
+        }
+
+        void getChars(int from, int count, char[] dst, int dstOffset) {
+            if (buffer == null) {
+                source.getChars(sourceFrom + from, sourceFrom + from + count, dst, dstOffset);
+                return;
+            }
+            int beforeGap = Math.max(0, Math.min(count, gapStart - from));
+            System.arraycopy(buffer, from, dst, dstOffset, beforeGap);
+            System.arraycopy(buffer, gapEnd + from + beforeGap - gapStart, dst, dstOffset + beforeGap,
+                    count - beforeGap);
+        }
+
+        /**
+         * Gets how many characters from an offset lie contiguously in the buffer
+         * @return The count, or 0 if the chunk is still a slice of its source
+         */
+        int contiguous(int from) {
+            if (buffer == null) {
+                return 0;
+            }
+            return from < gapStart ? gapStart - from : length - from;
+        }
+
+        int bufferIndex(int from) {
+            return from < gapStart ? from : gapEnd + from - gapStart;
+        }
+
+        void insert(int at, String text) {
+            materialize();
+            moveGap(at);
+            if (gapEnd - gapStart < text.length()) {
+                char[] grown = new char[length + text.length() + GAP];
+                int afterGap = buffer.length - gapEnd;
+                System.arraycopy(buffer, 0, grown, 0, gapStart);
+                System.arraycopy(buffer, gapEnd, grown, grown.length - afterGap, afterGap);
+                gapEnd = grown.length - afterGap;
+                buffer = grown;
+            }
+            text.getChars(0, text.length(), buffer, gapStart);
+            gapStart += text.length();
+            length += text.length();
+        }
+
+        void remove(int at, int count) {
+            if (count == 0) {
+                return;
+            }
+            if (count == length) {
+                source = "";
+                sourceFrom = 0;
+                buffer = null;
+                length = 0;
+                return;
+            }
+            materialize();
+            moveGap(at);
+            gapEnd += count;
+            length -= count;
+        }
+
+        /**
+         * Moves the text from an offset on into a new chunk, with the positions there
+         * @param at The offset to split at
+         * @param keepZero Whether positions at offset 0 stay in this chunk
+         * @return The new chunk
+         */
+        Chunk splitOff(int at, boolean keepZero) {
+            Chunk tail;
+            if (buffer == null) {
+                tail = new Chunk(source, sourceFrom + at, length - at);
+                length = at;
+            } else {
+                char[] text = new char[length - at];
+                getChars(at, text.length, text, 0);
+                tail = new Chunk(new String(text), 0, text.length);
+                remove(at, length - at);
+            }
+            List<Mark> live = liveMarks();
+            marks.clear();
+            for (Mark mark : live) {
+                if (mark.rel >= at && !(keepZero && mark.rel == 0)) {
+                    mark.rel -= at;
+                    tail.addMark(mark);
+                } else {
+                    addMark(mark);
+                }
+            }
+            return tail;
+        }
+
+        void addMark(Mark mark) {
+            mark.chunk = this;
+            if (marks.size() >= purgeAt) {
+                marks.removeIf(ref -> ref.get() == null);
+                purgeAt = Math.max(16, marks.size() * 2);
+            }
+            marks.add(new WeakReference<>(mark));
+        }
+
+        /**
+         * Gets the positions still referenced, dropping the others
+         */
+        List<Mark> liveMarks() {
+            List<Mark> live = new ArrayList<>(marks.size());
+            for (Iterator<WeakReference<Mark>> it = marks.iterator(); it.hasNext(); ) {
+                Mark mark = it.next().get();
+                if (mark == null) {
+                    it.remove();
+                } else {
+                    live.add(mark);
+                }
+            }
+            return live;
+        }
+
+        private void materialize() {
+            if (buffer != null) {
+                return;
+            }
+            buffer = new char[length + GAP];
+            source.getChars(sourceFrom, sourceFrom + length, buffer, 0);
+            gapStart = length;
+            gapEnd = buffer.length;
+            source = null;
+        }
+
+        private void moveGap(int at) {
+            if (at < gapStart) {
+                int count = gapStart - at;
+                System.arraycopy(buffer, at, buffer, gapEnd - count, count);
+                gapStart = at;
+                gapEnd -= count;
+            } else if (at > gapStart) {
+                int count = at - gapStart;
+                System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+                gapStart += count;
+                gapEnd += count;
+            }
+        }
+    }
+
+    private final class InsertEdit extends AbstractUndoableEdit {
+        private static final long serialVersionUID = 1L;
+        private final int offset;
+        private final int length;
+        private String text;
+
+        InsertEdit(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public void undo() throws CannotUndoException {
+            super.undo();
+            try {
+                text = getString(offset, length);
+                delete(offset, length);
+            } catch (BadLocationException e) {
+                throw new CannotUndoException();
+            }
+        }
+
+        @Override
+        public void redo() throws CannotRedoException {
+            super.redo();
+            insert(offset, text);
+            text = null;
+        }
+    }
+
+    private final class RemoveEdit extends AbstractUndoableEdit {
+        private static final long serialVersionUID = 1L;
+        private final int offset;
+        private final String text;
+
+        RemoveEdit(int offset, String text) {
+            this.offset = offset;
+            this.text = text;
+        }
+
+        @Override
+        public void undo() throws CannotUndoException {
+            super.undo();
+            insert(offset, text);
+        }
+
+        @Override
+        public void redo() throws CannotRedoException {
+            super.redo();
+            delete(offset, text.length());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.noteapp.ui;
+
+import javax.swing.text.PlainDocument;
+
+/**
+ * A plain text document backed by {@link ChunkedContent}, for notes of several megabytes.
+ * Line structure, events and undo work as in any {@link PlainDocument}; only the storage
+ * underneath differs, so edits cost the same wherever they are in a large note.
+ */
+public class ChunkedDocument extends PlainDocument {
+    private static final long serialVersionUID = 1L;
+
+    public ChunkedDocument() {
+        super(new ChunkedContent());
+    }
+}
@@ -0,0 +1,60 @@
+package com.noteapp.ui;
+
+import javax.swing.JTextArea;
+import javax.swing.plaf.basic.BasicTextAreaUI;
+import javax.swing.text.Element;
+import javax.swing.text.View;
+
+/**
+ * Text area for note content that stays responsive on notes of several megabytes. It
+ * stores its text in a {@link ChunkedDocument} and, with line wrap on, lays it out with
+ * {@link LazyWrappedView}; without line wrap it behaves like a plain {@link JTextArea}.
+ *
+ * <p>Views are created by the UI delegate, so with line wrap on the look and feel's
+ * delegate is replaced by a {@link BasicTextAreaUI} subclass. It takes its colors, fonts
+ * and borders from the look and feel's defaults, but painting that a delegate does itself,
+ * such as the Synth painters of Nimbus, is lost while wrapping. Without line wrap the
+ * look and feel's own delegate is used.
+ */
+public class ChunkedTextArea extends JTextArea {
+    private static final long serialVersionUID = 1L;
+
+    public ChunkedTextArea() {
+        super(new ChunkedDocument());
+    }
+
+    public ChunkedTextArea(int rows, int columns) {
+        super(new ChunkedDocument(), null, rows, columns);
+    }
+
+    @Override
+    public void updateUI() {
+        if (getLineWrap()) {
+            setUI(new ChunkedTextAreaUI());
+        } else {
+            super.updateUI();
+        }
+    }
+
+    @Override
+    public void setLineWrap(boolean wrap) {
+        boolean changed = wrap != getLineWrap();
+        super.setLineWrap(wrap);
+        if (changed) {
+            updateUI();
+        }
+    }
+
+    /**
+     * Text area UI that creates a {@link LazyWrappedView} when lines are wrapped
+     */
+    private static final class ChunkedTextAreaUI extends BasicTextAreaUI {
+        @Override
+        public View create(Element elem) {
+            if (((JTextArea) getComponent()).getLineWrap()) {
+                return new LazyWrappedView(elem);
+            }
+            return super.create(elem);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.noteapp.ui;
+
+import com.noteapp.model.DuplicateGroup;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Lists the groups of near-duplicate notes found by
+ * {@link NoteManager#findNearDuplicates(double)}, with the notes of the selected group
+ * below, so that redundant copies can be reviewed and deleted.
+ */
+public class DuplicateReportDialog extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(DuplicateReportDialog.class.getName());
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int PREVIEW_LENGTH = 120;
+
+    private final NoteManager noteManager;
+    private final GroupTableModel groupModel = new GroupTableModel();
+    private final NoteTableModel noteModel = new NoteTableModel();
+    private JTable groupTable;
+    private JTable noteTable;
+    private JSpinner thresholdSpinner;
+    private JButton deleteButton;
+    private JLabel summaryLabel;
+
+    public DuplicateReportDialog(Frame parent, NoteManager noteManager) {
+        super(parent, "Near-Duplicate Notes", true);
+        this.noteManager = noteManager;
+        initializeComponents();
+        layoutComponents();
+        setupEventHandlers();
+        refresh();
+        setSize(800, 550);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeComponents() {
+        thresholdSpinner = new JSpinner(new SpinnerNumberModel(0.8, 0.5, 1.0, 0.05));
+        groupTable = new JTable(groupModel);
+        groupTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        groupTable.getColumnModel().getColumn(0).setMaxWidth(70);
+        groupTable.getColumnModel().getColumn(1).setMaxWidth(90);
+        noteTable = new JTable(noteModel);
+        noteTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        deleteButton = new JButton("Delete Note");
+        deleteButton.setEnabled(false);
+        summaryLabel = new JLabel();
+    }
+
+    private void layoutComponents() {
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        topPanel.add(new JLabel("Minimum similarity:"));
+        topPanel.add(thresholdSpinner);
+        topPanel.add(summaryLabel);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(groupTable), new JScrollPane(noteTable));
+        splitPane.setResizeWeight(0.5);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(deleteButton);
+        buttonPanel.add(closeButton);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void setupEventHandlers() {
+        thresholdSpinner.addChangeListener(e -> refresh());
+        groupTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                int row = groupTable.getSelectedRow();
+                noteModel.setNotes(row < 0 ? new ArrayList<>() : groupModel.groups.get(row).getNotes());
+            }
+        });
+        noteTable.getSelectionModel().addListSelectionListener(e ->
+                deleteButton.setEnabled(noteTable.getSelectedRow() >= 0));
+        deleteButton.addActionListener(e -> deleteSelectedNote());
+    }
+
+    private void refresh() {
+        double threshold = ((Number) thresholdSpinner.getValue()).doubleValue();
+        long start = System.nanoTime();
+        List<DuplicateGroup> groups = noteManager.findNearDuplicates(threshold);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.fine(() -> String.format("Found %d duplicate groups in %d ms", groups.size(), millis));
+        groupModel.setGroups(groups);
+        noteModel.setNotes(new ArrayList<>());
+        int notes = groups.stream().mapToInt(DuplicateGroup::size).sum();
+        summaryLabel.setText(String.format("%d groups, %d notes", groups.size(), notes));
+    }
+
+    private void deleteSelectedNote() {
+        int row = noteTable.getSelectedRow();
+        if (row < 0) {
+            return;
+        }
+        Note note = noteModel.notes.get(row);
+        int choice = JOptionPane.showConfirmDialog(this,
+                "Delete \"" + note.getTitle() + "\"?", "Delete Note", JOptionPane.YES_NO_OPTION);
+        if (choice == JOptionPane.YES_OPTION) {
+            noteManager.removeNote(note.getId());
+            refresh();
+        }
+    }
+
+    private static String preview(String content) {
+        String line = content.replaceAll("\\s+", " ").trim();
+        return line.length() <= PREVIEW_LENGTH ? line : line.substring(0, PREVIEW_LENGTH) + "...";
+    }
+
+    private static final class GroupTableModel extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUMNS = {"Notes", "Similarity", "Titles"};
+        private List<DuplicateGroup> groups = new ArrayList<>();
+
+        void setGroups(List<DuplicateGroup> groups) {
+            this.groups = groups;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return groups.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            DuplicateGroup group = groups.get(row);
+            switch (column) {
+                case 0:
+                    return group.size();
+                case 1:
+                    return String.format("%.0f%%", group.getSimilarity() * 100);
+                default:
+                    List<String> titles = new ArrayList<>();
+                    for (Note note : group.getNotes()) {
+                        titles.add(note.getTitle());
+                    }
+                    return String.join(" | ", titles);
+            }
+        }
+    }
+
+    private static final class NoteTableModel extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUMNS = {"Title", "Created", "Content"};
+        private List<Note> notes = new ArrayList<>();
+
+        void setNotes(List<Note> notes) {
+            this.notes = notes;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return notes.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Note note = notes.get(row);
+            switch (column) {
+                case 0:
+                    return note.getTitle();
+                case 1:
+                    return note.getCreationDate() == null ? "" : note.getCreationDate().format(DATE_FORMAT);
+                default:
+                    return preview(note.getContent());
+            }
+        }
+    }
+}
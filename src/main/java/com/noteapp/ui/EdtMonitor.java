@@ -0,0 +1,418 @@
+package com.noteapp.ui;
+
+import javax.swing.AbstractButton;
+import javax.swing.JFileChooser;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Frame;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.event.InvocationEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Watches the Event Dispatch Thread for handlers that freeze the UI. Once installed, it
+ * wraps the system event queue and times every dispatched event, keeping a latency
+ * histogram per handler: the event type and the component it went to, or the class of
+ * the runnable for {@code invokeLater}. A watchdog thread samples the dispatch thread's
+ * stack while an event runs past the threshold, so a slow event is reported with the
+ * code it was stuck in.
+ *
+ * <p>Time spent waiting in a nested event loop, such as the one a modal dialog runs,
+ * is not counted against the event that opened the dialog; the events dispatched by the
+ * nested loop are timed on their own.
+ */
+public class EdtMonitor {
+    private static final Logger LOGGER = Logger.getLogger(EdtMonitor.class.getName());
+    public static final long DEFAULT_THRESHOLD_MILLIS = 100;
+    /** Slow events kept, the oldest dropped first */
+    static final int MAX_SLOW_EVENTS = 100;
+    /** Stack samples kept per slow event */
+    static final int MAX_SAMPLES = 10;
+
+    private static EdtMonitor installed;
+
+    private final long thresholdNanos;
+    private final MonitoringEventQueue queue = new MonitoringEventQueue();
+    private final ScheduledExecutorService watchdog;
+    private final Map<String, HandlerLatency> latencies = new HashMap<>();
+    private final Deque<SlowEvent> slowEvents = new ArrayDeque<>();
+
+    /** Events being dispatched, innermost first; used on the dispatch thread only */
+    private final Deque<Dispatch> dispatches = new ArrayDeque<>();
+    /** The event the dispatch thread is running, or null while it waits for events */
+    private volatile Dispatch running;
+    /** When the dispatch thread last started or resumed running {@link #running} */
+    private volatile long busySince;
+    private volatile Thread dispatchThread;
+
+    private EdtMonitor(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edt-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts monitoring the Event Dispatch Thread, or returns the monitor already doing so
+     * @param thresholdMillis How long an event may run before the watchdog samples its stack
+     * @return The installed monitor
+     */
+    public static synchronized EdtMonitor install(long thresholdMillis) {
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        if (installed == null) {
+            EdtMonitor monitor = new EdtMonitor(thresholdMillis);
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor.queue);
+            long interval = Math.max(1, thresholdMillis / 4);
+            monitor.watchdog.scheduleWithFixedDelay(monitor::sample, interval, interval, TimeUnit.MILLISECONDS);
+            installed = monitor;
+            LOGGER.fine(() -> "Monitoring the event dispatch thread, threshold " + thresholdMillis + " ms");
+        }
+        return installed;
+    }
+
+    /**
+     * Stops monitoring and restores the event queue. The recorded latencies stay readable.
+     */
+    public void uninstall() {
+        synchronized (EdtMonitor.class) {
+            if (installed != this) {
+                return;
+            }
+            installed = null;
+        }
+        watchdog.shutdownNow();
+        queue.remove();
+    }
+
+    /**
+     * Gets the dispatch time past which an event is reported as slow
+     * @return The threshold in milliseconds
+     */
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Gets the latency histograms of every handler seen so far
+     * @return Snapshots, the handler with the most total time first
+     */
+    public synchronized List<HandlerLatency> getHandlerLatencies() {
+        List<HandlerLatency> result = new ArrayList<>(latencies.size());
+        for (HandlerLatency latency : latencies.values()) {
+            result.add(latency.copy());
+        }
+        result.sort(Comparator.comparingDouble(HandlerLatency::getTotalMillis).reversed());
+        return result;
+    }
+
+    /**
+     * Gets the most recent events that ran past the threshold
+     * @return Up to {@value #MAX_SLOW_EVENTS} events, newest first
+     */
+    public synchronized List<SlowEvent> getSlowEvents() {
+        List<SlowEvent> result = new ArrayList<>(slowEvents);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Discards the recorded latencies and slow events
+     */
+    public synchronized void reset() {
+        latencies.clear();
+        slowEvents.clear();
+    }
+
+    /**
+     * Formats the handler histograms and the slow events with their stack samples
+     * @return The report
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("UI latency report, ").append(LocalDateTime.now())
+                .append(", threshold ").append(getThresholdMillis()).append(" ms\n\nHandlers:\n");
+        for (HandlerLatency latency : getHandlerLatencies()) {
+            report.append("  ").append(latency).append('\n');
+        }
+        report.append("\nSlow events:\n");
+        for (SlowEvent event : getSlowEvents()) {
+            report.append("  ").append(event).append('\n');
+            List<StackTraceElement[]> samples = event.getSamples();
+            for (int i = 0; i < samples.size(); i++) {
+                report.append("    sample ").append(i + 1).append(":\n");
+                for (StackTraceElement frame : samples.get(i)) {
+                    report.append("      at ").append(frame).append('\n');
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the report to a file
+     * @param file The file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void dump(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(report());
+        }
+        LOGGER.info("Wrote UI latency report to " + file);
+    }
+
+    /**
+     * Creates a Debug menu for viewing, dumping and resetting the latencies
+     * @param parent The window the dialogs belong to
+     * @return The menu
+     */
+    public JMenu createMenu(Frame parent) {
+        JMenu menu = new JMenu("Debug");
+        JMenuItem viewItem = new JMenuItem("UI Latency...");
+        viewItem.addActionListener(e -> new EdtMonitorDialog(parent, this).setVisible(true));
+        JMenuItem dumpItem = new JMenuItem("Dump UI Latency...");
+        dumpItem.addActionListener(e -> dumpTo(parent));
+        JMenuItem resetItem = new JMenuItem("Reset UI Latency");
+        resetItem.addActionListener(e -> reset());
+        menu.add(viewItem);
+        menu.add(dumpItem);
+        menu.add(resetItem);
+        return menu;
+    }
+
+    /**
+     * Asks for a file and dumps the report to it
+     * @param parent The component the dialogs belong to
+     */
+    void dumpTo(Component parent) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("ui-latency.txt"));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            dump(chooser.getSelectedFile().toPath());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(parent, "Could not write the report: " + e.getMessage(),
+                    "Dump UI Latency", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Describes the handler an event goes to
+     * @param event The event
+     * @return The event type and its target, as in {@code KEY_TYPED ChunkedTextArea in NoteAppGUI}
+     */
+    static String describe(AWTEvent event) {
+        String params = event.paramString();
+        if (event instanceof InvocationEvent) {
+            return "invokeLater " + runnableName(params);
+        }
+        int comma = params.indexOf(',');
+        String type = comma < 0 ? params : params.substring(0, comma);
+        Object source = event.getSource();
+        return type + " " + (source instanceof Component ? describe((Component) source) : className(source.getClass().getName()));
+    }
+
+    private static String describe(Component component) {
+        StringBuilder description = new StringBuilder();
+        if (component.getName() != null && !(component instanceof Window)) {
+            description.append(component.getName());
+        } else {
+            Class<?> type = component.getClass();
+            while (type.isAnonymousClass()) {
+                type = type.getSuperclass();
+            }
+            description.append(type.getSimpleName());
+            if (component instanceof AbstractButton && ((AbstractButton) component).getText() != null) {
+                description.append(" \"").append(((AbstractButton) component).getText()).append('"');
+            }
+        }
+        Window window = component instanceof Window ? null : SwingUtilities.getWindowAncestor(component);
+        if (window != null) {
+            description.append(" in ").append(describe(window));
+        }
+        return description.toString();
+    }
+
+    /**
+     * Gets the class of the runnable from {@link InvocationEvent#paramString()}
+     */
+    private static String runnableName(String params) {
+        int start = params.indexOf("runnable=");
+        if (start < 0) {
+            return "?";
+        }
+        start += "runnable=".length();
+        int end = params.indexOf(",notifier=", start);
+        String runnable = params.substring(start, end < 0 ? params.length() : end);
+        int at = runnable.indexOf('@');
+        if (at >= 0) {
+            runnable = runnable.substring(0, at);
+        }
+        int lambda = runnable.indexOf("$$Lambda");
+        return lambda >= 0 ? className(runnable.substring(0, lambda)) + " lambda" : className(runnable);
+    }
+
+    private static String className(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private void beginDispatch(AWTEvent event) {
+        long now = System.nanoTime();
+        pause(now);
+        Dispatch dispatch = new Dispatch(describe(event));
+        dispatches.push(dispatch);
+        dispatchThread = Thread.currentThread();
+        resume(dispatch, now);
+    }
+
+    private void endDispatch() {
+        long now = System.nanoTime();
+        pause(now);
+        Dispatch dispatch = dispatches.pop();
+        record(dispatch);
+        resume(dispatches.peek(), now);
+    }
+
+    /**
+     * Stops the clock of the running event, when a nested one starts or the thread waits
+     */
+    private void pause(long now) {
+        Dispatch current = running;
+        if (current != null) {
+            current.nanos += now - busySince;
+            running = null;
+        }
+    }
+
+    private void resume(Dispatch dispatch, long now) {
+        busySince = now;
+        running = dispatch;
+    }
+
+    private void record(Dispatch dispatch) {
+        List<StackTraceElement[]> samples;
+        synchronized (dispatch) {
+            samples = new ArrayList<>(dispatch.samples);
+        }
+        SlowEvent slow = null;
+        synchronized (this) {
+            latencies.computeIfAbsent(dispatch.handler, HandlerLatency::new).record(dispatch.nanos);
+            if (dispatch.nanos >= thresholdNanos || !samples.isEmpty()) {
+                LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(dispatch.startMillis), ZoneId.systemDefault());
+                slow = new SlowEvent(dispatch.handler, time, dispatch.nanos / 1e6, samples);
+                if (slowEvents.size() == MAX_SLOW_EVENTS) {
+                    slowEvents.removeFirst();
+                }
+                slowEvents.addLast(slow);
+            }
+        }
+        if (slow != null) {
+            LOGGER.warning("Slow event on the dispatch thread: " + slow);
+        }
+    }
+
+    /**
+     * Runs on the watchdog thread: samples the dispatch thread's stack if the running
+     * event has passed the threshold, and again each further threshold interval
+     */
+    private void sample() {
+        Dispatch current = running;
+        long since = busySince;
+        Thread thread = dispatchThread;
+        if (current == null || thread == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long ran = current.nanos + now - since;
+        synchronized (current) {
+            if (ran < thresholdNanos * (current.samples.size() + 1) || current.samples.size() >= MAX_SAMPLES) {
+                return;
+            }
+        }
+        StackTraceElement[] stack = thread.getStackTrace();
+        // Drop the sample if the event ended or handed over to a nested one meanwhile
+        if (running == current && busySince == since) {
+            synchronized (current) {
+                current.samples.add(stack);
+            }
+        }
+    }
+
+    /**
+     * An event being dispatched
+     */
+    private static final class Dispatch {
+        final String handler;
+        final long startMillis = System.currentTimeMillis();
+        /** Time spent running this event, up to the last pause; read by the watchdog */
+        volatile long nanos;
+        final List<StackTraceElement[]> samples = new ArrayList<>();
+
+        Dispatch(String handler) {
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * Event queue that reports each dispatch and each wait for events to the monitor
+     */
+    private final class MonitoringEventQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            beginDispatch(event);
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                endDispatch();
+            }
+        }
+
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            if (!isDispatchThread()) {
+                return super.getNextEvent();
+            }
+            pause(System.nanoTime());
+            try {
+                return super.getNextEvent();
+            } finally {
+                resume(dispatches.peek(), System.nanoTime());
+            }
+        }
+
+        void remove() {
+            pop();
+        }
+    }
+}
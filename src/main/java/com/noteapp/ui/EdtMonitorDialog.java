@@ -0,0 +1,211 @@
+package com.noteapp.ui;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows the per-handler latency histograms recorded by an {@link EdtMonitor}, and the
+ * recent slow events with the stacks sampled while they ran
+ */
+public class EdtMonitorDialog extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private final EdtMonitor monitor;
+    private final HandlerTableModel handlerModel = new HandlerTableModel();
+    private final SlowEventTableModel slowModel = new SlowEventTableModel();
+    private JTable handlerTable;
+    private JTable slowTable;
+    private JTextArea stackArea;
+    private JButton refreshButton;
+    private JButton resetButton;
+    private JButton dumpButton;
+
+    public EdtMonitorDialog(Frame parent, EdtMonitor monitor) {
+        super(parent, "UI Latency", false);
+        this.monitor = monitor;
+        initializeComponents();
+        layoutComponents();
+        setupEventHandlers();
+        refresh();
+        setSize(900, 650);
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeComponents() {
+        handlerTable = new JTable(handlerModel);
+        handlerTable.setAutoCreateRowSorter(true);
+        handlerTable.getColumnModel().getColumn(0).setPreferredWidth(320);
+        slowTable = new JTable(slowModel);
+        slowTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        slowTable.getColumnModel().getColumn(0).setMaxWidth(100);
+        slowTable.getColumnModel().getColumn(1).setMaxWidth(80);
+        stackArea = new JTextArea();
+        stackArea.setEditable(false);
+        stackArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        refreshButton = new JButton("Refresh");
+        resetButton = new JButton("Reset");
+        dumpButton = new JButton("Dump...");
+    }
+
+    private void layoutComponents() {
+        setLayout(new BorderLayout(10, 10));
+
+        JLabel thresholdLabel = new JLabel("Stacks are sampled from events running longer than "
+                + monitor.getThresholdMillis() + " ms");
+        thresholdLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 0, 10));
+
+        JSplitPane slowPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(slowTable), new JScrollPane(stackArea));
+        slowPane.setResizeWeight(0.4);
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(handlerTable), slowPane);
+        splitPane.setResizeWeight(0.5);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(resetButton);
+        buttonPanel.add(dumpButton);
+        buttonPanel.add(closeButton);
+
+        add(thresholdLabel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void setupEventHandlers() {
+        refreshButton.addActionListener(e -> refresh());
+        resetButton.addActionListener(e -> {
+            monitor.reset();
+            refresh();
+        });
+        dumpButton.addActionListener(e -> monitor.dumpTo(this));
+        slowTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                int row = slowTable.getSelectedRow();
+                stackArea.setText(row < 0 ? "" : formatSamples(slowModel.events.get(row)));
+                stackArea.setCaretPosition(0);
+            }
+        });
+    }
+
+    private void refresh() {
+        handlerModel.setLatencies(monitor.getHandlerLatencies());
+        slowModel.setEvents(monitor.getSlowEvents());
+        stackArea.setText("");
+    }
+
+    private static String formatSamples(SlowEvent event) {
+        if (event.getSamples().isEmpty()) {
+            return "Ended before a stack was sampled";
+        }
+        StringBuilder text = new StringBuilder();
+        List<StackTraceElement[]> samples = event.getSamples();
+        for (int i = 0; i < samples.size(); i++) {
+            text.append("Sample ").append(i + 1).append(":\n");
+            for (StackTraceElement frame : samples.get(i)) {
+                text.append("    at ").append(frame).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private static final class HandlerTableModel extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUMNS = {"Handler", "Events", "Total ms", "Mean ms", "p99 ms", "Max ms", "Histogram"};
+        private List<HandlerLatency> latencies = new ArrayList<>();
+
+        void setLatencies(List<HandlerLatency> latencies) {
+            this.latencies = latencies;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return latencies.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 || column == 6 ? String.class : Number.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            HandlerLatency latency = latencies.get(row);
+            switch (column) {
+                case 0:
+                    return latency.getHandler();
+                case 1:
+                    return latency.getCount();
+                case 2:
+                    return Math.round(latency.getTotalMillis());
+                case 3:
+                    return Math.round(latency.getMeanMillis() * 100) / 100.0;
+                case 4:
+                    return latency.getPercentileMillis(99);
+                case 5:
+                    return Math.round(latency.getMaxMillis() * 10) / 10.0;
+                default:
+                    return latency.formatHistogram();
+            }
+        }
+    }
+
+    private static final class SlowEventTableModel extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUMNS = {"Time", "ms", "Handler", "Stuck in"};
+        private List<SlowEvent> events = new ArrayList<>();
+
+        void setEvents(List<SlowEvent> events) {
+            this.events = events;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return events.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            SlowEvent event = events.get(row);
+            switch (column) {
+                case 0:
+                    return event.getTime().format(TIME_FORMAT);
+                case 1:
+                    return Math.round(event.getMillis());
+                case 2:
+                    return event.getHandler();
+                default:
+                    StackTraceElement culprit = event.getCulprit();
+                    return culprit == null ? "" : culprit.toString();
+            }
+        }
+    }
+}
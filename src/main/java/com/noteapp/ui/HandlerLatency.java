@@ -0,0 +1,132 @@
+package com.noteapp.ui;
+
+/**
+ * Latency histogram of the events dispatched to one handler, as recorded by
+ * {@link EdtMonitor}. Instances returned by the monitor are snapshots.
+ */
+public class HandlerLatency {
+    /** Bucket 0 counts events under 1 ms; bucket b counts events of 2^(b-1) to 2^b ms */
+    static final int BUCKETS = 16;
+
+    private final String handler;
+    private final long[] buckets;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    HandlerLatency(String handler) {
+        this.handler = handler;
+        this.buckets = new long[BUCKETS];
+    }
+
+    private HandlerLatency(HandlerLatency other) {
+        this.handler = other.handler;
+        this.buckets = other.buckets.clone();
+        this.count = other.count;
+        this.totalNanos = other.totalNanos;
+        this.maxNanos = other.maxNanos;
+    }
+
+    void record(long nanos) {
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        long millis = nanos / 1_000_000;
+        buckets[millis == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis))]++;
+    }
+
+    HandlerLatency copy() {
+        return new HandlerLatency(this);
+    }
+
+    /**
+     * Gets the description of the handler, such as {@code MOUSE_RELEASED JButton "Save" in NoteAppGUI}
+     * @return The handler description
+     */
+    public String getHandler() {
+        return handler;
+    }
+
+    /**
+     * Gets the number of events dispatched to the handler
+     * @return The event count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the time spent in the handler, excluding events dispatched by nested event loops
+     * @return The total in milliseconds
+     */
+    public double getTotalMillis() {
+        return totalNanos / 1e6;
+    }
+
+    /**
+     * Gets the mean time spent in the handler per event
+     * @return The mean in milliseconds, or 0 before any event
+     */
+    public double getMeanMillis() {
+        return count == 0 ? 0 : totalNanos / 1e6 / count;
+    }
+
+    /**
+     * Gets the longest time one event spent in the handler
+     * @return The maximum in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    /**
+     * Estimates a latency percentile from the histogram
+     * @param percentile The percentile, from 0 to 100
+     * @return The upper bound of the bucket holding the percentile, in milliseconds
+     */
+    public double getPercentileMillis(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += buckets[b];
+            if (seen >= rank) {
+                return Math.min(1L << b, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Gets the latency histogram
+     * @return Counts of events under 1 ms, 1-2 ms, 2-4 ms, 4-8 ms, ...
+     */
+    public long[] getHistogram() {
+        return buckets.clone();
+    }
+
+    /**
+     * Formats the non-empty buckets of the histogram
+     * @return The histogram, as in {@code "<1ms: 120, 1-2ms: 3, 64-128ms: 1"}
+     */
+    public String formatHistogram() {
+        StringBuilder histogram = new StringBuilder();
+        for (int b = 0; b < BUCKETS; b++) {
+            if (buckets[b] > 0) {
+                histogram.append(histogram.length() == 0 ? "" : ", ")
+                        .append(b == 0 ? "<1" : (1L << (b - 1)) + (b == BUCKETS - 1 ? "+" : "-" + (1L << b)))
+                        .append("ms: ").append(buckets[b]);
+            }
+        }
+        return histogram.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d events, total %.1f ms, mean %.2f ms, p99 %.0f ms, max %.1f ms [%s]",
+                handler, count, getTotalMillis(), getMeanMillis(), getPercentileMillis(99), getMaxMillis(),
+                formatHistogram());
+    }
+}
@@ -0,0 +1,519 @@
+package com.noteapp.ui;
+
+import javax.swing.JTextArea;
+import javax.swing.event.DocumentEvent;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.BoxView;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.text.TabExpander;
+import javax.swing.text.Utilities;
+import javax.swing.text.View;
+import javax.swing.text.ViewFactory;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.util.Arrays;
+
+/**
+ * Line-wrapping view for {@link ChunkedTextArea}, a replacement for
+ * {@link javax.swing.text.WrappedPlainView} whose cost follows what is on screen rather
+ * than the size of the note.
+ *
+ * <p>Each line keeps the start offsets of its wrapped rows. They are computed lazily, only
+ * as far as painting or caret movement needs them; the rows of text nobody has looked at
+ * yet are estimated from the average character width. After an edit the rows from the one
+ * before the edit onwards are kept but marked unverified, shifted by the edit, and
+ * re-wrapping stops at the first row past the edits that starts where it did before, so a keystroke
+ * re-wraps a row or two instead of the rest of the line. Breaking a row reads only about
+ * a row's worth of text. Painting finds the visible lines by binary search.
+ */
+class LazyWrappedView extends BoxView {
+    private static final String SAMPLE = "the quick brown fox jumps over the lazy dog, THEN 42 MORE. ";
+    private static final String NARROW = " .,:;'|!iIlj";
+
+    private FontMetrics metrics;
+    private float averageCharWidth;
+    private float narrowestCharWidth;
+    private float tabSize;
+    private boolean wordWrap = true;
+
+    LazyWrappedView(Element elem) {
+        super(elem, Y_AXIS);
+    }
+
+    @Override
+    protected void loadChildren(ViewFactory f) {
+        Element elem = getElement();
+        View[] added = new View[elem.getElementCount()];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = new Line(elem.getElement(i));
+        }
+        replace(0, 0, added);
+    }
+
+    @Override
+    public void setSize(float width, float height) {
+        updateMetrics();
+        if ((int) width != getWidth()) {
+            preferenceChanged(null, true, true);
+        }
+        super.setSize(width, height);
+    }
+
+    @Override
+    public float getPreferredSpan(int axis) {
+        updateMetrics();
+        return super.getPreferredSpan(axis);
+    }
+
+    @Override
+    public float getMinimumSpan(int axis) {
+        updateMetrics();
+        return super.getMinimumSpan(axis);
+    }
+
+    @Override
+    public float getMaximumSpan(int axis) {
+        updateMetrics();
+        return super.getMaximumSpan(axis);
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+        update(e, a, f, true);
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+        update(e, a, f, false);
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+        updateChildren(e, a);
+    }
+
+    @Override
+    public void paint(Graphics g, Shape a) {
+        updateMetrics();
+        Component host = getContainer();
+        g.setFont(host.getFont());
+        g.setColor(host.isEnabled() || !(host instanceof JTextComponent)
+                ? host.getForeground() : ((JTextComponent) host).getDisabledTextColor());
+
+        Rectangle alloc = a instanceof Rectangle ? (Rectangle) a : a.getBounds();
+        Rectangle clip = g.getClipBounds();
+        int x = alloc.x + getLeftInset();
+        int y = alloc.y + getTopInset();
+        int top = clip == null ? Integer.MIN_VALUE : clip.y;
+        int bottom = clip == null ? Integer.MAX_VALUE : clip.y + clip.height;
+
+        // Lines are laid out top to bottom, so the first visible one can be found by bisection
+        int low = 0;
+        int high = getViewCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (y + getOffset(Y_AXIS, mid) + getSpan(Y_AXIS, mid) <= top) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        Rectangle child = new Rectangle();
+        for (int i = low; i < getViewCount(); i++) {
+            child.y = y + getOffset(Y_AXIS, i);
+            if (child.y >= bottom) {
+                break;
+            }
+            child.x = x + getOffset(X_AXIS, i);
+            child.width = getSpan(X_AXIS, i);
+            child.height = getSpan(Y_AXIS, i);
+            paintChild(g, child, i);
+        }
+    }
+
+    private void update(DocumentEvent e, Shape a, ViewFactory f, boolean insert) {
+        boolean replaced = updateChildren(e, a);
+        Rectangle alloc = a != null && isAllocationValid() ? getInsideAllocation(a) : null;
+        View line = getViewAtPosition(e.getOffset(), alloc);
+        if (!replaced && line != null) {
+            if (insert) {
+                line.insertUpdate(e, alloc, f);
+            } else {
+                line.removeUpdate(e, alloc, f);
+            }
+        }
+    }
+
+    /**
+     * Replaces the views of lines that were added or removed
+     * @return true if the lines changed
+     */
+    private boolean updateChildren(DocumentEvent e, Shape a) {
+        DocumentEvent.ElementChange change = e.getChange(getElement());
+        updateMetrics();
+        if (change == null) {
+            return false;
+        }
+        Element[] added = change.getChildrenAdded();
+        View[] views = new View[added.length];
+        for (int i = 0; i < added.length; i++) {
+            views[i] = new Line(added[i]);
+        }
+        replace(change.getIndex(), change.getChildrenRemoved().length, views);
+        if (a != null) {
+            preferenceChanged(null, true, true);
+            getContainer().repaint();
+        }
+        return true;
+    }
+
+    private void updateMetrics() {
+        Component host = getContainer();
+        if (host == null) {
+            return;
+        }
+        Font font = host.getFont();
+        if (metrics == null || !metrics.getFont().equals(font)) {
+            boolean changed = metrics != null;
+            metrics = host.getFontMetrics(font);
+            averageCharWidth = metrics.stringWidth(SAMPLE) / (float) SAMPLE.length();
+            narrowestCharWidth = Float.MAX_VALUE;
+            for (int i = 0; i < NARROW.length(); i++) {
+                narrowestCharWidth = Math.min(narrowestCharWidth, metrics.charWidth(NARROW.charAt(i)));
+            }
+            narrowestCharWidth = Math.max(1, narrowestCharWidth);
+            if (changed) {
+                for (int i = 0; i < getViewCount(); i++) {
+                    ((Line) getView(i)).reset();
+                }
+                preferenceChanged(null, true, true);
+            }
+        }
+        Object size = getDocument().getProperty(PlainDocument.tabSizeAttribute);
+        tabSize = (size instanceof Integer ? (Integer) size : 8) * metrics.charWidth('m');
+        wordWrap = !(host instanceof JTextArea) || ((JTextArea) host).getWrapStyleWord();
+    }
+
+    /**
+     * One line of the document, wrapped into rows
+     */
+    private final class Line extends View implements TabExpander {
+        /** Start offsets of the rows, relative to the line */
+        private int[] rowStarts = new int[4];
+        private int rows = 1;
+        /** Rows whose start offsets are known to be correct; the rest are from before an edit */
+        private int verified = 1;
+        /** Whether the last row is known to end at the end of the line */
+        private boolean complete;
+        /** End of the furthest edit since the rows were last all verified; no resync before it */
+        private int dirtyEnd;
+        private float width = -1;
+        private int reportedRows = -1;
+        private float tabBase;
+
+        Line(Element elem) {
+            super(elem);
+        }
+
+        void reset() {
+            rows = 1;
+            verified = 1;
+            complete = false;
+            dirtyEnd = 0;
+        }
+
+        @Override
+        public void setSize(float width, float height) {
+            if ((int) width != (int) this.width) {
+                this.width = width;
+                reset();
+            }
+        }
+
+        @Override
+        public float getPreferredSpan(int axis) {
+            if (axis == X_AXIS) {
+                int parentWidth = LazyWrappedView.this.getWidth();
+                return parentWidth == Integer.MAX_VALUE ? 100 : parentWidth;
+            }
+            reportedRows = rowCount();
+            return reportedRows * metrics.getHeight();
+        }
+
+        @Override
+        public void paint(Graphics g, Shape a) {
+            Rectangle alloc = a.getBounds();
+            Rectangle clip = g.getClipBounds();
+            int lineHeight = metrics.getHeight();
+            int first = clip == null ? 0 : Math.max(0, (clip.y - alloc.y) / lineHeight);
+            int last = clip == null ? Integer.MAX_VALUE - 2
+                    : Math.max(first, (clip.y + clip.height - alloc.y - 1) / lineHeight);
+            verify(last + 2);
+
+            int start = getStartOffset();
+            Segment text = new Segment();
+            tabBase = alloc.x;
+            for (int row = first; row <= last && row < verified; row++) {
+                int end = rowEnd(row);
+                if (end < 0) {
+                    break;
+                }
+                load(text, rowStarts[row], end);
+                Utilities.drawTabbedText(text, (float) alloc.x, (float) (alloc.y + row * lineHeight + metrics.getAscent()),
+                        (Graphics2D) g, this, start + rowStarts[row]);
+            }
+            checkRows();
+        }
+
+        @Override
+        public Shape modelToView(int pos, Shape a, Position.Bias b) throws BadLocationException {
+            Rectangle alloc = a.getBounds();
+            int offset = Math.max(0, Math.min(pos - getStartOffset(), length()));
+            int row = rowOf(offset);
+            Segment text = new Segment();
+            load(text, rowStarts[row], offset);
+            tabBase = alloc.x;
+            float x = alloc.x + Utilities.getTabbedTextWidth(text, metrics, (float) alloc.x, this,
+                    getStartOffset() + rowStarts[row]);
+            checkRows();
+            return new Rectangle((int) x, alloc.y + row * metrics.getHeight(), 1, metrics.getHeight());
+        }
+
+        @Override
+        public int viewToModel(float fx, float fy, Shape a, Position.Bias[] bias) {
+            bias[0] = Position.Bias.Forward;
+            Rectangle alloc = a.getBounds();
+            int start = getStartOffset();
+            if (fy < alloc.y) {
+                return start;
+            }
+            int row = (int) ((fy - alloc.y) / metrics.getHeight());
+            verify(row + 2);
+            checkRows();
+            if (row >= verified || rowEnd(row) < 0) {
+                return start + length();
+            }
+            int end = rowEnd(row);
+            if (fx < alloc.x) {
+                return start + rowStarts[row];
+            }
+            Segment text = new Segment();
+            load(text, rowStarts[row], end);
+            tabBase = alloc.x;
+            int offset = rowStarts[row] + Utilities.getTabbedTextOffset(text, metrics, (float) alloc.x, fx, this,
+                    start + rowStarts[row], true);
+            // Past the end of a wrapped row: before the break, not at the start of the next row
+            if (end < length() && offset >= end) {
+                offset = end - 1;
+            }
+            return start + Math.min(offset, length());
+        }
+
+        @Override
+        public void insertUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+            edit(e.getOffset() - getStartOffset(), e.getLength(), true);
+            damage(a);
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+            edit(e.getOffset() - getStartOffset(), e.getLength(), false);
+            damage(a);
+        }
+
+        @Override
+        public float nextTabStop(float x, int tabOffset) {
+            if (tabSize == 0) {
+                return x;
+            }
+            int tabs = (int) ((x - tabBase) / tabSize);
+            return tabBase + (tabs + 1) * tabSize;
+        }
+
+        /**
+         * Shifts the rows after an edit and marks them unverified from the row before it
+         */
+        private void edit(int offset, int length, boolean insert) {
+            int row = Math.max(0, upperBound(offset) - 1);
+            int end = offset + length;
+            int kept = row + 1;
+            for (int i = row + 1; i < rows; i++) {
+                if (insert) {
+                    rowStarts[kept++] = rowStarts[i] + length;
+                } else if (rowStarts[i] > end) {
+                    rowStarts[kept++] = rowStarts[i] - length;
+                }
+            }
+            rows = kept;
+            verified = Math.min(verified, Math.max(1, row));
+            if (insert) {
+                dirtyEnd = Math.max(dirtyEnd > offset ? dirtyEnd + length : dirtyEnd, end);
+            } else {
+                dirtyEnd = Math.max(dirtyEnd > end ? dirtyEnd - length : Math.min(dirtyEnd, offset), offset + 1);
+            }
+        }
+
+        /**
+         * Wraps rows until the first {@code count} rows are verified or the line is done
+         */
+        private void verify(int count) {
+            while (verified < count && !(complete && verified == rows)) {
+                int next = nextBreak(rowStarts[verified - 1]);
+                if (next > length()) {
+                    rows = verified;
+                    complete = true;
+                    dirtyEnd = 0;
+                    return;
+                }
+                int stale = verified;
+                while (stale < rows && rowStarts[stale] < next) {
+                    stale++;
+                }
+                if (stale < rows && rowStarts[stale] == next && next >= dirtyEnd) {
+                    // Back in step with the rows from before the edit: the rest still hold
+                    removeRows(verified, stale);
+                    verified = rows;
+                    dirtyEnd = 0;
+                } else {
+                    removeRows(verified, stale);
+                    insertRow(verified, next);
+                    verified++;
+                    if (verified == rows) {
+                        complete = false;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Finds the row holding an offset, verifying rows as far as needed
+         */
+        private int rowOf(int offset) {
+            while (!(complete && verified == rows) && rowStarts[verified - 1] <= offset) {
+                verify(verified + 1);
+            }
+            int row = Math.min(verified, upperBound(offset)) - 1;
+            return Math.max(0, row);
+        }
+
+        /**
+         * Gets the end of a verified row
+         * @return The offset, or -1 if it is not known yet
+         */
+        private int rowEnd(int row) {
+            if (row + 1 < verified) {
+                return rowStarts[row + 1];
+            }
+            return complete && row == rows - 1 ? length() : -1;
+        }
+
+        private int rowCount() {
+            if (complete) {
+                return rows;
+            }
+            int unwrapped = Math.max(0, length() - rowStarts[rows - 1]);
+            if (width <= 0 || unwrapped == 0) {
+                return rows;
+            }
+            return rows - 1 + Math.max(1, (int) Math.ceil(unwrapped * averageCharWidth / width));
+        }
+
+        /**
+         * Finds where the row starting at an offset ends, reading about a row of text at a time
+         * @return The start of the next row, or the length of the line plus one if this is the last
+         */
+        private int nextBreak(int from) {
+            // Include the newline, as WrappedPlainView does: it decides whether the last
+            // character fits, and where an empty last row is needed
+            int limit = length() + 1;
+            if (width <= 0) {
+                return limit;
+            }
+            int start = getStartOffset();
+            Segment text = new Segment();
+            tabBase = 0;
+            for (int window = (int) (width / narrowestCharWidth) + 2; ; window *= 2) {
+                int end = (int) Math.min(limit, (long) from + window);
+                load(text, from, end);
+                int fit = wordWrap
+                        ? Utilities.getBreakLocation(text, metrics, 0f, width, this, start + from)
+                        : Utilities.getTabbedTextOffset(text, metrics, 0f, width, this, start + from, false);
+                if (fit < text.count || end == limit) {
+                    return fit >= text.count ? limit : from + Math.max(1, fit);
+                }
+            }
+        }
+
+        private void load(Segment text, int from, int to) {
+            try {
+                getDocument().getText(getStartOffset() + from, to - from, text);
+            } catch (BadLocationException e) {
+                throw new IllegalStateException("Line view out of step with its document", e);
+            }
+        }
+
+        /**
+         * Gets the length of the line without its newline
+         */
+        private int length() {
+            return Math.max(0, getEndOffset() - getStartOffset() - 1);
+        }
+
+        private void damage(Shape a) {
+            if (reportedRows >= 0 && rowCount() != reportedRows) {
+                checkRows();
+            } else if (a != null) {
+                Rectangle alloc = a.getBounds();
+                getContainer().repaint(alloc.x, alloc.y, alloc.width, alloc.height);
+            }
+        }
+
+        /**
+         * Asks for a new layout if verifying rows changed the height of the line
+         */
+        private void checkRows() {
+            if (reportedRows >= 0 && rowCount() != reportedRows) {
+                reportedRows = -1;
+                preferenceChanged(this, false, true);
+                getContainer().repaint();
+            }
+        }
+
+        private int upperBound(int offset) {
+            int low = 0;
+            int high = rows;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (rowStarts[mid] <= offset) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void removeRows(int from, int to) {
+            System.arraycopy(rowStarts, to, rowStarts, from, rows - to);
+            rows -= to - from;
+        }
+
+        private void insertRow(int index, int start) {
+            if (rows == rowStarts.length) {
+                rowStarts = Arrays.copyOf(rowStarts, rows * 2);
+            }
+            System.arraycopy(rowStarts, index, rowStarts, index + 1, rows - index);
+            rowStarts[index] = start;
+            rows++;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.io.File;
@@ -24,6 +25,7 @@ public class NoteAppGUI extends JFrame {
     // Core components
     private NoteManager noteManager;
     private FileManager fileManager;
+    private EdtMonitor edtMonitor;
     
     // GUI Components
     private JList<Note> noteList;
@@ -40,11 +42,17 @@ public class NoteAppGUI extends JFrame {
     private boolean isModified = false;
     
     public NoteAppGUI() {
+        edtMonitor = EdtMonitor.install(EdtMonitor.DEFAULT_THRESHOLD_MILLIS);
         initializeManagers();
         initializeComponents();
         setupLayout();
         setupEventHandlers();
         setupMenuBar();
+        if (getJMenuBar() == null) {
+            setJMenuBar(new JMenuBar());
+        }
+        getJMenuBar().add(createToolsMenu());
+        getJMenuBar().add(edtMonitor.createMenu(this));
         setupToolBar();
         loadNotes();
         
@@ -55,6 +63,22 @@ public class NoteAppGUI extends JFrame {
         setVisible(true);
     }
     
+    private JMenu createToolsMenu() {
+        JMenu toolsMenu = new JMenu("Tools");
+        toolsMenu.setMnemonic(KeyEvent.VK_T);
+        
+        JMenuItem searchItem = new JMenuItem("Search Notes...");
+        searchItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK));
+        searchItem.addActionListener(e -> new SearchDialog(this, noteManager).setVisible(true));
+        toolsMenu.add(searchItem);
+        
+        JMenuItem duplicatesItem = new JMenuItem("Find Duplicates...");
+        duplicatesItem.addActionListener(e -> new DuplicateReportDialog(this, noteManager).setVisible(true));
+        toolsMenu.add(duplicatesItem);
+        
+        return toolsMenu;
+    }
+    
     private void initializeManagers() {
         noteManager = new NoteManager();
         fileManager = new FileManager();
@@ -72,7 +96,7 @@ public class NoteAppGUI extends JFrame {
         titleField.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 16));
         titleField.setBorder(BorderFactory.createTitledBorder("Title"));
         
-        contentArea = new JTextArea();
+        contentArea = new ChunkedTextArea();
         contentArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 14));
         contentArea.setLineWrap(true);
         contentArea.setWrapStyleWord(true);
@@ -31,7 +31,7 @@ public class NoteDialog extends JDialog {
         titleField = new JTextField(30);
         titleField.setFont(new Font("SansSerif", Font.PLAIN, 14));
         
-        contentArea = new JTextArea(15, 40);
+        contentArea = new ChunkedTextArea(15, 40);
         contentArea.setFont(new Font("SansSerif", Font.PLAIN, 12);
         contentArea.setLineWrap(true);
         contentArea.setWrapStyleWord(true);
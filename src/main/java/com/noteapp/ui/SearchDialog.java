@@ -0,0 +1,132 @@
+package com.noteapp.ui;
+
+import com.noteapp.model.NoteManager;
+import com.noteapp.search.InvertedIndex;
+import com.noteapp.search.RankedSearcher;
+import com.noteapp.search.SearchHit;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Searches the notes by relevance with {@link RankedSearcher} and previews the selected
+ * hit with its matched terms highlighted by {@link SearchHighlighter}. The index is built
+ * when the dialog opens and kept current until it is closed.
+ */
+public class SearchDialog extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(SearchDialog.class.getName());
+    private static final int MAX_RESULTS = 100;
+
+    private final NoteManager noteManager;
+    private final InvertedIndex index;
+    private final RankedSearcher searcher;
+    private final SearchHighlighter highlighter = new SearchHighlighter();
+    private final DefaultListModel<SearchHit> resultModel = new DefaultListModel<>();
+    private JTextField queryField;
+    private JList<SearchHit> resultList;
+    private JTextField titleField;
+    private JTextArea contentArea;
+    private JLabel summaryLabel;
+
+    public SearchDialog(Frame parent, NoteManager noteManager) {
+        super(parent, "Search Notes", true);
+        this.noteManager = noteManager;
+        this.index = InvertedIndex.attach(noteManager);
+        this.searcher = new RankedSearcher(index);
+        initializeComponents();
+        layoutComponents();
+        setupEventHandlers();
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setSize(800, 550);
+        setLocationRelativeTo(parent);
+    }
+
+    @Override
+    public void dispose() {
+        noteManager.removeChangeListener(index);
+        super.dispose();
+    }
+
+    private void initializeComponents() {
+        queryField = new JTextField(30);
+        resultList = new JList<>(resultModel);
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        titleField = new JTextField();
+        titleField.setEditable(false);
+        titleField.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 16));
+        contentArea = new JTextArea();
+        contentArea.setEditable(false);
+        contentArea.setLineWrap(true);
+        contentArea.setWrapStyleWord(true);
+        contentArea.setBorder(new EmptyBorder(10, 10, 10, 10));
+        summaryLabel = new JLabel();
+    }
+
+    private void layoutComponents() {
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        topPanel.add(new JLabel("Search:"));
+        topPanel.add(queryField);
+        topPanel.add(summaryLabel);
+
+        JPanel previewPanel = new JPanel(new BorderLayout());
+        previewPanel.add(titleField, BorderLayout.NORTH);
+        previewPanel.add(new JScrollPane(contentArea), BorderLayout.CENTER);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(resultList), previewPanel);
+        splitPane.setResizeWeight(0.35);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(closeButton);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void setupEventHandlers() {
+        queryField.addActionListener(e -> search());
+        resultList.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showHit(resultList.getSelectedValue());
+            }
+        });
+    }
+
+    private void search() {
+        long start = System.nanoTime();
+        List<SearchHit> hits = searcher.search(queryField.getText(), MAX_RESULTS);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.fine(() -> String.format("Ranked %d hits in %d ms", hits.size(), millis));
+        resultModel.clear();
+        for (SearchHit hit : hits) {
+            resultModel.addElement(hit);
+        }
+        summaryLabel.setText(String.format("%d results", hits.size()));
+        if (!hits.isEmpty()) {
+            resultList.setSelectedIndex(0);
+        } else {
+            showHit(null);
+        }
+    }
+
+    private void showHit(SearchHit hit) {
+        if (hit == null) {
+            titleField.setText("");
+            contentArea.setText("");
+            return;
+        }
+        titleField.setText(hit.getNote().getTitle());
+        contentArea.setText(hit.getNote().getContent());
+        highlighter.highlightTitle(titleField, hit);
+        highlighter.highlightContent(contentArea, hit);
+    }
+}
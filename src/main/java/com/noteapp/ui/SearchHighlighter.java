@@ -0,0 +1,88 @@
+package com.noteapp.ui;
+
+import com.noteapp.search.SearchHit;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
+import javax.swing.text.JTextComponent;
+import java.awt.Color;
+import java.util.logging.Logger;
+
+/**
+ * Highlights ranked search matches in the editor using the offsets precomputed by the
+ * index, so showing a hit never re-scans the note text.
+ */
+public class SearchHighlighter {
+    private static final Logger LOGGER = Logger.getLogger(SearchHighlighter.class.getName());
+    private static final Color MATCH_COLOR = new Color(255, 230, 120);
+
+    private final Highlighter.HighlightPainter painter;
+
+    /**
+     * Creates a highlighter that marks matches in the default color
+     */
+    public SearchHighlighter() {
+        this(MATCH_COLOR);
+    }
+
+    /**
+     * Creates a highlighter
+     * @param color The background color of matches
+     */
+    public SearchHighlighter(Color color) {
+        this.painter = new DefaultHighlighter.DefaultHighlightPainter(color);
+    }
+
+    /**
+     * Highlights the title matches of a hit
+     * @param titleField The component showing the hit's title
+     * @param hit The search hit
+     */
+    public void highlightTitle(JTextComponent titleField, SearchHit hit) {
+        apply(titleField, hit.getTitleMatches());
+    }
+
+    /**
+     * Highlights the content matches of a hit and scrolls to the first one
+     * @param contentArea The component showing the hit's content
+     * @param hit The search hit
+     */
+    public void highlightContent(JTextComponent contentArea, SearchHit hit) {
+        int[] matches = hit.getContentMatches();
+        apply(contentArea, matches);
+        if (matches.length > 0) {
+            contentArea.setCaretPosition(Math.min(matches[0], contentArea.getDocument().getLength()));
+        }
+    }
+
+    /**
+     * Removes highlights added by this highlighter
+     * @param component The component to clear
+     */
+    public void clear(JTextComponent component) {
+        Highlighter highlighter = component.getHighlighter();
+        for (Highlighter.Highlight highlight : highlighter.getHighlights()) {
+            if (highlight.getPainter() == painter) {
+                highlighter.removeHighlight(highlight);
+            }
+        }
+    }
+
+    private void apply(JTextComponent component, int[] ranges) {
+        clear(component);
+        Highlighter highlighter = component.getHighlighter();
+        int length = component.getDocument().getLength();
+        for (int i = 0; i + 1 < ranges.length; i += 2) {
+            // The text may have been edited since the hit was produced
+            if (ranges[i + 1] > length) {
+                break;
+            }
+            try {
+                highlighter.addHighlight(ranges[i], ranges[i + 1], painter);
+            } catch (BadLocationException e) {
+                LOGGER.warning("Skipping stale highlight at " + ranges[i] + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.noteapp.ui;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An event that held the Event Dispatch Thread for longer than the {@link EdtMonitor}
+ * threshold, with the stacks of the thread sampled while it ran
+ */
+public class SlowEvent {
+    private static final String[] FRAMEWORK_PACKAGES = {"java.", "javax.", "sun.", "jdk.", "com.sun."};
+
+    private final String handler;
+    private final LocalDateTime time;
+    private final double millis;
+    private final List<StackTraceElement[]> samples;
+
+    SlowEvent(String handler, LocalDateTime time, double millis, List<StackTraceElement[]> samples) {
+        this.handler = handler;
+        this.time = time;
+        this.millis = millis;
+        this.samples = Collections.unmodifiableList(new ArrayList<>(samples));
+    }
+
+    /**
+     * Gets the handler the event was dispatched to
+     * @return The handler description, as in the latency histograms
+     */
+    public String getHandler() {
+        return handler;
+    }
+
+    /**
+     * Gets when the event was dispatched
+     * @return The dispatch time
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Gets how long the event held the thread, excluding events dispatched by nested event loops
+     * @return The duration in milliseconds
+     */
+    public double getMillis() {
+        return millis;
+    }
+
+    /**
+     * Gets the stacks sampled after the threshold passed, one per threshold interval
+     * @return The samples, oldest first; empty if the event ended before the first one
+     */
+    public List<StackTraceElement[]> getSamples() {
+        return samples;
+    }
+
+    /**
+     * Finds the application frame the thread was in, the innermost one outside the JDK
+     * in the first sample
+     * @return The frame, or null if there are no samples or none outside the JDK
+     */
+    public StackTraceElement getCulprit() {
+        if (samples.isEmpty()) {
+            return null;
+        }
+        for (StackTraceElement frame : samples.get(0)) {
+            if (!isFramework(frame.getClassName())) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isFramework(String className) {
+        if (className.equals(EdtMonitor.class.getName()) || className.startsWith(EdtMonitor.class.getName() + "$")) {
+            return true;
+        }
+        for (String prefix : FRAMEWORK_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StackTraceElement culprit = getCulprit();
+        return String.format("%s: %.0f ms in %s%s", time, millis, handler, culprit == null ? "" : " at " + culprit);
+    }
+}
@@ -0,0 +1,86 @@
+package com.noteapp.utils;
+
+/**
+ * Count-Min sketch of string frequencies in fixed memory. Each string is counted in one
+ * cell of every row, and its estimate is the smallest of those cells, so an estimate is
+ * never below the true count and exceeds it by more than {@code e * total / width} with
+ * probability at most {@code e^-depth}. Counts may be decremented as long as no string's
+ * true count goes below zero, which keeps that bound.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final long[] cells;
+    private long total;
+
+    /**
+     * Creates an empty sketch
+     * @param depth The number of rows; more rows make a bad estimate less likely
+     * @param width The cells per row, rounded up to a power of two; the error shrinks with width
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || width > 1 << 30) {
+            throw new IllegalArgumentException("Depth and width must be positive, width at most 2^30");
+        }
+        int cellsPerRow = Integer.highestOneBit(width) == width ? width : Integer.highestOneBit(width) << 1;
+        this.depth = depth;
+        this.mask = cellsPerRow - 1;
+        this.cells = new long[depth * cellsPerRow];
+    }
+
+    /**
+     * Adds to the count of a string
+     * @param item The string
+     * @param delta The amount to add; negative to remove earlier additions
+     */
+    public void add(String item, long delta) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int width = mask + 1;
+        for (int row = 0; row < depth; row++) {
+            cells[row * width + ((h1 + row * h2) & mask)] += delta;
+        }
+        total += delta;
+    }
+
+    /**
+     * Estimates the count of a string
+     * @param item The string
+     * @return An estimate no lower than the true count
+     */
+    public long estimate(String item) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int width = mask + 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, cells[row * width + ((h1 + row * h2) & mask)]);
+        }
+        return min;
+    }
+
+    /**
+     * Gets the sum of all counts
+     * @return The total
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    private static long hash(String item) {
+        // FNV-1a over the characters, then a 64-bit finalizer to spread the bits
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            h = (h ^ item.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE53A87CDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
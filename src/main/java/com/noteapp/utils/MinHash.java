@@ -0,0 +1,160 @@
+package com.noteapp.utils;
+
+/**
+ * MinHash signatures of text over word shingles, for estimating the Jaccard similarity of
+ * two texts without comparing them. A signature is {@link #SIZE} 16-bit values kept in a
+ * caller-supplied array, so a large number of signatures can share one flat array.
+ *
+ * <p>Signatures use one-permutation hashing: each shingle is hashed once and lands in one
+ * of {@link #SIZE} bins, which keeps the minimum of its bin, instead of being hashed
+ * {@link #SIZE} times. Bins left empty by short texts borrow the value of another bin
+ * chosen by a fixed probe sequence, the same for every text, so the fraction of equal
+ * positions in two signatures still estimates their similarity.
+ */
+public final class MinHash {
+
+    /** Number of values in a signature */
+    public static final int SIZE = 128;
+
+    /** Number of consecutive words in a shingle */
+    public static final int SHINGLE = 3;
+
+    private static final int BIN_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SIZE);
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private MinHash() {
+    }
+
+    /**
+     * Computes the signature of a text. Words are runs of letters and digits, compared
+     * case-insensitively; texts shorter than a shingle are treated as one shingle.
+     * @param text The text
+     * @param signatures The array to write to
+     * @param offset The index of the signature's first value
+     * @return false if the text has no words, in which case nothing is written
+     */
+    public static boolean signature(String text, short[] signatures, int offset) {
+        long[] words = new long[SHINGLE];
+        int[] mins = new int[SIZE];
+        boolean[] filled = new boolean[SIZE];
+        int count = 0;
+        int length = text == null ? 0 : text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            long word = 0;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                word = word * 31 + Character.toLowerCase(text.charAt(i));
+                i++;
+            }
+            words[count % SHINGLE] = mix(word);
+            count++;
+            if (count >= SHINGLE) {
+                add(shingle(words, count), mins, filled);
+            }
+        }
+        if (count == 0) {
+            return false;
+        }
+        if (count < SHINGLE) {
+            add(shingle(words, count), mins, filled);
+        }
+
+        for (int bin = 0; bin < SIZE; bin++) {
+            int value = mins[bin];
+            if (!filled[bin]) {
+                int attempt = 1;
+                while (!filled[probe(bin, attempt)]) {
+                    attempt++;
+                }
+                value = mins[probe(bin, attempt)];
+            }
+            // Keep the high bits: equal minima stay equal, unequal ones collide rarely
+            signatures[offset + bin] = (short) (value >>> 16);
+        }
+        return true;
+    }
+
+    /**
+     * Computes the signature of a text in a new array
+     * @param text The text
+     * @return The signature, or null if the text has no words
+     */
+    public static short[] signature(String text) {
+        short[] signature = new short[SIZE];
+        return signature(text, signature, 0) ? signature : null;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the shingle sets behind two signatures
+     * @param a The array holding the first signature
+     * @param aOffset The index of its first value
+     * @param b The array holding the second signature
+     * @param bOffset The index of its first value
+     * @return The fraction of equal values, between 0 and 1
+     */
+    public static double similarity(short[] a, int aOffset, short[] b, int bOffset) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[aOffset + i] == b[bOffset + i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIZE;
+    }
+
+    /**
+     * Hashes a run of signature values, such as one locality-sensitive hashing band
+     * @param signatures The array holding the signature
+     * @param from The index of the first value
+     * @param to The index after the last value
+     * @return The hash
+     */
+    public static long hash(short[] signatures, int from, int to) {
+        long h = to - from;
+        for (int i = from; i < to; i++) {
+            h = mix(h * GOLDEN + signatures[i]);
+        }
+        return h;
+    }
+
+    private static long shingle(long[] words, int count) {
+        long h = 0;
+        int size = Math.min(count, SHINGLE);
+        // Combine in reading order, so that "a b c" and "c b a" differ
+        for (int k = size; k >= 1; k--) {
+            h = h * GOLDEN + words[(count - k) % SHINGLE];
+        }
+        return mix(h);
+    }
+
+    private static void add(long hash, int[] mins, boolean[] filled) {
+        int bin = (int) (hash >>> BIN_SHIFT);
+        int value = (int) hash ^ Integer.MIN_VALUE;
+        if (!filled[bin] || value < mins[bin]) {
+            mins[bin] = value;
+            filled[bin] = true;
+        }
+    }
+
+    private static int probe(int bin, int attempt) {
+        return (int) (mix(bin * GOLDEN + attempt) >>> BIN_SHIFT);
+    }
+
+    /**
+     * The finalizer of MurmurHash3
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE53A87CDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
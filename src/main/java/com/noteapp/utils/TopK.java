@@ -0,0 +1,107 @@
+package com.noteapp.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded-heap selection of the first k elements of a sequence under a comparator.
+ * Runs in O(n log k) time and O(k) space, so selecting a page of results never
+ * sorts or copies the whole input.
+ *
+ * @param <T> The element type
+ */
+public class TopK<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * Creates a selector
+     * @param k The number of elements to keep
+     * @param order The order in which elements should be returned; the first k in this order are kept
+     */
+    public TopK(int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative");
+        }
+        this.k = k;
+        this.order = order;
+        // Max-heap on the requested order: the root is the worst element kept so far. It starts
+        // small and grows with the input, so a large k over a short input allocates little.
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, INITIAL_CAPACITY)), Collections.reverseOrder(order));
+    }
+
+    /**
+     * Offers an element to the selector
+     * @param element The element to consider
+     */
+    public void offer(T element) {
+        if (k == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (order.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    /**
+     * Checks whether an element would be kept if offered now. Lets callers
+     * skip expensive work for elements that cannot make the cut.
+     * @param element The element to test
+     * @return true if the element would be kept
+     */
+    public boolean accepts(T element) {
+        return k > 0 && (heap.size() < k || order.compare(element, heap.peek()) < 0);
+    }
+
+    /**
+     * Gets the number of elements currently kept
+     * @return The current size, at most k
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Gets the worst element currently kept
+     * @return The k-th element so far, or null if fewer than k have been offered
+     */
+    public T threshold() {
+        return heap.size() < k ? null : heap.peek();
+    }
+
+    /**
+     * Gets the kept elements in the requested order
+     * @return A new list of at most k elements
+     */
+    public List<T> toList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * Selects the first k elements of an iterable
+     * @param elements The elements to select from
+     * @param k The number of elements to keep
+     * @param order The result order
+     * @param <T> The element type
+     * @return The first k elements in order
+     */
+    public static <T> List<T> select(Iterable<? extends T> elements, int k, Comparator<? super T> order) {
+        TopK<T> topK = new TopK<>(k, order);
+        for (T element : elements) {
+            topK.offer(element);
+        }
+        return topK.toList();
+    }
+}
@@ -0,0 +1,389 @@
+package com.noteapp;
+
+import com.noteapp.model.CorpusGenerator;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+import com.noteapp.storage.FileStorage;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Long-running soak test of {@link NoteManager} and {@link FileStorage} under a mixed
+ * create, update, delete, search and save workload on a {@link CorpusGenerator} corpus.
+ * Creates and deletes are balanced so that the corpus stays near its starting size,
+ * which makes growth in heap or file size a leak rather than more notes.
+ *
+ * <p>Every sample interval it records throughput, latency percentiles per operation,
+ * heap in use after a collection and the size of the notes file, printed as CSV. The run
+ * stops and fails as soon as a threshold is exceeded after the warm-up. Not a unit test;
+ * run manually:
+ *
+ * <pre>
+ *   java -Xmx2g -cp target/classes:target/test-classes:... com.noteapp.SoakHarness [minutes] [notes] [seed]
+ * </pre>
+ *
+ * The exit status is 1 if a threshold was exceeded.
+ */
+public class SoakHarness {
+
+    /**
+     * Operations of the workload
+     */
+    public enum Operation {
+        CREATE, UPDATE, DELETE, SEARCH, SAVE
+    }
+
+    /**
+     * What to run and the limits it must stay within
+     */
+    public static class Config {
+        public Duration duration = Duration.ofHours(4);
+        public Duration sampleInterval = Duration.ofSeconds(30);
+        /** Samples before this are recorded but not checked against the limits */
+        public Duration warmup = Duration.ofMinutes(2);
+        public int notes = 10_000;
+        public long seed = 1;
+        public double outlierRate = CorpusGenerator.DEFAULT_OUTLIER_RATE;
+        /** Relative frequencies of the operations */
+        public Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        /** Highest p99 latency per operation in any sample, in milliseconds */
+        public Map<Operation, Double> maxP99Millis = new EnumMap<>(Operation.class);
+        /** Lowest throughput in any sample, in operations per second */
+        public double minThroughput = 50;
+        /** Largest growth of heap in use over the first checked sample, in megabytes */
+        public double maxHeapGrowthMb = 256;
+        /** Largest notes file size as a multiple of the characters in the corpus */
+        public double maxFileBytesPerChar = 3;
+
+        public Config() {
+            mix.put(Operation.CREATE, 15);
+            mix.put(Operation.UPDATE, 40);
+            mix.put(Operation.DELETE, 15);
+            mix.put(Operation.SEARCH, 29);
+            mix.put(Operation.SAVE, 1);
+            maxP99Millis.put(Operation.CREATE, 50.0);
+            maxP99Millis.put(Operation.UPDATE, 50.0);
+            maxP99Millis.put(Operation.DELETE, 50.0);
+            maxP99Millis.put(Operation.SEARCH, 1_000.0);
+            maxP99Millis.put(Operation.SAVE, 5_000.0);
+        }
+    }
+
+    /**
+     * Measurements over one sample interval
+     */
+    public static class Sample {
+        public final double elapsedSeconds;
+        public final int notes;
+        public final double throughput;
+        /** Latency percentiles per operation: p50, p99 and max, in milliseconds */
+        public final Map<Operation, double[]> latencies;
+        public final double heapMb;
+        public final long fileBytes;
+        public final long corpusChars;
+
+        Sample(double elapsedSeconds, int notes, double throughput, Map<Operation, double[]> latencies,
+               double heapMb, long fileBytes, long corpusChars) {
+            this.elapsedSeconds = elapsedSeconds;
+            this.notes = notes;
+            this.throughput = throughput;
+            this.latencies = latencies;
+            this.heapMb = heapMb;
+            this.fileBytes = fileBytes;
+            this.corpusChars = corpusChars;
+        }
+
+        static String csvHeader() {
+            StringBuilder header = new StringBuilder("seconds,notes,ops_per_s,heap_mb,file_bytes,corpus_chars");
+            for (Operation operation : Operation.values()) {
+                String name = operation.name().toLowerCase(Locale.ROOT);
+                header.append(',').append(name).append("_p50_ms,").append(name).append("_p99_ms,")
+                        .append(name).append("_max_ms");
+            }
+            return header.toString();
+        }
+
+        String toCsv() {
+            StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%.0f,%d,%.1f,%.1f,%d,%d",
+                    elapsedSeconds, notes, throughput, heapMb, fileBytes, corpusChars));
+            for (Operation operation : Operation.values()) {
+                double[] latency = latencies.get(operation);
+                for (int i = 0; i < 3; i++) {
+                    row.append(',').append(latency == null ? "" : String.format(Locale.ROOT, "%.3f", latency[i]));
+                }
+            }
+            return row.toString();
+        }
+    }
+
+    /**
+     * The samples of a run and the first threshold it exceeded
+     */
+    public static class Report {
+        public final List<Sample> samples = new ArrayList<>();
+        public final long operations;
+        public final String failure;
+
+        Report(List<Sample> samples, long operations, String failure) {
+            this.samples.addAll(samples);
+            this.operations = operations;
+            this.failure = failure;
+        }
+
+        public boolean passed() {
+            return failure == null;
+        }
+    }
+
+    private final Config config;
+    private final Path directory;
+    private final PrintStream out;
+    private final Random random;
+    private final CorpusGenerator corpus;
+
+    /**
+     * Creates a harness
+     * @param config The workload and limits
+     * @param directory The directory for the notes file
+     * @param out Where samples are printed as CSV, or null for none
+     */
+    public SoakHarness(Config config, Path directory, PrintStream out) {
+        this.config = config;
+        this.directory = directory;
+        this.out = out;
+        this.random = new Random(config.seed);
+        this.corpus = new CorpusGenerator(config.seed, config.outlierRate);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Config config = new Config();
+        if (args.length > 0) {
+            config.duration = Duration.ofMinutes(Long.parseLong(args[0]));
+        }
+        if (args.length > 1) {
+            config.notes = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            config.seed = Long.parseLong(args[2]);
+        }
+        // One INFO line per save would bury the samples
+        Logger.getLogger(FileStorage.class.getName()).setLevel(Level.WARNING);
+        Path directory = Files.createTempDirectory("soak");
+        Report report = new SoakHarness(config, directory, System.out).run();
+        System.out.printf("%,d operations in %d samples; notes file in %s%n",
+                report.operations, report.samples.size(), directory);
+        if (!report.passed()) {
+            System.out.println("FAILED: " + report.failure);
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+
+    /**
+     * Runs the workload for the configured duration, or until a threshold is exceeded
+     * @return The report
+     */
+    public Report run() {
+        FileStorage storage = new FileStorage(directory.toString());
+        NoteManager noteManager = new NoteManager();
+        // Prefixed IDs, so that they never collide with the IDs of created notes
+        List<Note> initial = new ArrayList<>(config.notes);
+        for (int i = 0; i < config.notes; i++) {
+            initial.add(corpus.note("soak-" + i));
+        }
+        noteManager.loadNotes(initial);
+        storage.saveNotes(noteManager.getAllNotes());
+
+        Operation[] schedule = schedule();
+        Map<Operation, LatencyLog> logs = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            logs.put(operation, new LatencyLog());
+        }
+        List<Sample> samples = new ArrayList<>();
+        if (out != null) {
+            out.println(Sample.csvHeader());
+        }
+        long start = System.nanoTime();
+        long end = start + config.duration.toNanos();
+        long nextSample = start + config.sampleInterval.toNanos();
+        long intervalStart = start;
+        long intervalOps = 0;
+        long operations = 0;
+        double baselineHeap = -1;
+        String failure = null;
+
+        while (failure == null && System.nanoTime() < end) {
+            Operation operation = balance(schedule[random.nextInt(schedule.length)], noteManager.getNotesView().size());
+            long t0 = System.nanoTime();
+            perform(operation, noteManager, storage);
+            long t1 = System.nanoTime();
+            logs.get(operation).add(t1 - t0);
+            intervalOps++;
+            operations++;
+
+            if (t1 >= nextSample) {
+                Sample sample = sample(t1 - start, noteManager, intervalOps / ((t1 - intervalStart) / 1e9), logs);
+                samples.add(sample);
+                if (out != null) {
+                    out.println(sample.toCsv());
+                }
+                if (t1 - start >= config.warmup.toNanos()) {
+                    if (baselineHeap < 0) {
+                        baselineHeap = sample.heapMb;
+                    }
+                    failure = check(sample, baselineHeap);
+                }
+                intervalStart = System.nanoTime();
+                intervalOps = 0;
+                nextSample = intervalStart + config.sampleInterval.toNanos();
+            }
+        }
+        return new Report(samples, operations, failure);
+    }
+
+    private void perform(Operation operation, NoteManager noteManager, FileStorage storage) {
+        List<Note> notes = noteManager.getNotesView();
+        switch (operation) {
+            case CREATE:
+                noteManager.createNote(corpus.title(), corpus.content());
+                break;
+            case UPDATE: {
+                Note note = notes.get(random.nextInt(notes.size()));
+                String title = random.nextInt(10) == 0 ? corpus.title() : note.getTitle();
+                noteManager.commit(new NoteTransaction().update(note.getId(), title, corpus.edit(note.getContent())));
+                break;
+            }
+            case DELETE:
+                noteManager.commit(new NoteTransaction().delete(notes.get(random.nextInt(notes.size())).getId()));
+                break;
+            case SEARCH:
+                noteManager.searchNotes(corpus.query());
+                break;
+            default:
+                if (!storage.saveNotes(noteManager.getAllNotes())) {
+                    throw new IllegalStateException("Saving the notes failed");
+                }
+        }
+    }
+
+    /**
+     * Swaps creates and deletes to keep the corpus within 10% of its starting size
+     */
+    private Operation balance(Operation operation, int size) {
+        if (operation == Operation.CREATE && size > config.notes * 1.1) {
+            return Operation.DELETE;
+        }
+        if ((operation == Operation.DELETE || operation == Operation.UPDATE) && size < Math.max(1, config.notes * 0.9)) {
+            return Operation.CREATE;
+        }
+        return operation;
+    }
+
+    private Operation[] schedule() {
+        List<Operation> schedule = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : config.mix.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Operation weights cannot be negative");
+            }
+            schedule.addAll(Collections.nCopies(entry.getValue(), entry.getKey()));
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        return schedule.toArray(new Operation[0]);
+    }
+
+    private Sample sample(long elapsedNanos, NoteManager noteManager, double throughput, Map<Operation, LatencyLog> logs) {
+        Map<Operation, double[]> latencies = new EnumMap<>(Operation.class);
+        for (Map.Entry<Operation, LatencyLog> entry : logs.entrySet()) {
+            if (entry.getValue().size > 0) {
+                latencies.put(entry.getKey(), entry.getValue().percentiles());
+            }
+            entry.getValue().clear();
+        }
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        double heapMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024);
+        long fileBytes;
+        try {
+            fileBytes = Files.size(directory.resolve("notes.json"));
+        } catch (IOException e) {
+            fileBytes = -1;
+        }
+        long chars = 0;
+        for (Note note : noteManager.getNotesView()) {
+            chars += note.getTitle().length() + note.getContent().length();
+        }
+        return new Sample(elapsedNanos / 1e9, noteManager.getNotesView().size(), throughput, latencies,
+                heapMb, fileBytes, chars);
+    }
+
+    /**
+     * Checks a sample against the limits
+     * @return A description of the first limit exceeded, or null
+     */
+    private String check(Sample sample, double baselineHeap) {
+        String at = String.format(" at %.0f s", sample.elapsedSeconds);
+        if (sample.throughput < config.minThroughput) {
+            return String.format("throughput %.1f ops/s below %.1f%s", sample.throughput, config.minThroughput, at);
+        }
+        for (Map.Entry<Operation, double[]> entry : sample.latencies.entrySet()) {
+            Double limit = config.maxP99Millis.get(entry.getKey());
+            if (limit != null && entry.getValue()[1] > limit) {
+                return String.format("%s p99 %.1f ms above %.1f ms%s", entry.getKey(), entry.getValue()[1], limit, at);
+            }
+        }
+        if (sample.heapMb - baselineHeap > config.maxHeapGrowthMb) {
+            return String.format("heap grew %.1f MB, more than %.1f MB%s", sample.heapMb - baselineHeap,
+                    config.maxHeapGrowthMb, at);
+        }
+        if (sample.fileBytes > config.maxFileBytesPerChar * Math.max(1, sample.corpusChars)) {
+            return String.format("notes file is %,d bytes for %,d characters%s", sample.fileBytes, sample.corpusChars, at);
+        }
+        return null;
+    }
+
+    /**
+     * Latencies of one operation over a sample interval
+     */
+    private static final class LatencyLog {
+        private long[] nanos = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        double[] percentiles() {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new double[] {
+                sorted[(size - 1) / 2] / 1e6,
+                sorted[Math.max(0, (int) Math.ceil(size * 0.99) - 1)] / 1e6,
+                sorted[size - 1] / 1e6
+            };
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
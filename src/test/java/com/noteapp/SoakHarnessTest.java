@@ -0,0 +1,80 @@
+package com.noteapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+class SoakHarnessTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testShortRunPasses() {
+        SoakHarness.Config config = shortRun();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        SoakHarness.Report report = new SoakHarness(config, tempDir, new PrintStream(csv, true)).run();
+
+        assertTrue(report.passed(), report.failure);
+        assertTrue(report.samples.size() >= 2);
+        assertTrue(report.operations > 0);
+        SoakHarness.Sample last = report.samples.get(report.samples.size() - 1);
+        assertTrue(last.notes >= 180 && last.notes <= 220, "notes " + last.notes);
+        assertTrue(last.fileBytes > 0);
+        String[] lines = new String(csv.toByteArray(), StandardCharsets.UTF_8).split("\\R");
+        assertEquals(report.samples.size() + 1, lines.length);
+        assertEquals(lines[0].split(",").length, lines[1].split(",", -1).length);
+    }
+
+    @Test
+    void testCsvIgnoresDefaultLocale() {
+        Map<SoakHarness.Operation, double[]> latencies = new EnumMap<>(SoakHarness.Operation.class);
+        latencies.put(SoakHarness.Operation.SEARCH, new double[] {1.25, 2.5, 12.5});
+        SoakHarness.Sample sample = new SoakHarness.Sample(3, 200, 1234.5, latencies, 12.5, 4096, 100_000);
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            String row = sample.toCsv();
+
+            assertTrue(row.startsWith("3,200,1234.5,12.5,4096,100000,"), row);
+            assertTrue(row.contains("1.250,2.500,12.500"), row);
+            assertEquals(SoakHarness.Sample.csvHeader().split(",").length, row.split(",", -1).length);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void testStopsAtFirstViolation() {
+        SoakHarness.Config config = shortRun();
+        config.duration = Duration.ofSeconds(30);
+        config.minThroughput = Double.MAX_VALUE;
+
+        SoakHarness.Report report = new SoakHarness(config, tempDir, null).run();
+
+        assertFalse(report.passed());
+        assertTrue(report.failure.startsWith("throughput"), report.failure);
+        assertEquals(1, report.samples.size());
+    }
+
+    private static SoakHarness.Config shortRun() {
+        SoakHarness.Config config = new SoakHarness.Config();
+        config.duration = Duration.ofMillis(1500);
+        config.sampleInterval = Duration.ofMillis(400);
+        config.warmup = Duration.ZERO;
+        config.notes = 200;
+        config.outlierRate = 0;
+        config.minThroughput = 1;
+        return config;
+    }
+}
@@ -0,0 +1,286 @@
+package com.noteapp.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of realistic note corpora for scale tests, soak runs and
+ * benchmarks. The same seed always yields the same notes.
+ *
+ * <ul>
+ *   <li>Words follow a Zipf distribution over a synthetic vocabulary, so a few words are
+ *       very common and most are rare, as in real text.</li>
+ *   <li>Title and content lengths are log-normal: titles have a median of about four
+ *       words, content about 800 characters with a long tail.</li>
+ *   <li>Content has paragraphs, bullet lists, code blocks and {@code [[Title]]} links.</li>
+ *   <li>About one word in twenty is non-Latin: Cyrillic, Greek, CJK, Hangul, Arabic,
+ *       Hebrew, combining accents and emoji outside the Basic Multilingual Plane.</li>
+ *   <li>A small share of notes are huge outliers of one to four megabytes.</li>
+ * </ul>
+ */
+public class CorpusGenerator {
+    /** Share of notes whose content is a huge outlier */
+    public static final double DEFAULT_OUTLIER_RATE = 0.0005;
+    static final int VOCABULARY = 5_000;
+    static final int MIN_OUTLIER_LENGTH = 1 << 20;
+    static final int MAX_OUTLIER_LENGTH = 4 << 20;
+    private static final double ZIPF_EXPONENT = 1.07;
+    private static final double CONTENT_MEDIAN = 800;
+    private static final double CONTENT_SIGMA = 1.0;
+    private static final String[] SYLLABLES = {
+        "ka", "lo", "mi", "ne", "ra", "to", "su", "ve", "di", "po", "an", "el", "is", "or",
+        "un", "ber", "con", "dis", "ex", "pre", "tion", "ment", "ing", "ly", "st", "tr"
+    };
+    private static final String[] UNICODE_WORDS = {
+        "\u043f\u0440\u0438\u0432\u0435\u0442", "\u03ba\u03b1\u03bb\u03b7\u03bc\u03ad\u03c1\u03b1",
+        "\u65e5\u672c\u8a9e", "\u4e2d\u6587\u7b14\u8bb0", "\ud55c\uad6d\uc5b4", "\u0645\u0631\u062d\u0628\u0627",
+        "\u05e9\u05dc\u05d5\u05dd", "na\u00efve", "cafe\u0301", "\u00fcber", "stra\u00dfe",
+        "\uD83C\uDF89", "\uD83D\uDCDD", "\uD83D\uDE80\uD83D\uDD25", "\uD835\uDD38\uD835\uDD39"
+    };
+    private static final String[] CATEGORIES = {
+        "Work", "Personal", "Ideas", "Recipes", "Travel", "Reading", "Projects", "Health",
+        "Finance", "Journal", "Meetings", "Research"
+    };
+
+    private final Random random;
+    private final double outlierRate;
+    private final String[] vocabulary;
+    /** Cumulative Zipf weights of the vocabulary, normalized to end at 1 */
+    private final double[] cumulative;
+    private final List<String> recentTitles = new ArrayList<>();
+    private final LocalDateTime epoch = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    public CorpusGenerator(long seed) {
+        this(seed, DEFAULT_OUTLIER_RATE);
+    }
+
+    /**
+     * Creates a generator
+     * @param seed The seed; equal seeds give equal corpora
+     * @param outlierRate The share of notes with content of one to four megabytes
+     */
+    public CorpusGenerator(long seed, double outlierRate) {
+        if (outlierRate < 0 || outlierRate > 1) {
+            throw new IllegalArgumentException("Outlier rate must be between 0 and 1");
+        }
+        this.random = new Random(seed);
+        this.outlierRate = outlierRate;
+        this.vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 1 + Math.min(4, (int) Math.round(Math.log(i + 2)));
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            vocabulary[i] = word.toString();
+        }
+        this.cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            total += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < VOCABULARY; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    /**
+     * Generates notes with IDs "1" to count, with categories, tags, flags and dates
+     * spread over the last few years
+     * @param count The number of notes
+     * @return The notes
+     */
+    public List<Note> notes(int count) {
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            notes.add(note(String.valueOf(i)));
+        }
+        return notes;
+    }
+
+    /**
+     * Generates one note
+     * @param id The ID of the note
+     * @return The note
+     */
+    public Note note(String id) {
+        LocalDateTime created = epoch.plusSeconds((long) (random.nextDouble() * 3 * 365 * 24 * 3600));
+        LocalDateTime modified = random.nextInt(3) == 0 ? created
+                : created.plusSeconds((long) Math.exp(random.nextDouble() * 17));
+        Note note = new Note(id, title(), content(), created, modified);
+        if (random.nextInt(4) != 0) {
+            note.setCategory(CATEGORIES[zipfIndex(CATEGORIES.length)]);
+        }
+        int tags = random.nextInt(10) < 6 ? 0 : 1 + random.nextInt(4);
+        List<String> tagList = new ArrayList<>();
+        for (int i = 0; i < tags; i++) {
+            tagList.add(word());
+        }
+        note.setTags(tagList);
+        note.setPinned(random.nextInt(50) == 0);
+        note.setArchived(random.nextInt(10) == 0);
+        return note;
+    }
+
+    /**
+     * Generates a title of one to a dozen words, most often about four
+     * @return The title
+     */
+    public String title() {
+        int words = (int) Math.max(1, Math.min(12, Math.round(logNormal(4, 0.5))));
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            String word = word();
+            title.append(i == 0 ? capitalize(word) : word);
+        }
+        String result = title.toString();
+        if (recentTitles.size() == 64) {
+            recentTitles.remove(0);
+        }
+        recentTitles.add(result);
+        return result;
+    }
+
+    /**
+     * Generates content, log-normally sized or, at the outlier rate, of one to four megabytes
+     * @return The content
+     */
+    public String content() {
+        int length;
+        if (random.nextDouble() < outlierRate) {
+            length = MIN_OUTLIER_LENGTH + random.nextInt(MAX_OUTLIER_LENGTH - MIN_OUTLIER_LENGTH);
+        } else {
+            length = (int) Math.min(200_000, logNormal(CONTENT_MEDIAN, CONTENT_SIGMA));
+        }
+        return text(length);
+    }
+
+    /**
+     * Edits content the way people do: appends a paragraph, rewrites one, or cuts one
+     * @param content The content to edit
+     * @return The edited content
+     */
+    public String edit(String content) {
+        int choice = random.nextInt(3);
+        String paragraph = paragraph();
+        if (content.isEmpty() || choice == 0) {
+            return content.isEmpty() ? paragraph : content + "\n\n" + paragraph;
+        }
+        int at = safeCut(content, random.nextInt(content.length()));
+        int end = content.indexOf("\n\n", at);
+        end = end < 0 ? content.length() : end;
+        return content.substring(0, at) + (choice == 1 ? paragraph : "") + content.substring(end);
+    }
+
+    /**
+     * Picks a search query: usually one word, weighted like the text, sometimes two
+     * @return The query
+     */
+    public String query() {
+        return random.nextInt(4) == 0 ? word() + " " + word() : word();
+    }
+
+    /**
+     * Picks a word with the corpus's frequency distribution
+     * @return The word
+     */
+    public String word() {
+        if (random.nextInt(20) == 0) {
+            return UNICODE_WORDS[random.nextInt(UNICODE_WORDS.length)];
+        }
+        return vocabulary[zipfIndex(VOCABULARY)];
+    }
+
+    private String text(int length) {
+        StringBuilder text = new StringBuilder(length + 200);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append("\n\n");
+            }
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                text.append("```\n");
+                for (int line = 1 + random.nextInt(6); line > 0; line--) {
+                    text.append("    ").append(word()).append('(').append(word()).append(");\n");
+                }
+                text.append("```");
+            } else if (kind < 4) {
+                for (int item = 2 + random.nextInt(5); item > 0; item--) {
+                    text.append("- ").append(sentence(2 + random.nextInt(6))).append('\n');
+                }
+            } else {
+                text.append(paragraph());
+            }
+        }
+        return text.substring(0, safeCut(text, length));
+    }
+
+    private String paragraph() {
+        StringBuilder paragraph = new StringBuilder();
+        for (int s = 1 + random.nextInt(6); s > 0; s--) {
+            if (paragraph.length() > 0) {
+                paragraph.append(' ');
+            }
+            paragraph.append(sentence(5 + random.nextInt(16))).append('.');
+            if (!recentTitles.isEmpty() && random.nextInt(25) == 0) {
+                paragraph.append(" See [[").append(recentTitles.get(random.nextInt(recentTitles.size()))).append("]].");
+            }
+        }
+        return paragraph.toString();
+    }
+
+    private String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(random.nextInt(12) == 0 ? ", " : " ");
+            }
+            String word = word();
+            sentence.append(i == 0 ? capitalize(word) : word);
+        }
+        return sentence.toString();
+    }
+
+    private int zipfIndex(int size) {
+        if (size == VOCABULARY) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(VOCABULARY - 1, index < 0 ? -index - 1 : index);
+        }
+        // Short lists: rank r with weight 1/(r+1)
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1.0 / (i + 1);
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < size; i++) {
+            target -= 1.0 / (i + 1);
+            if (target < 0) {
+                return i;
+            }
+        }
+        return size - 1;
+    }
+
+    private double logNormal(double median, double sigma) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+
+    private static String capitalize(String word) {
+        return Character.isLowerCase(word.charAt(0)) ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word;
+    }
+
+    /**
+     * Moves a cut point off the middle of a surrogate pair
+     */
+    private static int safeCut(CharSequence text, int at) {
+        at = Math.min(at, text.length());
+        return at > 0 && at < text.length() && Character.isLowSurrogate(text.charAt(at)) ? at - 1 : at;
+    }
+}
@@ -0,0 +1,93 @@
+package com.noteapp.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class CorpusGeneratorTest {
+
+    @Test
+    void testSameSeedSameCorpus() {
+        List<Note> first = new CorpusGenerator(42).notes(200);
+        List<Note> second = new CorpusGenerator(42).notes(200);
+        List<Note> other = new CorpusGenerator(43).notes(200);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(String.valueOf(i + 1), first.get(i).getId());
+            assertEquals(first.get(i).getTitle(), second.get(i).getTitle());
+            assertEquals(first.get(i).getContent(), second.get(i).getContent());
+            assertEquals(first.get(i).getCreationDate(), second.get(i).getCreationDate());
+            assertEquals(first.get(i).getTags(), second.get(i).getTags());
+        }
+        assertNotEquals(first.get(0).getContent(), other.get(0).getContent());
+    }
+
+    @Test
+    void testDistributions() {
+        CorpusGenerator generator = new CorpusGenerator(7, 0);
+        int[] lengths = new int[2000];
+        int links = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            generator.title();
+            String content = generator.content();
+            lengths[i] = content.length();
+            links += content.contains("[[") ? 1 : 0;
+        }
+        Arrays.sort(lengths);
+        int median = lengths[lengths.length / 2];
+        assertTrue(median > 500 && median < 1200, "median " + median);
+        // Long tail: the largest is many times the median
+        assertTrue(lengths[lengths.length - 1] > 8 * median);
+        assertTrue(links > 0);
+
+        // Zipf: the most common word is far more common than the hundredth
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            counts.merge(generator.word(), 1, Integer::sum);
+        }
+        Integer[] frequencies = counts.values().toArray(new Integer[0]);
+        Arrays.sort(frequencies, (a, b) -> b - a);
+        assertTrue(frequencies[0] > 20 * frequencies[99]);
+    }
+
+    @Test
+    void testUnicodeIsWellFormed() {
+        CorpusGenerator generator = new CorpusGenerator(3, 0);
+        boolean supplementary = false;
+        boolean nonLatin = false;
+        for (int i = 0; i < 300; i++) {
+            String content = generator.content();
+            assertWellFormed(content);
+            assertWellFormed(generator.edit(content));
+            supplementary |= content.codePoints().anyMatch(Character::isSupplementaryCodePoint);
+            nonLatin |= content.codePoints().anyMatch(c -> Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN);
+        }
+        assertTrue(supplementary);
+        assertTrue(nonLatin);
+    }
+
+    @Test
+    void testOutliers() {
+        CorpusGenerator generator = new CorpusGenerator(9, 1);
+        String content = generator.content();
+        assertTrue(content.length() >= CorpusGenerator.MIN_OUTLIER_LENGTH - 1);
+        assertTrue(content.length() <= CorpusGenerator.MAX_OUTLIER_LENGTH);
+        assertThrows(IllegalArgumentException.class, () -> new CorpusGenerator(1, 1.5));
+    }
+
+    private static void assertWellFormed(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c)) {
+                assertTrue(i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1)), "split pair at " + i);
+                i++;
+            } else {
+                assertFalse(Character.isLowSurrogate(c), "lone low surrogate at " + i);
+            }
+        }
+    }
+}
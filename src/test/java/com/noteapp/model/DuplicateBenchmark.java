@@ -0,0 +1,127 @@
+package com.noteapp.model;
+
+import com.noteapp.utils.MinHash;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Reports near-duplicate detection times on a large synthetic corpus in which a known
+ * share of notes are lightly edited copies of others, with the recall of those copies
+ * and the time an all-pairs comparison of signatures would take. Not a unit test; run
+ * manually:
+ *
+ * <pre>
+ *   java -Xmx4g -cp target/classes:target/test-classes com.noteapp.model.DuplicateBenchmark [notes]
+ * </pre>
+ */
+public class DuplicateBenchmark {
+    private static final int VOCABULARY = 20_000;
+    private static final int WORDS = 60;
+    private static final double THRESHOLD = 0.7;
+
+    public static void main(String[] args) {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(11);
+        LocalDateTime now = LocalDateTime.now();
+        List<Note> notes = new ArrayList<>(noteCount);
+        // Copy ID -> original ID
+        Map<String, String> copies = new HashMap<>();
+        String[] contents = new String[noteCount];
+        for (int i = 0; i < noteCount; i++) {
+            String id = String.valueOf(i + 1);
+            if (i > 0 && random.nextInt(50) == 0) {
+                int original = random.nextInt(i);
+                contents[i] = edit(contents[original], 1 + random.nextInt(2), random);
+                copies.put(id, String.valueOf(original + 1));
+            } else {
+                contents[i] = text(random);
+            }
+            notes.add(new Note(id, "Note " + i, contents[i], now, now));
+        }
+        contents = null;
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(notes);
+
+        long t0 = System.nanoTime();
+        List<DuplicateGroup> groups = noteManager.findNearDuplicates(THRESHOLD);
+        long t1 = System.nanoTime();
+        System.out.printf("%,d notes, %,d edited copies; first report (signs every note) %d ms%n",
+                noteCount, copies.size(), (t1 - t0) / 1_000_000);
+
+        for (int round = 0; round < 3; round++) {
+            t0 = System.nanoTime();
+            groups = noteManager.findNearDuplicates(THRESHOLD);
+            t1 = System.nanoTime();
+            System.out.printf("report from maintained signatures      %d ms%n", (t1 - t0) / 1_000_000);
+        }
+
+        // The incremental cost of a create or content update
+        int updates = 100_000;
+        short[] scratch = new short[MinHash.SIZE];
+        t0 = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            MinHash.signature(notes.get(i).getContent(), scratch, 0);
+        }
+        t1 = System.nanoTime();
+        System.out.printf("signing one note on create or update    %.1f us%n", (t1 - t0) / 1e3 / updates);
+
+        Map<String, Integer> groupOf = new HashMap<>();
+        int grouped = 0;
+        for (int g = 0; g < groups.size(); g++) {
+            for (Note note : groups.get(g).getNotes()) {
+                groupOf.put(note.getId(), g);
+                grouped++;
+            }
+        }
+        int found = 0;
+        for (Map.Entry<String, String> copy : copies.entrySet()) {
+            Integer group = groupOf.get(copy.getKey());
+            if (group != null && group.equals(groupOf.get(copy.getValue()))) {
+                found++;
+            }
+        }
+        System.out.printf("%,d groups covering %,d notes; recall of edited copies %.1f%%%n",
+                groups.size(), grouped, 100.0 * found / copies.size());
+
+        // All pairs of signatures, extrapolated from a sample of rows
+        short[] signatures = new short[noteCount * MinHash.SIZE];
+        for (int i = 0; i < noteCount; i++) {
+            MinHash.signature(notes.get(i).getContent(), signatures, i * MinHash.SIZE);
+        }
+        int sample = 200;
+        int matches = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < sample; i++) {
+            for (int j = i + 1; j < noteCount; j++) {
+                if (MinHash.similarity(signatures, i * MinHash.SIZE, signatures, j * MinHash.SIZE) >= THRESHOLD) {
+                    matches++;
+                }
+            }
+        }
+        t1 = System.nanoTime();
+        double perPair = (double) (t1 - t0) / ((long) sample * noteCount);
+        System.out.printf("all-pairs signature comparison: %.1f ns per pair, %.1f hours for every pair (%d matches in sample)%n",
+                perPair, perPair * noteCount * (noteCount - 1.0) / 2 / 3.6e12, matches);
+    }
+
+    private static String text(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < WORDS; i++) {
+            text.append("w").append(random.nextInt(VOCABULARY)).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    private static String edit(String text, int edits, Random random) {
+        String[] words = text.split(" ");
+        for (int i = 0; i < edits; i++) {
+            words[random.nextInt(words.length)] = "edit" + random.nextInt(VOCABULARY);
+        }
+        return String.join(" ", words);
+    }
+}
@@ -0,0 +1,101 @@
+package com.noteapp.model;
+
+import com.noteapp.utils.MinHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class DuplicateDetectorTest {
+
+    private static final String MEETING = "Met with the design team to review the onboarding flow. "
+            + "We agreed to drop the second signup screen, move the newsletter checkbox to settings "
+            + "and ship the new welcome email by the end of the month. Anna will update the mockups "
+            + "and Tom will check the analytics for the current drop-off rate.";
+
+    private NoteManager noteManager;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+    }
+
+    @Test
+    void testFindsEditedCopies() {
+        Note original = noteManager.createNote("Design review", MEETING);
+        Note copy = noteManager.createNote("Design review (copy)", MEETING.replace("Anna", "Maria"));
+        noteManager.createNote("Groceries", "milk, eggs, flour, two lemons and a bag of coffee beans");
+        noteManager.createNote("Unrelated", randomText(new Random(1), 60));
+
+        List<DuplicateGroup> groups = noteManager.findNearDuplicates(0.7);
+
+        assertEquals(1, groups.size());
+        Set<String> ids = new HashSet<>();
+        for (Note note : groups.get(0).getNotes()) {
+            ids.add(note.getId());
+        }
+        assertEquals(Set.of(original.getId(), copy.getId()), ids);
+        assertTrue(groups.get(0).getSimilarity() >= 0.7);
+        assertTrue(groups.get(0).getSimilarity() < 1.0);
+    }
+
+    @Test
+    void testTracksUpdatesAndDeletes() {
+        Note first = noteManager.createNote("First", MEETING);
+        Note second = noteManager.createNote("Second", "Something else entirely, about the garden and the roses.");
+        assertTrue(noteManager.findNearDuplicates(0.8).isEmpty());
+
+        noteManager.updateNote(Integer.parseInt(second.getId()), "Second", MEETING + " Follow up next week.");
+        List<DuplicateGroup> groups = noteManager.findNearDuplicates(0.8);
+        assertEquals(1, groups.size());
+        assertEquals(2, groups.get(0).size());
+
+        Note third = noteManager.createNote("Third", MEETING);
+        assertEquals(3, noteManager.findNearDuplicates(0.8).get(0).size());
+
+        noteManager.removeNote(first.getId());
+        noteManager.removeNote(third.getId());
+        assertTrue(noteManager.findNearDuplicates(0.8).isEmpty());
+    }
+
+    @Test
+    void testIgnoresEmptyNotes() {
+        noteManager.createNote("Empty", "");
+        noteManager.createNote("Also empty", "   ");
+
+        assertTrue(noteManager.findNearDuplicates(0.9).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> noteManager.findNearDuplicates(0));
+        assertThrows(IllegalArgumentException.class, () -> noteManager.findNearDuplicates(1.5));
+    }
+
+    @Test
+    void testSignatureEstimatesJaccardSimilarity() {
+        Random random = new Random(7);
+        String[] words = randomText(random, 400).split(" ");
+        // Replacing every tenth word changes up to three shingles each
+        StringBuilder edited = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            edited.append(i % 10 == 0 ? "changed" + i : words[i]).append(' ');
+        }
+
+        short[] a = MinHash.signature(String.join(" ", words));
+        short[] b = MinHash.signature(edited.toString());
+        double estimate = MinHash.similarity(a, 0, b, 0);
+
+        // 398 shingles each, of which about 120 differ: Jaccard about 0.54
+        assertEquals(0.54, estimate, 0.15);
+        assertEquals(1.0, MinHash.similarity(a, 0, MinHash.signature(String.join(" ", words).toUpperCase()), 0));
+    }
+
+    private static String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append("w").append(random.nextInt(5000)).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,102 @@
+package com.noteapp.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class NoteManagerPagingTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    private NoteManager noteManager;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // Pairs of notes share a timestamp so the id tie-break is exercised
+            notes.add(new Note("id-" + (1000 + i), "Note " + i, "", BASE, BASE.plusMinutes(i / 2)));
+        }
+        noteManager.loadNotes(notes);
+    }
+
+    @Test
+    @DisplayName("Should return the most recently modified notes first")
+    void testGetRecentNotes() {
+        List<Note> recent = noteManager.getRecentNotes(3);
+
+        assertEquals(3, recent.size());
+        assertEquals("id-1098", recent.get(0).getId());
+        assertEquals("id-1099", recent.get(1).getId());
+        assertEquals("id-1096", recent.get(2).getId());
+        assertThrows(UnsupportedOperationException.class, () -> recent.add(new Note()));
+    }
+
+    @Test
+    @DisplayName("Should visit every note exactly once when following cursors")
+    void testCursorPagination() {
+        Set<String> seen = new HashSet<>();
+        List<Note> ordered = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NotePage page = noteManager.getNotesPage(cursor, 7);
+            for (Note note : page.getNotes()) {
+                assertTrue(seen.add(note.getId()), "duplicate " + note.getId());
+                ordered.add(note);
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(100, seen.size());
+        assertEquals(15, pages);
+        assertEquals(noteManager.getRecentNotes(100), ordered);
+    }
+
+    @Test
+    @DisplayName("Should keep cursors valid when notes are added between pages")
+    void testCursorStableUnderInsert() {
+        NotePage first = noteManager.getNotesPage(null, 10);
+        noteManager.createNote("Newest", "inserted after the first page");
+
+        NotePage second = noteManager.getNotesPage(first.getNextCursor(), 10);
+
+        assertEquals("id-1088", second.getNotes().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should return every note in one page for the largest page size")
+    void testMaximumPageSize() {
+        NotePage page = noteManager.getNotesPage(null, Integer.MAX_VALUE);
+
+        assertEquals(100, page.getNotes().size());
+        assertNull(page.getNextCursor());
+        assertEquals(noteManager.getRecentNotes(100), page.getNotes());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and page sizes")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> noteManager.getNotesPage("not a cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> noteManager.getNotesPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> noteManager.getRecentNotes(-1));
+    }
+
+    @Test
+    @DisplayName("Should expose a read-only view of the notes")
+    void testNotesView() {
+        List<Note> view = noteManager.getNotesView();
+
+        assertEquals(100, view.size());
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+    }
+}
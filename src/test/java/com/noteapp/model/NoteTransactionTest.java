@@ -0,0 +1,72 @@
+package com.noteapp.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class NoteTransactionTest {
+
+    private NoteManager noteManager;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+    }
+
+    @Test
+    void testCommitAppliesEveryMutation() {
+        Note first = noteManager.createNote("First", "one");
+        Note second = noteManager.createNote("Second", "two");
+
+        List<Note> created = noteManager.commit(new NoteTransaction()
+                .update(first.getId(), "First", "one, edited")
+                .updateCategory(first.getId(), "Work")
+                .delete(second.getId())
+                .create("Third", "three"));
+
+        assertEquals(1, created.size());
+        assertEquals("Third", created.get(0).getTitle());
+        assertEquals(2, noteManager.getNotesView().size());
+        assertEquals("one, edited", first.getContent());
+        assertEquals("Work", first.getCategory());
+    }
+
+    @Test
+    void testInvalidTransactionChangesNothing() {
+        Note note = noteManager.createNote("Note", "original");
+        List<Note> events = new ArrayList<>();
+        noteManager.addChangeListener(new NoteChangeListener() {
+            @Override
+            public void noteAdded(Note added) {
+                events.add(added);
+            }
+
+            @Override
+            public void noteUpdated(Note previous, Note current) {
+                events.add(current);
+            }
+
+            @Override
+            public void noteRemoved(Note removed) {
+                events.add(removed);
+            }
+        });
+
+        NoteTransaction transaction = new NoteTransaction()
+                .update(note.getId(), "Note", "changed")
+                .delete(note.getId())
+                .update(note.getId(), "Note", "after delete")
+                .create(" ", "blank title");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> noteManager.commit(transaction));
+        assertTrue(e.getMessage().contains("#3"), e.getMessage());
+        assertTrue(e.getMessage().contains("#4"), e.getMessage());
+        assertEquals("original", note.getContent());
+        assertEquals(1, noteManager.getNotesView().size());
+        assertTrue(events.isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package com.noteapp.search;
+
+import com.noteapp.model.CorpusGenerator;
+import com.noteapp.model.NoteManager;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the sequential lowercase-and-contains loop of {@code NoteManager.searchNotes}
+ * with {@link ContentScanner} on pools of one thread up to every core, for a literal
+ * query and a regular expression. Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.search.ContentScanBenchmark [notes]
+ * </pre>
+ */
+public class ContentScanBenchmark {
+    private static final int ROUNDS = 20;
+    private static final String LITERAL = "items.size();";
+    private static final Pattern REGEX = Pattern.compile("\\b[a-z]+\\([a-z]+\\);\\s+}");
+
+    public static void main(String[] args) {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(new CorpusGenerator(1).notes(noteCount));
+        long chars = 0;
+        for (int i = 0; i < noteCount; i++) {
+            chars += noteManager.getNotesView().get(i).getContent().length();
+        }
+        System.out.printf("%d notes, %.1f M characters, %d cores%n",
+                noteCount, chars / 1e6, Runtime.getRuntime().availableProcessors());
+
+        double sequential = time(() -> noteManager.searchNotes(LITERAL));
+        System.out.printf("searchNotes        %8.2f ms%n", sequential);
+
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ContentScanner scanner = ContentScanner.attach(noteManager, pool);
+            scanner.find(LITERAL, ContentScanner.UNLIMITED);
+            double literal = time(() -> scanner.find(LITERAL, ContentScanner.UNLIMITED));
+            double regex = time(() -> scanner.find(REGEX, ContentScanner.UNLIMITED));
+            System.out.printf("%2d threads literal %8.2f ms (%4.1fx)  regex %8.2f ms%n",
+                    threads, literal, sequential / literal, regex);
+            noteManager.removeChangeListener(scanner);
+            pool.shutdown();
+        }
+    }
+
+    private static double time(Runnable search) {
+        for (int i = 0; i < 3; i++) {
+            search.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            search.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+}
@@ -0,0 +1,132 @@
+package com.noteapp.search;
+
+import com.noteapp.model.CorpusGenerator;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+class ContentScannerTest {
+
+    private NoteManager noteManager;
+    private ForkJoinPool pool;
+    private ContentScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+        pool = new ForkJoinPool(4);
+        scanner = ContentScanner.attach(noteManager, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testHorspoolFoldsAsciiCase() {
+        byte[] text = "xx Hello, WORLD; caf\u00e9 hello".getBytes(StandardCharsets.UTF_8);
+        byte[] pattern = ContentScanner.fold("hello".getBytes(StandardCharsets.UTF_8));
+        int[] shift = ContentScanner.shifts(pattern);
+
+        assertEquals(3, ContentScanner.indexOf(text, 0, text.length, pattern, shift));
+        assertEquals(text.length - 5, ContentScanner.indexOf(text, 4, text.length, pattern, shift));
+        assertEquals(-1, ContentScanner.indexOf(text, 4, text.length - 1, pattern, shift));
+        byte[] world = ContentScanner.fold("world;".getBytes(StandardCharsets.UTF_8));
+        assertEquals(10, ContentScanner.indexOf(text, 0, text.length, world, ContentScanner.shifts(world)));
+    }
+
+    @Test
+    void testMatchesLinearSearch() {
+        // Enough text for the scan to split into many chunks
+        noteManager.loadNotes(new CorpusGenerator(11, 0).notes(3000));
+        CorpusGenerator queries = new CorpusGenerator(12, 0);
+        List<String> tried = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            tried.add(queries.query());
+        }
+        tried.add("e,");
+        tried.add("```");
+        tried.add("[[");
+        tried.add("NOT IN ANY NOTE");
+
+        for (String query : tried) {
+            assertEquals(noteManager.searchNotes(query), scanner.find(query, ContentScanner.UNLIMITED), query);
+        }
+    }
+
+    @Test
+    void testUnicodeCaseAndRegex() {
+        Note german = noteManager.createNote("Stra\u00dfe", "\u00dcber alles");
+        Note code = noteManager.createNote("Snippet", "int count = items.size();");
+        Note emoji = noteManager.createNote("Party", "Launch \ud83d\ude80 today");
+
+        assertEquals(List.of(german), scanner.find("\u00fcBER", ContentScanner.UNLIMITED));
+        assertEquals(List.of(emoji), scanner.find("\ud83d\ude80", ContentScanner.UNLIMITED));
+        assertEquals(List.of(code), scanner.find(".SIZE()", ContentScanner.UNLIMITED));
+        assertEquals(List.of(code), scanner.find(Pattern.compile("\\w+\\.size\\(\\)"), ContentScanner.UNLIMITED));
+        assertEquals(List.of(german, emoji), scanner.find(Pattern.compile("^(Stra|Launch)", Pattern.MULTILINE),
+                ContentScanner.UNLIMITED));
+        assertThrows(IllegalArgumentException.class, () -> scanner.find("", 1));
+        assertThrows(IllegalArgumentException.class, () -> scanner.find("x", 0));
+    }
+
+    @Test
+    void testFollowsChanges() {
+        Note first = noteManager.createNote("First", "alpha");
+        Note second = noteManager.createNote("Second", "beta");
+        assertEquals(List.of(first), scanner.find("ALPHA", ContentScanner.UNLIMITED));
+
+        noteManager.commit(new NoteTransaction().update(second.getId(), "Second", "alpha too"));
+        assertEquals(List.of(first, second), scanner.find("alpha", ContentScanner.UNLIMITED));
+
+        noteManager.removeNote(first.getId());
+        assertEquals(List.of(second), scanner.find("alpha", ContentScanner.UNLIMITED));
+    }
+
+    @Test
+    void testLimit() {
+        for (int i = 0; i < 500; i++) {
+            noteManager.createNote("Note " + i, i % 2 == 0 ? "even" : "odd");
+        }
+
+        List<Note> limited = scanner.find("EVEN", 7);
+        assertEquals(7, limited.size());
+        for (Note note : limited) {
+            assertEquals("even", note.getContent());
+        }
+        assertEquals(250, scanner.find("even", ContentScanner.UNLIMITED).size());
+    }
+
+    @Test
+    void testCancelStopsBacktracking() throws InterruptedException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            text.append('a');
+        }
+        noteManager.createNote("Catastrophic", text.toString());
+        noteManager.createNote("Other", "b");
+
+        ContentScanner.Scan scan = scanner.scan(Pattern.compile("(.*a){25}b"), ContentScanner.UNLIMITED);
+        Thread.sleep(200);
+        assertFalse(scan.isDone());
+        scan.cancel();
+        long start = System.nanoTime();
+        List<Note> results = scan.getResults();
+
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertTrue(scan.isCancelled());
+        assertTrue(scan.isDone());
+        assertTrue(results.isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package com.noteapp.search;
+
+import com.noteapp.model.CorpusGenerator;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares reading {@link CorpusStats} with recomputing the same figures by iterating and
+ * tokenizing every note, and reports what keeping the statistics adds to each edit. Not a
+ * unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.search.CorpusStatsBenchmark [notes]
+ * </pre>
+ */
+public class CorpusStatsBenchmark {
+    private static final int EDITS = 2_000;
+
+    public static void main(String[] args) {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        CorpusGenerator corpus = new CorpusGenerator(1);
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(corpus.notes(noteCount));
+
+        long start = System.nanoTime();
+        CorpusStats stats = CorpusStats.attach(noteManager);
+        System.out.printf("Attached to %d notes in %d ms%n", noteCount, (System.nanoTime() - start) / 1_000_000);
+
+        start = System.nanoTime();
+        int reads = 1_000;
+        long sink = 0;
+        for (int i = 0; i < reads; i++) {
+            sink += stats.getTotalWords() + stats.getCreatedPerDay(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)).size()
+                    + stats.getTopTerms(20).size() + stats.summary().length();
+        }
+        double read = (System.nanoTime() - start) / 1e3 / reads;
+
+        start = System.nanoTime();
+        sink += recount(noteManager.getNotesView());
+        double recount = (System.nanoTime() - start) / 1e3;
+        System.out.printf("Read figures: %.1f us; recount by scanning notes: %.0f us%n", read, recount);
+
+        Random random = new Random(2);
+        double[] edit = new double[2];
+        for (int pass = 0; pass < 2; pass++) {
+            if (pass == 1) {
+                noteManager.removeChangeListener(stats);
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < EDITS; i++) {
+                List<Note> notes = noteManager.getNotesView();
+                Note note = notes.get(random.nextInt(notes.size()));
+                noteManager.commit(new NoteTransaction().update(note.getId(), note.getTitle(), corpus.edit(note.getContent())));
+            }
+            edit[pass] = (System.nanoTime() - start) / 1e3 / EDITS;
+        }
+        System.out.printf("Edit with statistics: %.1f us, without: %.1f us (%d)%n", edit[0], edit[1], sink % 10);
+    }
+
+    private static long recount(List<Note> notes) {
+        long words = 0;
+        Map<String, Long> terms = new HashMap<>();
+        Map<LocalDate, Integer> created = new HashMap<>();
+        for (Note note : notes) {
+            for (String term : Tokenizer.terms(note.getTitle() + " " + note.getContent())) {
+                terms.merge(term, 1L, Long::sum);
+                words++;
+            }
+            if (note.getCreationDate() != null) {
+                created.merge(note.getCreationDate().toLocalDate(), 1, Integer::sum);
+            }
+        }
+        return words + terms.size() + created.size();
+    }
+}
@@ -0,0 +1,135 @@
+package com.noteapp.search;
+
+import com.noteapp.model.CorpusGenerator;
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+class CorpusStatsTest {
+
+    @Test
+    void testMatchesRecountAfterMutations() {
+        NoteManager noteManager = new NoteManager();
+        CorpusGenerator corpus = new CorpusGenerator(21, 0);
+        noteManager.loadNotes(corpus.notes(400));
+        CorpusStats stats = CorpusStats.attach(noteManager);
+        Random random = new Random(22);
+
+        for (int i = 0; i < 300; i++) {
+            List<Note> notes = noteManager.getNotesView();
+            Note note = notes.get(random.nextInt(notes.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                    noteManager.putNote(corpus.note("extra-" + i));
+                    break;
+                case 1:
+                    noteManager.removeNote(note.getId());
+                    break;
+                case 2:
+                    noteManager.updateCategory(note.getId(), "Moved");
+                    break;
+                default:
+                    noteManager.commit(new NoteTransaction().update(note.getId(), note.getTitle(),
+                            corpus.edit(note.getContent())));
+            }
+        }
+
+        List<Note> notes = noteManager.getNotesView();
+        long words = 0;
+        long chars = 0;
+        long bytes = 0;
+        int[] histogram = new int[CorpusStats.WORD_BUCKETS];
+        Map<LocalDate, Integer> created = new TreeMap<>();
+        Map<LocalDate, Integer> modified = new TreeMap<>();
+        for (Note note : notes) {
+            int noteWords = Tokenizer.terms(note.getTitle()).size() + Tokenizer.terms(note.getContent()).size();
+            words += noteWords;
+            chars += note.getTitle().length() + note.getContent().length();
+            bytes += (note.getTitle() + note.getContent()).getBytes(StandardCharsets.UTF_8).length;
+            histogram[Math.min(CorpusStats.WORD_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(noteWords))]++;
+            if (note.getCreationDate() != null) {
+                created.merge(note.getCreationDate().toLocalDate(), 1, Integer::sum);
+            }
+            if (note.getModificationDate() != null) {
+                modified.merge(note.getModificationDate().toLocalDate(), 1, Integer::sum);
+            }
+        }
+        assertEquals(notes.size(), stats.getNoteCount());
+        assertEquals(words, stats.getTotalWords());
+        assertEquals(chars, stats.getTotalCharacters());
+        assertEquals(bytes, stats.getTotalBytes());
+        assertArrayEquals(histogram, stats.getWordsPerNoteHistogram());
+        assertEquals(created, stats.getCreatedPerDay(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(modified, stats.getModifiedPerDay(LocalDate.MIN, LocalDate.MAX));
+    }
+
+    @Test
+    void testTopTerms() {
+        NoteManager noteManager = new NoteManager();
+        CorpusStats stats = CorpusStats.attach(noteManager, 64);
+        CorpusGenerator corpus = new CorpusGenerator(31, 0);
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Note note = corpus.note("n" + i);
+            notes.add(note);
+            noteManager.putNote(note);
+        }
+        for (int i = 0; i < 500; i++) {
+            noteManager.removeNote(notes.get(i).getId());
+        }
+
+        Map<String, Long> exact = new HashMap<>();
+        for (Note note : noteManager.getNotesView()) {
+            for (String term : Tokenizer.terms(note.getTitle() + " " + note.getContent())) {
+                exact.merge(term, 1L, Long::sum);
+            }
+        }
+        exact.keySet().removeAll(CorpusStats.STOP_WORDS);
+        List<String> expected = new ArrayList<>(exact.keySet());
+        expected.sort((a, b) -> Long.compare(exact.get(b), exact.get(a)));
+
+        Map<String, Long> top = stats.getTopTerms(10);
+        assertEquals(10, top.size());
+        assertEquals(expected.subList(0, 10), new ArrayList<>(top.keySet()));
+        for (Map.Entry<String, Long> entry : top.entrySet()) {
+            long count = exact.get(entry.getKey());
+            assertTrue(entry.getValue() >= count);
+            assertTrue(entry.getValue() <= count * 1.01 + 5, entry.getKey());
+            assertEquals(entry.getValue().longValue(), stats.estimateTermCount(entry.getKey()));
+        }
+    }
+
+    @Test
+    void testDaysAndSummary() {
+        NoteManager noteManager = new NoteManager();
+        CorpusStats stats = CorpusStats.attach(noteManager);
+        LocalDateTime monday = LocalDateTime.of(2024, 3, 4, 9, 0);
+        noteManager.putNote(new Note("a", "First", "the plan for today", monday, monday));
+        noteManager.putNote(new Note("b", "Second", "caf\u00e9", monday, monday.plusDays(2)));
+        noteManager.putNote(new Note("c", "Third", "", monday.plusDays(1), monday.plusDays(2)));
+
+        assertEquals(Map.of(monday.toLocalDate(), 2, monday.toLocalDate().plusDays(1), 1),
+                stats.getCreatedPerDay(monday.toLocalDate(), monday.toLocalDate().plusDays(1)));
+        assertEquals(Map.of(monday.toLocalDate().plusDays(2), 2),
+                stats.getModifiedPerDay(monday.toLocalDate().plusDays(1), monday.toLocalDate().plusDays(9)));
+        assertEquals(0, stats.estimateTermCount("the"));
+        assertEquals(1, stats.estimateTermCount("plan"));
+        assertEquals("3 notes, 8 words, 1 KB", stats.summary());
+
+        noteManager.removeNote("c");
+        assertEquals(Map.of(monday.toLocalDate(), 2), stats.getCreatedPerDay(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(3.5, stats.getMeanWordsPerNote(), 1e-9);
+    }
+}
@@ -0,0 +1,89 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Reports facet count and filter times on a large synthetic corpus, against a linear
+ * scan of the notes. Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.search.FacetBenchmark [notes]
+ * </pre>
+ */
+public class FacetBenchmark {
+    private static final String[] CATEGORIES = {"Work", "Home", "Ideas", "Travel", "Reading", "Health", "Finance", "Misc"};
+    private static final String[] TAGS = {"urgent", "q3", "draft", "review", "family", "books", "gym", "taxes",
+        "meeting", "followup", "archive-me", "todo"};
+
+    public static void main(String[] args) {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(5);
+        LocalDateTime now = LocalDateTime.now();
+        List<Note> notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            Note note = new Note(String.valueOf(i + 1), "Note " + i, "", now, now);
+            note.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            note.setTags(Arrays.asList(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]));
+            note.setPinned(random.nextInt(50) == 0);
+            note.setArchived(random.nextInt(4) == 0);
+            notes.add(note);
+        }
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(notes);
+
+        long t0 = System.nanoTime();
+        FacetIndex index = FacetIndex.attach(noteManager);
+        long t1 = System.nanoTime();
+        System.out.printf("%,d notes, index built in %d ms%n", noteCount, (t1 - t0) / 1_000_000);
+
+        RoaringBitmap active = RoaringBitmap.andNot(index.all(), index.archived());
+        int rounds = 200;
+        Map<String, Integer> counts = null;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                counts = index.categoryCounts(null);
+            }
+            long unfiltered = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                counts = index.categoryCounts(active);
+                index.tagCounts(active);
+            }
+            long filtered = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            RoaringBitmap result = null;
+            for (int i = 0; i < rounds; i++) {
+                result = RoaringBitmap.andNot(RoaringBitmap.and(index.category("Work"),
+                        RoaringBitmap.or(index.tag("urgent"), index.pinned())), index.archived());
+            }
+            long query = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int scanned = 0;
+            for (Note note : noteManager.getNotesView()) {
+                if ("Work".equals(note.getCategory()) && (note.getTags().contains("urgent") || note.isPinned())
+                        && !note.isArchived()) {
+                    scanned++;
+                }
+            }
+            long scan = System.nanoTime() - start;
+
+            System.out.printf("category counts, unfiltered       %8.1f us%n", unfiltered / 1e3 / rounds);
+            System.out.printf("category + tag counts, non-archived %6.1f us%n", filtered / 1e3 / rounds);
+            System.out.printf("Work AND (urgent OR pinned) ANDNOT archived: %,d notes in %.1f us (scan: %,d in %.1f ms)%n",
+                    result.cardinality(), query / 1e3 / rounds, scanned, scan / 1e6);
+        }
+        System.out.println(counts);
+    }
+}
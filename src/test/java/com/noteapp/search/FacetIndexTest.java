@@ -0,0 +1,145 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class FacetIndexTest {
+
+    private NoteManager noteManager;
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+        index = FacetIndex.attach(noteManager);
+    }
+
+    @Test
+    void testBitmapOperationsMatchBitSet() {
+        Random random = new Random(11);
+        // Mix sparse array chunks and dense bitset chunks
+        for (int round = 0; round < 20; round++) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            RoaringBitmap a = new RoaringBitmap();
+            RoaringBitmap b = new RoaringBitmap();
+            fill(random, a, expectedA, round % 2 == 0 ? 200 : 30_000);
+            fill(random, b, expectedB, round % 3 == 0 ? 50_000 : 500);
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            BitSet andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+
+            assertArrayEquals(and.stream().toArray(), RoaringBitmap.and(a, b).toArray());
+            assertArrayEquals(or.stream().toArray(), RoaringBitmap.or(a, b).toArray());
+            assertArrayEquals(andNot.stream().toArray(), RoaringBitmap.andNot(a, b).toArray());
+            assertEquals(and.cardinality(), RoaringBitmap.andCardinality(a, b));
+            assertEquals(expectedA.cardinality(), a.cardinality());
+        }
+    }
+
+    @Test
+    void testRemovingShrinksDenseChunkBackToArray() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            assertTrue(bitmap.remove(i));
+        }
+        assertFalse(bitmap.remove(0));
+        assertEquals(5_000, bitmap.cardinality());
+        assertTrue(bitmap.contains(9_999));
+        assertFalse(bitmap.contains(9_998));
+    }
+
+    @Test
+    void testFacetsFollowMutations() {
+        Note work = noteManager.createNote("Budget", "numbers");
+        Note home = noteManager.createNote("Groceries", "milk");
+        Note ideas = noteManager.createNote("Ideas", "later");
+        noteManager.updateCategory(work.getId(), "Work");
+        noteManager.updateCategory(home.getId(), "Home");
+        noteManager.updateCategory(ideas.getId(), "work");
+        noteManager.updateTags(work.getId(), Arrays.asList("finance", "q3"));
+        noteManager.updateTags(ideas.getId(), Arrays.asList("q3"));
+        noteManager.updatePinned(work.getId(), true);
+        noteManager.updateArchived(ideas.getId(), true);
+
+        assertEquals(2, index.category("WORK").cardinality());
+        RoaringBitmap activeWork = RoaringBitmap.andNot(index.category("work"), index.archived());
+        assertEquals(List.of(work), index.notes(activeWork));
+        assertEquals(2, index.anyTag(Arrays.asList("finance", "q3")).cardinality());
+        assertEquals(1, index.count(index.pinned(), index.category("Work")));
+
+        noteManager.updateCategory(ideas.getId(), "Home");
+        noteManager.removeNote(work.getId());
+
+        assertEquals(0, index.category("Work").cardinality());
+        assertEquals(2, index.category("home").cardinality());
+        assertTrue(index.pinned().isEmpty());
+        assertEquals(Map.of("q3", 1), index.tagCounts(null));
+    }
+
+    @Test
+    void testFacetCountsRespectFilter() {
+        for (int i = 0; i < 30; i++) {
+            Note note = noteManager.createNote("Note " + i, "");
+            noteManager.updateCategory(note.getId(), i % 3 == 0 ? "Work" : "Home");
+            noteManager.updateArchived(note.getId(), i % 2 == 0);
+        }
+
+        Map<String, Integer> all = index.categoryCounts(null);
+        Map<String, Integer> active = index.categoryCounts(RoaringBitmap.andNot(index.all(), index.archived()));
+
+        assertEquals(List.of("Home", "Work"), List.copyOf(all.keySet()));
+        assertEquals(20, all.get("Home"));
+        assertEquals(10, all.get("Work"));
+        assertEquals(10, active.get("Home"));
+        assertEquals(5, active.get("Work"));
+    }
+
+    @Test
+    void testDocumentNumbersAreReused() {
+        Note first = noteManager.createNote("First", "");
+        noteManager.createNote("Second", "");
+        noteManager.removeNote(first.getId());
+        Note third = noteManager.createNote("Third", "");
+
+        assertEquals(2, index.all().cardinality());
+        assertArrayEquals(new int[] {0, 1}, index.all().toArray());
+        assertTrue(index.notes(index.all()).contains(third));
+    }
+
+    @Test
+    void testEmptyFacetsAreNotShared() {
+        noteManager.createNote("Only", "");
+
+        index.category("Missing").add(0);
+        index.tag("missing").add(0);
+
+        assertTrue(index.category("Other").isEmpty());
+        assertTrue(index.tag("other").isEmpty());
+        assertTrue(index.anyTag(List.of()).isEmpty());
+    }
+
+    private static void fill(Random random, RoaringBitmap bitmap, BitSet expected, int count) {
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(200_000);
+            bitmap.add(value);
+            expected.set(value);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares trigram-filtered fuzzy term lookup against a brute-force edit-distance scan of
+ * the whole term dictionary. Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.search.FuzzySearchBenchmark [notes]
+ * </pre>
+ */
+public class FuzzySearchBenchmark {
+    private static final int QUERIES = 200;
+    private static final int MAX_EDITS = 2;
+
+    public static void main(String[] args) {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Random random = new Random(1);
+        String[] vocabulary = new String[100_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = word(random, 4 + random.nextInt(8));
+        }
+
+        List<Note> notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            notes.add(new Note(text(random, vocabulary, 3), text(random, vocabulary, 40)));
+        }
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(notes);
+
+        long start = System.nanoTime();
+        InvertedIndex index = InvertedIndex.attach(noteManager);
+        FuzzySearcher searcher = new FuzzySearcher(index, MAX_EDITS);
+        System.out.printf("Indexed %d notes, %d terms in %d ms%n",
+                noteCount, index.terms().size(), (System.nanoTime() - start) / 1_000_000);
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = misspell(random, zipf(random, vocabulary)) + " " + misspell(random, zipf(random, vocabulary));
+        }
+        List<String> dictionary = new ArrayList<>(index.terms());
+
+        for (int round = 0; round < 3; round++) {
+            long lookup = 0;
+            long search = 0;
+            long bruteForce = 0;
+            for (String query : queries) {
+                long t0 = System.nanoTime();
+                for (String term : Tokenizer.terms(query)) {
+                    searcher.expandTerm(term, MAX_EDITS);
+                }
+                long t1 = System.nanoTime();
+                searcher.search(query, 20);
+                long t2 = System.nanoTime();
+                for (String term : Tokenizer.terms(query)) {
+                    int matches = 0;
+                    for (String candidate : dictionary) {
+                        if (EditDistance.distance(term, candidate) <= MAX_EDITS) {
+                            matches++;
+                        }
+                    }
+                }
+                long t3 = System.nanoTime();
+                lookup += t1 - t0;
+                search += t2 - t1;
+                bruteForce += t3 - t2;
+            }
+            System.out.printf("round %d: trigram lookup %.2f ms/query, fuzzy search %.2f ms/query, brute-force scan %.2f ms/query%n",
+                    round, lookup / 1e6 / QUERIES, search / 1e6 / QUERIES, bruteForce / 1e6 / QUERIES);
+        }
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private static String misspell(Random random, String word) {
+        StringBuilder sb = new StringBuilder(word);
+        int position = random.nextInt(sb.length());
+        if (random.nextBoolean()) {
+            sb.deleteCharAt(position);
+        } else {
+            sb.setCharAt(position, (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private static String zipf(Random random, String[] vocabulary) {
+        return vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))];
+    }
+
+    private static String text(Random random, String[] vocabulary, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(i == 0 ? "" : " ").append(zipf(random, vocabulary));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+class FuzzySearcherTest {
+
+    private NoteManager noteManager;
+    private InvertedIndex index;
+    private FuzzySearcher searcher;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+        index = InvertedIndex.attach(noteManager);
+        searcher = new FuzzySearcher(index);
+    }
+
+    @Test
+    void testTypoFindsNote() {
+        noteManager.createNote("Kubernetes upgrade", "cluster maintenance window");
+        noteManager.createNote("Groceries", "milk and bread");
+
+        List<SearchHit> hits = searcher.search("kuberentes mantenance", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals("Kubernetes upgrade", hits.get(0).getNote().getTitle());
+    }
+
+    @Test
+    void testExactMatchRanksFirst() {
+        noteManager.createNote("Budgets", "yearly numbers");
+        noteManager.createNote("Budget", "yearly numbers");
+
+        List<SearchHit> hits = searcher.search("budget", 10);
+
+        assertEquals(2, hits.size());
+        assertEquals("Budget", hits.get(0).getNote().getTitle());
+    }
+
+    @Test
+    void testMaxEditsIsRespected() {
+        noteManager.createNote("Release", "deployment checklist");
+
+        assertTrue(searcher.search("dplymnt", 1, 10).isEmpty());
+        assertEquals(1, searcher.search("deploymnt", 1, 10).size());
+        assertEquals(1, searcher.search("dploymnt", 2, 10).size());
+        assertEquals(1, new FuzzySearcher(index, 0).search("deployment", 10).size());
+        assertTrue(new FuzzySearcher(index, 0).search("deploymnt", 10).isEmpty());
+    }
+
+    @Test
+    void testShortTermsTolerateOneEdit() {
+        noteManager.createNote("Pets", "cat food");
+
+        assertEquals(Map.of("cat", 0), searcher.expandTerm("cat", 2));
+        assertEquals(Map.of("cat", 1), searcher.expandTerm("cut", 2));
+        assertTrue(searcher.expandTerm("dog", 2).isEmpty());
+    }
+
+    @Test
+    void testDictionaryFollowsUpdates() {
+        Note note = noteManager.createNote("Travel", "flights");
+
+        noteManager.updateNote(Integer.parseInt(note.getId()), "Travel", "itinerary");
+
+        assertEquals(1, searcher.search("itinerery", 10).size());
+        assertTrue(searcher.search("flihgts", 10).isEmpty());
+    }
+
+    @Test
+    void testTrigramLookupMatchesBruteForce() {
+        Random random = new Random(11);
+        TrigramIndex trigrams = new TrigramIndex();
+        String[] dictionary = new String[3000];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = randomWord(random, 1 + random.nextInt(10));
+            trigrams.add(dictionary[i]);
+        }
+
+        for (int q = 0; q < 300; q++) {
+            String query = q % 2 == 0 ? randomWord(random, 1 + random.nextInt(10)) : typo(random, dictionary[q]);
+            int maxDistance = q % 4;
+            Map<String, Integer> expected = new TreeMap<>();
+            for (String term : dictionary) {
+                int distance = EditDistance.distance(query, term);
+                if (distance <= maxDistance) {
+                    expected.put(term, distance);
+                }
+                assertEquals(Math.min(distance, maxDistance + 1), EditDistance.boundedDistance(query, term, maxDistance));
+            }
+
+            assertEquals(expected, new TreeMap<>(trigrams.lookup(query, maxDistance)), query);
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            // Small alphabet so that near neighbours are common
+            sb.append((char) ('a' + random.nextInt(6)));
+        }
+        return sb.toString();
+    }
+
+    private static String typo(Random random, String word) {
+        StringBuilder sb = new StringBuilder(word);
+        int position = random.nextInt(sb.length() + 1);
+        switch (random.nextInt(3)) {
+            case 0:
+                sb.insert(position, 'x');
+                break;
+            case 1:
+                if (position < sb.length()) {
+                    sb.deleteCharAt(position);
+                }
+                break;
+            default:
+                if (position < sb.length()) {
+                    sb.setCharAt(position, 'z');
+                }
+                break;
+        }
+        return sb.toString();
+    }
+}
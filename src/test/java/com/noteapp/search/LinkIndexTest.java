@@ -0,0 +1,95 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class LinkIndexTest {
+
+    private NoteManager noteManager;
+    private LinkIndex index;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+        index = LinkIndex.attach(noteManager);
+    }
+
+    @Test
+    void testParsesLinks() {
+        assertEquals(List.of("alpha", "beta gamma", "delta"), new ArrayList<>(LinkParser.targets(
+                "See [[Alpha]] and [[ Beta Gamma |the second]], [[alpha]] again, [[delta]]. "
+                        + "Not links: [[]], [[broken\n]], [single], [[unclosed")));
+        assertEquals("Read [[Omega|the book]] and [[Omega]], not [[Alphabet]]",
+                LinkParser.retarget("Read [[alpha|the book]] and [[ Alpha ]], not [[Alphabet]]", "Alpha", "Omega"));
+    }
+
+    @Test
+    void testBacklinksFollowContentChanges() {
+        Note target = noteManager.createNote("Project Plan", "The plan");
+        Note first = noteManager.createNote("Monday", "Discussed [[project plan]]");
+        Note second = noteManager.createNote("Tuesday", "Nothing yet");
+
+        assertEquals(List.of(first), index.backlinks(target.getId()));
+        assertEquals(List.of(target), index.links(first.getId()));
+
+        noteManager.updateNote(Integer.parseInt(second.getId()), "Tuesday", "Revised the [[Project Plan]]");
+        noteManager.updateNote(Integer.parseInt(first.getId()), "Monday", "Nothing about it");
+        assertEquals(List.of(second), index.backlinks(target.getId()));
+        assertTrue(index.links(first.getId()).isEmpty());
+
+        noteManager.removeNote(second.getId());
+        assertTrue(index.backlinks(target.getId()).isEmpty());
+    }
+
+    @Test
+    void testLinksResolveWhenTargetIsCreated() {
+        Note source = noteManager.createNote("Ideas", "Someday: [[Garden]]");
+        assertEquals(List.of("garden"), index.unresolvedLinks(source.getId()));
+
+        Note garden = noteManager.createNote("Garden", "Roses");
+        assertTrue(index.unresolvedLinks(source.getId()).isEmpty());
+        assertEquals(List.of(source), index.backlinks(garden.getId()));
+    }
+
+    @Test
+    void testRenameRewritesReferences() {
+        Note target = noteManager.createNote("Old Name", "Links to itself: [[Old Name]]");
+        Note first = noteManager.createNote("First", "See [[old name|the note]]");
+        Note second = noteManager.createNote("Second", "Also [[Old Name]] and [[Other]]");
+
+        assertEquals(2, index.rename(target.getId(), "New Name"));
+
+        assertEquals("New Name", target.getTitle());
+        assertEquals("Links to itself: [[New Name]]", target.getContent());
+        assertEquals("See [[New Name|the note]]", first.getContent());
+        assertEquals("Also [[New Name]] and [[Other]]", second.getContent());
+        assertEquals(Set.of(first, second), Set.copyOf(index.backlinks(target.getId())));
+        assertThrows(IllegalArgumentException.class, () -> index.rename(target.getId(), " "));
+    }
+
+    @Test
+    void testNeighborhoodIsBounded() {
+        Note a = noteManager.createNote("A", "[[B]]");
+        Note b = noteManager.createNote("B", "[[C]]");
+        Note c = noteManager.createNote("C", "[[D]] [[A]]");
+        Note d = noteManager.createNote("D", "end");
+
+        Map<Note, Integer> reached = index.neighborhood(a.getId(), 2, LinkIndex.Direction.OUTGOING, 100);
+        assertEquals(Map.of(b, 1, c, 2), reached);
+
+        reached = index.neighborhood(d.getId(), 3, LinkIndex.Direction.INCOMING, 100);
+        assertEquals(Map.of(c, 1, b, 2, a, 3), reached);
+
+        assertEquals(1, index.neighborhood(a.getId(), 5, LinkIndex.Direction.BOTH, 1).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> index.neighborhood(a.getId(), 0, LinkIndex.Direction.BOTH, 10));
+    }
+}
@@ -0,0 +1,143 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.search.QueryPlan.AccessPath;
+import com.noteapp.search.QueryPlan.OrderStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class QueryPlannerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private NoteManager noteManager;
+    private NoteIndexes indexes;
+    private QueryPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Note note = new Note("Note " + i, i % 10 == 0 ? "quarterly budget" : "daily log",
+                    i % 100 == 0 ? "Finance" : "Journal");
+            note.setCreationDate(BASE.plusHours(i));
+            note.setModificationDate(BASE.plusHours(i).plusMinutes(30));
+            notes.add(note);
+        }
+        noteManager.loadNotes(notes);
+        indexes = NoteIndexes.attach(noteManager);
+        planner = new QueryPlanner(noteManager, indexes);
+    }
+
+    @Test
+    void testParseQuery() {
+        NoteQuery query = NoteQuery.parse("title:\"note 1\" category:work created>=2024-01-01 "
+                + "modified<=2024-01-31 order:-modified limit:20 offset:5 budget");
+
+        assertEquals("note 1", query.getTitleContains());
+        assertEquals("work", query.getCategory());
+        assertEquals(BASE.toLocalDate().atStartOfDay(), query.getCreatedFrom());
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), query.getModifiedTo());
+        assertEquals(NoteQuery.SortField.MODIFIED, query.getSortField());
+        assertTrue(query.isDescending());
+        assertEquals(20, query.getLimit());
+        assertEquals(5, query.getOffset());
+        assertEquals("budget", query.getText());
+    }
+
+    @Test
+    void testParseRejectsMalformedQuery() {
+        assertThrows(IllegalArgumentException.class, () -> NoteQuery.parse("order:sideways"));
+        assertThrows(IllegalArgumentException.class, () -> NoteQuery.parse("created>=yesterday"));
+        assertThrows(IllegalArgumentException.class, () -> NoteQuery.parse("title:\"unterminated"));
+    }
+
+    @Test
+    void testSelectiveCategoryUsesIndex() {
+        QueryPlan plan = planner.plan(NoteQuery.parse("category:finance"));
+
+        assertEquals(AccessPath.CATEGORY_INDEX, plan.getAccessPath());
+        assertEquals(10, plan.execute().size());
+    }
+
+    @Test
+    void testOrderedLimitWalksDateIndex() {
+        NoteQuery query = NoteQuery.parse("order:-modified limit:5");
+        QueryPlan plan = planner.plan(query);
+
+        assertEquals(AccessPath.MODIFIED_INDEX, plan.getAccessPath());
+        assertEquals(OrderStrategy.INDEX_ORDER, plan.getOrderStrategy());
+        assertEquals(List.of("Note 999", "Note 998", "Note 997", "Note 996", "Note 995"), titles(plan.execute()));
+    }
+
+    @Test
+    void testLimitUsesTopKInsteadOfSort() {
+        QueryPlan plan = planner.plan(NoteQuery.parse("budget order:title limit:3"));
+
+        assertEquals(OrderStrategy.TOP_K, plan.getOrderStrategy());
+        assertEquals(List.of("Note 0", "Note 10", "Note 100"), titles(plan.execute()));
+    }
+
+    @Test
+    void testLargeOffsetAndLimit() {
+        QueryPlan plan = planner.plan(NoteQuery.parse("order:title offset:" + NoteQuery.MAX_OFFSET + " limit:" + Integer.MAX_VALUE));
+
+        assertEquals(OrderStrategy.TOP_K, plan.getOrderStrategy());
+        assertTrue(plan.execute().isEmpty());
+        assertTrue(plan.explain().contains("TopK order=title asc k=" + Integer.MAX_VALUE), plan.explain());
+        assertEquals(List.of("Note 999"), titles(planner.execute(NoteQuery.parse("order:title offset:999 limit:" + Integer.MAX_VALUE))));
+        assertThrows(IllegalArgumentException.class, () -> NoteQuery.parse("offset:" + (NoteQuery.MAX_OFFSET + 1)));
+    }
+
+    @Test
+    void testUnlimitedOrderSorts() {
+        QueryPlan plan = planner.plan(NoteQuery.parse("category:finance order:-title"));
+
+        assertEquals(OrderStrategy.FULL_SORT, plan.getOrderStrategy());
+        assertEquals("Note 900", plan.execute().get(0).getTitle());
+    }
+
+    @Test
+    void testPlansAgreeWithBruteForce() {
+        String[] queries = {
+            "budget modified>=2024-01-10 modified<2024-01-20 order:created limit:7 offset:2",
+            "category:journal created<2024-01-03 order:-created",
+            "title:\"note 9\" order:modified limit:4",
+            "log limit:10"
+        };
+        QueryPlanner scanOnly = new QueryPlanner(noteManager);
+        for (String expression : queries) {
+            NoteQuery query = NoteQuery.parse(expression);
+            assertEquals(titles(scanOnly.execute(query)), titles(planner.execute(query)), expression);
+        }
+    }
+
+    @Test
+    void testIndexesFollowMutations() {
+        Note note = noteManager.getAllNotes().get(1);
+        noteManager.updateCategory(note.getId(), "Finance");
+
+        assertEquals(11, planner.execute(NoteQuery.parse("category:finance")).size());
+        assertEquals(note.getId(), planner.execute(NoteQuery.parse("order:-modified limit:1")).get(0).getId());
+    }
+
+    @Test
+    void testExplain() {
+        String explain = planner.plan(NoteQuery.parse("category:finance budget order:-created limit:2")).explain();
+
+        assertTrue(explain.startsWith("Limit offset=0 limit=2"), explain);
+        assertTrue(explain.contains("IndexScan category = \"finance\""), explain);
+    }
+
+    private static List<String> titles(List<Note> notes) {
+        return notes.stream().map(Note::getTitle).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,75 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares MaxScore top-k retrieval against exhaustive BM25 scoring. Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.search.RankedSearchBenchmark [notes]
+ * </pre>
+ */
+public class RankedSearchBenchmark {
+    private static final int QUERIES = 200;
+    private static final int K = 20;
+
+    public static void main(String[] args) {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(1);
+        String[] vocabulary = new String[5000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = "w" + Integer.toString(i, 36);
+        }
+
+        List<Note> notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            notes.add(new Note("Note " + zipf(random, vocabulary), text(random, vocabulary, 80)));
+        }
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(notes);
+
+        long start = System.nanoTime();
+        InvertedIndex index = InvertedIndex.attach(noteManager);
+        System.out.printf("Indexed %d notes in %d ms%n", noteCount, (System.nanoTime() - start) / 1_000_000);
+
+        RankedSearcher searcher = new RankedSearcher(index);
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            // One very common word plus one or two rarer ones
+            queries[i] = vocabulary[random.nextInt(3)] + " " + text(random, vocabulary, 1 + random.nextInt(2));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long pruned = 0;
+            long exhaustive = 0;
+            for (String query : queries) {
+                long t0 = System.nanoTime();
+                searcher.search(query, K);
+                long t1 = System.nanoTime();
+                searcher.exhaustiveSearch(query, K);
+                long t2 = System.nanoTime();
+                pruned += t1 - t0;
+                exhaustive += t2 - t1;
+            }
+            System.out.printf("round %d: MaxScore %.2f ms/query, exhaustive %.2f ms/query%n",
+                    round, pruned / 1e6 / QUERIES, exhaustive / 1e6 / QUERIES);
+        }
+    }
+
+    private static String zipf(Random random, String[] vocabulary) {
+        return vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))];
+    }
+
+    private static String text(Random random, String[] vocabulary, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(i == 0 ? "" : " ").append(zipf(random, vocabulary));
+        }
+        return sb.toString();
+    }
+}
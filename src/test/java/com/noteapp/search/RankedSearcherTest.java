@@ -0,0 +1,138 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class RankedSearcherTest {
+
+    private static final String[] VOCABULARY = {
+        "the", "a", "of", "meeting", "budget", "review", "project", "deadline", "recipe",
+        "travel", "invoice", "design", "release", "summary", "kubernetes", "quarterly"
+    };
+
+    private NoteManager noteManager;
+    private InvertedIndex index;
+    private RankedSearcher searcher;
+
+    @BeforeEach
+    void setUp() {
+        noteManager = new NoteManager();
+        index = InvertedIndex.attach(noteManager);
+        searcher = new RankedSearcher(index);
+    }
+
+    @Test
+    void testTitleMatchesRankHigher() {
+        noteManager.createNote("Budget", "numbers for next year");
+        noteManager.createNote("Notes", "the budget was discussed");
+        noteManager.createNote("Recipe", "banana bread");
+
+        List<SearchHit> hits = searcher.search("budget", 10);
+
+        assertEquals(2, hits.size());
+        assertEquals("Budget", hits.get(0).getNote().getTitle());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testRareTermsOutweighCommonTerms() {
+        noteManager.createNote("One", "the the the the meeting");
+        noteManager.createNote("Two", "the kubernetes cluster");
+        for (int i = 0; i < 20; i++) {
+            noteManager.createNote("Filler " + i, "the meeting notes");
+        }
+
+        List<SearchHit> hits = searcher.search("the kubernetes", 1);
+
+        assertEquals("Two", hits.get(0).getNote().getTitle());
+    }
+
+    @Test
+    void testMatchOffsets() {
+        String content = "Plan the Budget; budget review on Friday";
+        noteManager.createNote("Budget review", content);
+
+        SearchHit hit = searcher.search("budget review", 5).get(0);
+
+        assertArrayEquals(new int[] {0, 6, 7, 13}, hit.getTitleMatches());
+        int[] matches = hit.getContentMatches();
+        assertEquals(6, matches.length);
+        assertEquals("Budget", content.substring(matches[0], matches[1]));
+        assertEquals("budget", content.substring(matches[2], matches[3]));
+        assertEquals("review", content.substring(matches[4], matches[5]));
+    }
+
+    @Test
+    void testUpdatesAndDeletesAreReflected() {
+        Note note = noteManager.createNote("Travel", "flights and hotels");
+        noteManager.createNote("Invoice", "hotel invoice");
+
+        noteManager.updateNote(Integer.parseInt(note.getId()), "Travel", "trains only");
+
+        assertEquals(1, searcher.search("hotel", 10).size());
+        assertEquals(1, searcher.search("trains", 10).size());
+        assertTrue(searcher.search("flights", 10).isEmpty());
+        assertEquals(1, searcher.count("hotel"));
+        assertEquals(2, searcher.count("hotel trains"));
+        assertEquals(0, searcher.count("flights"));
+    }
+
+    @Test
+    void testMaxScoreMatchesExhaustiveRanking() {
+        Random random = new Random(7);
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            notes.add(new Note("Note " + i + " " + words(random, 1 + random.nextInt(3)), words(random, random.nextInt(60))));
+        }
+        noteManager.loadNotes(notes);
+        // Retire some documents so that stale postings are exercised too
+        for (int i = 0; i < 300; i++) {
+            Note note = noteManager.getNotesView().get(random.nextInt(1500));
+            index.noteUpdated(new Note(note), note);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            String query = words(random, 1 + random.nextInt(4));
+            int limit = 1 + random.nextInt(20);
+            List<SearchHit> pruned = searcher.search(query, limit);
+            List<SearchHit> exhaustive = searcher.exhaustiveSearch(query, limit);
+
+            assertEquals(exhaustive.size(), pruned.size(), query);
+            assertEquals(searcher.exhaustiveSearch(query, Integer.MAX_VALUE).size(), searcher.count(query), query);
+            for (int i = 0; i < pruned.size(); i++) {
+                assertEquals(exhaustive.get(i).getScore(), pruned.get(i).getScore(), 1e-9, query);
+            }
+        }
+    }
+
+    @Test
+    void testCompactionKeepsResults() {
+        for (int i = 0; i < 200; i++) {
+            noteManager.createNote("Doc " + i, i % 2 == 0 ? "release summary" : "design review");
+        }
+        for (int i = 1; i <= 150; i++) {
+            noteManager.deleteNote(i);
+        }
+
+        assertEquals(50, index.size());
+        assertEquals(25, searcher.search("release", 100).size());
+        assertEquals(25, index.documentFrequency("design"));
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // Skewed draw so that a few words are very common
+            int w = (int) (VOCABULARY.length * Math.pow(random.nextDouble(), 2));
+            sb.append(i == 0 ? "" : " ").append(VOCABULARY[w]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package com.noteapp.search;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.storage.FileStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+class SearchIndexStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRebuildsWhenNoIndexExists() throws Exception {
+        FileStorage storage = new FileStorage(tempDir.toString());
+        NoteManager noteManager = load(storage);
+        noteManager.createNote("Budget", "quarterly numbers");
+        storage.saveNotes(noteManager.getAllNotes());
+
+        SearchIndexStore store = open(new FileStorage(tempDir.toString()));
+
+        assertTrue(store.awaitReady(5, TimeUnit.SECONDS));
+        assertEquals(1, new RankedSearcher(store.getIndex()).search("budget", 10).size());
+        assertTrue(Files.exists(tempDir.resolve("index").resolve("search.idx")));
+    }
+
+    @Test
+    void testReopenLoadsPersistedIndex() throws Exception {
+        FileStorage storage = new FileStorage(tempDir.toString());
+        NoteManager noteManager = load(storage);
+        SearchIndexStore store = SearchIndexStore.open(storage, noteManager);
+        assertTrue(store.awaitReady(5, TimeUnit.SECONDS));
+
+        noteManager.createNote("Travel plans", "flights and hotels in Lisbon");
+        Note removed = noteManager.createNote("Groceries", "milk");
+        storage.saveNotes(noteManager.getAllNotes());
+        noteManager.deleteNote(Integer.parseInt(removed.getId()));
+        noteManager.createNote("Recipe", "banana bread with walnuts");
+        storage.saveNotes(noteManager.getAllNotes());
+
+        SearchIndexStore reopened = open(new FileStorage(tempDir.toString()));
+
+        assertTrue(reopened.isReady());
+        RankedSearcher searcher = new RankedSearcher(reopened.getIndex());
+        assertEquals(2, reopened.getIndex().size());
+        List<SearchHit> hits = searcher.search("lisbon", 10);
+        assertEquals(1, hits.size());
+        assertArrayEquals(new int[] {22, 28}, hits.get(0).getContentMatches());
+        assertEquals(1, searcher.search("walnuts", 10).size());
+        assertTrue(searcher.search("milk", 10).isEmpty());
+    }
+
+    @Test
+    void testSaveWithoutChangesKeepsIndexCurrent() throws Exception {
+        FileStorage storage = new FileStorage(tempDir.toString());
+        NoteManager noteManager = load(storage);
+        noteManager.createNote("Design review", "release checklist");
+        SearchIndexStore store = SearchIndexStore.open(storage, noteManager);
+        assertTrue(store.awaitReady(5, TimeUnit.SECONDS));
+        storage.saveNotes(noteManager.getAllNotes());
+        storage.saveNotes(noteManager.getAllNotes());
+
+        assertTrue(open(new FileStorage(tempDir.toString())).isReady());
+    }
+
+    @Test
+    void testChecksumMismatchTriggersRebuild() throws Exception {
+        FileStorage storage = new FileStorage(tempDir.toString());
+        NoteManager noteManager = load(storage);
+        SearchIndexStore store = SearchIndexStore.open(storage, noteManager);
+        assertTrue(store.awaitReady(5, TimeUnit.SECONDS));
+        noteManager.createNote("Invoice", "march invoice for consulting");
+        storage.saveNotes(noteManager.getAllNotes());
+        corrupt(tempDir.resolve("index").resolve("search.idx"));
+
+        SearchIndexStore reopened = open(new FileStorage(tempDir.toString()));
+
+        assertTrue(reopened.awaitReady(5, TimeUnit.SECONDS));
+        assertEquals(1, new RankedSearcher(reopened.getIndex()).search("consulting", 10).size());
+    }
+
+    @Test
+    void testGenerationMismatchTriggersRebuild() throws Exception {
+        FileStorage storage = new FileStorage(tempDir.toString());
+        NoteManager noteManager = load(storage);
+        SearchIndexStore store = SearchIndexStore.open(storage, noteManager);
+        assertTrue(store.awaitReady(5, TimeUnit.SECONDS));
+        noteManager.createNote("Kubernetes", "cluster upgrade");
+        storage.saveNotes(noteManager.getAllNotes());
+
+        // A write the index never saw, such as one made by another process
+        FileStorage other = new FileStorage(tempDir.toString());
+        other.saveNotes(List.of(new Note("Replaced", "entirely different notes")));
+
+        SearchIndexStore reopened = open(new FileStorage(tempDir.toString()));
+
+        assertTrue(reopened.awaitReady(5, TimeUnit.SECONDS));
+        RankedSearcher searcher = new RankedSearcher(reopened.getIndex());
+        assertTrue(searcher.search("kubernetes", 10).isEmpty());
+        assertEquals(1, searcher.search("different", 10).size());
+    }
+
+    @Test
+    void testRebuildReadsNotesOnTheOwningThread() throws Exception {
+        FileStorage storage = new FileStorage(tempDir.toString());
+        NoteManager noteManager = new NoteManager();
+        Set<Thread> readers = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 50; i++) {
+            Note note = new Note("Note " + i, "");
+            String body = "deferred body " + i;
+            note.deferContent(() -> {
+                readers.add(Thread.currentThread());
+                return body;
+            });
+            noteManager.putNote(note);
+        }
+
+        SearchIndexStore store = SearchIndexStore.open(storage, noteManager);
+        noteManager.createNote("Added", "while the index rebuilds");
+
+        assertTrue(store.awaitReady(5, TimeUnit.SECONDS));
+        assertEquals(Set.of(Thread.currentThread()), readers);
+        RankedSearcher searcher = new RankedSearcher(store.getIndex());
+        assertEquals(50, searcher.search("deferred", 100).size());
+        assertEquals(1, searcher.search("rebuilds", 10).size());
+    }
+
+    private static NoteManager load(FileStorage storage) {
+        NoteManager noteManager = new NoteManager();
+        noteManager.loadNotes(storage.loadNotes());
+        return noteManager;
+    }
+
+    private static SearchIndexStore open(FileStorage storage) {
+        return SearchIndexStore.open(storage, load(storage));
+    }
+
+    private static void corrupt(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+    }
+}
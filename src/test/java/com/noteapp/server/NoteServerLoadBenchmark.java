@@ -0,0 +1,156 @@
+package com.noteapp.server;
+
+import com.noteapp.model.NoteManager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator for {@link NoteServer}. Not a unit test; run it manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes:... com.noteapp.server.NoteServerLoadBenchmark [notes] [seconds]
+ * </pre>
+ *
+ * For each concurrency level it drives a mixed read-mostly workload (get, search,
+ * paged listing, create) in a closed loop and reports throughput and p50/p99 latency.
+ */
+public class NoteServerLoadBenchmark {
+    private static final int[] CONCURRENCY_LEVELS = {1, 2, 4, 8, 16, 32, 64};
+    private static final String[] WORDS = {
+        "meeting", "budget", "review", "project", "deadline", "recipe", "travel",
+        "invoice", "design", "release", "notes", "ideas", "draft", "summary"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        NoteManager noteManager = new NoteManager();
+        Random random = new Random(42);
+        for (int i = 0; i < noteCount; i++) {
+            noteManager.createNote("Note " + i + " " + word(random), sentence(random, 40));
+        }
+
+        NoteServer server = new NoteServer(noteManager, null, 0);
+        server.start();
+        String base = "http://127.0.0.1:" + server.getPort();
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+
+        System.out.printf("%d notes, %d s per level%n", noteCount, seconds);
+        System.out.printf("%12s %12s %10s %10s %8s%n", "concurrency", "req/s", "p50 ms", "p99 ms", "errors");
+        try {
+            for (int concurrency : CONCURRENCY_LEVELS) {
+                runLevel(client, base, noteCount, concurrency, seconds);
+            }
+        } finally {
+            server.stop();
+        }
+        System.exit(0);
+    }
+
+    private static void runLevel(HttpClient client, String base, int noteCount, int concurrency, int seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            int worker = w;
+            workers.execute(() -> {
+                Random random = new Random(worker);
+                long[] samples = new long[1 << 16];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = nextRequest(random, base, noteCount);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400 && response.statusCode() != 404) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (n == samples.length) {
+                        samples = Arrays.copyOf(samples, n * 2);
+                    }
+                    samples[n++] = System.nanoTime() - start;
+                }
+                latencies[worker] = samples;
+                counts[worker] = n;
+                done.countDown();
+            });
+        }
+        done.await();
+        workers.shutdown();
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies[w], 0, all, pos, counts[w]);
+            pos += counts[w];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("%12d %12.0f %10.2f %10.2f %8d%n", concurrency, total / (double) seconds,
+                percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, errors.get());
+    }
+
+    private static HttpRequest nextRequest(Random random, String base, int noteCount) {
+        int roll = random.nextInt(100);
+        if (roll < 50) {
+            return get(base + "/notes/" + (1 + random.nextInt(noteCount)));
+        } else if (roll < 75) {
+            return get(base + "/search?q=" + word(random) + "&limit=20");
+        } else if (roll < 95) {
+            return get(base + "/notes?order=modified&offset=" + random.nextInt(100) + "&limit=30");
+        }
+        String body = "{\"title\":\"Load " + random.nextInt() + "\",\"content\":\"" + sentence(random, 20) + "\"}";
+        return HttpRequest.newBuilder(URI.create(base + "/notes"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(word(random));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package com.noteapp.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noteapp.model.NoteManager;
+import com.noteapp.search.SearchIndexStore;
+import com.noteapp.storage.FileStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+class NoteServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private NoteManager noteManager;
+    private NoteServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        noteManager = new NoteManager();
+        server = new NoteServer(noteManager, null, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testCreateAndGetNote() throws Exception {
+        HttpResponse<String> created = send("POST", "/notes", "{\"title\":\"Groceries\",\"content\":\"milk, eggs\"}");
+        assertEquals(201, created.statusCode());
+
+        String id = objectMapper.readTree(created.body()).get("id").asText();
+        HttpResponse<String> fetched = send("GET", "/notes/" + id, null);
+
+        assertEquals(200, fetched.statusCode());
+        assertEquals("Groceries", objectMapper.readTree(fetched.body()).get("title").asText());
+    }
+
+    @Test
+    void testCreateNoteWithEmptyTitle() throws Exception {
+        HttpResponse<String> response = send("POST", "/notes", "{\"title\":\"\",\"content\":\"x\"}");
+        assertEquals(400, response.statusCode());
+        assertTrue(noteManager.getAllNotes().isEmpty());
+    }
+
+    @Test
+    void testUpdateAndDeleteNote() throws Exception {
+        String id = objectMapper.readTree(send("POST", "/notes", "{\"title\":\"Draft\",\"content\":\"a\"}").body())
+                .get("id").asText();
+
+        HttpResponse<String> updated = send("PUT", "/notes/" + id, "{\"title\":\"Final\",\"content\":\"b\"}");
+        assertEquals(200, updated.statusCode());
+        assertEquals("Final", objectMapper.readTree(updated.body()).get("title").asText());
+
+        assertEquals(204, send("DELETE", "/notes/" + id, null).statusCode());
+        assertEquals(404, send("GET", "/notes/" + id, null).statusCode());
+    }
+
+    @Test
+    void testListingIsPaged() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            noteManager.createNote("Note " + i, "Content " + i);
+        }
+
+        JsonNode page = objectMapper.readTree(send("GET", "/notes?order=created&offset=1&limit=2", null).body());
+
+        assertEquals(5, page.get("total").asInt());
+        assertEquals(2, page.get("notes").size());
+
+        for (String offset : new String[] {"2000000000", String.valueOf(Integer.MAX_VALUE)}) {
+            HttpResponse<String> beyond = send("GET", "/notes?order=created&offset=" + offset + "&limit=1000", null);
+            assertEquals(200, beyond.statusCode());
+            assertEquals(0, objectMapper.readTree(beyond.body()).get("notes").size());
+        }
+    }
+
+    @Test
+    void testCursorPaging() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            noteManager.createNote("Note " + i, "Content " + i);
+        }
+
+        JsonNode first = objectMapper.readTree(send("GET", "/notes?cursor=&limit=3", null).body());
+        String cursor = first.get("nextCursor").asText();
+        JsonNode second = objectMapper.readTree(send("GET", "/notes?cursor=" + cursor + "&limit=3", null).body());
+
+        assertEquals(3, first.get("notes").size());
+        assertEquals(2, second.get("notes").size());
+        assertTrue(second.get("nextCursor").isNull());
+    }
+
+    @Test
+    void testSearch() throws Exception {
+        noteManager.createNote("Meeting", "quarterly budget review");
+        noteManager.createNote("Recipe", "banana bread");
+
+        JsonNode page = objectMapper.readTree(send("GET", "/search?q=budget", null).body());
+
+        assertEquals(1, page.get("total").asInt());
+        assertEquals("Meeting", page.get("notes").get(0).get("title").asText());
+    }
+
+    @Test
+    void testSearchIsRankedWithIndex(@TempDir Path tempDir) throws Exception {
+        noteManager.createNote("Recipe", "banana bread with a budget of flour");
+        noteManager.createNote("Budget", "quarterly budget review");
+        noteManager.createNote("Garden", "tomatoes");
+        FileStorage storage = new FileStorage(tempDir.toString());
+        SearchIndexStore searchIndex = SearchIndexStore.open(storage, noteManager);
+        assertTrue(searchIndex.awaitReady(5, TimeUnit.SECONDS));
+        server.stop();
+        server = new NoteServer(noteManager, storage, searchIndex, 0);
+        server.start();
+
+        JsonNode page = objectMapper.readTree(send("GET", "/search?q=budget", null).body());
+        assertEquals(2, page.get("total").asInt());
+        assertEquals("Budget", page.get("notes").get(0).get("title").asText());
+        assertEquals("Recipe", page.get("notes").get(1).get("title").asText());
+
+        send("POST", "/notes", "{\"title\":\"Budget 2025\",\"content\":\"budget budget\"}");
+        page = objectMapper.readTree(send("GET", "/search?q=budget&offset=2&limit=5", null).body());
+        assertEquals(3, page.get("total").asInt());
+        assertEquals(1, page.get("notes").size());
+        assertEquals(4, objectMapper.readTree(send("GET", "/search?q=", null).body()).get("total").asInt());
+    }
+
+    @Test
+    void testInvalidRequests() throws Exception {
+        assertEquals(400, send("GET", "/notes/not-a-number", null).statusCode());
+        assertEquals(400, send("GET", "/notes?order=sideways", null).statusCode());
+        assertEquals(405, send("DELETE", "/search?q=x", null).statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .method(method, publisher)
+                .header("Content-Type", "application/json")
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,83 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Times a full backup, an incremental backup after ten edits, and a restore of the
+ * resulting chain. Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.storage.BackupBenchmark [notes] [chars per note]
+ * </pre>
+ */
+public class BackupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int noteChars = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Random random = new Random(1);
+        List<Note> notes = new ArrayList<>(noteCount);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < noteCount; i++) {
+            notes.add(new Note(String.valueOf(i + 1), "Note " + i, text(random, noteChars), now, now));
+        }
+
+        Path directory = Files.createTempDirectory("backup-benchmark");
+        try {
+            FileStorage storage = new FileStorage(directory.resolve("store").toString());
+            NoteManager noteManager = new NoteManager();
+            noteManager.loadNotes(notes);
+            Path backupDir = directory.resolve("backups");
+            try (BackupManager backups = BackupManager.open(storage, noteManager, backupDir)) {
+                long t0 = System.nanoTime();
+                BackupManifest full = backups.backup().get();
+                long t1 = System.nanoTime();
+
+                for (int i = 0; i < 10; i++) {
+                    Note note = noteManager.getNotesView().get(random.nextInt(noteCount));
+                    noteManager.updateNote(Integer.parseInt(note.getId()), note.getTitle(), text(random, noteChars));
+                }
+                long t2 = System.nanoTime();
+                BackupManifest incremental = backups.backup().get();
+                long t3 = System.nanoTime();
+
+                List<Note> restored = BackupManager.restore(backupDir);
+                long t4 = System.nanoTime();
+
+                System.out.printf("store %,d notes, %,d MB of text%n", noteCount, (long) noteCount * noteChars / 1_000_000);
+                System.out.printf("full backup        %,d notes in %d ms (%,d bytes)%n", full.getNoteCount(),
+                        (t1 - t0) / 1_000_000, Files.size(backupDir.resolve(full.getDataFile())));
+                System.out.printf("incremental backup %,d notes in %.2f ms (%,d bytes)%n", incremental.getNoteCount(),
+                        (t3 - t2) / 1e6, Files.size(backupDir.resolve(incremental.getDataFile())));
+                System.out.printf("restore            %,d notes in %d ms%n", restored.size(), (t4 - t3) / 1_000_000);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            int word = 2 + random.nextInt(8);
+            for (int i = 0; i < word; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+}
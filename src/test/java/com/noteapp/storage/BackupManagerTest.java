@@ -0,0 +1,140 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class BackupManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorage storage;
+    private NoteManager noteManager;
+    private Path backupDir;
+    private BackupManager backups;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new FileStorage(tempDir.resolve("store").toString());
+        noteManager = new NoteManager();
+        noteManager.addChangeListener(new StorageWriter());
+        backupDir = tempDir.resolve("backups");
+        backups = BackupManager.open(storage, noteManager, backupDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backups.close();
+    }
+
+    @Test
+    void testFirstBackupIsFullAndLaterOnesIncremental() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            noteManager.createNote("Note " + i, "Body " + i);
+        }
+        BackupManifest full = backups.backup().get();
+
+        Note edited = noteManager.getAllNotes().get(3);
+        noteManager.updateNote(Integer.parseInt(edited.getId()), "Edited", "New body");
+        BackupManifest incremental = backups.backup().get();
+
+        assertEquals(BackupManifest.Type.FULL, full.getType());
+        assertEquals(20, full.getNoteCount());
+        assertEquals(BackupManifest.Type.INCREMENTAL, incremental.getType());
+        assertEquals(full.getSequence(), incremental.getParentSequence());
+        assertEquals(1, incremental.getNoteCount());
+        assertEquals(storage.getGeneration(), incremental.getGeneration());
+        assertEquals(2, BackupManager.listBackups(backupDir).size());
+    }
+
+    @Test
+    void testRestoreReplaysChainIncludingDeletions() throws Exception {
+        Note kept = noteManager.createNote("Kept", "stays");
+        Note removed = noteManager.createNote("Removed", "goes away");
+        backups.backup().get();
+
+        noteManager.deleteNote(Integer.parseInt(removed.getId()));
+        noteManager.updateNote(Integer.parseInt(kept.getId()), "Kept", "stays, edited");
+        backups.backup().get();
+        noteManager.createNote("Added", "after two backups");
+        backups.backup().get();
+
+        assertEquals(contents(noteManager.getAllNotes()), contents(BackupManager.restore(backupDir)));
+
+        List<Note> asOfFirst = BackupManager.restore(backupDir, 1);
+        assertEquals(2, asOfFirst.size());
+        assertEquals("stays", contents(asOfFirst).get(kept.getId()));
+    }
+
+    @Test
+    void testCorruptedBackupIsDetected() throws Exception {
+        noteManager.createNote("Note", "original");
+        BackupManifest manifest = backups.backup().get();
+        Path data = backupDir.resolve(manifest.getDataFile());
+        Files.write(data, new String(Files.readAllBytes(data), "UTF-8").replace("original", "tampered").getBytes("UTF-8"));
+
+        assertThrows(IOException.class, () -> BackupManager.restore(backupDir));
+    }
+
+    @Test
+    void testPendingChangesSurviveReopen() throws Exception {
+        Note note = noteManager.createNote("Note", "v1");
+        noteManager.createNote("Other", "untouched");
+        backups.backup().get();
+        noteManager.updateNote(Integer.parseInt(note.getId()), "Note", "v2");
+        backups.close();
+
+        backups = BackupManager.open(storage, noteManager, backupDir);
+        assertEquals(1, backups.getPendingChanges());
+        BackupManifest manifest = backups.backup().get();
+
+        assertEquals(BackupManifest.Type.INCREMENTAL, manifest.getType());
+        assertEquals(1, manifest.getNoteCount());
+        assertEquals("v2", contents(BackupManager.restore(backupDir)).get(note.getId()));
+    }
+
+    @Test
+    void testRestoreWithoutBackupsFails() {
+        assertThrows(IOException.class, () -> BackupManager.restore(backupDir));
+    }
+
+    private static Map<String, String> contents(List<Note> notes) {
+        Map<String, String> contents = new HashMap<>();
+        for (Note note : notes) {
+            contents.put(note.getId(), note.getContent());
+        }
+        return contents;
+    }
+
+    /**
+     * Saves the store after every change, as the application does
+     */
+    private class StorageWriter implements com.noteapp.model.NoteChangeListener {
+        @Override
+        public void noteAdded(Note note) {
+            storage.saveNotes(noteManager.getAllNotes());
+        }
+
+        @Override
+        public void noteUpdated(Note previous, Note current) {
+            storage.saveNotes(noteManager.getAllNotes());
+        }
+
+        @Override
+        public void noteRemoved(Note note) {
+            storage.saveNotes(noteManager.getAllNotes());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Reports disk footprint, load time and codec CPU time for plain, compressed and
+ * dictionary-compressed storage of a corpus of meeting-log style notes, most of them
+ * cold. Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.storage.CompressionBenchmark [notes]
+ * </pre>
+ */
+public class CompressionBenchmark {
+    private static final String[] PHRASES = {
+        "Attendees: the platform team.", "Action item:", "follow up on the deployment checklist",
+        "before the next release review.", "Blocked on the staging environment.", "Decision:",
+        "we will revisit the budget next quarter.", "Notes from the weekly sync.", "No updates.",
+        "Customer escalation was resolved.", "Latency regression in the search service.",
+        "Owner to confirm by Friday.", "Retro: what went well, what to improve."
+    };
+
+    public static void main(String[] args) throws IOException {
+        int noteCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Random random = new Random(1);
+        List<Note> notes = new ArrayList<>(noteCount);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < noteCount; i++) {
+            // Most notes are old; a few are long
+            LocalDateTime modified = random.nextInt(10) < 8 ? now.minusDays(40 + random.nextInt(700)) : now;
+            int sentences = random.nextInt(20) == 0 ? 200 : 5 + random.nextInt(30);
+            notes.add(new Note("note-" + i, "Meeting " + i, prose(random, sentences), modified, modified));
+        }
+
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            samples.add(notes.get(random.nextInt(noteCount)).getContent());
+        }
+        CompressionDictionary dictionary = CompressionDictionary.train(samples, CompressionDictionary.MAX_SIZE);
+
+        run("plain", notes, CompressionPolicy.disabled());
+        run("deflate", notes, CompressionPolicy.defaults());
+        run("deflate+dictionary", notes, new CompressionPolicy(CompressionPolicy.DEFAULT_MIN_CHARS,
+                CompressionPolicy.DEFAULT_COLD_DAYS, dictionary));
+    }
+
+    private static void run(String label, List<Note> notes, CompressionPolicy policy) throws IOException {
+        Path directory = Files.createTempDirectory("compression-benchmark");
+        try {
+            FileStorage storage = new FileStorage(directory.toString());
+            storage.setCompressionPolicy(policy);
+            long t0 = System.nanoTime();
+            storage.saveNotes(notes);
+            long t1 = System.nanoTime();
+
+            FileStorage reader = new FileStorage(directory.toString());
+            List<Note> loaded = reader.loadNotes();
+            long t2 = System.nanoTime();
+            long hotNanos = 0;
+            long coldNanos = 0;
+            for (Note note : loaded) {
+                long start = System.nanoTime();
+                note.getContent();
+                long elapsed = System.nanoTime() - start;
+                if (note.deferredContent() == null) {
+                    hotNanos += elapsed;
+                } else {
+                    coldNanos += elapsed;
+                }
+            }
+
+            System.out.printf("%-20s file %,d bytes, save %d ms, load %d ms, first access: plain %.1f ms, compressed %.1f ms%n",
+                    label, Files.size(directory.resolve("notes.json")), (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000,
+                    hotNanos / 1e6, coldNanos / 1e6);
+            System.out.printf("%-20s writer: %s%n%-20s reader: %s%n", "", storage.getCompressionStats(),
+                    "", reader.getCompressionStats());
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static String prose(Random random, int sentences) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            sb.append(PHRASES[random.nextInt(PHRASES.length)]).append(' ');
+            if (random.nextInt(4) == 0) {
+                sb.append("Ticket ").append(1000 + random.nextInt(9000)).append(".\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,154 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class ContentCompressionTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new FileStorage(tempDir.toString());
+    }
+
+    @Test
+    void testLargeBodiesAreStoredCompressedAndReadBack() throws Exception {
+        String body = meetingLog(200);
+        Note large = new Note("Standup log", body);
+        Note small = new Note("Todo", "buy milk");
+
+        assertTrue(storage.saveNotes(List.of(large, small)));
+        String json = new String(Files.readAllBytes(tempDir.resolve("notes.json")), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"compressedContent\""));
+        assertTrue(json.contains("\"content\" : \"buy milk\""));
+        assertTrue(json.length() < body.length() / 2);
+        List<Note> loaded = storage.loadNotes();
+        assertEquals(body, loaded.get(0).getContent());
+        assertEquals("buy milk", loaded.get(1).getContent());
+    }
+
+    @Test
+    void testDecompressionHappensOnlyOnAccess() {
+        storage.saveNotes(List.of(new Note("Log", meetingLog(200))));
+        FileStorage reopened = new FileStorage(tempDir.toString());
+
+        Note note = reopened.loadNotes().get(0);
+        assertEquals(0, reopened.getCompressionStats().getDecompressions());
+
+        note.getContent();
+        note.getContent();
+        assertEquals(1, reopened.getCompressionStats().getDecompressions());
+    }
+
+    @Test
+    void testUnchangedCompressedBodiesAreNotRecompressed() {
+        storage.saveNotes(List.of(new Note("Log", meetingLog(200))));
+        FileStorage reopened = new FileStorage(tempDir.toString());
+
+        List<Note> notes = reopened.loadNotes();
+        assertTrue(reopened.saveNotes(notes));
+
+        assertEquals(0, reopened.getCompressionStats().getCompressedNotes());
+        assertEquals(0, reopened.getCompressionStats().getDecompressions());
+        assertEquals(meetingLog(200), new FileStorage(tempDir.toString()).loadNotes().get(0).getContent());
+    }
+
+    @Test
+    void testEditReplacesCompressedBody() {
+        storage.saveNotes(List.of(new Note("Log", meetingLog(200))));
+        Note note = storage.loadNotes().get(0);
+
+        note.setContent("short now");
+        storage.saveNotes(List.of(note));
+
+        Note reloaded = storage.loadNotes().get(0);
+        assertNull(reloaded.deferredContent());
+        assertEquals("short now", reloaded.getContent());
+    }
+
+    @Test
+    void testColdNotesAreCompressed() {
+        Note cold = new Note("id-1", "Old retro", meetingLog(5), LocalDateTime.now().minusDays(90), LocalDateTime.now().minusDays(60));
+        Note hot = new Note("Fresh retro", meetingLog(5));
+
+        storage.saveNotes(List.of(cold, hot));
+        List<Note> loaded = storage.loadNotes();
+
+        assertNotNull(loaded.get(0).deferredContent());
+        assertNull(loaded.get(1).deferredContent());
+        assertEquals(meetingLog(5), loaded.get(0).getContent());
+    }
+
+    @Test
+    void testSharedDictionaryImprovesSmallNotes() {
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            samples.add(meetingLog(3));
+        }
+        CompressionDictionary dictionary = CompressionDictionary.train(samples, CompressionDictionary.MAX_SIZE);
+        assertNotNull(dictionary);
+
+        CompressionStats plain = new CompressionStats();
+        CompressionStats primed = new CompressionStats();
+        String body = meetingLog(3);
+        CompressedContent.compress(body, null, plain);
+        CompressedContent withDictionary = CompressedContent.compress(body, dictionary, primed);
+
+        assertTrue(primed.getCompressedBytes() < plain.getCompressedBytes() / 2);
+        assertEquals(body, withDictionary.get());
+
+        storage.setCompressionPolicy(new CompressionPolicy(0, -1, dictionary));
+        storage.saveNotes(List.of(new Note("Standup", body)));
+        assertEquals(body, new FileStorage(tempDir.toString()).loadNotes().get(0).getContent());
+    }
+
+    @Test
+    void testPoorlyCompressingBodyIsStoredPlain() throws Exception {
+        // Random letters and digits deflate to about 0.76 of their size, more than base64 gives back
+        Random random = new Random(5);
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 8192; i++) {
+            body.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        storage.saveNotes(List.of(new Note("Keys", body.toString())));
+
+        String json = new String(Files.readAllBytes(tempDir.resolve("notes.json")), StandardCharsets.UTF_8);
+        assertFalse(json.contains("\"compressedContent\""));
+        assertNull(storage.loadNotes().get(0).deferredContent());
+        assertTrue(storage.getCompressionStats().getCompressedBytes() < body.length() * 0.9);
+    }
+
+    @Test
+    void testDisabledPolicyWritesPlainText() {
+        storage.setCompressionPolicy(CompressionPolicy.disabled());
+        storage.saveNotes(List.of(new Note("Log", meetingLog(200))));
+
+        assertNull(storage.loadNotes().get(0).deferredContent());
+    }
+
+    private static String meetingLog(int entries) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            sb.append("Attendees: Alice, Bob and the platform team. Action item ").append(i)
+                    .append(": follow up on the deployment checklist before the next release review.\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Compares committing small transactions from concurrent threads with one durable save
+ * each against group commit, and prints the group commit latency and batch sizes.
+ * Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.noteapp.storage.GroupCommitBenchmark [threads] [transactions per thread] [notes]
+ * </pre>
+ */
+public class GroupCommitBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int noteCount = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        Path directory = Files.createTempDirectory("group-commit-benchmark");
+        try {
+            NoteManager noteManager = seed(noteCount);
+            FileStorage storage = new FileStorage(directory.resolve("single").toString());
+            Object lock = new Object();
+            long start = System.nanoTime();
+            run(threads, perThread, noteCount, transaction -> {
+                synchronized (lock) {
+                    noteManager.commit(transaction);
+                    storage.saveNotesDurably(noteManager.getAllNotes());
+                }
+                return CompletableFuture.completedFuture(null);
+            });
+            long single = System.nanoTime() - start;
+            System.out.printf("save per transaction: %,d transactions in %d ms%n", threads * perThread, single / 1_000_000);
+
+            NoteManager groupManager = seed(noteCount);
+            FileStorage groupStorage = new FileStorage(directory.resolve("group").toString());
+            try (GroupCommitter committer = new GroupCommitter(groupStorage, groupManager)) {
+                start = System.nanoTime();
+                run(threads, perThread, noteCount, committer::submit);
+                long group = System.nanoTime() - start;
+                System.out.printf("group commit:         %,d transactions in %d ms%n", threads * perThread, group / 1_000_000);
+                System.out.println(committer.getStats());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private interface Committer {
+        CompletableFuture<?> commit(NoteTransaction transaction) throws IOException;
+    }
+
+    private static NoteManager seed(int noteCount) {
+        NoteManager noteManager = new NoteManager();
+        for (int i = 0; i < noteCount; i++) {
+            noteManager.createNote("Note " + i, "Initial body of note " + i);
+        }
+        return noteManager;
+    }
+
+    private static void run(int threads, int perThread, int noteCount, Committer committer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            done.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    String id = String.valueOf(1 + (thread * perThread + i) % noteCount);
+                    // Each script call waits for its commit, as a synchronous caller would
+                    committer.commit(new NoteTransaction().update(id, "Note " + id, "Edited by " + thread)).get();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+}
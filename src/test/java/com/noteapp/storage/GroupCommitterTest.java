@@ -0,0 +1,127 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.model.NoteTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class GroupCommitterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorage storage;
+    private NoteManager noteManager;
+    private GroupCommitter committer;
+
+    @BeforeEach
+    void setUp() {
+        storage = new FileStorage(tempDir.toString());
+        noteManager = new NoteManager();
+        committer = new GroupCommitter(storage, noteManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        committer.close();
+    }
+
+    @Test
+    void testConcurrentTransactionsShareWrites() throws Exception {
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            done.add(executor.submit(() -> {
+                List<CompletableFuture<List<Note>>> commits = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    commits.add(committer.submit(new NoteTransaction()
+                            .create("Note " + thread + "-" + i, "body")));
+                }
+                for (CompletableFuture<List<Note>> commit : commits) {
+                    assertEquals(1, commit.get().size());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        GroupCommitStats stats = committer.getStats();
+        assertEquals(threads * perThread, stats.getTransactions());
+        assertTrue(stats.getBatches() < threads * perThread, stats.toString());
+        assertTrue(stats.getLatencyMillis(99) >= stats.getLatencyMillis(50));
+        assertEquals(threads * perThread, new FileStorage(tempDir.toString()).loadNotes().size());
+    }
+
+    @Test
+    void testInvalidTransactionIsRejectedAlone() throws Exception {
+        CompletableFuture<List<Note>> valid = committer.submit(new NoteTransaction().create("Valid", "ok"));
+        CompletableFuture<List<Note>> invalid = committer.submit(new NoteTransaction()
+                .create("Also created?", "no")
+                .delete("missing"));
+
+        assertEquals("Valid", valid.get().get(0).getTitle());
+        ExecutionException e = assertThrows(ExecutionException.class, invalid::get);
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        committer.close();
+
+        List<Note> stored = new FileStorage(tempDir.toString()).loadNotes();
+        assertEquals(1, stored.size());
+        assertEquals("Valid", stored.get(0).getTitle());
+        assertEquals(1, committer.getStats().getRejected());
+    }
+
+    @Test
+    void testFailedWriteReportsAppliedTransactions() throws Exception {
+        // A directory where the temporary notes file goes makes the write fail
+        Path blocker = Files.createDirectory(tempDir.resolve("notes.json.tmp"));
+        CompletableFuture<List<Note>> failed = committer.submit(new NoteTransaction().create("Kept", ""));
+
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(e.getCause() instanceof GroupCommitter.NotDurableException);
+        Note created = ((GroupCommitter.NotDurableException) e.getCause()).getCreated().get(0);
+        assertEquals(created.getId(), noteManager.getAllNotes().get(0).getId());
+
+        Files.delete(blocker);
+        committer.submit(new NoteTransaction().updateCategory(created.getId(), "Work")).get();
+        List<Note> stored = new FileStorage(tempDir.toString()).loadNotes();
+        assertEquals(1, stored.size());
+        assertEquals("Kept", stored.get(0).getTitle());
+        assertEquals("Work", stored.get(0).getCategory());
+    }
+
+    @Test
+    void testCloseCommitsQueuedTransactions() throws Exception {
+        List<CompletableFuture<List<Note>>> commits = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            commits.add(committer.submit(new NoteTransaction().create("Note " + i, "")));
+        }
+        committer.close();
+
+        for (CompletableFuture<List<Note>> commit : commits) {
+            assertTrue(commit.isDone() && !commit.isCompletedExceptionally());
+        }
+        assertThrows(IllegalStateException.class, () -> committer.submit(new NoteTransaction()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.noteapp.storage;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of reading and writing notes.json with {@link NoteCodec} and with the
+ * databind {@code ObjectMapper} FileStorage used before. Not a unit test; run manually
+ * with the test classpath:
+ *
+ * <pre>
+ *   java -cp target/classes:target/test-classes:&lt;test classpath&gt; com.noteapp.storage.NoteCodecBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteCodecBenchmark {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Param({"10000"})
+    public int notes;
+
+    private List<StoredNote> stored;
+    private byte[] json;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = mapper.writerWithDefaultPrettyPrinter();
+        reader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, StoredNote.class));
+        stored = NoteCodecTest.randomNotes(new Random(1), notes);
+        json = writer.writeValueAsBytes(stored);
+    }
+
+    @Benchmark
+    public byte[] writeDatabind() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        writer.writeValue(out, stored);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeCodec() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter());
+            NoteCodec.write(generator, stored);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<StoredNote> readDatabind() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public List<StoredNote> readCodec() throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return NoteCodec.read(parser);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NoteCodecBenchmark.class.getName()).build()).run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.noteapp.storage;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+class NoteCodecTest {
+    /** The mapper FileStorage used before the codec */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    void testWritesWhatDatabindWrites() throws IOException {
+        List<StoredNote> notes = randomNotes(new Random(5), 500);
+        notes.add(new StoredNote());
+        notes.add(note("wide years", LocalDateTime.of(12345, 6, 7, 8, 9), LocalDateTime.of(-5, 1, 1, 0, 0, 0, 1)));
+
+        assertEquals(new String(databind(notes), StandardCharsets.UTF_8), new String(encode(notes), StandardCharsets.UTF_8));
+        assertArrayEquals(databind(new ArrayList<>()), encode(new ArrayList<>()));
+    }
+
+    @Test
+    void testReadsWhatDatabindReads() throws IOException {
+        List<StoredNote> notes = randomNotes(new Random(6), 500);
+        byte[] json = databind(notes);
+
+        List<StoredNote> decoded = decode(json);
+        CollectionType listType = MAPPER.getTypeFactory().constructCollectionType(List.class, StoredNote.class);
+        List<StoredNote> expected = MAPPER.readValue(json, listType);
+        // Equal if they write the same
+        assertArrayEquals(databind(expected), databind(decoded));
+        assertEquals(notes.size(), decoded.size());
+        assertNull(decode("null".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testTimestampForms() throws IOException {
+        String json = "[ {\"id\" : \"1\", \"creationDate\" : \"2024-02-03T04:05\", "
+                + "\"modificationDate\" : \"2024-02-03T04:05:06.7\", \"future\" : {\"a\" : [ 1 ]} } ]";
+        StoredNote note = decode(json.getBytes(StandardCharsets.UTF_8)).get(0);
+        assertEquals(LocalDateTime.of(2024, 2, 3, 4, 5), note.creationDate);
+        assertEquals(LocalDateTime.of(2024, 2, 3, 4, 5, 6, 700_000_000), note.modificationDate);
+
+        byte[] invalid = "[ {\"creationDate\" : \"2024-13-03T04:05:06\"} ]".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> decode(invalid));
+    }
+
+    static byte[] databind(List<StoredNote> notes) throws IOException {
+        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(notes);
+    }
+
+    static byte[] encode(List<StoredNote> notes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter());
+            NoteCodec.write(generator, notes);
+        }
+        return out.toByteArray();
+    }
+
+    static List<StoredNote> decode(byte[] json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return NoteCodec.read(parser);
+        }
+    }
+
+    static List<StoredNote> randomNotes(Random random, int count) {
+        String[] words = {"alpha", "beta", "\"quoted\"", "tab\there", "line\nbreak", "caf\u00e9", "\u65e5\u672c",
+                "emoji \uD83D\uDE00", "back\\slash", "\u0001control"};
+        List<StoredNote> notes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = random.nextInt(40); w > 0; w--) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            LocalDateTime created = LocalDateTime.of(2000 + random.nextInt(30), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                    random.nextBoolean() ? 0 : random.nextInt(1000) * (random.nextBoolean() ? 1_000_000 : 1_001));
+            StoredNote note = note("Note " + i + " " + words[random.nextInt(words.length)], created,
+                    random.nextInt(10) == 0 ? null : created.plusNanos(random.nextLong() & 0xFFFFFFFFFFFL));
+            note.category = random.nextBoolean() ? null : words[random.nextInt(3)];
+            note.pinned = random.nextInt(5) == 0;
+            note.archived = random.nextInt(5) == 0;
+            int tags = random.nextInt(4);
+            note.tags = tags == 0 ? (random.nextBoolean() ? null : Collections.emptyList())
+                    : Arrays.asList(Arrays.copyOf(words, tags));
+            if (random.nextInt(4) == 0) {
+                note.compressedContent = new StoredNote.Compressed();
+                note.compressedContent.codec = CompressedContent.CODEC;
+                note.compressedContent.dictionary = random.nextBoolean() ? null : "d" + random.nextInt(100);
+                note.compressedContent.length = text.length();
+                byte[] data = new byte[random.nextInt(100)];
+                random.nextBytes(data);
+                note.compressedContent.data = data;
+            } else {
+                note.content = text.toString();
+            }
+            notes.add(note);
+        }
+        return notes;
+    }
+
+    private static StoredNote note(String title, LocalDateTime created, LocalDateTime modified) {
+        StoredNote note = new StoredNote();
+        note.id = String.valueOf(title.hashCode());
+        note.title = title;
+        note.creationDate = created;
+        note.modificationDate = modified;
+        return note;
+    }
+}
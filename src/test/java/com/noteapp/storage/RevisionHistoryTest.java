@@ -0,0 +1,154 @@
+package com.noteapp.storage;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class RevisionHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RevisionHistory history;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        history = new RevisionHistory(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        history.close();
+    }
+
+    @Test
+    void testEveryRevisionCanBeRetrieved() throws IOException {
+        Note note = new Note("Plan", "first draft");
+        history.record(note);
+        note.setContent("second draft");
+        history.record(note);
+        note.setTitle("Final plan");
+        history.record(note);
+
+        List<Revision> revisions = history.getRevisions(note.getId());
+
+        assertEquals(3, revisions.size());
+        assertEquals("first draft", history.getContent(revisions.get(0)));
+        assertEquals("second draft", history.getContent(revisions.get(1)));
+        assertEquals("Final plan", revisions.get(2).getTitle());
+        assertEquals(3, revisions.get(2).getNumber());
+    }
+
+    @Test
+    void testUnchangedNoteIsNotRecordedAgain() throws IOException {
+        Note note = new Note("Plan", "same text");
+        history.record(note);
+        history.record(note);
+
+        assertEquals(1, history.getRevisions(note.getId()).size());
+    }
+
+    @Test
+    void testSmallEditStoresOnlyChangedChunks() throws IOException {
+        String body = randomText(new Random(3), 200_000);
+        Note note = new Note("Log", body);
+        history.record(note);
+        long before = history.getStoredBytes();
+
+        // Insert a sentence in the middle
+        note.setContent(body.substring(0, 100_000) + " an inserted sentence " + body.substring(100_000));
+        history.record(note);
+
+        long growth = history.getStoredBytes() - before;
+        assertTrue(growth < 3 * ContentChunker.MAX_CHUNK, "grew by " + growth);
+        assertEquals(note.getContent(), history.getContent(history.getRevisions(note.getId()).get(1)));
+        assertEquals(body, history.getContent(history.getRevisions(note.getId()).get(0)));
+    }
+
+    @Test
+    void testChunkBoundariesResynchronise() {
+        byte[] original = randomText(new Random(5), 50_000).getBytes(StandardCharsets.UTF_8);
+        byte[] edited = new byte[original.length + 1];
+        System.arraycopy(original, 0, edited, 1, original.length);
+        edited[0] = 'x';
+
+        List<byte[]> before = ContentChunker.split(original);
+        List<byte[]> after = ContentChunker.split(edited);
+
+        int shared = 0;
+        for (byte[] chunk : after) {
+            for (byte[] old : before) {
+                if (Arrays.equals(chunk, old)) {
+                    shared++;
+                    break;
+                }
+            }
+        }
+        assertTrue(shared >= before.size() - 2, shared + " of " + before.size());
+        for (byte[] chunk : after.subList(0, after.size() - 1)) {
+            assertTrue(chunk.length >= ContentChunker.MIN_CHUNK && chunk.length <= ContentChunker.MAX_CHUNK);
+        }
+    }
+
+    @Test
+    void testHistorySurvivesReopen() throws IOException {
+        FileStorage storage = new FileStorage(tempDir.resolve("store").toString());
+        NoteManager noteManager = new NoteManager();
+        Note note = noteManager.createNote("Recipe", "flour and water");
+        RevisionHistory attached = RevisionHistory.open(storage, noteManager);
+        noteManager.updateNote(Integer.parseInt(note.getId()), "Recipe", "flour, water and salt");
+        attached.close();
+
+        try (RevisionHistory reopened = RevisionHistory.open(storage, noteManager)) {
+            List<Revision> revisions = reopened.getRevisions(note.getId());
+            assertEquals(2, revisions.size());
+            assertEquals("flour and water", reopened.getContent(revisions.get(0)));
+            assertEquals("flour, water and salt", reopened.getContent(revisions.get(1)));
+        }
+    }
+
+    @Test
+    void testTornLogRecordIsDiscardedOnReopen() throws IOException {
+        Note note = new Note("Journal", "");
+        for (int i = 0; i < 500; i++) {
+            note.setContent("entry " + i);
+            history.record(note);
+        }
+        history.close();
+        Path log = tempDir.resolve("revisions.log");
+        long complete = Files.size(log);
+        Files.write(log, new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        history = new RevisionHistory(tempDir);
+
+        List<Revision> revisions = history.getRevisions(note.getId());
+        assertEquals(500, revisions.size());
+        assertEquals("entry 499", history.getContent(revisions.get(499)));
+        assertEquals(complete, Files.size(log));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            int word = 2 + random.nextInt(8);
+            for (int i = 0; i < word; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            sb.append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        return sb.toString();
+    }
+}
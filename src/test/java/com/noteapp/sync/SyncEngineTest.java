@@ -0,0 +1,228 @@
+package com.noteapp.sync;
+
+import com.noteapp.model.Note;
+import com.noteapp.model.NoteManager;
+import com.noteapp.storage.FileStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class SyncEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Store laptop;
+    private Store workstation;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        laptop = new Store(tempDir.resolve("laptop"));
+        workstation = new Store(tempDir.resolve("workstation"));
+    }
+
+    @Test
+    void testFirstSyncCopiesNotesBothWays() {
+        Note mine = laptop.notes.createNote("Laptop note", "written on the train");
+        Note theirs = new Note("Workstation note", "written at the desk");
+        workstation.notes.putNote(theirs);
+
+        SyncReport report = new SyncEngine(ConflictPolicy.LAST_WRITER_WINS).sync(laptop.node, workstation.node);
+
+        assertEquals(1, report.getNotesSent());
+        assertEquals(1, report.getNotesReceived());
+        assertEquals(contents(laptop.notes), contents(workstation.notes));
+        assertEquals("written on the train", contents(workstation.notes).get(mine.getId()));
+        assertEquals(laptop.node.getRootHash(), workstation.node.getRootHash());
+    }
+
+    @Test
+    void testFirstSyncQueuesNotesCreatedUnderTheSameId() {
+        Note mine = laptop.notes.createNote("Laptop note", "written on the train");
+        Note theirs = workstation.notes.createNote("Workstation note", "written at the desk");
+        assertEquals(mine.getId(), theirs.getId());
+        workstation.notes.updateNote(Integer.parseInt(theirs.getId()), "Workstation note", "edited at the desk");
+
+        SyncReport report = new SyncEngine(ConflictPolicy.LAST_WRITER_WINS).sync(laptop.node, workstation.node);
+
+        assertEquals(1, report.getConflicts());
+        assertEquals(0, report.getNotesSent() + report.getNotesReceived());
+        assertEquals("written on the train", contents(laptop.notes).get(mine.getId()));
+        assertEquals("edited at the desk", contents(workstation.notes).get(theirs.getId()));
+    }
+
+    @Test
+    void testNoteDeletedOnBothSidesIsNoConflict() throws InterruptedException {
+        Note note = laptop.notes.createNote("Shopping", "milk");
+        SyncEngine engine = new SyncEngine(ConflictPolicy.QUEUE);
+        engine.sync(laptop.node, workstation.node);
+
+        laptop.notes.removeNote(note.getId());
+        Thread.sleep(5);
+        workstation.notes.removeNote(note.getId());
+        assertNotEquals(laptop.node.getVersion(note.getId()), workstation.node.getVersion(note.getId()));
+        SyncReport report = engine.sync(laptop.node, workstation.node);
+
+        assertEquals(0, report.getConflicts());
+        assertEquals(laptop.node.getRootHash(), workstation.node.getRootHash());
+        assertEquals(1, engine.sync(laptop.node, workstation.node).getRoundTrips());
+    }
+
+    @Test
+    void testOnlyDifferingSubtreesAreExchanged() {
+        laptop.autosave = false;
+        for (int i = 0; i < 5000; i++) {
+            laptop.notes.createNote("Note " + i, "Body " + i);
+        }
+        laptop.autosave = true;
+        SyncEngine engine = new SyncEngine(ConflictPolicy.LAST_WRITER_WINS);
+        // Applying a batch saves once by itself
+        workstation.autosave = false;
+        engine.sync(laptop.node, workstation.node);
+        workstation.autosave = true;
+
+        Note edited = laptop.notes.getNotesView().get(1234);
+        laptop.notes.updateNote(Integer.parseInt(edited.getId()), "Edited", "New body");
+        SyncReport report = engine.sync(laptop.node, workstation.node);
+
+        assertEquals(1, report.getNotesSent());
+        assertEquals(0, report.getNotesReceived());
+        // One path down the tree: the root, then one node's children per level
+        assertEquals(1 + MerkleTree.DEPTH * MerkleTree.FANOUT, report.getNodesCompared());
+        assertTrue(report.getVersionsCompared() < 10, report.toString());
+        assertEquals("New body", contents(workstation.notes).get(edited.getId()));
+
+        SyncReport again = engine.sync(laptop.node, workstation.node);
+        assertEquals(1, again.getNodesCompared());
+        assertEquals(1, again.getRoundTrips());
+    }
+
+    @Test
+    void testDeletionsPropagate() {
+        Note note = laptop.notes.createNote("Shopping", "milk");
+        SyncEngine engine = new SyncEngine(ConflictPolicy.LAST_WRITER_WINS);
+        engine.sync(laptop.node, workstation.node);
+
+        workstation.notes.removeNote(note.getId());
+        SyncReport report = engine.sync(laptop.node, workstation.node);
+
+        assertEquals(1, report.getDeletionsReceived());
+        assertTrue(laptop.notes.getNotesView().isEmpty());
+        assertTrue(laptop.node.getVersion(note.getId()).isDeleted());
+    }
+
+    @Test
+    void testLastWriterWins() {
+        Note note = laptop.notes.createNote("Plan", "v1");
+        SyncEngine engine = new SyncEngine(ConflictPolicy.LAST_WRITER_WINS);
+        engine.sync(laptop.node, workstation.node);
+
+        int id = Integer.parseInt(note.getId());
+        laptop.notes.updateNote(id, "Plan", "laptop edit");
+        workstation.notes.updateNote(id, "Plan", "workstation edit, made later");
+        engine.sync(laptop.node, workstation.node);
+
+        assertEquals("workstation edit, made later", contents(laptop.notes).get(note.getId()));
+        assertEquals(contents(laptop.notes), contents(workstation.notes));
+    }
+
+    @Test
+    void testQueuedConflictWaitsForResolution() {
+        Note note = laptop.notes.createNote("Plan", "v1");
+        SyncEngine engine = new SyncEngine(ConflictPolicy.QUEUE);
+        engine.sync(laptop.node, workstation.node);
+
+        int id = Integer.parseInt(note.getId());
+        laptop.notes.updateNote(id, "Plan", "laptop edit");
+        workstation.notes.updateNote(id, "Plan", "workstation edit");
+        SyncReport report = engine.sync(laptop.node, workstation.node);
+
+        assertEquals(1, report.getConflicts());
+        assertEquals("laptop edit", contents(laptop.notes).get(note.getId()));
+        assertEquals("workstation edit", contents(workstation.notes).get(note.getId()));
+        assertEquals(0, engine.sync(laptop.node, workstation.node).getConflicts());
+
+        SyncConflict conflict = laptop.node.getConflicts().get(0);
+        assertEquals("workstation edit", conflict.getRemote().getContent());
+        laptop.node.resolve(conflict, false);
+        engine.sync(laptop.node, workstation.node);
+
+        assertTrue(laptop.node.getConflicts().isEmpty());
+        assertEquals("workstation edit", contents(laptop.notes).get(note.getId()));
+        assertEquals(contents(laptop.notes), contents(workstation.notes));
+    }
+
+    @Test
+    void testSyncStateSurvivesReopen() throws IOException {
+        laptop.notes.createNote("Kept", "stays");
+        Note removed = laptop.notes.createNote("Removed", "goes");
+        SyncEngine engine = new SyncEngine(ConflictPolicy.QUEUE);
+        engine.sync(laptop.node, workstation.node);
+        laptop.notes.removeNote(removed.getId());
+        engine.sync(laptop.node, workstation.node);
+
+        Store reopenedLaptop = new Store(tempDir.resolve("laptop"));
+        Store reopenedWorkstation = new Store(tempDir.resolve("workstation"));
+
+        assertEquals(reopenedLaptop.node.getRootHash(), reopenedWorkstation.node.getRootHash());
+        assertTrue(reopenedWorkstation.node.getVersion(removed.getId()).isDeleted());
+        SyncReport report = engine.sync(reopenedLaptop.node, reopenedWorkstation.node);
+        assertEquals(1, report.getRoundTrips());
+    }
+
+    private static Map<String, String> contents(NoteManager notes) {
+        Map<String, String> contents = new HashMap<>();
+        for (Note note : notes.getNotesView()) {
+            contents.put(note.getId(), note.getContent());
+        }
+        return contents;
+    }
+
+    /**
+     * A store directory with its manager and sync node, saving after every change
+     */
+    private static class Store {
+        final FileStorage storage;
+        final NoteManager notes = new NoteManager();
+        final SyncNode node;
+        boolean autosave = true;
+
+        Store(Path directory) throws IOException {
+            storage = new FileStorage(directory.toString());
+            List<Note> loaded = storage.loadNotes();
+            for (Note note : loaded) {
+                notes.putNote(note);
+            }
+            node = SyncNode.open(storage, notes);
+            notes.addChangeListener(new com.noteapp.model.NoteChangeListener() {
+                @Override
+                public void noteAdded(Note note) {
+                    save();
+                }
+
+                @Override
+                public void noteUpdated(Note previous, Note current) {
+                    save();
+                }
+
+                @Override
+                public void noteRemoved(Note note) {
+                    save();
+                }
+            });
+        }
+
+        void save() {
+            if (autosave) {
+                storage.saveNotes(notes.getAllNotes());
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.noteapp.ui;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.swing.JTextArea;
+import javax.swing.UIManager;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.GapContent;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.UndoManager;
+import java.awt.Font;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class ChunkedDocumentTest {
+
+    @Test
+    void testContentMatchesGapContent() throws BadLocationException {
+        Random random = new Random(3);
+        ChunkedContent chunked = new ChunkedContent();
+        GapContent gap = new GapContent();
+        List<Position> chunkedPositions = new ArrayList<>();
+        List<Position> gapPositions = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            int length = gap.length();
+            int op = random.nextInt(10);
+            if (op < 5) {
+                int where = random.nextInt(length);
+                // Mostly keystrokes, sometimes pastes larger than a chunk
+                String text = randomText(random, random.nextInt(20) == 0 ? 40_000 : 1 + random.nextInt(20));
+                chunked.insertString(where, text);
+                gap.insertString(where, text);
+            } else if (op < 8 && length > 1) {
+                int where = random.nextInt(length - 1);
+                int count = random.nextInt(Math.min(length - 1 - where, random.nextInt(10) == 0 ? 50_000 : 30) + 1);
+                chunked.remove(where, count);
+                gap.remove(where, count);
+            } else {
+                int offset = random.nextInt(length + 1);
+                chunkedPositions.add(chunked.createPosition(offset));
+                gapPositions.add(gap.createPosition(offset));
+            }
+            assertEquals(gap.length(), chunked.length());
+            for (int i = 0; i < gapPositions.size(); i++) {
+                assertEquals(gapPositions.get(i).getOffset(), chunkedPositions.get(i).getOffset(),
+                        "position " + i + " after step " + step);
+            }
+        }
+        assertEquals(gap.getString(0, gap.length()), chunked.getString(0, chunked.length()));
+        assertTrue(chunked.chunkCount() > 1);
+
+        Segment segment = new Segment();
+        int where = chunked.length() / 3;
+        chunked.getChars(where, 1000, segment);
+        assertEquals(gap.getString(where, 1000), segment.toString());
+    }
+
+    @Test
+    void testDocumentLinesAndUndo() throws BadLocationException {
+        ChunkedDocument document = new ChunkedDocument();
+        UndoManager undo = new UndoManager();
+        document.addUndoableEditListener(undo);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+        document.insertString(0, text.toString(), null);
+        document.insertString(document.getLength(), "last", null);
+
+        Element root = document.getDefaultRootElement();
+        assertEquals(5001, root.getElementCount());
+        Element line = root.getElement(4321);
+        assertEquals("line 4321\n", document.getText(line.getStartOffset(),
+                line.getEndOffset() - line.getStartOffset()));
+
+        document.remove(0, text.length());
+        assertEquals("last", document.getText(0, document.getLength()));
+        undo.undo();
+        assertEquals(text + "last", document.getText(0, document.getLength()));
+    }
+
+    @Test
+    void testWrapsLikeJTextArea() throws BadLocationException {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(9);
+        for (int paragraph = 0; paragraph < 20; paragraph++) {
+            text.append(randomText(random, 200 + random.nextInt(3000))).append('\n');
+        }
+        JTextArea plain = wrappedArea(new JTextArea(), text.toString());
+        JTextArea chunked = wrappedArea(new ChunkedTextArea(), text.toString());
+        // Rows not yet looked at are estimated
+        assertEquals(plain.getPreferredSize().height, chunked.getPreferredSize().height,
+                plain.getPreferredSize().height * 0.1);
+        wrapAll(chunked);
+        assertSameLayout(plain, chunked, random);
+
+        // Edit in the middle of a long paragraph and compare the rows after it
+        int where = text.length() / 2;
+        for (int i = 0; i < 30; i++) {
+            plain.getDocument().insertString(where + i, i % 7 == 0 ? " " : "x", null);
+            chunked.getDocument().insertString(where + i, i % 7 == 0 ? " " : "x", null);
+        }
+        plain.getDocument().remove(where - 100, 60);
+        chunked.getDocument().remove(where - 100, 60);
+        layOut(plain);
+        wrapAll(chunked);
+        assertSameLayout(plain, chunked, random);
+    }
+
+    @Test
+    void testKeepsLookAndFeelDelegateWithoutWrap() {
+        ChunkedTextArea area = new ChunkedTextArea();
+        assertSame(UIManager.getUI(area).getClass(), area.getUI().getClass());
+
+        area.setLineWrap(true);
+        area.setSize(400, 100);
+        assertTrue(area.getUI().getRootView(area).getView(0) instanceof LazyWrappedView);
+
+        area.setLineWrap(false);
+        assertSame(UIManager.getUI(area).getClass(), area.getUI().getClass());
+    }
+
+    /**
+     * Visits the end of every line, so that no row height is an estimate any more
+     */
+    private static void wrapAll(JTextArea area) throws BadLocationException {
+        Element root = area.getDocument().getDefaultRootElement();
+        for (int i = 0; i < root.getElementCount(); i++) {
+            area.modelToView2D(root.getElement(i).getEndOffset() - 1);
+        }
+        layOut(area);
+    }
+
+    private static JTextArea wrappedArea(JTextArea area, String text) {
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        area.setLineWrap(true);
+        area.setWrapStyleWord(true);
+        area.setText(text);
+        layOut(area);
+        return area;
+    }
+
+    private static void layOut(JTextArea area) {
+        area.setSize(400, 1);
+        area.setSize(400, area.getPreferredSize().height);
+    }
+
+    private static void assertSameLayout(JTextArea expected, JTextArea actual, Random random)
+            throws BadLocationException {
+        assertEquals(expected.getPreferredSize().height, actual.getPreferredSize().height);
+        int length = expected.getDocument().getLength();
+        for (int i = 0; i < 300; i++) {
+            int offset = random.nextInt(length + 1);
+            Rectangle2D want = expected.modelToView2D(offset);
+            Rectangle2D got = actual.modelToView2D(offset);
+            assertEquals(want.getY(), got.getY(), 0.5, "row of offset " + offset);
+            assertEquals(want.getX(), got.getX(), 1.0, "column of offset " + offset);
+            Rectangle bounds = want.getBounds();
+            assertEquals(expected.viewToModel2D(bounds.getLocation()), actual.viewToModel2D(bounds.getLocation()),
+                    "offset at " + bounds.getLocation());
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            int word = 1 + random.nextInt(10);
+            for (int i = 0; i < word; i++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            text.append(random.nextInt(30) == 0 ? '\n' : ' ');
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
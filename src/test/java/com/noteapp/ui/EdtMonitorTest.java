@@ -0,0 +1,109 @@
+package com.noteapp.ui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.swing.JButton;
+import java.awt.EventQueue;
+import java.awt.SecondaryLoop;
+import java.awt.Toolkit;
+import java.awt.event.MouseEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class EdtMonitorTest {
+    private EdtMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = EdtMonitor.install(50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.uninstall();
+    }
+
+    @Test
+    void testSlowEventIsSampled() throws Exception {
+        EventQueue.invokeAndWait(() -> spin(250));
+        flush();
+
+        HandlerLatency latency = find(monitor.getHandlerLatencies(), "invokeLater EdtMonitorTest lambda");
+        assertTrue(latency.getMaxMillis() >= 250);
+        assertEquals(1, latency.getHistogram()[8], "one event of 128-256 ms");
+
+        List<SlowEvent> slow = monitor.getSlowEvents();
+        assertEquals(1, slow.size());
+        SlowEvent event = slow.get(0);
+        assertTrue(event.getMillis() >= 250);
+        assertFalse(event.getSamples().isEmpty());
+        assertTrue(event.getSamples().size() <= EdtMonitor.MAX_SAMPLES);
+        assertEquals("spin", event.getCulprit().getMethodName());
+    }
+
+    @Test
+    void testNestedLoopWaitIsNotCounted() throws Exception {
+        EventQueue.invokeAndWait(() -> {
+            // Like a modal dialog: the handler waits in a nested event loop
+            SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+            new Thread(() -> {
+                spin(300);
+                loop.exit();
+            }).start();
+            loop.enter();
+        });
+        flush();
+
+        assertTrue(monitor.getSlowEvents().isEmpty(), monitor.getSlowEvents().toString());
+        HandlerLatency latency = find(monitor.getHandlerLatencies(), "invokeLater EdtMonitorTest lambda");
+        assertTrue(latency.getMaxMillis() < 50);
+    }
+
+    @Test
+    void testDescribeAndDump(@TempDir Path tempDir) throws Exception {
+        JButton button = new JButton("Save");
+        MouseEvent click = new MouseEvent(button, MouseEvent.MOUSE_RELEASED, 0, 0, 5, 5, 1, false);
+        assertEquals("MOUSE_RELEASED JButton \"Save\"", EdtMonitor.describe(click));
+
+        EventQueue.invokeAndWait(() -> spin(80));
+        flush();
+        Path file = tempDir.resolve("latency.txt");
+        monitor.dump(file);
+        String report = new String(Files.readAllBytes(file));
+        assertTrue(report.contains("invokeLater EdtMonitorTest lambda"));
+        assertTrue(report.contains("at " + EdtMonitorTest.class.getName() + ".spin"));
+
+        monitor.reset();
+        assertTrue(monitor.getHandlerLatencies().isEmpty());
+    }
+
+    /**
+     * Waits until the events dispatched so far are recorded: invokeAndWait returns before
+     * the monitor sees the end of the event
+     */
+    private static void flush() throws Exception {
+        EventQueue.invokeAndWait(() -> { });
+    }
+
+    private static HandlerLatency find(List<HandlerLatency> latencies, String handler) {
+        for (HandlerLatency latency : latencies) {
+            if (latency.getHandler().equals(handler)) {
+                return latency;
+            }
+        }
+        fail("No latencies for " + handler + " in " + latencies);
+        return null;
+    }
+
+    private static void spin(long millis) {
+        long end = System.nanoTime() + millis * 1_000_000;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.noteapp.ui;
+
+import javax.swing.JTextArea;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Reports the latency of a keystroke in the middle of notes of increasing size, for a
+ * plain {@link JTextArea} and for {@link ChunkedTextArea}, both with line and word wrap
+ * on. A keystroke is an insert, the caret lookup and a repaint of a viewport around it.
+ * Not a unit test; run manually:
+ *
+ * <pre>
+ *   java -Djava.awt.headless=true -cp target/classes:target/test-classes com.noteapp.ui.TypingBenchmark
+ * </pre>
+ */
+public class TypingBenchmark {
+    private static final int[] SIZES = {50_000, 500_000, 5_000_000};
+    private static final int KEYSTROKES = 200;
+    private static final int VIEWPORT_WIDTH = 600;
+    private static final int VIEWPORT_HEIGHT = 400;
+
+    public static void main(String[] args) throws BadLocationException {
+        for (int size : SIZES) {
+            String text = text(size, new Random(size));
+            for (int i = 0; i < 2; i++) {
+                report("JTextArea", new JTextArea(), text);
+                report("ChunkedTextArea", new ChunkedTextArea(), text);
+            }
+        }
+    }
+
+    private static void report(String name, JTextArea area, String text) throws BadLocationException {
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        area.setLineWrap(true);
+        area.setWrapStyleWord(true);
+        long t0 = System.nanoTime();
+        area.setText(text);
+        area.setSize(VIEWPORT_WIDTH, 1);
+        area.setSize(VIEWPORT_WIDTH, area.getPreferredSize().height);
+        long t1 = System.nanoTime();
+
+        Document document = area.getDocument();
+        BufferedImage image = new BufferedImage(VIEWPORT_WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int where = text.length() / 2;
+        long worst = 0;
+        long total = 0;
+        for (int i = 0; i < KEYSTROKES; i++) {
+            long start = System.nanoTime();
+            document.insertString(where, i % 6 == 0 ? " " : "a", null);
+            where++;
+            int y = area.modelToView2D(where).getBounds().y;
+            // Lay out again as the next paint would, then paint only the viewport
+            area.setSize(VIEWPORT_WIDTH, area.getPreferredSize().height);
+            Graphics2D g = image.createGraphics();
+            g.translate(0, -Math.max(0, y - VIEWPORT_HEIGHT / 2));
+            g.setClip(0, Math.max(0, y - VIEWPORT_HEIGHT / 2), VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+            area.paint(g);
+            g.dispose();
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            worst = Math.max(worst, elapsed);
+        }
+        System.out.printf("%-16s %,10d chars  load %6d ms  keystroke mean %8.3f ms  worst %8.3f ms%n",
+                name, text.length(), (t1 - t0) / 1_000_000,
+                total / (double) KEYSTROKES / 1e6, worst / 1e6);
+    }
+
+    /**
+     * Long paragraphs of random words, the worst case for re-wrapping
+     */
+    private static String text(int length, Random random) {
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            int word = 1 + random.nextInt(10);
+            for (int i = 0; i < word; i++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            text.append(random.nextInt(8000) == 0 ? '\n' : ' ');
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}